@@ -7,18 +7,37 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
-import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.model.SnapshotChange;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.RecyclerView;
 
-public class AuthenticatorAdapter extends RecyclerView.Adapter<AuthenticatorViewHolder> {
+/**
+ * Shows the snapshots of the nearest authenticators, followed by an item that shows more of them
+ * if not all authenticators are shown.
+ */
+public class AuthenticatorAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private static final int VIEW_TYPE_AUTHENTICATOR = 0;
+
+    private static final int VIEW_TYPE_HIDDEN_AUTHENTICATORS = 1;
+
+    /**
+     * The stable ID of the hidden authenticators item, which is unlikely to be derived from an
+     * authenticator UUID.
+     */
+    private static final long HIDDEN_AUTHENTICATORS_ID = Long.MIN_VALUE;
 
     @NonNull
-    private List<SeamlessAuthenticator> authenticators;
+    private List<AuthenticatorSnapshot> snapshots;
+
+    private int hiddenCount;
 
     @NonNull
     private final AuthenticatorListActivity parentActivity;
@@ -26,29 +45,43 @@ public class AuthenticatorAdapter extends RecyclerView.Adapter<AuthenticatorView
     @NonNull
     private final View.OnClickListener viewHolderClickListener;
 
+    @NonNull
+    private final View.OnClickListener showMoreClickListener;
+
     private final boolean useDetailFragment;
 
     public AuthenticatorAdapter(@NonNull AuthenticatorListActivity parentActivity, boolean useDetailFragment) {
-        this.authenticators = new ArrayList<>();
+        this.snapshots = new ArrayList<>();
         this.parentActivity = parentActivity;
         this.useDetailFragment = useDetailFragment;
         this.viewHolderClickListener = createViewHolderClickListener();
+        this.showMoreClickListener = view -> parentActivity.showMoreAuthenticators();
+        setHasStableIds(true);
     }
 
     private View.OnClickListener createViewHolderClickListener() {
         return view -> {
-            SeamlessAuthenticator authenticator = (SeamlessAuthenticator) view.getTag();
+            AuthenticatorSnapshot snapshot = (AuthenticatorSnapshot) view.getTag();
             if (useDetailFragment) {
-                showInDetailFragment(authenticator);
+                showInDetailFragment(snapshot);
             } else {
-                showInDetailActivity(authenticator, view.getContext());
+                showInDetailActivity(snapshot, view.getContext());
             }
         };
     }
 
-    private void showInDetailFragment(@NonNull SeamlessAuthenticator authenticator) {
+    /**
+     * Switches the authenticator of the current detail fragment, if there is one, so that its
+     * subscriptions don't need to be recreated.
+     */
+    private void showInDetailFragment(@NonNull AuthenticatorSnapshot snapshot) {
+        Fragment currentFragment = parentActivity.getSupportFragmentManager().findFragmentById(R.id.authenticator_detail_container);
+        if (currentFragment instanceof AuthenticatorDetailFragment) {
+            ((AuthenticatorDetailFragment) currentFragment).selectAuthenticator(snapshot.getId());
+            return;
+        }
         Bundle arguments = new Bundle();
-        arguments.putString(AuthenticatorDetailFragment.KEY_AUTHENTICATOR_ID, authenticator.getId().blockingGet().toString());
+        arguments.putString(AuthenticatorDetailFragment.KEY_AUTHENTICATOR_ID, snapshot.getId().toString());
         AuthenticatorDetailFragment fragment = new AuthenticatorDetailFragment();
         fragment.setArguments(arguments);
         parentActivity.getSupportFragmentManager().beginTransaction()
@@ -56,35 +89,122 @@ public class AuthenticatorAdapter extends RecyclerView.Adapter<AuthenticatorView
                 .commit();
     }
 
-    private void showInDetailActivity(@NonNull SeamlessAuthenticator authenticator, @NonNull Context context) {
+    private void showInDetailActivity(@NonNull AuthenticatorSnapshot snapshot, @NonNull Context context) {
         Intent intent = new Intent(context, AuthenticatorDetailActivity.class);
-        intent.putExtra(AuthenticatorDetailFragment.KEY_AUTHENTICATOR_ID, authenticator.getId().blockingGet().toString());
+        intent.putExtra(AuthenticatorDetailFragment.KEY_AUTHENTICATOR_ID, snapshot.getId().toString());
         context.startActivity(intent);
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        return position < snapshots.size() ? VIEW_TYPE_AUTHENTICATOR : VIEW_TYPE_HIDDEN_AUTHENTICATORS;
+    }
+
     @NonNull
     @Override
-    public AuthenticatorViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         LayoutInflater layoutInflater = LayoutInflater.from(parent.getContext());
+        if (viewType == VIEW_TYPE_HIDDEN_AUTHENTICATORS) {
+            View view = layoutInflater.inflate(R.layout.authenticator_list_footer, parent, false);
+            return new HiddenAuthenticatorsViewHolder(view, showMoreClickListener);
+        }
         View view = layoutInflater.inflate(R.layout.authenticator_list_content, parent, false);
+        view.setOnClickListener(viewHolderClickListener);
         return new AuthenticatorViewHolder(view);
     }
 
     @Override
-    public void onBindViewHolder(@NonNull AuthenticatorViewHolder holder, int position) {
-        SeamlessAuthenticator authenticator = authenticators.get(position);
-        holder.renderAuthenticator(authenticator);
-        holder.itemView.setTag(authenticator);
-        holder.itemView.setOnClickListener(viewHolderClickListener);
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        if (holder instanceof HiddenAuthenticatorsViewHolder) {
+            ((HiddenAuthenticatorsViewHolder) holder).renderHiddenCount(hiddenCount);
+            return;
+        }
+        AuthenticatorSnapshot snapshot = snapshots.get(position);
+        ((AuthenticatorViewHolder) holder).renderAuthenticator(snapshot);
+        holder.itemView.setTag(snapshot);
+    }
+
+    /**
+     * Only updates the views of the fields that changed, if the item has been changed with {@link
+     * SnapshotChange} payloads. Falls back to a full bind otherwise.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty() || !(holder instanceof AuthenticatorViewHolder)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        SnapshotChange change = SnapshotChange.NONE;
+        for (int payloadIndex = 0; payloadIndex < payloads.size(); payloadIndex++) {
+            Object payload = payloads.get(payloadIndex);
+            if (!(payload instanceof SnapshotChange)) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+            change = change.combine((SnapshotChange) payload);
+        }
+        AuthenticatorSnapshot snapshot = snapshots.get(position);
+        ((AuthenticatorViewHolder) holder).renderChange(snapshot, change);
+        holder.itemView.setTag(snapshot);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        if (position == snapshots.size()) {
+            return HIDDEN_AUTHENTICATORS_ID;
+        }
+        return snapshots.get(position).getStableId();
     }
 
     @Override
     public int getItemCount() {
-        return authenticators.size();
+        return snapshots.size() + (hiddenCount > 0 ? 1 : 0);
+    }
+
+    @NonNull
+    public List<AuthenticatorSnapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    public int getHiddenCount() {
+        return hiddenCount;
+    }
+
+    /**
+     * Replaces the currently displayed snapshots and notifies only about the items that actually
+     * changed or moved. Must be called on the main thread.
+     */
+    public void applyUpdate(@NonNull AuthenticatorListUpdate update) {
+        boolean traced = Tracing.beginSection("apply list update");
+        try {
+            dispatchUpdate(update);
+        } finally {
+            if (traced) {
+                Tracing.endSection();
+            }
+        }
     }
 
-    public void setAuthenticators(@NonNull List<SeamlessAuthenticator> authenticators) {
-        this.authenticators = authenticators;
+    private void dispatchUpdate(@NonNull AuthenticatorListUpdate update) {
+        int previousHiddenCount = hiddenCount;
+        this.snapshots = update.getSnapshots();
+        if (update.getDiffResult() == null) {
+            this.hiddenCount = update.getHiddenCount();
+            notifyDataSetChanged();
+            return;
+        }
+        // the hidden authenticators item follows the snapshots, so dispatched updates of the
+        // snapshots don't affect it
+        update.getDiffResult().dispatchUpdatesTo(this);
+        this.hiddenCount = update.getHiddenCount();
+        int hiddenAuthenticatorsPosition = snapshots.size();
+        if (previousHiddenCount == 0 && hiddenCount > 0) {
+            notifyItemInserted(hiddenAuthenticatorsPosition);
+        } else if (previousHiddenCount > 0 && hiddenCount == 0) {
+            notifyItemRemoved(hiddenAuthenticatorsPosition);
+        } else if (previousHiddenCount != hiddenCount) {
+            notifyItemChanged(hiddenAuthenticatorsPosition);
+        }
     }
 
 }
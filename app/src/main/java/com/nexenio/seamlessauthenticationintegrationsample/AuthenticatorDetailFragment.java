@@ -3,39 +3,48 @@ package com.nexenio.seamlessauthenticationintegrationsample;
 import com.google.android.material.appbar.CollapsingToolbarLayout;
 import com.google.android.material.button.MaterialButton;
 
-import android.content.Context;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.AdapterView;
 import android.widget.TextView;
 
-import com.nexenio.seamlessauthentication.AuthenticationProperties;
 import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
-import com.nexenio.seamlessauthentication.SeamlessAuthenticatorDetector;
 import com.nexenio.seamlessauthentication.distance.DistanceProvider;
+import com.nexenio.seamlessauthenticationintegrationsample.anticipation.AnticipationManager;
+import com.nexenio.seamlessauthenticationintegrationsample.authentication.AuthenticationCooldownException;
+import com.nexenio.seamlessauthenticationintegrationsample.authentication.AuthenticationCoordinator;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyMetrics;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyStage;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.registry.AuthenticatorRegistry;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.UiUpdateScheduler;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessModeManager;
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessTrigger;
 
 import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.widget.AppCompatSpinner;
 import androidx.appcompat.widget.SwitchCompat;
 import androidx.fragment.app.Fragment;
-import io.reactivex.Flowable;
-import io.reactivex.Single;
-import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.schedulers.Schedulers;
 import timber.log.Timber;
 
 /**
  * A fragment representing a single Authenticator detail screen. This fragment is either contained
  * in a {@link AuthenticatorListActivity} in two-pane mode (on tablets) or a {@link
  * AuthenticatorDetailActivity} on handsets.
+ *
+ * The displayed snapshots are taken from the {@link AuthenticatorSnapshotRepository}, which is
+ * shared with the list. In two-pane mode, selecting another authenticator switches the fragment to
+ * it instead of replacing the fragment.
  */
 public class AuthenticatorDetailFragment extends Fragment {
 
@@ -46,17 +55,32 @@ public class AuthenticatorDetailFragment extends Fragment {
 
     private UUID authenticatorId;
 
-    private SeamlessAuthenticatorDetector authenticatorDetector;
+    private AuthenticatorRegistry authenticatorRegistry;
+    private AuthenticatorSnapshotRepository snapshotRepository;
     private Disposable authenticatorUpdateDisposable;
 
-    private SeamlessAuthenticator authenticator;
-    private Disposable authenticationDisposable;
-    private Disposable anticipateAuthenticationDisposable;
+    private AuthenticationCoordinator authenticationCoordinator;
 
-    private boolean seamlessAuthenticationEnabled = false;
-    private double rangeThreshold = 0.5;
+    /**
+     * The authentications requested by this fragment, cancelled when it gets destroyed.
+     */
+    private final CompositeDisposable authenticationDisposables = new CompositeDisposable();
+
+    private AnticipationManager anticipationManager;
+    private SeamlessModeManager seamlessModeManager;
+    private LatencyMetrics latencyMetrics;
+    private WorkloadSchedulers workloadSchedulers;
+    private UiUpdateScheduler uiUpdateScheduler;
+
+    /**
+     * Time in nanoseconds when the seamless trigger fired last, or 0 if the authentication was not
+     * triggered seamlessly.
+     */
+    private volatile long seamlessTriggerTimestamp;
 
-    private AuthenticationProperties authenticationProperties;
+    private volatile boolean seamlessAuthenticationEnabled = false;
+    private final SeamlessTrigger seamlessTrigger = new SeamlessTrigger(0.5);
+    private Disposable seamlessTriggerDisposable;
 
     private CollapsingToolbarLayout appBarLayout;
     private TextView nameTextView;
@@ -78,7 +102,14 @@ public class AuthenticatorDetailFragment extends Fragment {
         super.onCreate(savedInstanceState);
 
         SampleApplication application = (SampleApplication) getActivity().getApplication();
-        authenticatorDetector = application.getAuthenticatorDetector();
+        authenticatorRegistry = application.getAuthenticatorRegistry();
+        anticipationManager = application.getAnticipationManager();
+        seamlessModeManager = application.getSeamlessModeManager();
+        latencyMetrics = application.getLatencyMetrics();
+        authenticationCoordinator = application.getAuthenticationCoordinator();
+        snapshotRepository = application.getSnapshotRepository();
+        workloadSchedulers = application.getWorkloadSchedulers();
+        uiUpdateScheduler = application.getUiUpdateScheduler();
 
         if (getArguments().containsKey(KEY_AUTHENTICATOR_ID)) {
             String idArgument = getArguments().getString(KEY_AUTHENTICATOR_ID);
@@ -86,26 +117,18 @@ public class AuthenticatorDetailFragment extends Fragment {
             Timber.d("Authenticator ID: %s", authenticatorId);
         }
 
-        authenticationProperties = new AuthenticationProperties() {
-
-            private UUID userId = UUID.randomUUID();
-            private UUID deviceId = UUID.randomUUID();
-
-            @Override
-            public Single<String> getUserName() {
-                return Single.just("Demo User");
-            }
-
-            @Override
-            public Single<UUID> getUserId() {
-                return Single.just(userId);
-            }
+        anticipationManager.pin(authenticatorId);
+        startUpdatingAuthenticator();
+        startSeamlessTrigger();
+    }
 
-            @Override
-            public Single<UUID> getDeviceId() {
-                return Single.just(deviceId);
-            }
-        };
+    @Override
+    public void onDestroy() {
+        stopSeamlessTrigger();
+        stopUpdatingAuthenticator();
+        authenticationDisposables.clear();
+        anticipationManager.unpin(authenticatorId);
+        super.onDestroy();
     }
 
     @Override
@@ -120,15 +143,19 @@ public class AuthenticatorDetailFragment extends Fragment {
         rangeSpinner = rootView.findViewById(R.id.rangeSpinner);
         authenticateButton = rootView.findViewById(R.id.authenticateButton);
 
-        authenticateButton.setOnClickListener(v -> authenticate(authenticator));
+        authenticateButton.setOnClickListener(v -> authenticate());
 
         seamlessAuthenticationSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
             seamlessAuthenticationEnabled = isChecked;
+            if (isChecked) {
+                seamlessTrigger.reset();
+            }
         });
 
         rangeSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                double rangeThreshold;
                 switch (position) {
                     case 0:
                         rangeThreshold = 0.5;
@@ -145,7 +172,11 @@ public class AuthenticatorDetailFragment extends Fragment {
                     case 4:
                         rangeThreshold = 10;
                         break;
+                    default:
+                        return;
                 }
+                seamlessTrigger.setRangeThreshold(rangeThreshold);
+                seamlessModeManager.setRangeThreshold(authenticatorId, rangeThreshold);
             }
 
             @Override
@@ -157,55 +188,73 @@ public class AuthenticatorDetailFragment extends Fragment {
         return rootView;
     }
 
-    @Override
-    public void onAttach(@NonNull Context context) {
-        super.onAttach(context);
-        startUpdatingAuthenticator();
-    }
-
-    @Override
-    public void onDetach() {
+    /**
+     * Shows the specified authenticator instead of the current one, without recreating the
+     * fragment. Must be called on the main thread.
+     */
+    void selectAuthenticator(@NonNull UUID id) {
+        if (id.equals(authenticatorId)) {
+            return;
+        }
+        Timber.d("selectAuthenticator() called with: id = [%s]", id);
+        stopSeamlessTrigger();
         stopUpdatingAuthenticator();
-        super.onDetach();
+        anticipationManager.unpin(authenticatorId);
+
+        authenticatorId = id;
+        getArguments().putString(KEY_AUTHENTICATOR_ID, id.toString());
+        seamlessTriggerTimestamp = 0;
+        seamlessTrigger.reset();
+        showUnknownAuthenticator();
+
+        anticipationManager.pin(authenticatorId);
+        startUpdatingAuthenticator();
+        startSeamlessTrigger();
     }
 
-    private void anticipateAuthentication(@NonNull SeamlessAuthenticator authenticator) {
-        Timber.d("anticipateAuthentication() called");
-        if (anticipateAuthenticationDisposable != null && !anticipateAuthenticationDisposable.isDisposed()) {
+    private void authenticate() {
+        SeamlessAuthenticator authenticator = authenticatorRegistry.getAuthenticator(authenticatorId);
+        if (authenticator == null) {
+            Timber.w("Unable to authenticate, authenticator %s has not been detected", authenticatorId);
             return;
         }
-        anticipateAuthenticationDisposable = authenticator.anticipateAuthentication(authenticationProperties)
-                .subscribeOn(Schedulers.io())
-                .subscribe(
-                        () -> Timber.i("Authentication anticipation succeeded"),
-                        throwable -> Timber.w(throwable, "Authentication anticipation failed")
-                );
+        authenticate(authenticatorId, authenticator);
     }
 
-    private void authenticate(@NonNull SeamlessAuthenticator authenticator) {
-        Timber.d("authenticate() called");
-        if (authenticationDisposable != null && !authenticationDisposable.isDisposed()) {
-            return;
-        }
-        authenticationDisposable = authenticator.authenticate(authenticationProperties)
-                .subscribeOn(Schedulers.io())
+    /**
+     * Requests an authentication from the {@link AuthenticationCoordinator}, which joins an
+     * authentication that is already in flight.
+     */
+    private void authenticate(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        Timber.d("authenticate() called with: id = [%s]", id);
+        authenticationDisposables.add(authenticationCoordinator.authenticate(id, authenticator)
                 .subscribe(
-                        () -> Timber.i("Authentication succeeded"),
-                        throwable -> Timber.w(throwable, "Authentication failed")
-                );
+                        () -> {
+                            long triggerTimestamp = seamlessTriggerTimestamp;
+                            if (triggerTimestamp != 0) {
+                                latencyMetrics.recordSince(LatencyStage.IN_RANGE_TO_AUTHENTICATED,
+                                        triggerTimestamp, SystemClock.elapsedRealtimeNanos());
+                                seamlessTriggerTimestamp = 0;
+                            }
+                        },
+                        throwable -> {
+                            if (throwable instanceof AuthenticationCooldownException) {
+                                Timber.d(throwable.getMessage());
+                            } else {
+                                Timber.w(throwable, "Authentication failed");
+                            }
+                        }
+                ));
     }
 
+    /**
+     * Shows the latest snapshot of the authenticator at most once per frame. Updates are held back
+     * while the list in the other pane is scrolling.
+     */
     private void startUpdatingAuthenticator() {
         Timber.d("startUpdatingAuthenticator() called");
-        authenticatorUpdateDisposable = Flowable.interval(1, TimeUnit.SECONDS)
-                .flatMapMaybe(count -> authenticatorDetector.getDetectedAuthenticators()
-                        .filter(authenticator -> authenticator.getId()
-                                .map(uuid -> uuid.equals(authenticatorId))
-                                .onErrorReturnItem(false)
-                                .blockingGet())
-                        .firstElement())
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
+        authenticatorUpdateDisposable = snapshotRepository.observeSnapshot(authenticatorId)
+                .compose(uiUpdateScheduler.<AuthenticatorSnapshot>coalesce(true))
                 .subscribe(
                         this::showAuthenticator,
                         throwable -> Timber.w(throwable, "Unable to update authenticator")
@@ -219,32 +268,76 @@ public class AuthenticatorDetailFragment extends Fragment {
         }
     }
 
-    private void showAuthenticator(@NonNull SeamlessAuthenticator authenticator) {
-        if (this.authenticator != authenticator) {
-            Timber.d("Authenticator updated: %s", authenticator);
-            this.authenticator = authenticator;
-            anticipateAuthentication(authenticator);
-        }
+    /**
+     * Feeds every distance sample of the authenticator into the {@link SeamlessTrigger} as soon as
+     * it arrives, independent of the UI updates.
+     */
+    private void startSeamlessTrigger() {
+        Timber.d("startSeamlessTrigger() called");
+        UUID id = authenticatorId;
+        seamlessTriggerDisposable = authenticatorRegistry.observeAuthenticator(id)
+                .concatMapMaybe(authenticator -> authenticator.getDistanceProvider()
+                        .flatMap(DistanceProvider::getDistance)
+                        .filter(distance -> {
+                            boolean triggered = seamlessTrigger.onDistanceSample(distance, SystemClock.elapsedRealtime());
+                            if (triggered && seamlessAuthenticationEnabled && canAuthenticate(id)) {
+                                seamlessTriggerTimestamp = SystemClock.elapsedRealtimeNanos();
+                                return true;
+                            }
+                            return false;
+                        })
+                        .map(distance -> authenticator)
+                        .doOnError(throwable -> Timber.w(throwable, "Unable to get distance"))
+                        .onErrorComplete())
+                .subscribeOn(workloadSchedulers.propertyFetch())
+                .subscribe(
+                        authenticator -> authenticate(id, authenticator),
+                        throwable -> Timber.w(throwable, "Unable to trigger seamless authentication")
+                );
+    }
 
-        double distance = authenticator.getDistanceProvider()
-                .flatMap(DistanceProvider::getDistance)
-                .blockingGet();
+    /**
+     * @return false if an authentication is already in flight or the cooldown after the last one is
+     * not over yet, so that staying in range doesn't trigger further authentications
+     */
+    private boolean canAuthenticate(@NonNull UUID id) {
+        return !authenticationCoordinator.isAuthenticating(id) && authenticationCoordinator.getRemainingCooldown(id) == 0;
+    }
 
-        if (seamlessAuthenticationEnabled && distance <= rangeThreshold) {
-            authenticate(authenticator);
+    private void stopSeamlessTrigger() {
+        Timber.d("stopSeamlessTrigger() called");
+        if (seamlessTriggerDisposable != null && !seamlessTriggerDisposable.isDisposed()) {
+            seamlessTriggerDisposable.dispose();
         }
+    }
 
-        String name = AuthenticatorViewHolder.getReadableName(authenticator, getContext()).blockingGet();
-        String id = AuthenticatorViewHolder.getReadableId(authenticator, getContext()).blockingGet();
-        String description = AuthenticatorViewHolder.getReadableDescription(authenticator, getContext()).blockingGet();
+    private void showAuthenticator(@NonNull AuthenticatorSnapshot snapshot) {
+        if (appBarLayout != null) {
+            appBarLayout.setTitle(snapshot.getName());
+        }
+        if (nameTextView == null) {
+            return;
+        }
+
+        nameTextView.setText(snapshot.getName());
+        idTextView.setText(snapshot.getReadableId());
+        descriptionTextView.setText(snapshot.getDescription());
+    }
 
+    /**
+     * Shows placeholders until the first snapshot of a newly selected authenticator is available.
+     */
+    private void showUnknownAuthenticator() {
         if (appBarLayout != null) {
-            appBarLayout.setTitle(name);
+            appBarLayout.setTitle(getString(R.string.authenticator_name_unknown));
+        }
+        if (nameTextView == null) {
+            return;
         }
 
-        nameTextView.setText(name);
-        idTextView.setText(id);
-        descriptionTextView.setText(description);
+        nameTextView.setText(R.string.authenticator_name_unknown);
+        idTextView.setText(authenticatorId.toString());
+        descriptionTextView.setText(null);
     }
 
 }
@@ -1,19 +1,25 @@
 package com.nexenio.seamlessauthenticationintegrationsample;
 
+import android.content.Intent;
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.view.Menu;
+import android.view.MenuItem;
 
-import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyStage;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.model.SnapshotRanking;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.UiUpdateScheduler;
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessModeManager;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
-import io.reactivex.Flowable;
-import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.Timed;
+import io.reactivex.subjects.BehaviorSubject;
 import timber.log.Timber;
 
 /**
@@ -24,6 +30,19 @@ import timber.log.Timber;
  */
 public class AuthenticatorListActivity extends SeamlessAuthenticationActivity {
 
+    /**
+     * Number of the nearest authenticators that are shown initially, which bounds the rendering
+     * work regardless of how many authenticators are detected.
+     */
+    public static final int DEFAULT_VISIBLE_AUTHENTICATORS_COUNT = 25;
+
+    /**
+     * Number of authenticators that are additionally shown when the user asks for more.
+     */
+    public static final int VISIBLE_AUTHENTICATORS_PAGE_SIZE = 25;
+
+    private static final String KEY_VISIBLE_AUTHENTICATORS_COUNT = "visible_authenticators_count";
+
     /**
      * Whether or not the activity is in two-pane mode, i.e. running on a tablet device.
      */
@@ -31,12 +50,44 @@ public class AuthenticatorListActivity extends SeamlessAuthenticationActivity {
 
     private Disposable authenticatorListUpdateDisposable;
 
+    /**
+     * Identifies the current subscription to list updates, so that updates of a previous one that
+     * are still waiting for their frame are not applied. Only accessed on the main thread.
+     */
+    private Object authenticatorListUpdateToken;
+
     private AuthenticatorAdapter authenticatorAdapter;
 
+    private ListFrameMetricsRecorder frameMetricsRecorder;
+
+    /**
+     * Whether the next update may have been replayed by the repository, in which case its
+     * detection timestamp is stale and not recorded.
+     */
+    private boolean awaitingReplayedUpdate;
+
+    /**
+     * The detection timestamp of the last recorded update, so that updates which only show more
+     * authenticators are not recorded again.
+     */
+    private long lastRecordedDetectionTimestamp;
+
+    private final BehaviorSubject<Integer> visibleAuthenticatorsCountSubject = BehaviorSubject.createDefault(DEFAULT_VISIBLE_AUTHENTICATORS_COUNT);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         toolbarLayout.setTitle(getString(R.string.title_authenticator_list));
+        if (savedInstanceState != null) {
+            visibleAuthenticatorsCountSubject.onNext(savedInstanceState.getInt(KEY_VISIBLE_AUTHENTICATORS_COUNT,
+                    DEFAULT_VISIBLE_AUTHENTICATORS_COUNT));
+        }
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putInt(KEY_VISIBLE_AUTHENTICATORS_COUNT, getVisibleAuthenticatorsCount());
     }
 
     @Override
@@ -54,11 +105,42 @@ public class AuthenticatorListActivity extends SeamlessAuthenticationActivity {
         authenticatorAdapter = new AuthenticatorAdapter(this, useDetailFragment);
         RecyclerView recyclerView = findViewById(R.id.authenticator_list);
         recyclerView.setAdapter(authenticatorAdapter);
+        application.getUiUpdateScheduler().trackScrolling(recyclerView);
+        frameMetricsRecorder = new ListFrameMetricsRecorder(getWindow(), recyclerView, application.getLatencyMetrics());
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_authenticator_list, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        menu.findItem(R.id.action_seamless_mode).setChecked(application.getSeamlessModeManager().isEnabled());
+        menu.findItem(R.id.action_background_authentication).setChecked(BackgroundAuthenticationService.isRunning());
+        return super.onPrepareOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.action_show_metrics) {
+            startActivity(new Intent(this, MetricsActivity.class));
+            return true;
+        } else if (item.getItemId() == R.id.action_seamless_mode) {
+            toggleSeamlessMode();
+            return true;
+        } else if (item.getItemId() == R.id.action_background_authentication) {
+            toggleBackgroundAuthentication();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
     }
 
     @Override
     protected void onResume() {
         super.onResume();
+        frameMetricsRecorder.start();
         startUpdatingAuthenticatorList();
     }
 
@@ -66,28 +148,108 @@ public class AuthenticatorListActivity extends SeamlessAuthenticationActivity {
     protected void onPause() {
         super.onPause();
         stopUpdatingAuthenticatorList();
+        frameMetricsRecorder.stop();
+        application.getUiUpdateScheduler().setScrolling(false);
     }
 
+    /**
+     * Starts or stops authenticating with whichever authenticator the user walks up to. The seamless
+     * mode keeps running across configuration changes, as it's owned by the application.
+     */
+    private void toggleSeamlessMode() {
+        SeamlessModeManager seamlessModeManager = application.getSeamlessModeManager();
+        if (seamlessModeManager.isEnabled()) {
+            seamlessModeManager.stop();
+        } else {
+            seamlessModeManager.start();
+        }
+        invalidateOptionsMenu();
+    }
+
+    /**
+     * Starts or stops the {@link BackgroundAuthenticationService}, which keeps authenticating
+     * seamlessly while the app is not visible.
+     */
+    private void toggleBackgroundAuthentication() {
+        if (BackgroundAuthenticationService.isRunning()) {
+            BackgroundAuthenticationService.stop(this);
+        } else {
+            BackgroundAuthenticationService.start(this);
+        }
+        invalidateOptionsMenu();
+    }
+
+    /**
+     * Shows more of the authenticators that are farther away. Must be called on the main thread.
+     */
+    void showMoreAuthenticators() {
+        visibleAuthenticatorsCountSubject.onNext(getVisibleAuthenticatorsCount() + VISIBLE_AUTHENTICATORS_PAGE_SIZE);
+    }
+
+    private int getVisibleAuthenticatorsCount() {
+        return visibleAuthenticatorsCountSubject.getValue();
+    }
+
+    /**
+     * Shows the nearest snapshots of the {@link AuthenticatorSnapshotRepository}, which are shared
+     * with the detail pane. The snapshots are ranked on a background thread, starting from the
+     * currently displayed order, and only the difference to the currently displayed list is
+     * applied. The list is ranked again if more authenticators should be shown.
+     *
+     * The snapshots are coalesced to at most one per frame and held back while the list is
+     * scrolling, and the frame that takes the latest snapshots triggers ranking them. This happens
+     * before ranking, as each update is a diff against the previous one and can't be dropped
+     * anymore. The resulting update is applied in the frame callback of the {@link
+     * UiUpdateScheduler} as well.
+     */
     private void startUpdatingAuthenticatorList() {
         Timber.d("startUpdatingAuthenticatorList() called");
-        authenticatorListUpdateDisposable = Flowable.interval(1, TimeUnit.SECONDS)
-                .flatMapSingle(authenticator -> authenticatorDetector.getDetectedAuthenticators().toList())
-                .onErrorReturnItem(Collections.emptyList())
-                .subscribeOn(Schedulers.computation())
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(this::showAuthenticators);
+        AuthenticatorListUpdate initialUpdate = AuthenticatorListUpdate.initial(authenticatorAdapter.getSnapshots(),
+                authenticatorAdapter.getHiddenCount());
+        SnapshotRanking ranking = new SnapshotRanking();
+        ranking.rank(authenticatorAdapter.getSnapshots(), Integer.MAX_VALUE);
+        awaitingReplayedUpdate = true;
+        UiUpdateScheduler uiUpdateScheduler = application.getUiUpdateScheduler();
+        Object token = new Object();
+        authenticatorListUpdateToken = token;
+        authenticatorListUpdateDisposable = Observable.combineLatest(
+                application.getSnapshotRepository().observeSnapshots(),
+                visibleAuthenticatorsCountSubject,
+                (snapshots, visibleCount) -> snapshots)
+                .compose(uiUpdateScheduler.<Timed<List<AuthenticatorSnapshot>>>coalesce(true))
+                .observeOn(application.getWorkloadSchedulers().rendering())
+                .scan(initialUpdate, (update, snapshots) -> update.next(ranking.rank(snapshots.value(), getVisibleAuthenticatorsCount()),
+                        ranking.getHiddenCount(), snapshots.time()))
+                .skip(1)
+                .subscribe(
+                        update -> uiUpdateScheduler.schedule(update, true, () -> {
+                            if (authenticatorListUpdateToken == token) {
+                                showAuthenticators(update);
+                            }
+                        }),
+                        throwable -> Timber.w(throwable, "Unable to update authenticator list")
+                );
     }
 
     private void stopUpdatingAuthenticatorList() {
         Timber.d("stopUpdatingAuthenticatorList() called");
+        authenticatorListUpdateToken = null;
         if (authenticatorListUpdateDisposable != null && !authenticatorListUpdateDisposable.isDisposed()) {
             authenticatorListUpdateDisposable.dispose();
         }
     }
 
-    private void showAuthenticators(@NonNull List<SeamlessAuthenticator> authenticators) {
-        authenticatorAdapter.setAuthenticators(authenticators);
-        authenticatorAdapter.notifyDataSetChanged();
+    private void showAuthenticators(@NonNull AuthenticatorListUpdate update) {
+        authenticatorAdapter.applyUpdate(update);
+        frameMetricsRecorder.onListUpdated();
+        boolean replayedUpdate = awaitingReplayedUpdate;
+        awaitingReplayedUpdate = false;
+        long detectionTimestamp = update.getDetectionTimestamp();
+        if (detectionTimestamp != 0 && !replayedUpdate && detectionTimestamp != lastRecordedDetectionTimestamp) {
+            application.getLatencyMetrics().recordSince(LatencyStage.DETECTION_TO_RENDER,
+                    detectionTimestamp, SystemClock.elapsedRealtimeNanos());
+        }
+        lastRecordedDetectionTimestamp = detectionTimestamp;
     }
 
 }
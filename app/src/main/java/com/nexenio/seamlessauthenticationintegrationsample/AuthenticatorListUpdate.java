@@ -0,0 +1,123 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.model.SnapshotChange;
+
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+/**
+ * A list of {@link AuthenticatorSnapshot}s together with the minimal set of operations that
+ * transform the previously displayed list into it. Changed items are dispatched with a {@link
+ * SnapshotChange} payload, reordered items are dispatched as moves.
+ */
+public final class AuthenticatorListUpdate {
+
+    @NonNull
+    private final List<AuthenticatorSnapshot> snapshots;
+
+    private final int hiddenCount;
+
+    @Nullable
+    private final DiffUtil.DiffResult diffResult;
+
+    private final long detectionTimestamp;
+
+    private AuthenticatorListUpdate(@NonNull List<AuthenticatorSnapshot> snapshots, int hiddenCount,
+                                    @Nullable DiffUtil.DiffResult diffResult, long detectionTimestamp) {
+        this.snapshots = Collections.unmodifiableList(snapshots);
+        this.hiddenCount = hiddenCount;
+        this.diffResult = diffResult;
+        this.detectionTimestamp = detectionTimestamp;
+    }
+
+    /**
+     * Creates an update without a diff, to be used as the initial state that following updates are
+     * calculated against.
+     */
+    public static AuthenticatorListUpdate initial(@NonNull List<AuthenticatorSnapshot> snapshots, int hiddenCount) {
+        return new AuthenticatorListUpdate(snapshots, hiddenCount, null, 0);
+    }
+
+    /**
+     * Calculates the difference between the snapshots of this update and the specified ones. This
+     * may be expensive for large lists and should not be called on the main thread.
+     *
+     * @param hiddenCount        the number of authenticators that are not part of the snapshots
+     * @param detectionTimestamp the time of the detection in nanoseconds that caused this update,
+     *                           or 0 if it was not caused by a detection
+     */
+    public AuthenticatorListUpdate next(@NonNull List<AuthenticatorSnapshot> newSnapshots, int hiddenCount, long detectionTimestamp) {
+        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new SnapshotDiffCallback(snapshots, newSnapshots), true);
+        return new AuthenticatorListUpdate(newSnapshots, hiddenCount, diffResult, detectionTimestamp);
+    }
+
+    @NonNull
+    public List<AuthenticatorSnapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * @return the number of detected authenticators that are not shown, because they are farther
+     * away than the shown ones
+     */
+    public int getHiddenCount() {
+        return hiddenCount;
+    }
+
+    @Nullable
+    public DiffUtil.DiffResult getDiffResult() {
+        return diffResult;
+    }
+
+    public long getDetectionTimestamp() {
+        return detectionTimestamp;
+    }
+
+    private static final class SnapshotDiffCallback extends DiffUtil.Callback {
+
+        private final List<AuthenticatorSnapshot> oldSnapshots;
+        private final List<AuthenticatorSnapshot> newSnapshots;
+
+        SnapshotDiffCallback(@NonNull List<AuthenticatorSnapshot> oldSnapshots, @NonNull List<AuthenticatorSnapshot> newSnapshots) {
+            this.oldSnapshots = oldSnapshots;
+            this.newSnapshots = newSnapshots;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldSnapshots.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newSnapshots.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldSnapshots.get(oldItemPosition).getId().equals(newSnapshots.get(newItemPosition).getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldSnapshots.get(oldItemPosition).equals(newSnapshots.get(newItemPosition));
+        }
+
+        /**
+         * @return the {@link SnapshotChange} of the item, so that only the changed views need to
+         * be updated
+         */
+        @Nullable
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return SnapshotChange.between(oldSnapshots.get(oldItemPosition), newSnapshots.get(newItemPosition));
+        }
+
+    }
+
+}
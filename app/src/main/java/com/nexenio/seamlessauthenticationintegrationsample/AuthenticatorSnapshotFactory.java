@@ -0,0 +1,230 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import android.content.Context;
+import android.text.format.DateUtils;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthentication.accesscontrol.gate.Gate;
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.GatewayDirection;
+import com.nexenio.seamlessauthenticationintegrationsample.cache.AuthenticatorCacheWriter;
+import com.nexenio.seamlessauthenticationintegrationsample.cache.CachedAuthenticator;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.GatewayTracker;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorDescriptionFormatter;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.model.GateDetails;
+import com.nexenio.seamlessauthenticationintegrationsample.property.AuthenticatorPropertyCache;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.RxTracing;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+
+/**
+ * Creates {@link AuthenticatorSnapshot}s of {@link SeamlessAuthenticator}s. The description
+ * templates and all other displayed strings are resolved from the resources once, when the factory
+ * is created. Creating a snapshot doesn't access the resources, and descriptions of authenticators
+ * whose displayed values didn't change are reused. The properties are read through an {@link
+ * AuthenticatorPropertyCache}, so that values that don't change are not read again, and the
+ * closest gateways of gates are tracked by a {@link GatewayTracker}.
+ *
+ * If an {@link AuthenticatorCacheWriter} is set, the values of created snapshots are cached in the
+ * background, so that they can be shown as "last seen" snapshots after the next cold start.
+ */
+class AuthenticatorSnapshotFactory {
+
+    @NonNull
+    private final Context context;
+
+    @NonNull
+    private final AuthenticatorDescriptionFormatter descriptionFormatter;
+
+    @NonNull
+    private final AuthenticatorPropertyCache propertyCache;
+
+    @NonNull
+    private final GatewayTracker gatewayTracker;
+
+    @Nullable
+    private final AuthenticatorCacheWriter authenticatorCacheWriter;
+
+    @NonNull
+    private final Scheduler propertyScheduler;
+
+    /**
+     * The readable IDs of all authenticators that snapshots have been created of, so that the
+     * UUIDs don't need to be converted again on every update.
+     */
+    private final ConcurrentMap<UUID, String> readableIds = new ConcurrentHashMap<>();
+
+    @NonNull
+    private final String unknownName;
+
+    @NonNull
+    private final String unknown;
+
+    @NonNull
+    private final String activeState;
+
+    @NonNull
+    private final String inactiveState;
+
+    @NonNull
+    private final String lastSeenState;
+
+    @NonNull
+    private final String entryDirection;
+
+    @NonNull
+    private final String exitDirection;
+
+    /**
+     * @param propertyScheduler the scheduler that properties are requested on
+     */
+    AuthenticatorSnapshotFactory(@NonNull Context context, @NonNull AuthenticatorPropertyCache propertyCache,
+                                 @Nullable GatewayTracker gatewayTracker, @Nullable AuthenticatorCacheWriter authenticatorCacheWriter,
+                                 @NonNull Scheduler propertyScheduler) {
+        this.context = context;
+        this.propertyCache = propertyCache;
+        this.gatewayTracker = gatewayTracker != null ? gatewayTracker : new GatewayTracker(propertyCache);
+        this.descriptionFormatter = createDescriptionFormatter(context);
+        this.authenticatorCacheWriter = authenticatorCacheWriter;
+        this.propertyScheduler = propertyScheduler;
+        this.unknownName = context.getString(R.string.authenticator_name_unknown);
+        this.unknown = context.getString(R.string.unknown);
+        this.activeState = context.getString(R.string.authenticator_state_active);
+        this.inactiveState = context.getString(R.string.authenticator_state_inactive);
+        this.lastSeenState = context.getString(R.string.authenticator_state_last_seen);
+        this.entryDirection = context.getString(R.string.gateway_direction_entry);
+        this.exitDirection = context.getString(R.string.gateway_direction_exit);
+    }
+
+    @SuppressWarnings("deprecation")
+    static AuthenticatorDescriptionFormatter createDescriptionFormatter(@NonNull Context context) {
+        Locale locale = context.getResources().getConfiguration().locale;
+        return new AuthenticatorDescriptionFormatter(
+                locale,
+                context.getString(R.string.authenticator_generic_description),
+                context.getString(R.string.authenticator_door_description),
+                context.getString(R.string.authenticator_gate_description),
+                context.getString(R.string.authenticator_name_unknown)
+        );
+    }
+
+    /**
+     * Reads all displayed values of the specified authenticator. The underlying properties are
+     * requested concurrently on the property scheduler, nothing is blocking. Emits an
+     * error if the ID of the authenticator can't be resolved, as the snapshot could not be
+     * identified across updates.
+     */
+    Single<AuthenticatorSnapshot> create(@NonNull SeamlessAuthenticator authenticator) {
+        return propertyCache.getId(authenticator)
+                .subscribeOn(propertyScheduler)
+                .flatMap(id -> {
+                    Single<Double> distanceRequest = propertyCache.getDistance(authenticator)
+                            .onErrorReturnItem(Double.NaN)
+                            .subscribeOn(propertyScheduler)
+                            .cache();
+                    return Single.zip(
+                            getReadableName(id, authenticator)
+                                    .subscribeOn(propertyScheduler),
+                            distanceRequest,
+                            getReadableState(id, authenticator)
+                                    .subscribeOn(propertyScheduler),
+                            distanceRequest.flatMap(distance -> getGateDetails(id, authenticator, distance)),
+                            (name, distance, state, gateDetails) -> {
+                                boolean traced = Tracing.beginSection("format snapshot");
+                                try {
+                                    return createSnapshot(id, name, distance, state, gateDetails);
+                                } finally {
+                                    if (traced) {
+                                        Tracing.endSection();
+                                    }
+                                }
+                            }
+                    ).compose(RxTracing.<AuthenticatorSnapshot>traceSingle("create snapshot", id));
+                });
+    }
+
+    @NonNull
+    private AuthenticatorSnapshot createSnapshot(@NonNull UUID id, @NonNull String name, double distance,
+                                                 @NonNull String state, @NonNull GateDetails gateDetails) {
+        String direction = gateDetails.getDirection().isEmpty() ? null : gateDetails.getDirection();
+        String description = descriptionFormatter.format(id, distance, state, gateDetails);
+        cacheAuthenticator(id, name, distance, gateDetails);
+        return new AuthenticatorSnapshot(id, name, getReadableId(id), distance, state, direction, description);
+    }
+
+    @NonNull
+    private String getReadableId(@NonNull UUID id) {
+        String readableId = readableIds.get(id);
+        if (readableId == null) {
+            readableId = id.toString();
+            readableIds.putIfAbsent(id, readableId);
+        }
+        return readableId;
+    }
+
+    /**
+     * Resolves the gateway related values of the specified authenticator. Emits {@link
+     * GateDetails#NONE} if the authenticator is not a {@link Gate} and {@link GateDetails#UNKNOWN}
+     * if the values can't be resolved. The closest gateway is only resolved again if the distance
+     * to the gate changed.
+     */
+    private Single<GateDetails> getGateDetails(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator, double distance) {
+        if (!(authenticator instanceof Gate)) {
+            return Single.just(GateDetails.NONE);
+        }
+        return gatewayTracker.track(id, (Gate) authenticator, distance)
+                .map(trackedGateway -> new GateDetails(getReadableDirection(trackedGateway.getDirection()),
+                        trackedGateway.getGatewaysCount(), trackedGateway.getClosestGatewayIndex()))
+                .onErrorReturnItem(GateDetails.UNKNOWN);
+    }
+
+    private Single<String> getReadableName(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        return propertyCache.getName(id, authenticator)
+                .onErrorReturnItem(unknownName);
+    }
+
+    private Single<String> getReadableState(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        return propertyCache.isActive(id, authenticator)
+                .map(active -> active ? activeState : inactiveState)
+                .onErrorReturnItem(unknown);
+    }
+
+    @NonNull
+    private String getReadableDirection(@Nullable GatewayDirection direction) {
+        if (direction == null) {
+            return unknown;
+        }
+        return direction == GatewayDirection.ENTRY ? entryDirection : exitDirection;
+    }
+
+    /**
+     * Creates a snapshot that shows when the specified authenticator has been seen the last time.
+     * Doesn't require any I/O.
+     */
+    AuthenticatorSnapshot createFromCache(@NonNull CachedAuthenticator cachedAuthenticator) {
+        CharSequence lastSeen = DateUtils.getRelativeTimeSpanString(cachedAuthenticator.getLastSeenTimestamp(),
+                System.currentTimeMillis(), DateUtils.MINUTE_IN_MILLIS);
+        String description = context.getString(R.string.authenticator_last_seen_description,
+                lastSeen, cachedAuthenticator.getLastDistance());
+        UUID id = cachedAuthenticator.getId();
+        return new AuthenticatorSnapshot(id, cachedAuthenticator.getName(), getReadableId(id),
+                cachedAuthenticator.getLastDistance(), lastSeenState, null, description);
+    }
+
+    private void cacheAuthenticator(@NonNull UUID id, @NonNull String name, double distance, @NonNull GateDetails gateDetails) {
+        if (authenticatorCacheWriter == null || Double.isNaN(distance) || gateDetails == GateDetails.UNKNOWN || name.equals(unknownName)) {
+            return;
+        }
+        authenticatorCacheWriter.update(id, name, (int) gateDetails.getGatewaysCount(), distance, System.currentTimeMillis());
+    }
+
+}
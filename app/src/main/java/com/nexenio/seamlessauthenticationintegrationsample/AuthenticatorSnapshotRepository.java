@@ -0,0 +1,245 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticatorDetector;
+import com.nexenio.seamlessauthenticationintegrationsample.cache.AuthenticatorCache;
+import com.nexenio.seamlessauthenticationintegrationsample.cache.AuthenticatorCacheWriter;
+import com.nexenio.seamlessauthenticationintegrationsample.detection.DetectionManager;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.GatewayTracker;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.property.AuthenticatorPropertyCache;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+import com.nexenio.seamlessauthenticationintegrationsample.registry.AuthenticatorRegistry;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.Timed;
+import timber.log.Timber;
+
+/**
+ * Provides the snapshots of all detected authenticators as a single shared stream, so that the
+ * work of reading the authenticator properties doesn't depend on how many screens are showing
+ * them.
+ *
+ * The stream is connected while at least one observer is subscribed (and for a short grace period
+ * after the last one unsubscribed, to bridge activity transitions) and replays the latest
+ * snapshots to new observers.
+ */
+public class AuthenticatorSnapshotRepository {
+
+    /**
+     * Minimum interval between two updates that are caused by detection events.
+     */
+    private static final long UPDATE_INTERVAL = 500;
+
+    /**
+     * Interval in which the snapshots get updated even if no detection events occurred, required to
+     * remove authenticators that are no longer detected.
+     */
+    private static final long RECONCILIATION_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+
+    /**
+     * Time span after the repository has been created in which cached authenticators that have not
+     * been detected yet are still included.
+     */
+    private static final long CACHED_AUTHENTICATORS_LIFETIME = AuthenticatorRegistry.DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * Time span that the stream stays connected after the last observer unsubscribed.
+     */
+    private static final long DISCONNECT_GRACE_PERIOD = TimeUnit.SECONDS.toMillis(1);
+
+    private static final String SNAPSHOTS_UPDATE_SECTION = "update snapshots";
+
+    @NonNull
+    private final Context context;
+
+    @NonNull
+    private final Single<SeamlessAuthenticatorDetector> authenticatorDetector;
+
+    @NonNull
+    private final DetectionManager detectionManager;
+
+    @NonNull
+    private final AuthenticatorPropertyCache propertyCache;
+
+    @NonNull
+    private final GatewayTracker gatewayTracker;
+
+    @NonNull
+    private final AuthenticatorCache authenticatorCache;
+
+    @NonNull
+    private final AuthenticatorCacheWriter authenticatorCacheWriter;
+
+    @NonNull
+    private final WorkloadSchedulers workloadSchedulers;
+
+    @NonNull
+    private volatile AuthenticatorSnapshotFactory snapshotFactory;
+
+    @NonNull
+    private final Single<List<AuthenticatorSnapshot>> cachedSnapshots;
+
+    private final long cachedSnapshotsExpirationTimestamp;
+
+    @NonNull
+    private final Observable<Timed<List<AuthenticatorSnapshot>>> snapshots;
+
+    AuthenticatorSnapshotRepository(@NonNull Context context, @NonNull Single<SeamlessAuthenticatorDetector> authenticatorDetector,
+                                    @NonNull DetectionManager detectionManager, @NonNull AuthenticatorPropertyCache propertyCache,
+                                    @NonNull GatewayTracker gatewayTracker, @NonNull AuthenticatorCache authenticatorCache,
+                                    @NonNull WorkloadSchedulers workloadSchedulers) {
+        this.context = context;
+        this.authenticatorDetector = authenticatorDetector;
+        this.detectionManager = detectionManager;
+        this.propertyCache = propertyCache;
+        this.gatewayTracker = gatewayTracker;
+        this.authenticatorCache = authenticatorCache;
+        this.authenticatorCacheWriter = new AuthenticatorCacheWriter(authenticatorCache);
+        this.workloadSchedulers = workloadSchedulers;
+        this.snapshotFactory = createSnapshotFactory();
+        this.cachedSnapshots = loadCachedSnapshots().cache();
+        this.cachedSnapshotsExpirationTimestamp = SystemClock.elapsedRealtime() + CACHED_AUTHENTICATORS_LIFETIME;
+        this.snapshots = createSnapshots()
+                .replay(1)
+                .refCount(DISCONNECT_GRACE_PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Emits the snapshots of all detected authenticators whenever they changed, timed with the
+     * {@link SystemClock#elapsedRealtimeNanos()} of the detection that caused the update, or 0 if
+     * the update was not caused by a detection.
+     */
+    @NonNull
+    public Observable<Timed<List<AuthenticatorSnapshot>>> observeSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Emits the snapshot of the specified authenticator whenever it changed, derived from {@link
+     * #observeSnapshots()}.
+     */
+    @NonNull
+    public Observable<AuthenticatorSnapshot> observeSnapshot(@NonNull UUID id) {
+        return snapshots
+                .concatMapMaybe(timedSnapshots -> Maybe.fromCallable(() -> findSnapshot(timedSnapshots.value(), id)))
+                .distinctUntilChanged();
+    }
+
+    /**
+     * Resolves the displayed strings again, e.g. after the locale changed. Takes effect with the
+     * next update.
+     */
+    public void onConfigurationChanged() {
+        snapshotFactory = createSnapshotFactory();
+    }
+
+    @NonNull
+    private AuthenticatorSnapshotFactory createSnapshotFactory() {
+        return new AuthenticatorSnapshotFactory(context, propertyCache, gatewayTracker, authenticatorCacheWriter,
+                workloadSchedulers.propertyFetch());
+    }
+
+    private static AuthenticatorSnapshot findSnapshot(@NonNull List<AuthenticatorSnapshot> snapshots, @NonNull UUID id) {
+        for (int snapshotIndex = 0; snapshotIndex < snapshots.size(); snapshotIndex++) {
+            AuthenticatorSnapshot snapshot = snapshots.get(snapshotIndex);
+            if (snapshot.getId().equals(id)) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    private Observable<Timed<List<AuthenticatorSnapshot>>> createSnapshots() {
+        Observable<Timed<List<AuthenticatorSnapshot>>> cachedSnapshotsUpdate = Observable.defer(() -> {
+            if (SystemClock.elapsedRealtime() > cachedSnapshotsExpirationTimestamp) {
+                return Observable.empty();
+            }
+            return cachedSnapshots.map(snapshots -> new Timed<>(snapshots, 0L, TimeUnit.NANOSECONDS)).toObservable();
+        });
+        return Observable.merge(
+                detectionManager.getDetectedAuthenticatorEvents()
+                        .map(authenticator -> SystemClock.elapsedRealtimeNanos())
+                        .throttleLatest(UPDATE_INTERVAL, TimeUnit.MILLISECONDS, true),
+                Observable.interval(0, RECONCILIATION_INTERVAL, TimeUnit.MILLISECONDS)
+                        .map(count -> 0L))
+                .switchMap(detectionTimestamp -> createAuthenticatorSnapshots()
+                        .zipWith(cachedSnapshots, this::reconcileWithCachedSnapshots)
+                        .map(snapshots -> new Timed<>(snapshots, detectionTimestamp, TimeUnit.NANOSECONDS))
+                        .doOnError(throwable -> Timber.w(throwable, "Unable to get detected authenticators"))
+                        .toObservable()
+                        .onErrorResumeNext(Observable.empty()))
+                .startWith(cachedSnapshotsUpdate)
+                .distinctUntilChanged((previous, current) -> previous.value().equals(current.value()));
+    }
+
+    private Single<List<AuthenticatorSnapshot>> createAuthenticatorSnapshots() {
+        AuthenticatorSnapshotFactory snapshotFactory = this.snapshotFactory;
+        AtomicInteger cookie = new AtomicInteger(Tracing.NO_COOKIE);
+        return authenticatorDetector
+                .flatMap(detector -> detector.getDetectedAuthenticators().toList())
+                .flatMap(authenticators -> Observable.fromIterable(authenticators)
+                        .concatMapEager(authenticator -> snapshotFactory.create(authenticator)
+                                .toObservable()
+                                .onErrorResumeNext(Observable.empty()))
+                        .toList())
+                .doOnSubscribe(disposable -> cookie.set(Tracing.beginAsyncSection(SNAPSHOTS_UPDATE_SECTION)))
+                .doFinally(() -> Tracing.endAsyncSection(SNAPSHOTS_UPDATE_SECTION, cookie.get()))
+                .subscribeOn(workloadSchedulers.rendering());
+    }
+
+    /**
+     * Creates "last seen" snapshots of the cached authenticators, most recently seen first.
+     */
+    private Single<List<AuthenticatorSnapshot>> loadCachedSnapshots() {
+        return Single.fromCallable(authenticatorCache::getEntries)
+                .flattenAsObservable(cachedAuthenticators -> cachedAuthenticators)
+                .map(cachedAuthenticator -> snapshotFactory.createFromCache(cachedAuthenticator))
+                .toList()
+                .doOnSuccess(snapshots -> Timber.d("Loaded %d cached authenticators", snapshots.size()))
+                .onErrorReturn(throwable -> {
+                    Timber.w(throwable, "Unable to load cached authenticators");
+                    return Collections.emptyList();
+                })
+                .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Appends the cached snapshots of authenticators that have not been detected yet, until
+     * detection had enough time to find them.
+     */
+    private List<AuthenticatorSnapshot> reconcileWithCachedSnapshots(@NonNull List<AuthenticatorSnapshot> detectedSnapshots,
+                                                                     @NonNull List<AuthenticatorSnapshot> cachedSnapshots) {
+        if (cachedSnapshots.isEmpty() || SystemClock.elapsedRealtime() > cachedSnapshotsExpirationTimestamp) {
+            return detectedSnapshots;
+        }
+        Set<UUID> detectedIds = new HashSet<>();
+        for (AuthenticatorSnapshot detectedSnapshot : detectedSnapshots) {
+            detectedIds.add(detectedSnapshot.getId());
+        }
+        List<AuthenticatorSnapshot> snapshots = new ArrayList<>(detectedSnapshots);
+        for (AuthenticatorSnapshot cachedSnapshot : cachedSnapshots) {
+            if (!detectedIds.contains(cachedSnapshot.getId())) {
+                snapshots.add(cachedSnapshot);
+            }
+        }
+        return snapshots;
+    }
+
+}
@@ -1,20 +1,14 @@
 package com.nexenio.seamlessauthenticationintegrationsample;
 
-import android.content.Context;
 import android.view.View;
 import android.widget.TextView;
 
-import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
-import com.nexenio.seamlessauthentication.accesscontrol.gate.Gate;
-import com.nexenio.seamlessauthentication.accesscontrol.gateway.Gateway;
-import com.nexenio.seamlessauthentication.accesscontrol.gateway.GatewayDirection;
-import com.nexenio.seamlessauthentication.accesscontrol.gateway.opening.GatewayOpening;
-
-import java.util.UUID;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.model.SnapshotChange;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
-import io.reactivex.Single;
 
 class AuthenticatorViewHolder extends RecyclerView.ViewHolder {
 
@@ -29,69 +23,40 @@ class AuthenticatorViewHolder extends RecyclerView.ViewHolder {
         contentTextView = view.findViewById(R.id.contentTextView);
     }
 
-    void renderAuthenticator(@NonNull SeamlessAuthenticator authenticator) {
-        Context context = itemView.getContext();
-
-        String title = getReadableName(authenticator, context).blockingGet();
-        String subtitle = getReadableId(authenticator, context).blockingGet();
-        String content = getReadableDescription(authenticator, context).blockingGet();
-
-        titleTextView.setText(title);
-        subtitleTextView.setText(subtitle);
-        contentTextView.setText(content);
-    }
-
-    public static Single<String> getReadableDescription(@NonNull SeamlessAuthenticator authenticator, @NonNull Context context) {
-        return Single.fromCallable(() -> {
-            double distance = authenticator.getDistance().blockingGet();
-            String state = getReadableState(authenticator, context).blockingGet();
-
-            if (authenticator instanceof Gate) {
-                Gate gate = (Gate) authenticator;
-
-                Gateway closestGateway = gate.getClosestGateway().blockingGet();
-                String direction = getReadableDirection(closestGateway, context).blockingGet();
-
-                long gatewaysCount = gate.getGateways().count().blockingGet();
-                if (gatewaysCount > 1) {
-                    return context.getString(R.string.authenticator_gate_description,
-                            distance, state, gatewaysCount, direction, closestGateway.getIndex().blockingGet());
-                } else {
-                    return context.getString(R.string.authenticator_door_description,
-                            distance, state, direction);
-                }
-            } else {
-                return context.getString(R.string.authenticator_generic_description,
-                        distance, state);
+    void renderAuthenticator(@NonNull AuthenticatorSnapshot snapshot) {
+        boolean traced = Tracing.beginSection("render authenticator");
+        try {
+            titleTextView.setText(snapshot.getName());
+            subtitleTextView.setText(snapshot.getReadableId());
+            contentTextView.setText(snapshot.getDescription());
+        } finally {
+            if (traced) {
+                Tracing.endSection();
             }
-        }).onErrorReturnItem(context.getString(R.string.authenticator_name_unknown));
-    }
-
-    public static Single<String> getReadableName(@NonNull SeamlessAuthenticator authenticator, @NonNull Context context) {
-        return authenticator.getName()
-                .onErrorReturnItem(context.getString(R.string.authenticator_name_unknown));
-    }
-
-    public static Single<String> getReadableId(@NonNull SeamlessAuthenticator authenticator, @NonNull Context context) {
-        return authenticator.getId().map(UUID::toString)
-                .onErrorReturnItem(context.getString(R.string.authenticator_id_unknown));
-    }
-
-    public static Single<String> getReadableState(@NonNull SeamlessAuthenticator authenticator, @NonNull Context context) {
-        return authenticator.isActive().map(active -> {
-            int resourceId = active ? R.string.authenticator_state_active : R.string.authenticator_state_inactive;
-            return context.getString(resourceId);
-        }).onErrorReturnItem(context.getString(R.string.unknown));
+        }
     }
 
-    public static Single<String> getReadableDirection(@NonNull Gateway gateway, @NonNull Context context) {
-        return gateway.getClosestOpening()
-                .flatMap(GatewayOpening::getDirection)
-                .map(direction -> {
-                    int resourceId = direction == GatewayDirection.ENTRY ?
-                            R.string.gateway_direction_entry : R.string.gateway_direction_exit;
-                    return context.getString(resourceId);
-                }).onErrorReturnItem(context.getString(R.string.unknown));
+    /**
+     * Only updates the views of the changed fields, as setting a text requests a new layout even
+     * if it's equal to the current one.
+     */
+    void renderChange(@NonNull AuthenticatorSnapshot snapshot, @NonNull SnapshotChange change) {
+        boolean traced = Tracing.beginSection("render change");
+        try {
+            if (change.isNameChanged()) {
+                titleTextView.setText(snapshot.getName());
+            }
+            if (change.isReadableIdChanged()) {
+                subtitleTextView.setText(snapshot.getReadableId());
+            }
+            if (change.isDescriptionChanged()) {
+                contentTextView.setText(snapshot.getDescription());
+            }
+        } finally {
+            if (traced) {
+                Tracing.endSection();
+            }
+        }
     }
 
 }
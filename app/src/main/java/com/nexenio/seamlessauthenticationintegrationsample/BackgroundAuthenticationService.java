@@ -0,0 +1,161 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.IBinder;
+import android.os.Process;
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthenticationintegrationsample.detection.DetectionManager;
+import com.nexenio.seamlessauthenticationintegrationsample.detection.DetectionPolicy;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.HourlyUsage;
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessModeManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.content.ContextCompat;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import timber.log.Timber;
+
+/**
+ * A foreground service that keeps detecting authenticators and authenticating seamlessly with
+ * whichever authenticator the user walks up to, without any UI. That way, seamless authentication
+ * keeps working while the screen is off or another app is in the foreground.
+ *
+ * Detection runs in windows with short pauses, following {@link DetectionPolicy#SEAMLESS}, and
+ * detection events are sampled in batches of {@link #SAMPLE_BATCH_INTERVAL}. Both the detection windows and
+ * the batches are recorded as wakeups in an {@link HourlyUsage}, together with the CPU time of the
+ * process, which is shown in the metrics screen.
+ */
+public class BackgroundAuthenticationService extends Service {
+
+    /**
+     * The time in milliseconds that detection events are collected for before they are sampled.
+     */
+    public static final long SAMPLE_BATCH_INTERVAL = 500;
+
+    private static final String NOTIFICATION_CHANNEL_ID = "background_authentication";
+
+    private static final int NOTIFICATION_ID = 1;
+
+    private static final String ACTION_STOP = BuildConfig.APPLICATION_ID + ".action.STOP_BACKGROUND_AUTHENTICATION";
+
+    /**
+     * Whether the service has been started and not stopped yet. Set right away when starting and
+     * stopping, as the service gets created and destroyed asynchronously.
+     */
+    private static volatile boolean running;
+
+    private SampleApplication application;
+
+    private HourlyUsage usage;
+
+    private Disposable detectionReference;
+
+    private final CompositeDisposable wakeupDisposables = new CompositeDisposable();
+
+    public static void start(@NonNull Context context) {
+        running = true;
+        ContextCompat.startForegroundService(context, new Intent(context, BackgroundAuthenticationService.class));
+    }
+
+    public static void stop(@NonNull Context context) {
+        running = false;
+        context.stopService(new Intent(context, BackgroundAuthenticationService.class));
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        Timber.d("onCreate() called");
+        running = true;
+        application = (SampleApplication) getApplication();
+        startForeground(NOTIFICATION_ID, createNotification());
+
+        usage = new HourlyUsage(SystemClock.elapsedRealtime(), Process.getElapsedCpuTime());
+        application.setBackgroundUsage(usage);
+
+        DetectionManager detectionManager = application.getDetectionManager();
+        SeamlessModeManager seamlessModeManager = application.getSeamlessModeManager();
+        wakeupDisposables.add(detectionManager.observeDetectionRunning()
+                .filter(detectionRunning -> detectionRunning)
+                .subscribe(
+                        detectionRunning -> recordWakeup(),
+                        throwable -> Timber.w(throwable, "Unable to observe detection")
+                ));
+        wakeupDisposables.add(seamlessModeManager.observeSampleBatches()
+                .subscribe(
+                        batchSize -> recordWakeup(),
+                        throwable -> Timber.w(throwable, "Unable to observe sample batches")
+                ));
+
+        // batches samples while held, even if the seamless mode is enabled from the UI as well
+        seamlessModeManager.startInBackground(SAMPLE_BATCH_INTERVAL);
+        detectionReference = detectionManager.acquire(DetectionPolicy.SEAMLESS);
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        if (intent != null && ACTION_STOP.equals(intent.getAction())) {
+            stopSelf();
+        }
+        return START_STICKY;
+    }
+
+    @Override
+    public void onDestroy() {
+        Timber.d("onDestroy() called");
+        detectionReference.dispose();
+        application.getSeamlessModeManager().stopInBackground();
+        wakeupDisposables.clear();
+        usage.recordCpuTime(SystemClock.elapsedRealtime(), Process.getElapsedCpuTime());
+        Timber.i("Background authentication stopped: %s", usage);
+        running = false;
+        super.onDestroy();
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    private void recordWakeup() {
+        usage.recordWakeup(SystemClock.elapsedRealtime(), Process.getElapsedCpuTime());
+    }
+
+    @NonNull
+    private Notification createNotification() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(NOTIFICATION_CHANNEL_ID,
+                    getString(R.string.notification_channel_background_authentication), NotificationManager.IMPORTANCE_LOW);
+            getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+        PendingIntent contentIntent = PendingIntent.getActivity(this, 0,
+                new Intent(this, AuthenticatorListActivity.class), 0);
+        PendingIntent stopIntent = PendingIntent.getService(this, 0,
+                new Intent(this, BackgroundAuthenticationService.class).setAction(ACTION_STOP), 0);
+        return new NotificationCompat.Builder(this, NOTIFICATION_CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_autorenew_black_24dp)
+                .setContentTitle(getString(R.string.notification_background_authentication_title))
+                .setContentText(getString(R.string.notification_background_authentication_text))
+                .setContentIntent(contentIntent)
+                .addAction(0, getString(R.string.action_stop), stopIntent)
+                .setPriority(NotificationCompat.PRIORITY_LOW)
+                .setOngoing(true)
+                .build();
+    }
+
+}
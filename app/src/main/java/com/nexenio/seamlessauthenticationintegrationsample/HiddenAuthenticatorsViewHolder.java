@@ -0,0 +1,26 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import android.view.View;
+import android.widget.Button;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * The last item of the authenticator list if not all authenticators are shown, which shows more
+ * of them when clicked.
+ */
+class HiddenAuthenticatorsViewHolder extends RecyclerView.ViewHolder {
+
+    private final Button showMoreButton;
+
+    HiddenAuthenticatorsViewHolder(View view, View.OnClickListener showMoreClickListener) {
+        super(view);
+        showMoreButton = view.findViewById(R.id.showMoreButton);
+        showMoreButton.setOnClickListener(showMoreClickListener);
+    }
+
+    void renderHiddenCount(int hiddenCount) {
+        showMoreButton.setText(itemView.getContext().getString(R.string.action_show_more_authenticators, hiddenCount));
+    }
+
+}
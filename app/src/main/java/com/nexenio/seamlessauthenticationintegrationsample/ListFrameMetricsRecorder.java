@@ -0,0 +1,98 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyMetrics;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyStage;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Records the durations of frames that are rendered while a list is scrolling or has just been
+ * updated, as {@link LatencyStage#LIST_SCROLL_FRAME} and {@link LatencyStage#LIST_UPDATE_FRAME}.
+ * Frames in which neither happened are ignored, so that idle frames don't skew the percentiles.
+ *
+ * Frame metrics are only available on Android N and later, on earlier versions nothing is
+ * recorded.
+ */
+class ListFrameMetricsRecorder {
+
+    @NonNull
+    private final Window window;
+
+    @NonNull
+    private final LatencyMetrics latencyMetrics;
+
+    private final AtomicBoolean updatePending = new AtomicBoolean();
+
+    private volatile boolean scrolling;
+
+    @Nullable
+    private HandlerThread handlerThread;
+
+    @Nullable
+    private Window.OnFrameMetricsAvailableListener frameMetricsListener;
+
+    ListFrameMetricsRecorder(@NonNull Window window, @NonNull RecyclerView recyclerView, @NonNull LatencyMetrics latencyMetrics) {
+        this.window = window;
+        this.latencyMetrics = latencyMetrics;
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                scrolling = newState != RecyclerView.SCROLL_STATE_IDLE;
+            }
+        });
+    }
+
+    /**
+     * Marks the next rendered frame as the one that shows the latest list update.
+     */
+    void onListUpdated() {
+        updatePending.set(true);
+    }
+
+    void start() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N || frameMetricsListener != null) {
+            return;
+        }
+        handlerThread = new HandlerThread("ListFrameMetrics");
+        handlerThread.start();
+        frameMetricsListener = createFrameMetricsListener();
+        window.addOnFrameMetricsAvailableListener(frameMetricsListener, new Handler(handlerThread.getLooper()));
+    }
+
+    void stop() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N || frameMetricsListener == null) {
+            return;
+        }
+        window.removeOnFrameMetricsAvailableListener(frameMetricsListener);
+        frameMetricsListener = null;
+        handlerThread.quitSafely();
+        handlerThread = null;
+    }
+
+    @TargetApi(Build.VERSION_CODES.N)
+    private Window.OnFrameMetricsAvailableListener createFrameMetricsListener() {
+        return (window, frameMetrics, dropCountSinceLastInvocation) -> {
+            if (frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+                return;
+            }
+            long totalDuration = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+            if (scrolling) {
+                latencyMetrics.record(LatencyStage.LIST_SCROLL_FRAME, totalDuration);
+            } else if (updatePending.getAndSet(false)) {
+                latencyMetrics.record(LatencyStage.LIST_UPDATE_FRAME, totalDuration);
+            }
+        };
+    }
+
+}
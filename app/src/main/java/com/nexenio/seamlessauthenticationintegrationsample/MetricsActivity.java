@@ -0,0 +1,216 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import android.annotation.SuppressLint;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.HourlyUsage;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyMetrics;
+import com.nexenio.seamlessauthenticationintegrationsample.replay.SessionRecorder;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * A debug screen that shows the startup phases, the latency percentiles of the {@link
+ * LatencyMetrics}, the statistics of the anticipation, the property cache, the seamless mode, the
+ * workload schedulers and the UI updates and the usage of the background authentication. The metrics can be dumped to a file in the
+ * external files directory.
+ *
+ * Tracing can be toggled here as well. Recorded traces are dumped in the JSON trace event format,
+ * which can be opened in Perfetto. Detector sessions can be recorded with the {@link
+ * SessionRecorder}, in order to replay them without hardware.
+ */
+public class MetricsActivity extends AppCompatActivity {
+
+    private static final long UPDATE_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+    private SampleApplication application;
+
+    private TextView metricsTextView;
+
+    private Disposable metricsUpdateDisposable;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        application = (SampleApplication) getApplication();
+        setContentView(R.layout.activity_metrics);
+        metricsTextView = findViewById(R.id.metricsTextView);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        metricsUpdateDisposable = Observable.interval(0, UPDATE_INTERVAL, TimeUnit.MILLISECONDS)
+                .flatMapSingle(count -> getReadableMetrics())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        metricsTextView::setText,
+                        throwable -> Timber.w(throwable, "Unable to update metrics")
+                );
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (metricsUpdateDisposable != null && !metricsUpdateDisposable.isDisposed()) {
+            metricsUpdateDisposable.dispose();
+        }
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_metrics, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        menu.findItem(R.id.action_tracing).setChecked(Tracing.isEnabled());
+        menu.findItem(R.id.action_record_session).setChecked(application.getSessionRecorder().isRecording());
+        return super.onPrepareOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        int id = item.getItemId();
+        if (id == R.id.action_dump_metrics) {
+            dumpMetrics();
+            return true;
+        } else if (id == R.id.action_reset_metrics) {
+            application.getLatencyMetrics().reset();
+            application.getWorkloadSchedulers().resetStatistics();
+            application.getUiUpdateScheduler().resetCounters();
+            return true;
+        } else if (id == R.id.action_tracing) {
+            toggleTracing();
+            return true;
+        } else if (id == R.id.action_dump_trace) {
+            dumpTrace();
+            return true;
+        } else if (id == R.id.action_record_session) {
+            toggleSessionRecording();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private Single<String> getReadableMetrics() {
+        return Single.fromCallable(() -> {
+            StringWriter writer = new StringWriter();
+            writeMetrics(writer);
+            return writer.toString();
+        });
+    }
+
+    private void writeMetrics(@NonNull Writer writer) throws IOException {
+        application.getStartupTrace().dump(writer);
+        application.getLatencyMetrics().dump(writer);
+        application.getWorkloadSchedulers().dump(writer);
+        writer.write(application.getUiUpdateScheduler().toString());
+        writer.write(System.lineSeparator());
+        writer.write(application.getAnticipationManager().getStatistics().toString());
+        writer.write(System.lineSeparator());
+        writer.write(application.getPropertyCache().getStatistics().toString());
+        writer.write(System.lineSeparator());
+        writer.write(application.getSeamlessModeManager().getStatistics().toString());
+        writer.write(System.lineSeparator());
+        writer.write(application.getSessionRecorder().toString());
+        writer.write(System.lineSeparator());
+        HourlyUsage backgroundUsage = application.getBackgroundUsage();
+        if (backgroundUsage != null) {
+            backgroundUsage.dump(writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Starts or stops tracing. Starting clears the previously recorded trace.
+     */
+    private void toggleTracing() {
+        if (Tracing.isEnabled()) {
+            Tracing.setEnabled(false);
+        } else {
+            application.getTraceRecorder().clear();
+            Tracing.setEnabled(true);
+        }
+        invalidateOptionsMenu();
+    }
+
+    /**
+     * Starts recording a new session log or stops the current recording.
+     */
+    private void toggleSessionRecording() {
+        SessionRecorder sessionRecorder = application.getSessionRecorder();
+        if (sessionRecorder.isRecording()) {
+            sessionRecorder.stop();
+            Toast.makeText(this, getString(R.string.status_session_recorded, sessionRecorder.getRecordedSampleCount(),
+                    String.valueOf(sessionRecorder.getFile())), Toast.LENGTH_LONG).show();
+        } else {
+            sessionRecorder.start(new File(getDumpDirectory(), "session_" + System.currentTimeMillis() + ".bin"));
+        }
+        invalidateOptionsMenu();
+    }
+
+    @SuppressLint("CheckResult")
+    private void dumpTrace() {
+        File file = new File(getDumpDirectory(), "trace_" + System.currentTimeMillis() + ".json");
+        Completable.fromAction(() -> {
+            try (Writer writer = new FileWriter(file)) {
+                application.getTraceRecorder().writeJson(writer);
+            }
+        }).subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        () -> Toast.makeText(this, getString(R.string.status_trace_dumped, file.getAbsolutePath()), Toast.LENGTH_LONG).show(),
+                        throwable -> {
+                            Timber.w(throwable, "Unable to dump trace");
+                            Toast.makeText(this, R.string.error_trace_dump_failed, Toast.LENGTH_LONG).show();
+                        }
+                );
+    }
+
+    @NonNull
+    private File getDumpDirectory() {
+        File directory = getExternalFilesDir(null);
+        return directory != null ? directory : getFilesDir();
+    }
+
+    @SuppressLint("CheckResult")
+    private void dumpMetrics() {
+        File file = new File(getDumpDirectory(), "metrics_" + System.currentTimeMillis() + ".txt");
+        Completable.fromAction(() -> {
+            try (Writer writer = new FileWriter(file)) {
+                writeMetrics(writer);
+            }
+        }).subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        () -> Toast.makeText(this, getString(R.string.status_metrics_dumped, file.getAbsolutePath()), Toast.LENGTH_LONG).show(),
+                        throwable -> {
+                            Timber.w(throwable, "Unable to dump metrics");
+                            Toast.makeText(this, R.string.error_metrics_dump_failed, Toast.LENGTH_LONG).show();
+                        }
+                );
+    }
+
+}
@@ -1,28 +1,365 @@
 package com.nexenio.seamlessauthenticationintegrationsample;
 
+import android.annotation.SuppressLint;
 import android.app.Application;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
 
+import com.nexenio.seamlessauthentication.AuthenticationProperties;
 import com.nexenio.seamlessauthentication.SeamlessAuthentication;
 import com.nexenio.seamlessauthentication.SeamlessAuthenticatorDetector;
+import com.nexenio.seamlessauthenticationintegrationsample.anticipation.AnticipationManager;
+import com.nexenio.seamlessauthenticationintegrationsample.authentication.AuthenticationCoordinator;
+import com.nexenio.seamlessauthenticationintegrationsample.authentication.AuthenticationPolicy;
+import com.nexenio.seamlessauthenticationintegrationsample.cache.AuthenticatorCache;
+import com.nexenio.seamlessauthenticationintegrationsample.detection.DetectionManager;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.GatewayTracker;
+import com.nexenio.seamlessauthenticationintegrationsample.guard.MainThreadGuard;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.HourlyUsage;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyMetrics;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.StartupPhase;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.StartupTrace;
+import com.nexenio.seamlessauthenticationintegrationsample.property.AuthenticatorPropertyCache;
+import com.nexenio.seamlessauthenticationintegrationsample.registry.AuthenticatorRegistry;
+import com.nexenio.seamlessauthenticationintegrationsample.replay.SessionRecorder;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.UiUpdateScheduler;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+import com.nexenio.seamlessauthenticationintegrationsample.simulation.AuthenticatorSimulator;
+import com.nexenio.seamlessauthenticationintegrationsample.simulation.SimulationConfiguration;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.RxTracing;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.SystemTraceSink;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.TraceRecorder;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessModeManager;
+
+import java.io.File;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import timber.log.Timber;
 
 public class SampleApplication extends Application {
 
+    /**
+     * The number of most frequently used authenticators that get anticipated as soon as they are
+     * detected.
+     */
+    private static final int PREFERRED_AUTHENTICATORS_COUNT = 3;
+
+    /**
+     * Approximation of the process start on devices that don't provide it, as this class is
+     * loaded before any other component of the app.
+     */
+    private static final long CLASS_LOAD_TIMESTAMP = SystemClock.elapsedRealtimeNanos();
+
+    @NonNull
+    private StartupTrace startupTrace;
+
+    @NonNull
+    private TraceRecorder traceRecorder;
+
+    @NonNull
+    private MainThreadGuard mainThreadGuard;
+
+    @NonNull
+    private WorkloadSchedulers workloadSchedulers;
+
+    @NonNull
+    private UiUpdateScheduler uiUpdateScheduler;
+
+    @NonNull
+    private Single<SeamlessAuthenticatorDetector> authenticatorDetector;
+
+    @NonNull
+    private AuthenticatorRegistry authenticatorRegistry;
+
+    @NonNull
+    private AuthenticationProperties authenticationProperties;
+
+    @NonNull
+    private AnticipationManager anticipationManager;
+
+    @NonNull
+    private LatencyMetrics latencyMetrics;
+
+    @NonNull
+    private DetectionManager detectionManager;
+
+    @NonNull
+    private AuthenticatorCache authenticatorCache;
+
+    @NonNull
+    private AuthenticatorPropertyCache propertyCache;
+
     @NonNull
-    private SeamlessAuthenticatorDetector authenticatorDetector;
+    private GatewayTracker gatewayTracker;
+
+    @NonNull
+    private AuthenticatorSnapshotRepository snapshotRepository;
+
+    @NonNull
+    private AuthenticationCoordinator authenticationCoordinator;
+
+    @NonNull
+    private SeamlessModeManager seamlessModeManager;
+
+    @NonNull
+    private SessionRecorder sessionRecorder;
+
+    @Nullable
+    private volatile HourlyUsage backgroundUsage;
 
     @Override
     public void onCreate() {
         super.onCreate();
-        Timber.plant(new Timber.DebugTree());
-        this.authenticatorDetector = SeamlessAuthentication.createDetector(this);
+        this.startupTrace = new StartupTrace(getProcessStartTimestamp());
+        if (BuildConfig.DEBUG) {
+            Timber.plant(new Timber.DebugTree());
+        }
+        initializeTracing();
+        this.mainThreadGuard = createMainThreadGuard();
+        if (shouldGuardMainThread()) {
+            mainThreadGuard.install();
+        }
+        this.authenticatorDetector = Single.fromCallable(this::createAuthenticatorDetector)
+                .doOnSuccess(detector -> startupTrace.mark(StartupPhase.DETECTOR_CREATED, SystemClock.elapsedRealtimeNanos()))
+                .subscribeOn(Schedulers.io())
+                .cache();
+        this.latencyMetrics = new LatencyMetrics();
+        this.workloadSchedulers = new WorkloadSchedulers();
+        this.uiUpdateScheduler = new UiUpdateScheduler();
+        this.propertyCache = new AuthenticatorPropertyCache();
+        this.authenticatorRegistry = new AuthenticatorRegistry(propertyCache, workloadSchedulers);
+        this.authenticationProperties = createAuthenticationProperties();
+        this.gatewayTracker = new GatewayTracker(propertyCache);
+        this.anticipationManager = new AnticipationManager(authenticatorRegistry, gatewayTracker, authenticationProperties, latencyMetrics,
+                workloadSchedulers);
+        this.detectionManager = new DetectionManager(authenticatorDetector, authenticatorRegistry, anticipationManager, latencyMetrics, startupTrace,
+                workloadSchedulers);
+        this.authenticatorCache = new AuthenticatorCache(new File(getFilesDir(), "authenticators.bin"));
+        this.snapshotRepository = new AuthenticatorSnapshotRepository(this, authenticatorDetector, detectionManager, propertyCache,
+                gatewayTracker, authenticatorCache, workloadSchedulers);
+        this.authenticationCoordinator = new AuthenticationCoordinator(authenticationProperties, new AuthenticationPolicy.Builder().build(),
+                anticipationManager, gatewayTracker, authenticatorCache, latencyMetrics, workloadSchedulers.authentication());
+        this.seamlessModeManager = new SeamlessModeManager(detectionManager, authenticatorRegistry, propertyCache,
+                authenticationCoordinator, latencyMetrics, workloadSchedulers);
+        this.sessionRecorder = new SessionRecorder(detectionManager, propertyCache, gatewayTracker, workloadSchedulers);
+        createAuthenticatorDetectorInBackground();
+        preferFrequentlyUsedAuthenticators();
+        startupTrace.mark(StartupPhase.APPLICATION_CREATED, SystemClock.elapsedRealtimeNanos());
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfiguration) {
+        super.onConfigurationChanged(newConfiguration);
+        snapshotRepository.onConfigurationChanged();
+    }
+
+    /**
+     * Prepares tracing to the system trace and to the {@link TraceRecorder}. Tracing stays disabled
+     * until enabled in the metrics screen.
+     */
+    private void initializeTracing() {
+        this.traceRecorder = new TraceRecorder();
+        Tracing.addSink(new SystemTraceSink());
+        Tracing.addSink(traceRecorder);
+        RxTracing.install();
+    }
+
+    /**
+     * @return true if blocking calls and stalls on the main thread should be detected, which is
+     * the case in debug builds
+     */
+    protected boolean shouldGuardMainThread() {
+        return BuildConfig.DEBUG;
+    }
+
+    protected MainThreadGuard createMainThreadGuard() {
+        return new MainThreadGuard();
+    }
+
+    private static long getProcessStartTimestamp() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            return TimeUnit.MILLISECONDS.toNanos(Process.getStartElapsedRealtime());
+        }
+        return CLASS_LOAD_TIMESTAMP;
+    }
+
+    /**
+     * Starts creating the detector without blocking the main thread. Everything that needs the
+     * detector subscribes to {@link #getAuthenticatorDetector()} and gets the same instance.
+     */
+    @SuppressLint("CheckResult")
+    private void createAuthenticatorDetectorInBackground() {
+        authenticatorDetector.subscribe(
+                detector -> Timber.d("Authenticator detector created"),
+                throwable -> Timber.e(throwable, "Unable to create authenticator detector")
+        );
+    }
+
+    /**
+     * Loads the authenticator cache in the background and lets the anticipation manager prefer the
+     * most frequently used authenticators.
+     */
+    @SuppressLint("CheckResult")
+    private void preferFrequentlyUsedAuthenticators() {
+        Completable.fromAction(() -> anticipationManager.setPreferredIds(authenticatorCache.getFrequentlyUsedIds(PREFERRED_AUTHENTICATORS_COUNT)))
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                        () -> Timber.d("Authenticator cache loaded"),
+                        throwable -> Timber.w(throwable, "Unable to load authenticator cache")
+                );
+    }
+
+    /**
+     * Creates a detector for simulated authenticators if enabled in the build configuration, or the
+     * real one otherwise.
+     */
+    protected SeamlessAuthenticatorDetector createAuthenticatorDetector() {
+        if (BuildConfig.SIMULATED_AUTHENTICATORS > 0) {
+            Timber.i("Simulating %d authenticators", BuildConfig.SIMULATED_AUTHENTICATORS);
+            SimulationConfiguration configuration = new SimulationConfiguration.Builder()
+                    .setAuthenticatorCount(BuildConfig.SIMULATED_AUTHENTICATORS)
+                    .build();
+            return new AuthenticatorSimulator(configuration).createDetector();
+        }
+        return SeamlessAuthentication.createDetector(this);
+    }
+
+    private static AuthenticationProperties createAuthenticationProperties() {
+        return new AuthenticationProperties() {
+
+            private UUID userId = UUID.randomUUID();
+            private UUID deviceId = UUID.randomUUID();
+
+            @Override
+            public Single<String> getUserName() {
+                return Single.just("Demo User");
+            }
+
+            @Override
+            public Single<UUID> getUserId() {
+                return Single.just(userId);
+            }
+
+            @Override
+            public Single<UUID> getDeviceId() {
+                return Single.just(deviceId);
+            }
+        };
     }
 
+    /**
+     * Emits the detector once it has been created, on a background thread.
+     */
     @NonNull
-    public SeamlessAuthenticatorDetector getAuthenticatorDetector() {
+    public Single<SeamlessAuthenticatorDetector> getAuthenticatorDetector() {
         return authenticatorDetector;
     }
 
+    @NonNull
+    public AuthenticatorRegistry getAuthenticatorRegistry() {
+        return authenticatorRegistry;
+    }
+
+    @NonNull
+    public AuthenticationProperties getAuthenticationProperties() {
+        return authenticationProperties;
+    }
+
+    @NonNull
+    public AnticipationManager getAnticipationManager() {
+        return anticipationManager;
+    }
+
+    @NonNull
+    public LatencyMetrics getLatencyMetrics() {
+        return latencyMetrics;
+    }
+
+    @NonNull
+    public DetectionManager getDetectionManager() {
+        return detectionManager;
+    }
+
+    @NonNull
+    public AuthenticatorCache getAuthenticatorCache() {
+        return authenticatorCache;
+    }
+
+    @NonNull
+    public StartupTrace getStartupTrace() {
+        return startupTrace;
+    }
+
+    @NonNull
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    @NonNull
+    public MainThreadGuard getMainThreadGuard() {
+        return mainThreadGuard;
+    }
+
+    @NonNull
+    public WorkloadSchedulers getWorkloadSchedulers() {
+        return workloadSchedulers;
+    }
+
+    @NonNull
+    public UiUpdateScheduler getUiUpdateScheduler() {
+        return uiUpdateScheduler;
+    }
+
+    @NonNull
+    public AuthenticatorSnapshotRepository getSnapshotRepository() {
+        return snapshotRepository;
+    }
+
+    @NonNull
+    public AuthenticationCoordinator getAuthenticationCoordinator() {
+        return authenticationCoordinator;
+    }
+
+    @NonNull
+    public AuthenticatorPropertyCache getPropertyCache() {
+        return propertyCache;
+    }
+
+    @NonNull
+    public GatewayTracker getGatewayTracker() {
+        return gatewayTracker;
+    }
+
+    @NonNull
+    public SeamlessModeManager getSeamlessModeManager() {
+        return seamlessModeManager;
+    }
+
+    @NonNull
+    public SessionRecorder getSessionRecorder() {
+        return sessionRecorder;
+    }
+
+    /**
+     * @return the usage of the current or last run of the {@link BackgroundAuthenticationService},
+     * or null if it hasn't been started yet
+     */
+    @Nullable
+    public HourlyUsage getBackgroundUsage() {
+        return backgroundUsage;
+    }
+
+    void setBackgroundUsage(@NonNull HourlyUsage backgroundUsage) {
+        this.backgroundUsage = backgroundUsage;
+    }
+
 }
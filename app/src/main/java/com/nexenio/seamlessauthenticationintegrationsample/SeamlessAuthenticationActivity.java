@@ -13,12 +13,18 @@ import android.content.pm.PackageManager;
 import android.location.LocationManager;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.provider.Settings;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.FrameLayout;
 
 import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
 import com.nexenio.seamlessauthentication.SeamlessAuthenticatorDetector;
+import com.nexenio.seamlessauthenticationintegrationsample.detection.DetectionManager;
+import com.nexenio.seamlessauthenticationintegrationsample.detection.DetectionPolicy;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.StartupPhase;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.StartupTrace;
 import com.tbruyelle.rxpermissions2.RxPermissions;
 
 import androidx.annotation.CallSuper;
@@ -27,14 +33,18 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.coordinatorlayout.widget.CoordinatorLayout;
 import androidx.core.content.ContextCompat;
+import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.BehaviorSubject;
 import timber.log.Timber;
 
 /**
  * An activity that uses a {@link SeamlessAuthenticatorDetector} to detect {@link
- * SeamlessAuthenticator}s.
+ * SeamlessAuthenticator}s. Detection is owned by the {@link DetectionManager}, the activity holds a
+ * reference to it while resumed.
  */
 public abstract class SeamlessAuthenticationActivity extends AppCompatActivity {
 
@@ -44,8 +54,22 @@ public abstract class SeamlessAuthenticationActivity extends AppCompatActivity {
     protected SampleApplication application;
 
     protected RxPermissions rxPermissions;
-    protected SeamlessAuthenticatorDetector authenticatorDetector;
-    protected Disposable authenticatorDetectorDisposable;
+    /**
+     * Emits the detector once it has been created, which may still be in progress when the
+     * activity gets created.
+     */
+    protected Single<SeamlessAuthenticatorDetector> authenticatorDetector;
+    protected DetectionManager detectionManager;
+
+    /**
+     * The reference to the detection of the {@link DetectionManager}, held while the detection of
+     * this activity is running.
+     */
+    private Disposable detectionReference;
+
+    private final BehaviorSubject<Boolean> detectionReferenceHeldSubject = BehaviorSubject.createDefault(false);
+
+    private final CompositeDisposable detectionStateDisposable = new CompositeDisposable();
 
     protected CoordinatorLayout coordinatorLayout;
     protected CollapsingToolbarLayout toolbarLayout;
@@ -62,12 +86,33 @@ public abstract class SeamlessAuthenticationActivity extends AppCompatActivity {
 
         application = (SampleApplication) getApplication();
         authenticatorDetector = application.getAuthenticatorDetector();
+        detectionManager = application.getDetectionManager();
         rxPermissions = new RxPermissions(this);
 
         setContentView();
         initializeViews();
 
         indicateDetectionStopped();
+        traceStartup();
+    }
+
+    /**
+     * Marks the creation and the first frame of the first activity in the {@link StartupTrace}.
+     */
+    private void traceStartup() {
+        StartupTrace startupTrace = application.getStartupTrace();
+        if (!startupTrace.mark(StartupPhase.FIRST_ACTIVITY_CREATED, SystemClock.elapsedRealtimeNanos())) {
+            return;
+        }
+        View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                startupTrace.mark(StartupPhase.FIRST_FRAME, SystemClock.elapsedRealtimeNanos());
+                return true;
+            }
+        });
     }
 
     abstract void setContentView();
@@ -93,6 +138,7 @@ public abstract class SeamlessAuthenticationActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
+        startObservingDetectionState();
         startSeamlessAuthenticatorDetection();
     }
 
@@ -100,6 +146,7 @@ public abstract class SeamlessAuthenticationActivity extends AppCompatActivity {
     @Override
     protected void onPause() {
         super.onPause();
+        detectionStateDisposable.clear();
         stopSeamlessAuthenticatorDetection();
     }
 
@@ -107,27 +154,65 @@ public abstract class SeamlessAuthenticationActivity extends AppCompatActivity {
         Seamless authenticator detection
      */
 
+    private void startObservingDetectionState() {
+        detectionStateDisposable.add(Observable.combineLatest(
+                detectionManager.observeDetectionRunning().observeOn(AndroidSchedulers.mainThread()),
+                detectionReferenceHeldSubject,
+                (running, referenceHeld) -> running && referenceHeld)
+                .distinctUntilChanged()
+                .subscribe(
+                        running -> {
+                            if (running) {
+                                indicateDetectionStarted();
+                            } else {
+                                indicateDetectionStopped();
+                            }
+                        },
+                        throwable -> Timber.w(throwable, "Unable to observe detection state")
+                ));
+        detectionStateDisposable.add(detectionManager.observeDetectionErrors()
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        this::performSeamlessAuthenticationTroubleshooting,
+                        throwable -> Timber.w(throwable, "Unable to observe detection errors")
+                ));
+    }
+
+    /**
+     * Acquires a reference to the detection of the {@link DetectionManager}. Detection that stopped
+     * because of an error gets restarted.
+     */
     @CallSuper
     protected void startSeamlessAuthenticatorDetection() {
         Timber.d("startSeamlessAuthenticatorDetection() called");
-        authenticatorDetectorDisposable = authenticatorDetector.detect()
-                .ignoreElements()
-                .doOnSubscribe(subscription -> runOnUiThread(this::indicateDetectionStarted))
-                .doFinally(() -> runOnUiThread(this::indicateDetectionStopped))
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(
-                        () -> Timber.i("Seamless authenticator detection completed"),
-                        this::performSeamlessAuthenticationTroubleshooting
-                );
+        Disposable previousReference = detectionReference;
+        detectionReference = detectionManager.acquire(DetectionPolicy.CONTINUOUS);
+        if (previousReference != null) {
+            previousReference.dispose();
+        }
+        detectionReferenceHeldSubject.onNext(true);
     }
 
+    /**
+     * Releases the reference to the detection of the {@link DetectionManager}. Detection keeps
+     * running for a grace period, so that the next activity can continue using it.
+     */
     @CallSuper
     protected void stopSeamlessAuthenticatorDetection() {
         Timber.d("stopSeamlessAuthenticatorDetection() called");
-        if (authenticatorDetectorDisposable != null && !authenticatorDetectorDisposable.isDisposed()) {
-            authenticatorDetectorDisposable.dispose();
+        if (detectionReference != null) {
+            detectionReference.dispose();
+            detectionReference = null;
         }
+        detectionReferenceHeldSubject.onNext(false);
+    }
+
+    /**
+     * Emits every {@link SeamlessAuthenticator} that is detected while detection is running,
+     * possibly the same instance multiple times. Emissions happen on a background thread.
+     */
+    protected Observable<SeamlessAuthenticator> getDetectedAuthenticatorEvents() {
+        return detectionManager.getDetectedAuthenticatorEvents();
     }
 
     @CallSuper
@@ -158,8 +243,7 @@ public abstract class SeamlessAuthenticationActivity extends AppCompatActivity {
     }
 
     private void performSeamlessAuthenticationTroubleshooting(@NonNull Throwable throwable) {
-        Timber.w(throwable, "Unable to detect seamless authenticators");
-
+        Timber.d("performSeamlessAuthenticationTroubleshooting() called");
         checkPermissions();
         checkBluetoothEnabled();
         checkLocationServicesEnabled();
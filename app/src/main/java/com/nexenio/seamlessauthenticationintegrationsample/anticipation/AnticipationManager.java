@@ -0,0 +1,378 @@
+package com.nexenio.seamlessauthenticationintegrationsample.anticipation;
+
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.AuthenticationProperties;
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthentication.accesscontrol.gate.Gate;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.GatewayTracker;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.TrackedGateway;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyMetrics;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyStage;
+import com.nexenio.seamlessauthenticationintegrationsample.registry.AuthenticatorIndex;
+import com.nexenio.seamlessauthenticationintegrationsample.registry.AuthenticatorRegistry;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.RxTracing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * Keeps the nearest detected {@link SeamlessAuthenticator}s anticipated, so that an authentication
+ * can complete faster once the user is in range.
+ *
+ * While running, the authenticators of the {@link AuthenticatorRegistry} are ranked by distance
+ * periodically. Anticipations are started for the nearest ones (and all pinned ones), with at most
+ * a fixed number of anticipations in flight. Anticipations of authenticators that are not among
+ * the nearest anymore get cancelled.
+ *
+ * The closest gateways of gates are tracked while ranking. If the user approaches another opening
+ * of a gate than the one that has been anticipated, the anticipation is restarted so that it
+ * targets the opening the user is actually approaching.
+ *
+ * Distances are requested on the property fetch scheduler of the {@link WorkloadSchedulers},
+ * anticipations are started on its anticipation scheduler.
+ */
+public class AnticipationManager {
+
+    public static final int DEFAULT_MAXIMUM_ANTICIPATIONS = 3;
+
+    public static final int DEFAULT_MAXIMUM_CONCURRENCY = 2;
+
+    private static final long RANKING_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+    private static final int MAXIMUM_CONCURRENT_DISTANCE_REQUESTS = 8;
+
+    /**
+     * Minimum interval between two rankings caused by the detection of a pinned or preferred
+     * authenticator.
+     */
+    private static final long PRIORITY_RANKING_INTERVAL = 100;
+
+    @NonNull
+    private final AuthenticatorRegistry authenticatorRegistry;
+
+    @NonNull
+    private final GatewayTracker gatewayTracker;
+
+    @NonNull
+    private final AuthenticationProperties authenticationProperties;
+
+    @NonNull
+    private final LatencyMetrics latencyMetrics;
+
+    @NonNull
+    private final WorkloadSchedulers workloadSchedulers;
+
+    private final int maximumAnticipations;
+
+    private final int maximumConcurrency;
+
+    @NonNull
+    private final Map<UUID, Anticipation> anticipations = new ConcurrentHashMap<>();
+
+    @NonNull
+    private final Set<UUID> pinnedIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    @NonNull
+    private volatile Set<UUID> preferredIds = Collections.emptySet();
+
+    @NonNull
+    private final AtomicInteger runningCount = new AtomicInteger();
+
+    private final AtomicLong startedCount = new AtomicLong();
+    private final AtomicLong succeededCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong hitDurationSum = new AtomicLong();
+    private final AtomicLong missDurationSum = new AtomicLong();
+
+    private Disposable rankingDisposable;
+
+    public AnticipationManager(@NonNull AuthenticatorRegistry authenticatorRegistry, @NonNull GatewayTracker gatewayTracker,
+                               @NonNull AuthenticationProperties authenticationProperties, @NonNull LatencyMetrics latencyMetrics,
+                               @NonNull WorkloadSchedulers workloadSchedulers) {
+        this(authenticatorRegistry, gatewayTracker, authenticationProperties, latencyMetrics, workloadSchedulers,
+                DEFAULT_MAXIMUM_ANTICIPATIONS, DEFAULT_MAXIMUM_CONCURRENCY);
+    }
+
+    /**
+     * @param maximumAnticipations the number of nearest authenticators that should be anticipated
+     * @param maximumConcurrency   the maximum number of anticipations that are in flight at the same
+     *                             time
+     */
+    public AnticipationManager(@NonNull AuthenticatorRegistry authenticatorRegistry, @NonNull GatewayTracker gatewayTracker,
+                               @NonNull AuthenticationProperties authenticationProperties, @NonNull LatencyMetrics latencyMetrics,
+                               @NonNull WorkloadSchedulers workloadSchedulers, int maximumAnticipations, int maximumConcurrency) {
+        this.authenticatorRegistry = authenticatorRegistry;
+        this.gatewayTracker = gatewayTracker;
+        this.authenticationProperties = authenticationProperties;
+        this.latencyMetrics = latencyMetrics;
+        this.workloadSchedulers = workloadSchedulers;
+        this.maximumAnticipations = maximumAnticipations;
+        this.maximumConcurrency = maximumConcurrency;
+    }
+
+    /**
+     * Starts ranking and anticipating authenticators. Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (rankingDisposable != null && !rankingDisposable.isDisposed()) {
+            return;
+        }
+        Timber.d("Starting anticipation manager");
+        rankingDisposable = Observable.merge(
+                Observable.interval(0, RANKING_INTERVAL, TimeUnit.MILLISECONDS, Schedulers.computation()),
+                authenticatorRegistry.observeUpdates()
+                        .filter(entry -> isPrioritized(entry.getId()) && !anticipations.containsKey(entry.getId()))
+                        .throttleLatest(PRIORITY_RANKING_INTERVAL, TimeUnit.MILLISECONDS, Schedulers.computation(), true)
+                        .map(entry -> 0L))
+                .concatMapSingle(trigger -> rankAuthenticators())
+                .subscribe(
+                        this::updateAnticipations,
+                        throwable -> Timber.w(throwable, "Unable to update anticipations")
+                );
+    }
+
+    /**
+     * Stops ranking and cancels all anticipations that are in flight.
+     */
+    public synchronized void stop() {
+        if (rankingDisposable == null || rankingDisposable.isDisposed()) {
+            return;
+        }
+        Timber.d("Stopping anticipation manager: %s", getStatistics());
+        rankingDisposable.dispose();
+        for (UUID id : new ArrayList<>(anticipations.keySet())) {
+            cancelAnticipation(id);
+        }
+    }
+
+    /**
+     * Keeps the authenticator with the specified ID anticipated while it's detected, regardless of
+     * its distance.
+     */
+    public void pin(@NonNull UUID id) {
+        pinnedIds.add(id);
+    }
+
+    public void unpin(@NonNull UUID id) {
+        pinnedIds.remove(id);
+    }
+
+    /**
+     * Treats the authenticators with the specified IDs like pinned ones, e.g. because they are
+     * used frequently. They get anticipated right after their first detection, without waiting for
+     * the next ranking.
+     */
+    public void setPreferredIds(@NonNull Collection<UUID> ids) {
+        Timber.d("Preferring %d authenticators", ids.size());
+        preferredIds = Collections.unmodifiableSet(new HashSet<>(ids));
+    }
+
+    private boolean isPrioritized(@NonNull UUID id) {
+        return pinnedIds.contains(id) || preferredIds.contains(id);
+    }
+
+    /**
+     * Should be called after an authentication succeeded, in order to classify it as hit or miss.
+     *
+     * @param duration the duration of the authentication in milliseconds
+     */
+    public void onAuthenticationCompleted(@NonNull UUID id, long duration) {
+        Anticipation anticipation = anticipations.get(id);
+        if (anticipation != null && anticipation.succeeded) {
+            hitCount.incrementAndGet();
+            hitDurationSum.addAndGet(duration);
+        } else {
+            missCount.incrementAndGet();
+            missDurationSum.addAndGet(duration);
+        }
+    }
+
+    @NonNull
+    public AnticipationStatistics getStatistics() {
+        return new AnticipationStatistics(startedCount.get(), succeededCount.get(), failedCount.get(), cancelledCount.get(),
+                hitCount.get(), missCount.get(), hitDurationSum.get(), missDurationSum.get());
+    }
+
+    /**
+     * Emits the entries of all detected authenticators, pinned and preferred ones first and the rest
+     * ordered by distance. Authenticators with unknown distance are omitted unless prioritized.
+     * The closest gateways of gates are tracked along the way.
+     */
+    private Single<List<AuthenticatorIndex.Entry<SeamlessAuthenticator>>> rankAuthenticators() {
+        return Observable.fromIterable(new ArrayList<>(authenticatorRegistry.getEntries()))
+                .flatMapSingle(entry -> entry.getValue().getDistance()
+                        .flatMap(distance -> trackGateway(entry, distance)
+                                .andThen(Single.just(new RankedEntry(entry, distance))))
+                        .onErrorReturnItem(new RankedEntry(entry, Double.NaN))
+                        .subscribeOn(workloadSchedulers.propertyFetch()), false, MAXIMUM_CONCURRENT_DISTANCE_REQUESTS)
+                .toList()
+                .map(rankedEntries -> {
+                    Collections.sort(rankedEntries, (first, second) -> Double.compare(first.distance, second.distance));
+                    List<AuthenticatorIndex.Entry<SeamlessAuthenticator>> entries = new ArrayList<>();
+                    for (RankedEntry rankedEntry : rankedEntries) {
+                        if (isPrioritized(rankedEntry.entry.getId())) {
+                            entries.add(0, rankedEntry.entry);
+                        } else if (!Double.isNaN(rankedEntry.distance)) {
+                            entries.add(rankedEntry.entry);
+                        }
+                    }
+                    return entries;
+                });
+    }
+
+    private Completable trackGateway(@NonNull AuthenticatorIndex.Entry<SeamlessAuthenticator> entry, double distance) {
+        if (!(entry.getValue() instanceof Gate)) {
+            return Completable.complete();
+        }
+        return gatewayTracker.track(entry.getId(), (Gate) entry.getValue(), distance)
+                .ignoreElement()
+                .onErrorComplete();
+    }
+
+    /**
+     * @return true if the anticipation of the specified gate targeted another opening than the one
+     * that is tracked now
+     */
+    private boolean isRetargeted(@NonNull UUID id, @NonNull Anticipation anticipation) {
+        if (anticipation.trackedGateway == null) {
+            return false;
+        }
+        TrackedGateway trackedGateway = gatewayTracker.getTrackedGateway(id);
+        return trackedGateway != null && !trackedGateway.isSameOpening(anticipation.trackedGateway);
+    }
+
+    private void updateAnticipations(@NonNull List<AuthenticatorIndex.Entry<SeamlessAuthenticator>> rankedEntries) {
+        Set<UUID> desiredIds = new LinkedHashSet<>();
+        List<AuthenticatorIndex.Entry<SeamlessAuthenticator>> desiredEntries = new ArrayList<>();
+        int unpinnedCount = 0;
+        for (AuthenticatorIndex.Entry<SeamlessAuthenticator> entry : rankedEntries) {
+            boolean pinned = isPrioritized(entry.getId());
+            if (!pinned && unpinnedCount >= maximumAnticipations) {
+                continue;
+            }
+            if (!pinned) {
+                unpinnedCount++;
+            }
+            desiredIds.add(entry.getId());
+            desiredEntries.add(entry);
+        }
+
+        for (Map.Entry<UUID, Anticipation> anticipationEntry : new ArrayList<>(anticipations.entrySet())) {
+            UUID id = anticipationEntry.getKey();
+            if (!desiredIds.contains(id)) {
+                cancelAnticipation(id);
+            } else if (isRetargeted(id, anticipationEntry.getValue())) {
+                Timber.d("Closest opening of %s changed, restarting anticipation", id);
+                cancelAnticipation(id);
+            }
+        }
+
+        for (AuthenticatorIndex.Entry<SeamlessAuthenticator> entry : desiredEntries) {
+            if (runningCount.get() >= maximumConcurrency) {
+                break;
+            }
+            if (!anticipations.containsKey(entry.getId())) {
+                startAnticipation(entry.getId(), entry.getValue());
+            }
+        }
+    }
+
+    private void startAnticipation(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        Timber.d("Starting anticipation for %s", id);
+        Anticipation anticipation = new Anticipation(SystemClock.elapsedRealtimeNanos(), gatewayTracker.getTrackedGateway(id));
+        anticipations.put(id, anticipation);
+        runningCount.incrementAndGet();
+        startedCount.incrementAndGet();
+        anticipation.disposable = authenticator.anticipateAuthentication(authenticationProperties)
+                .compose(RxTracing.traceCompletable("anticipate", id))
+                .subscribeOn(workloadSchedulers.anticipation())
+                .doFinally(runningCount::decrementAndGet)
+                .subscribe(
+                        () -> {
+                            long duration = SystemClock.elapsedRealtimeNanos() - anticipation.startTimestamp;
+                            latencyMetrics.record(LatencyStage.ANTICIPATION, duration);
+                            Timber.i("Authentication anticipation succeeded for %s after %d ms",
+                                    id, TimeUnit.NANOSECONDS.toMillis(duration));
+                            anticipation.succeeded = true;
+                            succeededCount.incrementAndGet();
+                        },
+                        throwable -> {
+                            Timber.w(throwable, "Authentication anticipation failed for %s", id);
+                            anticipations.remove(id, anticipation);
+                            failedCount.incrementAndGet();
+                        }
+                );
+    }
+
+    private void cancelAnticipation(@NonNull UUID id) {
+        Anticipation anticipation = anticipations.remove(id);
+        if (anticipation == null) {
+            return;
+        }
+        Timber.d("Cancelling anticipation for %s", id);
+        if (anticipation.disposable != null && !anticipation.disposable.isDisposed()) {
+            anticipation.disposable.dispose();
+            cancelledCount.incrementAndGet();
+        }
+    }
+
+    private static final class Anticipation {
+
+        private final long startTimestamp;
+
+        /**
+         * The gateway that was closest when the anticipation started, null if not a gate.
+         */
+        @Nullable
+        private final TrackedGateway trackedGateway;
+
+        private volatile Disposable disposable;
+
+        private volatile boolean succeeded;
+
+        Anticipation(long startTimestamp, @Nullable TrackedGateway trackedGateway) {
+            this.startTimestamp = startTimestamp;
+            this.trackedGateway = trackedGateway;
+        }
+
+    }
+
+    private static final class RankedEntry {
+
+        private final AuthenticatorIndex.Entry<SeamlessAuthenticator> entry;
+
+        private final double distance;
+
+        RankedEntry(@NonNull AuthenticatorIndex.Entry<SeamlessAuthenticator> entry, double distance) {
+            this.entry = entry;
+            this.distance = distance;
+        }
+
+    }
+
+}
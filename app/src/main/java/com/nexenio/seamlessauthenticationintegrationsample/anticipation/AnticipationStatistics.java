@@ -0,0 +1,89 @@
+package com.nexenio.seamlessauthenticationintegrationsample.anticipation;
+
+import java.util.Locale;
+
+/**
+ * An immutable snapshot of the counters of an {@link AnticipationManager}.
+ *
+ * An authentication is a hit if the anticipation for the authenticator had already succeeded when
+ * the authentication completed, and a miss otherwise. Comparing the mean authentication durations
+ * of hits and misses shows how much latency the anticipation saves.
+ */
+public final class AnticipationStatistics {
+
+    private final long startedCount;
+    private final long succeededCount;
+    private final long failedCount;
+    private final long cancelledCount;
+    private final long hitCount;
+    private final long missCount;
+    private final long hitDurationSum;
+    private final long missDurationSum;
+
+    AnticipationStatistics(long startedCount, long succeededCount, long failedCount, long cancelledCount,
+                           long hitCount, long missCount, long hitDurationSum, long missDurationSum) {
+        this.startedCount = startedCount;
+        this.succeededCount = succeededCount;
+        this.failedCount = failedCount;
+        this.cancelledCount = cancelledCount;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitDurationSum = hitDurationSum;
+        this.missDurationSum = missDurationSum;
+    }
+
+    public long getStartedCount() {
+        return startedCount;
+    }
+
+    public long getSucceededCount() {
+        return succeededCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the ratio of authentications that were anticipated, or 0 if there were none
+     */
+    public double getHitRate() {
+        long authenticationCount = hitCount + missCount;
+        return authenticationCount > 0 ? (double) hitCount / authenticationCount : 0;
+    }
+
+    /**
+     * @return the mean authentication duration in milliseconds of hits, or 0 if there were none
+     */
+    public double getMeanHitDuration() {
+        return hitCount > 0 ? (double) hitDurationSum / hitCount : 0;
+    }
+
+    /**
+     * @return the mean authentication duration in milliseconds of misses, or 0 if there were none
+     */
+    public double getMeanMissDuration() {
+        return missCount > 0 ? (double) missDurationSum / missCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "AnticipationStatistics{started=%d, succeeded=%d, failed=%d, cancelled=%d, "
+                        + "hits=%d, misses=%d, hitRate=%.2f, meanHitDuration=%.1f ms, meanMissDuration=%.1f ms}",
+                startedCount, succeededCount, failedCount, cancelledCount,
+                hitCount, missCount, getHitRate(), getMeanHitDuration(), getMeanMissDuration());
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.nexenio.seamlessauthenticationintegrationsample.authentication;
+
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Emitted by the {@link AuthenticationCoordinator} if an authenticator should be authenticated
+ * again during the cooldown after a successful authentication.
+ */
+public class AuthenticationCooldownException extends IllegalStateException {
+
+    private final long remainingCooldown;
+
+    public AuthenticationCooldownException(@NonNull UUID authenticatorId, long remainingCooldown) {
+        super("Authenticator " + authenticatorId + " has been authenticated recently, cooldown ends in " + remainingCooldown + " ms");
+        this.remainingCooldown = remainingCooldown;
+    }
+
+    /**
+     * @return the remaining cooldown in milliseconds
+     */
+    public long getRemainingCooldown() {
+        return remainingCooldown;
+    }
+
+}
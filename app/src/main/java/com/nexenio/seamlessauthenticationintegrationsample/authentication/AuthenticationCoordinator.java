@@ -0,0 +1,273 @@
+package com.nexenio.seamlessauthenticationintegrationsample.authentication;
+
+import android.annotation.SuppressLint;
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.AuthenticationProperties;
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthenticationintegrationsample.anticipation.AnticipationManager;
+import com.nexenio.seamlessauthenticationintegrationsample.cache.AuthenticatorCache;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.GatewayTracker;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.TrackedGateway;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyMetrics;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyStage;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.RxTracing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.CompletableSubject;
+import timber.log.Timber;
+
+/**
+ * Authenticates {@link SeamlessAuthenticator}s according to an {@link AuthenticationPolicy}.
+ *
+ * Authentications are deduplicated per authenticator: while one is in flight, further requests
+ * for the same authenticator join it instead of starting another one. An authentication is
+ * cancelled once all of its subscribers disposed, so owners only need to dispose their
+ * subscriptions with their lifecycle. After a successful authentication, the authenticator can't
+ * be authenticated again until the cooldown is over.
+ *
+ * Authentications are subscribed to on a bounded pool of threads, so that unresponsive
+ * authenticators can't occupy an unbounded number of threads. The authentication scheduler of the
+ * {@link WorkloadSchedulers} also runs them with priority over all other background work.
+ */
+public class AuthenticationCoordinator {
+
+    @NonNull
+    private final AuthenticationProperties authenticationProperties;
+
+    @NonNull
+    private final AuthenticationPolicy authenticationPolicy;
+
+    @NonNull
+    private final AnticipationManager anticipationManager;
+
+    @NonNull
+    private final GatewayTracker gatewayTracker;
+
+    @NonNull
+    private final AuthenticatorCache authenticatorCache;
+
+    @NonNull
+    private final LatencyMetrics latencyMetrics;
+
+    @NonNull
+    private final Scheduler scheduler;
+
+    /**
+     * The shared authentications that are in flight. Guarded by itself, which also guards the
+     * state of each {@link SharedAuthentication}.
+     */
+    @NonNull
+    private final Map<UUID, SharedAuthentication> authentications = new HashMap<>();
+
+    /**
+     * The {@link SystemClock#elapsedRealtime()} of the last successful authentication per
+     * authenticator.
+     */
+    @NonNull
+    private final Map<UUID, Long> successTimestamps = new ConcurrentHashMap<>();
+
+    /**
+     * @param scheduler the scheduler that authentications are subscribed on, should be bounded, e.g.
+     *                  {@link WorkloadSchedulers#authentication()}
+     */
+    public AuthenticationCoordinator(@NonNull AuthenticationProperties authenticationProperties, @NonNull AuthenticationPolicy authenticationPolicy,
+                                     @NonNull AnticipationManager anticipationManager, @NonNull GatewayTracker gatewayTracker,
+                                     @NonNull AuthenticatorCache authenticatorCache, @NonNull LatencyMetrics latencyMetrics,
+                                     @NonNull Scheduler scheduler) {
+        this.authenticationProperties = authenticationProperties;
+        this.authenticationPolicy = authenticationPolicy;
+        this.anticipationManager = anticipationManager;
+        this.gatewayTracker = gatewayTracker;
+        this.authenticatorCache = authenticatorCache;
+        this.latencyMetrics = latencyMetrics;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Authenticates with the specified authenticator, or joins the authentication that is already
+     * in flight for it. Failed attempts and attempts that time out are retried.
+     *
+     * Emits an {@link AuthenticationCooldownException} if the authenticator has been authenticated
+     * successfully during the cooldown.
+     */
+    @NonNull
+    public Completable authenticate(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        return Completable.defer(() -> {
+            long remainingCooldown = getRemainingCooldown(id);
+            if (remainingCooldown > 0) {
+                return Completable.error(new AuthenticationCooldownException(id, remainingCooldown));
+            }
+            synchronized (authentications) {
+                SharedAuthentication authentication = authentications.get(id);
+                if (authentication == null) {
+                    authentication = new SharedAuthentication(id);
+                    authentications.put(id, authentication);
+                    authentication.connect(createAuthentication(id, authenticator));
+                }
+                return authentication.join();
+            }
+        });
+    }
+
+    /**
+     * @return the remaining cooldown of the specified authenticator in milliseconds, or 0 if it can
+     * be authenticated
+     */
+    public long getRemainingCooldown(@NonNull UUID id) {
+        Long successTimestamp = successTimestamps.get(id);
+        if (successTimestamp == null) {
+            return 0;
+        }
+        return authenticationPolicy.getRemainingCooldown(successTimestamp, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * @return true if an authentication with the specified authenticator is in flight
+     */
+    public boolean isAuthenticating(@NonNull UUID id) {
+        synchronized (authentications) {
+            return authentications.containsKey(id);
+        }
+    }
+
+    /**
+     * Creates the authentication that a {@link SharedAuthentication} connects to.
+     */
+    private Completable createAuthentication(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        return Completable.defer(() -> {
+            long startTimestamp = SystemClock.elapsedRealtimeNanos();
+            AtomicInteger retryCount = new AtomicInteger();
+            TrackedGateway trackedGateway = gatewayTracker.getTrackedGateway(id);
+            if (trackedGateway != null) {
+                Timber.d("Authenticating with %s at gateway %d, direction %s", id,
+                        trackedGateway.getClosestGatewayIndex(), trackedGateway.getDirection());
+            }
+            return authenticator.authenticate(authenticationProperties)
+                    .compose(RxTracing.traceCompletable("authentication attempt", id))
+                    .subscribeOn(scheduler)
+                    .timeout(authenticationPolicy.getTimeout(), TimeUnit.MILLISECONDS, Schedulers.computation())
+                    .retryWhen(errors -> errors.flatMap(throwable -> {
+                        int retry = retryCount.incrementAndGet();
+                        if (retry > authenticationPolicy.getMaximumRetries()) {
+                            return Flowable.error(throwable);
+                        }
+                        long delay = authenticationPolicy.getRetryDelay(retry);
+                        Timber.w(throwable, "Authentication attempt %d for %s failed, retrying in %d ms", retry, id, delay);
+                        return Flowable.timer(delay, TimeUnit.MILLISECONDS, Schedulers.computation());
+                    }))
+                    .doOnComplete(() -> onAuthenticationSucceeded(id, startTimestamp))
+                    .doOnError(throwable -> Timber.w(throwable, "Authentication for %s failed", id));
+        })
+                .compose(RxTracing.traceCompletable("authenticate", id));
+    }
+
+    private void onAuthenticationSucceeded(@NonNull UUID id, long startTimestamp) {
+        long endTimestamp = SystemClock.elapsedRealtimeNanos();
+        long duration = TimeUnit.NANOSECONDS.toMillis(endTimestamp - startTimestamp);
+        Timber.i("Authentication for %s succeeded after %d ms", id, duration);
+        successTimestamps.put(id, SystemClock.elapsedRealtime());
+        latencyMetrics.recordSince(LatencyStage.AUTHENTICATION, startTimestamp, endTimestamp);
+        anticipationManager.onAuthenticationCompleted(id, duration);
+        recordAuthentication(id, System.currentTimeMillis());
+    }
+
+    /**
+     * Appends the authentication to the {@link AuthenticatorCache} in the background, so that the
+     * authentication completes without waiting for the disk.
+     */
+    @SuppressLint("CheckResult")
+    private void recordAuthentication(@NonNull UUID id, long timestamp) {
+        Completable.fromAction(() -> authenticatorCache.recordAuthentication(id, timestamp))
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                        () -> Timber.v("Recorded authentication for %s", id),
+                        throwable -> Timber.w(throwable, "Unable to record authentication")
+                );
+    }
+
+    /**
+     * An authentication that runs at most once and is shared by all subscribers that joined it.
+     * Subscribers that join after it terminated get its result instead of starting it again. It's
+     * cancelled once all subscribers disposed before it terminated. Either way, it's removed from
+     * the in flight authentications, so that the next request starts a new one.
+     */
+    private final class SharedAuthentication {
+
+        @NonNull
+        private final UUID id;
+
+        @NonNull
+        private final CompletableSubject result = CompletableSubject.create();
+
+        private Disposable connection;
+
+        private int subscriberCount;
+
+        private boolean finished;
+
+        SharedAuthentication(@NonNull UUID id) {
+            this.id = id;
+        }
+
+        /**
+         * Starts the specified authentication. Must be called once, while holding the lock.
+         */
+        void connect(@NonNull Completable authentication) {
+            connection = authentication.subscribe(
+                    () -> {
+                        finish();
+                        result.onComplete();
+                    },
+                    throwable -> {
+                        finish();
+                        result.onError(throwable);
+                    }
+            );
+        }
+
+        /**
+         * Must be called while holding the lock.
+         */
+        @NonNull
+        Completable join() {
+            subscriberCount++;
+            return result.doOnDispose(this::leave);
+        }
+
+        private void leave() {
+            synchronized (authentications) {
+                subscriberCount--;
+                if (subscriberCount > 0 || finished) {
+                    return;
+                }
+                finish();
+                connection.dispose();
+            }
+        }
+
+        private void finish() {
+            synchronized (authentications) {
+                finished = true;
+                if (authentications.get(id) == this) {
+                    authentications.remove(id);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.nexenio.seamlessauthenticationintegrationsample.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * Collects the values of detected authenticators and writes them to an {@link AuthenticatorCache}
+ * in batches, so that creating snapshots never waits for the disk.
+ *
+ * Only the latest values of each authenticator are kept until the next write. A write is
+ * scheduled with a delay when the first values arrive after the previous one, so that all
+ * authenticators of several snapshot updates are appended at once.
+ */
+public class AuthenticatorCacheWriter {
+
+    /**
+     * Time in milliseconds that values are collected before they get written.
+     */
+    public static final long DEFAULT_WRITE_DELAY = TimeUnit.SECONDS.toMillis(5);
+
+    @NonNull
+    private final AuthenticatorCache authenticatorCache;
+
+    @NonNull
+    private final Scheduler scheduler;
+
+    private final long writeDelay;
+
+    /**
+     * The values to write, guarded by itself.
+     */
+    @NonNull
+    private final Map<UUID, CachedAuthenticator> pendingAuthenticators = new HashMap<>();
+
+    private boolean writeScheduled;
+
+    public AuthenticatorCacheWriter(@NonNull AuthenticatorCache authenticatorCache) {
+        this(authenticatorCache, Schedulers.io(), DEFAULT_WRITE_DELAY);
+    }
+
+    /**
+     * @param scheduler  the scheduler that writes happen on
+     * @param writeDelay the time in milliseconds that values are collected before they get written
+     */
+    public AuthenticatorCacheWriter(@NonNull AuthenticatorCache authenticatorCache, @NonNull Scheduler scheduler, long writeDelay) {
+        this.authenticatorCache = authenticatorCache;
+        this.scheduler = scheduler;
+        this.writeDelay = writeDelay;
+    }
+
+    /**
+     * Queues the specified values of a detected authenticator, see {@link
+     * AuthenticatorCache#update(UUID, String, int, double, long)}. Doesn't block.
+     */
+    public void update(@NonNull UUID id, @NonNull String name, int gatewaysCount, double distance, long timestamp) {
+        synchronized (pendingAuthenticators) {
+            pendingAuthenticators.put(id, new CachedAuthenticator(id, name, gatewaysCount, distance, timestamp, 0));
+            if (writeScheduled) {
+                return;
+            }
+            writeScheduled = true;
+        }
+        scheduler.scheduleDirect(this::write, writeDelay, TimeUnit.MILLISECONDS);
+    }
+
+    private void write() {
+        List<CachedAuthenticator> authenticators;
+        synchronized (pendingAuthenticators) {
+            authenticators = new ArrayList<>(pendingAuthenticators.values());
+            pendingAuthenticators.clear();
+            writeScheduled = false;
+        }
+        try {
+            authenticatorCache.updateAll(authenticators);
+        } catch (IOException e) {
+            Timber.w(e, "Unable to cache %d authenticators", authenticators.size());
+        }
+    }
+
+}
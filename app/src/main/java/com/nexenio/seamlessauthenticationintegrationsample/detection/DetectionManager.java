@@ -0,0 +1,316 @@
+package com.nexenio.seamlessauthenticationintegrationsample.detection;
+
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthentication.SeamlessAuthenticatorDetector;
+import com.nexenio.seamlessauthenticationintegrationsample.anticipation.AnticipationManager;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyMetrics;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyStage;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.StartupPhase;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.StartupTrace;
+import com.nexenio.seamlessauthenticationintegrationsample.registry.AuthenticatorRegistry;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import timber.log.Timber;
+
+/**
+ * Owns the detection of the {@link SeamlessAuthenticatorDetector} for the whole process, so that it
+ * survives transitions between activities.
+ *
+ * Components that need detection {@link #acquire(DetectionPolicy)} a reference and dispose it
+ * when done. Detection keeps running for a grace period after the last reference has been
+ * released, so that the short gap between two activities doesn't restart the scan. Detection
+ * follows the most demanding {@link DetectionPolicy} of the held references, e.g. it runs
+ * continuously while a UI is visible and in windows otherwise, to save energy.
+ */
+public class DetectionManager {
+
+    public static final long DEFAULT_GRACE_PERIOD = TimeUnit.SECONDS.toMillis(5);
+
+    @NonNull
+    private final Single<SeamlessAuthenticatorDetector> authenticatorDetector;
+
+    @NonNull
+    private final AuthenticatorRegistry authenticatorRegistry;
+
+    @NonNull
+    private final AnticipationManager anticipationManager;
+
+    @NonNull
+    private final LatencyMetrics latencyMetrics;
+
+    @NonNull
+    private final StartupTrace startupTrace;
+
+    @NonNull
+    private final WorkloadSchedulers workloadSchedulers;
+
+    private final long gracePeriod;
+
+    @NonNull
+    private final Subject<SeamlessAuthenticator> detectedAuthenticatorSubject = PublishSubject.<SeamlessAuthenticator>create().toSerialized();
+
+    @NonNull
+    private final Subject<Boolean> detectionRunningSubject = BehaviorSubject.createDefault(false).toSerialized();
+
+    @NonNull
+    private final Subject<Throwable> detectionErrorSubject = PublishSubject.<Throwable>create().toSerialized();
+
+    /**
+     * Time of the last subscription to the detector that has not detected any authenticator yet, or
+     * 0.
+     */
+    private final AtomicLong detectionStartTimestamp = new AtomicLong();
+
+    /**
+     * Time at which a UI became visible while none was visible before and that has not been
+     * followed by a detection yet, or 0.
+     */
+    private final AtomicLong rediscoveryStartTimestamp = new AtomicLong();
+
+    private int referenceCount;
+
+    private int visibleReferenceCount;
+
+    private int seamlessReferenceCount;
+
+    private Disposable detectionDisposable;
+
+    /**
+     * Either the grace period or the end of the current detection window or pause, whichever is
+     * pending.
+     */
+    private Disposable timerDisposable;
+
+    public DetectionManager(@NonNull Single<SeamlessAuthenticatorDetector> authenticatorDetector, @NonNull AuthenticatorRegistry authenticatorRegistry,
+                            @NonNull AnticipationManager anticipationManager, @NonNull LatencyMetrics latencyMetrics,
+                            @NonNull StartupTrace startupTrace, @NonNull WorkloadSchedulers workloadSchedulers) {
+        this(authenticatorDetector, authenticatorRegistry, anticipationManager, latencyMetrics, startupTrace, workloadSchedulers,
+                DEFAULT_GRACE_PERIOD);
+    }
+
+    /**
+     * @param authenticatorDetector emits the detector once it has been created
+     * @param gracePeriod           the time in milliseconds that detection keeps running after the
+     *                              last reference has been released
+     */
+    public DetectionManager(@NonNull Single<SeamlessAuthenticatorDetector> authenticatorDetector, @NonNull AuthenticatorRegistry authenticatorRegistry,
+                            @NonNull AnticipationManager anticipationManager, @NonNull LatencyMetrics latencyMetrics,
+                            @NonNull StartupTrace startupTrace, @NonNull WorkloadSchedulers workloadSchedulers, long gracePeriod) {
+        this.authenticatorDetector = authenticatorDetector;
+        this.authenticatorRegistry = authenticatorRegistry;
+        this.anticipationManager = anticipationManager;
+        this.latencyMetrics = latencyMetrics;
+        this.startupTrace = startupTrace;
+        this.workloadSchedulers = workloadSchedulers;
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * Starts detection if not already running and keeps it running until the returned {@link
+     * Disposable} gets disposed. Also restarts detection if it stopped because of an error.
+     *
+     * @param policy how continuously the reference needs detection to run, {@link
+     *               DetectionPolicy#CONTINUOUS} for a visible UI
+     */
+    @NonNull
+    public synchronized Disposable acquire(@NonNull DetectionPolicy policy) {
+        referenceCount++;
+        if (policy == DetectionPolicy.CONTINUOUS) {
+            if (visibleReferenceCount++ == 0) {
+                rediscoveryStartTimestamp.set(SystemClock.elapsedRealtimeNanos());
+            }
+        } else if (policy == DetectionPolicy.SEAMLESS) {
+            seamlessReferenceCount++;
+        }
+        Timber.d("Detection reference acquired, %d references (%d visible, %d seamless)", referenceCount, visibleReferenceCount, seamlessReferenceCount);
+        updateDetection();
+        return Disposables.fromAction(() -> release(policy));
+    }
+
+    private synchronized void release(@NonNull DetectionPolicy policy) {
+        referenceCount--;
+        if (policy == DetectionPolicy.CONTINUOUS) {
+            visibleReferenceCount--;
+        } else if (policy == DetectionPolicy.SEAMLESS) {
+            seamlessReferenceCount--;
+        }
+        Timber.d("Detection reference released, %d references (%d visible, %d seamless)", referenceCount, visibleReferenceCount, seamlessReferenceCount);
+        updateDetection();
+    }
+
+    /**
+     * @return the most demanding policy of the held references, {@link DetectionPolicy#DUTY_CYCLED}
+     * if none is held
+     */
+    @NonNull
+    private synchronized DetectionPolicy getPolicy() {
+        if (visibleReferenceCount > 0) {
+            return DetectionPolicy.CONTINUOUS;
+        } else if (seamlessReferenceCount > 0) {
+            return DetectionPolicy.SEAMLESS;
+        } else {
+            return DetectionPolicy.DUTY_CYCLED;
+        }
+    }
+
+    private synchronized void updateDetection() {
+        disposeTimer();
+        if (referenceCount == 0) {
+            if (isDetectionRunning()) {
+                timerDisposable = Completable.timer(gracePeriod, TimeUnit.MILLISECONDS, Schedulers.computation())
+                        .subscribe(this::onGracePeriodExpired);
+            }
+            return;
+        }
+        if (!isDetectionRunning()) {
+            startDetection();
+        }
+        DetectionPolicy policy = getPolicy();
+        if (!policy.isContinuous()) {
+            scheduleDetectionPause(policy);
+        }
+    }
+
+    private synchronized void onGracePeriodExpired() {
+        if (referenceCount == 0) {
+            Timber.d("Grace period expired");
+            stopDetection();
+        }
+    }
+
+    private void scheduleDetectionPause(@NonNull DetectionPolicy policy) {
+        timerDisposable = Completable.timer(policy.getDetectionDuration(), TimeUnit.MILLISECONDS, Schedulers.computation())
+                .subscribe(this::onDetectionWindowFinished);
+    }
+
+    private synchronized void onDetectionWindowFinished() {
+        DetectionPolicy policy = getPolicy();
+        if (referenceCount == 0 || policy.isContinuous()) {
+            return;
+        }
+        stopDetection();
+        timerDisposable = Completable.timer(policy.getDetectionPause(), TimeUnit.MILLISECONDS, Schedulers.computation())
+                .subscribe(this::onDetectionPauseFinished);
+    }
+
+    private synchronized void onDetectionPauseFinished() {
+        DetectionPolicy policy = getPolicy();
+        if (referenceCount > 0 && !policy.isContinuous()) {
+            startDetection();
+            scheduleDetectionPause(policy);
+        }
+    }
+
+    private void disposeTimer() {
+        if (timerDisposable != null && !timerDisposable.isDisposed()) {
+            timerDisposable.dispose();
+        }
+    }
+
+    private void startDetection() {
+        Timber.d("Starting detection");
+        detectionDisposable = authenticatorDetector
+                .flatMapCompletable(detector -> detector.detect()
+                        .doOnNext(this::onAuthenticatorDetected)
+                        .ignoreElements())
+                .doOnSubscribe(subscription -> {
+                    detectionStartTimestamp.set(SystemClock.elapsedRealtimeNanos());
+                    anticipationManager.start();
+                    detectionRunningSubject.onNext(true);
+                })
+                .doFinally(() -> {
+                    anticipationManager.stop();
+                    detectionRunningSubject.onNext(false);
+                })
+                .subscribeOn(workloadSchedulers.detection())
+                .subscribe(
+                        () -> Timber.i("Seamless authenticator detection completed"),
+                        throwable -> {
+                            Timber.w(throwable, "Unable to detect seamless authenticators");
+                            detectionErrorSubject.onNext(throwable);
+                        }
+                );
+    }
+
+    private void stopDetection() {
+        Timber.d("Stopping detection");
+        if (detectionDisposable != null && !detectionDisposable.isDisposed()) {
+            detectionDisposable.dispose();
+        }
+    }
+
+    private void onAuthenticatorDetected(@NonNull SeamlessAuthenticator authenticator) {
+        boolean traced = Tracing.beginSection("authenticator detected");
+        try {
+            dispatchDetectedAuthenticator(authenticator);
+        } finally {
+            if (traced) {
+                Tracing.endSection();
+            }
+        }
+    }
+
+    private void dispatchDetectedAuthenticator(@NonNull SeamlessAuthenticator authenticator) {
+        long timestamp = SystemClock.elapsedRealtimeNanos();
+        long startTimestamp = detectionStartTimestamp.getAndSet(0);
+        if (startTimestamp != 0) {
+            latencyMetrics.recordSince(LatencyStage.FIRST_DETECTION, startTimestamp, timestamp);
+        }
+        if (startupTrace.mark(StartupPhase.FIRST_AUTHENTICATOR, timestamp)) {
+            Timber.i("Startup trace: %s", startupTrace);
+        }
+        long rediscoveryTimestamp = rediscoveryStartTimestamp.getAndSet(0);
+        if (rediscoveryTimestamp != 0) {
+            latencyMetrics.recordSince(LatencyStage.REDISCOVERY, rediscoveryTimestamp, timestamp);
+        }
+        authenticatorRegistry.onAuthenticatorDetected(authenticator);
+        detectedAuthenticatorSubject.onNext(authenticator);
+    }
+
+    private synchronized boolean isDetectionRunning() {
+        return detectionDisposable != null && !detectionDisposable.isDisposed();
+    }
+
+    /**
+     * Emits every {@link SeamlessAuthenticator} that is detected, possibly the same instance
+     * multiple times. Emissions happen on a background thread.
+     */
+    @NonNull
+    public Observable<SeamlessAuthenticator> getDetectedAuthenticatorEvents() {
+        return detectedAuthenticatorSubject;
+    }
+
+    /**
+     * Emits whether detection is currently running, starting with the current state.
+     */
+    @NonNull
+    public Observable<Boolean> observeDetectionRunning() {
+        return detectionRunningSubject.distinctUntilChanged();
+    }
+
+    /**
+     * Emits the errors that stopped detection. Detection gets restarted with the next {@link
+     * #acquire(DetectionPolicy)}.
+     */
+    @NonNull
+    public Observable<Throwable> observeDetectionErrors() {
+        return detectionErrorSubject;
+    }
+
+}
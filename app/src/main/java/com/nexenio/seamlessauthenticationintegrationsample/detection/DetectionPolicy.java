@@ -0,0 +1,67 @@
+package com.nexenio.seamlessauthenticationintegrationsample.detection;
+
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessTrigger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How continuously a component that holds a reference to the {@link DetectionManager} needs
+ * detection to run. Policies are ordered from the most to the least demanding, detection follows
+ * the most demanding policy of all references.
+ *
+ * Every detection window costs a wakeup and the detection events within a window cost CPU time,
+ * both of which are recorded by the background mode in an {@link
+ * com.nexenio.seamlessauthenticationintegrationsample.metrics.HourlyUsage}.
+ */
+public enum DetectionPolicy {
+
+    /**
+     * Detects without pauses, for a visible UI.
+     */
+    CONTINUOUS(0, 0),
+
+    /**
+     * Detects in windows with pauses short enough that the gap between two samples of an
+     * authenticator stays below {@link SeamlessTrigger#MAXIMUM_SAMPLE_GAP}, which leaves about 2 s
+     * to detect an authenticator again after a pause. Longer pauses would reset every trigger, so
+     * that seamless authentication could never trigger without a UI.
+     *
+     * Detecting 10 of every 13 s costs about 280 detection wakeups per hour, compared to 120 when
+     * duty cycled, and up to 5,500 sample batches of 500 ms per hour while authenticators are in
+     * range, compared to 1,200.
+     */
+    SEAMLESS(TimeUnit.SECONDS.toMillis(10), TimeUnit.SECONDS.toMillis(3)),
+
+    /**
+     * Detects in short windows with long pauses, for components that only need to know which
+     * authenticators are around.
+     */
+    DUTY_CYCLED(TimeUnit.SECONDS.toMillis(5), TimeUnit.SECONDS.toMillis(25));
+
+    private final long detectionDuration;
+
+    private final long detectionPause;
+
+    /**
+     * @param detectionDuration the duration of a detection window in milliseconds, or 0 to detect
+     *                          continuously
+     * @param detectionPause    the pause between two detection windows in milliseconds
+     */
+    DetectionPolicy(long detectionDuration, long detectionPause) {
+        this.detectionDuration = detectionDuration;
+        this.detectionPause = detectionPause;
+    }
+
+    public boolean isContinuous() {
+        return detectionDuration == 0;
+    }
+
+    public long getDetectionDuration() {
+        return detectionDuration;
+    }
+
+    public long getDetectionPause() {
+        return detectionPause;
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.nexenio.seamlessauthenticationintegrationsample.gateway;
+
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.accesscontrol.gate.Gate;
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.Gateway;
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.GatewayDirection;
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.opening.GatewayOpening;
+import com.nexenio.seamlessauthenticationintegrationsample.property.AuthenticatorPropertyCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.Single;
+import timber.log.Timber;
+
+/**
+ * Keeps track of the closest gateway and opening of each {@link Gate}.
+ *
+ * Resolving the closest gateway and the direction of its closest opening requires a chain of SDK
+ * calls. Instead of resolving them on every update, the tracked gateway is reused until the
+ * distance to the gate changed according to the {@link GatewayTrackingPolicy}. The gateways count
+ * is read through the {@link AuthenticatorPropertyCache}. Concurrent requests for a gate that is
+ * being resolved share that resolution.
+ */
+public class GatewayTracker {
+
+    /**
+     * Once exceeded, the tracked gateways of the least recently tracked gates are dropped.
+     */
+    private static final int MAXIMUM_GATES_COUNT = 1024;
+
+    @NonNull
+    private final AuthenticatorPropertyCache propertyCache;
+
+    @NonNull
+    private final GatewayTrackingPolicy trackingPolicy;
+
+    /**
+     * Guarded by itself.
+     */
+    @NonNull
+    private final Map<UUID, Track> tracks = new LinkedHashMap<UUID, Track>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Track> eldest) {
+            return size() > MAXIMUM_GATES_COUNT;
+        }
+    };
+
+    public GatewayTracker(@NonNull AuthenticatorPropertyCache propertyCache) {
+        this(propertyCache, GatewayTrackingPolicy.DEFAULT);
+    }
+
+    public GatewayTracker(@NonNull AuthenticatorPropertyCache propertyCache, @NonNull GatewayTrackingPolicy trackingPolicy) {
+        this.propertyCache = propertyCache;
+        this.trackingPolicy = trackingPolicy;
+    }
+
+    /**
+     * Emits the tracked gateway of the specified gate, which is resolved again only if the
+     * specified distance differs from the distance it has been resolved at.
+     *
+     * @param distance the current distance to the gate in meters, may be NaN
+     */
+    @NonNull
+    public Single<TrackedGateway> track(@NonNull UUID id, @NonNull Gate gate, double distance) {
+        return Single.defer(() -> {
+            Track track = getTrack(id);
+            synchronized (track) {
+                TrackedGateway trackedGateway = track.trackedGateway;
+                if (trackedGateway != null && !trackingPolicy.requiresUpdate(trackedGateway.getDistance(),
+                        trackedGateway.getTimestamp(), distance, SystemClock.elapsedRealtime())) {
+                    return Single.just(trackedGateway);
+                }
+                if (track.resolution != null) {
+                    return track.resolution;
+                }
+                Single<TrackedGateway> resolution = resolve(id, gate, distance)
+                        .doOnSuccess(resolvedGateway -> onGatewayResolved(id, track, resolvedGateway))
+                        .doFinally(() -> {
+                            synchronized (track) {
+                                track.resolution = null;
+                            }
+                        })
+                        .cache();
+                track.resolution = resolution;
+                return resolution;
+            }
+        });
+    }
+
+    /**
+     * @return the last tracked gateway of the specified gate, or null if it hasn't been tracked
+     */
+    @Nullable
+    public TrackedGateway getTrackedGateway(@NonNull UUID id) {
+        Track track;
+        synchronized (tracks) {
+            track = tracks.get(id);
+        }
+        if (track == null) {
+            return null;
+        }
+        synchronized (track) {
+            return track.trackedGateway;
+        }
+    }
+
+    /**
+     * @return the direction of the opening that the user is approaching, or null if unknown
+     */
+    @Nullable
+    public GatewayDirection getTrackedDirection(@NonNull UUID id) {
+        TrackedGateway trackedGateway = getTrackedGateway(id);
+        return trackedGateway != null ? trackedGateway.getDirection() : null;
+    }
+
+    public void invalidate(@NonNull UUID id) {
+        synchronized (tracks) {
+            tracks.remove(id);
+        }
+    }
+
+    @NonNull
+    private Track getTrack(@NonNull UUID id) {
+        synchronized (tracks) {
+            Track track = tracks.get(id);
+            if (track == null) {
+                track = new Track();
+                tracks.put(id, track);
+            }
+            return track;
+        }
+    }
+
+    private Single<TrackedGateway> resolve(@NonNull UUID id, @NonNull Gate gate, double distance) {
+        return gate.getClosestGateway()
+                .flatMap(closestGateway -> Single.zip(
+                        closestGateway.getIndex().map(Number::longValue),
+                        propertyCache.getGatewaysCount(id, gate),
+                        (closestGatewayIndex, gatewaysCount) -> new TrackedGateway(closestGatewayIndex, gatewaysCount,
+                                null, distance, SystemClock.elapsedRealtime())
+                ).flatMap(trackedGateway -> getDirection(closestGateway)
+                        .map(trackedGateway::withDirection)
+                        .onErrorReturnItem(trackedGateway)));
+    }
+
+    private static Single<GatewayDirection> getDirection(@NonNull Gateway gateway) {
+        return gateway.getClosestOpening()
+                .flatMap(GatewayOpening::getDirection);
+    }
+
+    private static void onGatewayResolved(@NonNull UUID id, @NonNull Track track, @NonNull TrackedGateway resolvedGateway) {
+        TrackedGateway previousGateway;
+        synchronized (track) {
+            previousGateway = track.trackedGateway;
+            track.trackedGateway = resolvedGateway;
+        }
+        if (previousGateway != null && !previousGateway.isSameOpening(resolvedGateway)) {
+            Timber.d("Closest opening of %s changed: %s", id, resolvedGateway);
+        }
+    }
+
+    /**
+     * The tracked gateway of a gate and the resolution that is in flight for it, guarded by
+     * itself.
+     */
+    private static final class Track {
+
+        private TrackedGateway trackedGateway;
+
+        private Single<TrackedGateway> resolution;
+
+    }
+
+}
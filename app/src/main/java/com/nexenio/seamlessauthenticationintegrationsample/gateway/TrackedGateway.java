@@ -0,0 +1,86 @@
+package com.nexenio.seamlessauthenticationintegrationsample.gateway;
+
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.GatewayDirection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The closest gateway and opening of a gate, as tracked by the {@link GatewayTracker}.
+ */
+public final class TrackedGateway {
+
+    private final long closestGatewayIndex;
+
+    private final long gatewaysCount;
+
+    @Nullable
+    private final GatewayDirection direction;
+
+    private final double distance;
+
+    private final long timestamp;
+
+    TrackedGateway(long closestGatewayIndex, long gatewaysCount, @Nullable GatewayDirection direction, double distance, long timestamp) {
+        this.closestGatewayIndex = closestGatewayIndex;
+        this.gatewaysCount = gatewaysCount;
+        this.direction = direction;
+        this.distance = distance;
+        this.timestamp = timestamp;
+    }
+
+    @NonNull
+    TrackedGateway withDirection(@NonNull GatewayDirection direction) {
+        return new TrackedGateway(closestGatewayIndex, gatewaysCount, direction, distance, timestamp);
+    }
+
+    /**
+     * @return true if the specified gateway refers to the same gateway and opening direction
+     */
+    public boolean isSameOpening(@NonNull TrackedGateway trackedGateway) {
+        return closestGatewayIndex == trackedGateway.closestGatewayIndex && direction == trackedGateway.direction;
+    }
+
+    public long getClosestGatewayIndex() {
+        return closestGatewayIndex;
+    }
+
+    public long getGatewaysCount() {
+        return gatewaysCount;
+    }
+
+    /**
+     * @return the direction of the closest opening of the closest gateway, or null if it could not
+     * be resolved
+     */
+    @Nullable
+    public GatewayDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the distance to the gate in meters when the gateway has been resolved
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the {@link android.os.SystemClock#elapsedRealtime()} when the gateway has been
+     * resolved
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "TrackedGateway{" +
+                "closestGatewayIndex=" + closestGatewayIndex +
+                ", gatewaysCount=" + gatewaysCount +
+                ", direction=" + direction +
+                ", distance=" + distance +
+                '}';
+    }
+
+}
@@ -0,0 +1,191 @@
+package com.nexenio.seamlessauthenticationintegrationsample.guard;
+
+import android.os.Looper;
+import android.os.StrictMode;
+import android.util.Printer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.plugins.RxJavaPlugins;
+import timber.log.Timber;
+
+/**
+ * Detects work on the main thread that blocks or stalls it.
+ *
+ * Once installed:
+ * <ul>
+ * <li>Blocking RxJava calls, like {@code blockingGet()}, throw an {@link IllegalStateException}
+ * when called on the main thread or on a non-blocking scheduler. Calls on the main thread are
+ * counted as well, as the exception may be swallowed by an error handler.</li>
+ * <li>{@link StrictMode} logs disk and network access on the main thread and leaked closeables.
+ * Strict guards kill the process on violations as well, which tests can opt in to.</li>
+ * <li>Every message dispatched by the main looper that takes longer than the budget is logged as
+ * a stall, with the handler and callback that caused it.</li>
+ * </ul>
+ *
+ * Durations are measured with {@link System#nanoTime()} instead of {@link
+ * android.os.SystemClock}, so that they stay real while tests fake the clock.
+ *
+ * Monitoring the looper costs string allocations for every message, so the guard should only be
+ * installed in debug builds and tests.
+ */
+public class MainThreadGuard {
+
+    /**
+     * The default duration in milliseconds after which the main thread is considered stalled,
+     * which equals about six frames at 60 Hz.
+     */
+    public static final long DEFAULT_STALL_BUDGET = 100;
+
+    /**
+     * The prefix that the looper uses for the log message when a message is dispatched.
+     */
+    private static final String DISPATCH_PREFIX = ">>>>> Dispatching";
+
+    /**
+     * The prefix that the looper uses for the log message when a message has been dispatched.
+     */
+    private static final String FINISH_PREFIX = "<<<<< Finished";
+
+    @NonNull
+    private final StallDetector stallDetector;
+
+    private final AtomicLong blockingCallCount = new AtomicLong();
+
+    private final boolean strict;
+
+    private boolean installed;
+
+    public MainThreadGuard() {
+        this(DEFAULT_STALL_BUDGET, false);
+    }
+
+    /**
+     * @param stallBudget the duration in milliseconds after which the main thread is considered
+     *                    stalled
+     * @param strict      whether StrictMode violations should kill the process instead of only
+     *                    being logged
+     */
+    public MainThreadGuard(long stallBudget, boolean strict) {
+        this.stallDetector = new StallDetector(stallBudget, stall -> Timber.w("Main thread stalled: %s", stall));
+        this.strict = strict;
+    }
+
+    /**
+     * Installs the guard, does nothing if already installed. Must be called on the main thread.
+     */
+    public synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        RxJavaPlugins.setOnBeforeBlocking(this::onBeforeBlocking);
+        RxJavaPlugins.setFailOnNonBlockingScheduler(true);
+        StrictMode.ThreadPolicy.Builder threadPolicy = new StrictMode.ThreadPolicy.Builder()
+                .detectAll()
+                .penaltyLog();
+        StrictMode.VmPolicy.Builder vmPolicy = new StrictMode.VmPolicy.Builder()
+                .detectLeakedClosableObjects()
+                .penaltyLog();
+        if (strict) {
+            threadPolicy.penaltyDeath();
+            vmPolicy.penaltyDeath();
+        }
+        StrictMode.setThreadPolicy(threadPolicy.build());
+        StrictMode.setVmPolicy(vmPolicy.build());
+        Looper.getMainLooper().setMessageLogging(new StallPrinter(stallDetector));
+        Timber.d("Main thread guard installed with a stall budget of %d ms", stallDetector.getBudget());
+    }
+
+    /**
+     * Removes the looper monitoring and the blocking check, e.g. at the end of a test. StrictMode
+     * policies are kept.
+     */
+    public synchronized void uninstall() {
+        if (!installed) {
+            return;
+        }
+        installed = false;
+        Looper.getMainLooper().setMessageLogging(null);
+        RxJavaPlugins.setFailOnNonBlockingScheduler(false);
+        RxJavaPlugins.setOnBeforeBlocking(null);
+    }
+
+    /**
+     * @return the detector of main thread stalls, which can also be fed with work that isn't
+     * dispatched by the looper
+     */
+    @NonNull
+    public StallDetector getStallDetector() {
+        return stallDetector;
+    }
+
+    /**
+     * Runs the specified work and reports it to the stall detector like a dispatched message, e.g.
+     * for tests that dispatch the messages of a paused looper themselves. Must be called on the
+     * main thread.
+     *
+     * @return the stall if the work exceeded the budget, null otherwise
+     */
+    @Nullable
+    public StallDetector.Stall monitor(@NonNull String description, @NonNull Runnable work) {
+        stallDetector.onWorkStarted(now());
+        work.run();
+        return stallDetector.onWorkFinished(now(), description);
+    }
+
+    /**
+     * @return the number of blocking RxJava calls on the main thread since the guard has been
+     * installed
+     */
+    public long getBlockingCallCount() {
+        return blockingCallCount.get();
+    }
+
+    /**
+     * @return true if blocking is not allowed on the current thread
+     */
+    private boolean onBeforeBlocking() {
+        if (!isMainThread()) {
+            return false;
+        }
+        long count = blockingCallCount.incrementAndGet();
+        Timber.e(new IllegalStateException("Blocking call on the main thread"), "Blocking call %d on the main thread", count);
+        return true;
+    }
+
+    public static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * Derives the start and the end of each dispatched message from the looper log messages.
+     */
+    private static final class StallPrinter implements Printer {
+
+        @NonNull
+        private final StallDetector stallDetector;
+
+        StallPrinter(@NonNull StallDetector stallDetector) {
+            this.stallDetector = stallDetector;
+        }
+
+        @Override
+        public void println(String message) {
+            if (message.startsWith(DISPATCH_PREFIX)) {
+                stallDetector.onWorkStarted(now());
+            } else if (message.startsWith(FINISH_PREFIX)) {
+                stallDetector.onWorkFinished(now(), message.substring(FINISH_PREFIX.length()).trim());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.nexenio.seamlessauthenticationintegrationsample.property;
+
+/**
+ * The properties of authenticators that are memoized by the {@link AuthenticatorPropertyCache}.
+ */
+public enum AuthenticatorProperty {
+
+    ID("ID"),
+
+    NAME("Name"),
+
+    ACTIVE("Active state"),
+
+    GATEWAYS_COUNT("Gateways count");
+
+    private final String readableName;
+
+    AuthenticatorProperty(String readableName) {
+        this.readableName = readableName;
+    }
+
+    public String getReadableName() {
+        return readableName;
+    }
+
+}
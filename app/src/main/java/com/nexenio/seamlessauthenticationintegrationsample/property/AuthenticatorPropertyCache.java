@@ -0,0 +1,241 @@
+package com.nexenio.seamlessauthenticationintegrationsample.property;
+
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthentication.accesscontrol.gate.Gate;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.Single;
+
+/**
+ * Memoizes properties of {@link SeamlessAuthenticator}s, so that rendering the same authenticators
+ * repeatedly doesn't read the same values through the SDK again.
+ *
+ * Each property has its own {@link PropertyPolicy}: the ID, name and gateways count never change
+ * and are memoized forever, the active state expires after a short time and the distance is
+ * always read live. Concurrent requests for a property that is being fetched share that fetch.
+ */
+public class AuthenticatorPropertyCache {
+
+    public static final long DEFAULT_ACTIVE_TIME_TO_LIVE = TimeUnit.SECONDS.toMillis(5);
+
+    /**
+     * Once exceeded, the properties of the least recently requested authenticators are dropped.
+     */
+    private static final int MAXIMUM_AUTHENTICATORS_COUNT = 1024;
+
+    @NonNull
+    private final Map<AuthenticatorProperty, PropertyPolicy> policies = new EnumMap<>(AuthenticatorProperty.class);
+
+    @NonNull
+    private final Map<AuthenticatorProperty, Counters> counters = new EnumMap<>(AuthenticatorProperty.class);
+
+    /**
+     * The IDs are memoized per authenticator instance, as they are required to look up all other
+     * properties. Guarded by itself.
+     */
+    @NonNull
+    private final Map<SeamlessAuthenticator, MemoizedProperty<UUID>> ids = new WeakHashMap<>();
+
+    /**
+     * Guarded by itself.
+     */
+    @NonNull
+    private final Map<UUID, MemoizedProperties> properties = new LinkedHashMap<UUID, MemoizedProperties>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, MemoizedProperties> eldest) {
+            return size() > MAXIMUM_AUTHENTICATORS_COUNT;
+        }
+    };
+
+    public AuthenticatorPropertyCache() {
+        this(PropertyPolicy.expiringAfter(DEFAULT_ACTIVE_TIME_TO_LIVE));
+    }
+
+    /**
+     * @param activePolicy the policy of the active state
+     */
+    public AuthenticatorPropertyCache(@NonNull PropertyPolicy activePolicy) {
+        policies.put(AuthenticatorProperty.ID, PropertyPolicy.FOREVER);
+        policies.put(AuthenticatorProperty.NAME, PropertyPolicy.FOREVER);
+        policies.put(AuthenticatorProperty.ACTIVE, activePolicy);
+        policies.put(AuthenticatorProperty.GATEWAYS_COUNT, PropertyPolicy.FOREVER);
+        for (AuthenticatorProperty property : AuthenticatorProperty.values()) {
+            counters.put(property, new Counters());
+        }
+    }
+
+    @NonNull
+    public Single<UUID> getId(@NonNull SeamlessAuthenticator authenticator) {
+        MemoizedProperty<UUID> memoizedId;
+        synchronized (ids) {
+            memoizedId = ids.get(authenticator);
+            if (memoizedId == null) {
+                memoizedId = new MemoizedProperty<>();
+                ids.put(authenticator, memoizedId);
+            }
+        }
+        return get(AuthenticatorProperty.ID, memoizedId, authenticator.getId());
+    }
+
+    /**
+     * @return the ID of the specified authenticator if it has been fetched already, null otherwise.
+     * Doesn't allocate and isn't counted in the {@link #getStatistics() statistics}.
+     */
+    @Nullable
+    public UUID getMemoizedId(@NonNull SeamlessAuthenticator authenticator) {
+        MemoizedProperty<UUID> memoizedId;
+        synchronized (ids) {
+            memoizedId = ids.get(authenticator);
+        }
+        if (memoizedId == null) {
+            return null;
+        }
+        synchronized (memoizedId) {
+            return memoizedId.value;
+        }
+    }
+
+    @NonNull
+    public Single<String> getName(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        return get(AuthenticatorProperty.NAME, getProperties(id).name, authenticator.getName());
+    }
+
+    @NonNull
+    public Single<Boolean> isActive(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        return get(AuthenticatorProperty.ACTIVE, getProperties(id).active, authenticator.isActive());
+    }
+
+    @NonNull
+    public Single<Long> getGatewaysCount(@NonNull UUID id, @NonNull Gate gate) {
+        return get(AuthenticatorProperty.GATEWAYS_COUNT, getProperties(id).gatewaysCount, gate.getGateways().count());
+    }
+
+    /**
+     * The distance changes with every sample and is never memoized.
+     */
+    @NonNull
+    public Single<Double> getDistance(@NonNull SeamlessAuthenticator authenticator) {
+        return authenticator.getDistance();
+    }
+
+    /**
+     * Drops all memoized properties of the specified authenticator.
+     */
+    public void invalidate(@NonNull UUID id) {
+        synchronized (properties) {
+            properties.remove(id);
+        }
+    }
+
+    @NonNull
+    public PropertyCacheStatistics getStatistics() {
+        Map<AuthenticatorProperty, PropertyCacheStatistics.Counts> counts = new EnumMap<>(AuthenticatorProperty.class);
+        for (Map.Entry<AuthenticatorProperty, Counters> entry : counters.entrySet()) {
+            Counters propertyCounters = entry.getValue();
+            counts.put(entry.getKey(), new PropertyCacheStatistics.Counts(propertyCounters.hitCount.get(),
+                    propertyCounters.joinCount.get(), propertyCounters.missCount.get()));
+        }
+        return new PropertyCacheStatistics(counts);
+    }
+
+    @NonNull
+    private MemoizedProperties getProperties(@NonNull UUID id) {
+        synchronized (properties) {
+            MemoizedProperties memoizedProperties = properties.get(id);
+            if (memoizedProperties == null) {
+                memoizedProperties = new MemoizedProperties();
+                properties.put(id, memoizedProperties);
+            }
+            return memoizedProperties;
+        }
+    }
+
+    /**
+     * Emits the memoized value if it's still fresh, joins the fetch that is in flight or starts a
+     * new fetch from the specified source otherwise.
+     */
+    private <T> Single<T> get(@NonNull AuthenticatorProperty property, @NonNull MemoizedProperty<T> memoizedProperty, @NonNull Single<T> source) {
+        PropertyPolicy policy = policies.get(property);
+        Counters propertyCounters = counters.get(property);
+        if (!policy.isCacheable()) {
+            propertyCounters.missCount.incrementAndGet();
+            return source;
+        }
+        return Single.defer(() -> {
+            synchronized (memoizedProperty) {
+                if (memoizedProperty.value != null && policy.isFresh(memoizedProperty.fetchTimestamp, SystemClock.elapsedRealtime())) {
+                    propertyCounters.hitCount.incrementAndGet();
+                    return Single.just(memoizedProperty.value);
+                }
+                if (memoizedProperty.fetch != null) {
+                    propertyCounters.joinCount.incrementAndGet();
+                    return memoizedProperty.fetch;
+                }
+                propertyCounters.missCount.incrementAndGet();
+                Single<T> fetch = source
+                        .doOnSuccess(value -> {
+                            synchronized (memoizedProperty) {
+                                memoizedProperty.value = value;
+                                memoizedProperty.fetchTimestamp = SystemClock.elapsedRealtime();
+                            }
+                        })
+                        .doFinally(() -> {
+                            synchronized (memoizedProperty) {
+                                memoizedProperty.fetch = null;
+                            }
+                        })
+                        .cache();
+                memoizedProperty.fetch = fetch;
+                return fetch;
+            }
+        });
+    }
+
+    /**
+     * The requests of a property, see {@link PropertyCacheStatistics}.
+     */
+    private static final class Counters {
+
+        private final AtomicLong hitCount = new AtomicLong();
+
+        private final AtomicLong joinCount = new AtomicLong();
+
+        private final AtomicLong missCount = new AtomicLong();
+
+    }
+
+    /**
+     * A memoized value and the fetch that is in flight for it, guarded by itself.
+     */
+    private static final class MemoizedProperty<T> {
+
+        private T value;
+
+        private long fetchTimestamp;
+
+        private Single<T> fetch;
+
+    }
+
+    private static final class MemoizedProperties {
+
+        private final MemoizedProperty<String> name = new MemoizedProperty<>();
+
+        private final MemoizedProperty<Boolean> active = new MemoizedProperty<>();
+
+        private final MemoizedProperty<Long> gatewaysCount = new MemoizedProperty<>();
+
+    }
+
+}
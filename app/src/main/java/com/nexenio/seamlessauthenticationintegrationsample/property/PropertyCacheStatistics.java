@@ -0,0 +1,77 @@
+package com.nexenio.seamlessauthenticationintegrationsample.property;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * An immutable snapshot of the counters of an {@link AuthenticatorPropertyCache}.
+ *
+ * A hit is a request that has been served from a memoized value, a join is a request that has been
+ * served by a fetch that was already in flight and a miss is a request that caused a fetch through
+ * the SDK.
+ */
+public final class PropertyCacheStatistics {
+
+    private final Map<AuthenticatorProperty, Counts> counts;
+
+    PropertyCacheStatistics(@NonNull Map<AuthenticatorProperty, Counts> counts) {
+        this.counts = new EnumMap<>(counts);
+    }
+
+    public long getHitCount(@NonNull AuthenticatorProperty property) {
+        return counts.get(property).hitCount;
+    }
+
+    public long getJoinCount(@NonNull AuthenticatorProperty property) {
+        return counts.get(property).joinCount;
+    }
+
+    public long getMissCount(@NonNull AuthenticatorProperty property) {
+        return counts.get(property).missCount;
+    }
+
+    /**
+     * @return the ratio of requests that didn't cause a fetch, or 0 if there were none
+     */
+    public double getHitRate(@NonNull AuthenticatorProperty property) {
+        long requestCount = getHitCount(property) + getJoinCount(property) + getMissCount(property);
+        return requestCount > 0 ? (double) (requestCount - getMissCount(property)) / requestCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("PropertyCacheStatistics{");
+        for (AuthenticatorProperty property : AuthenticatorProperty.values()) {
+            if (property.ordinal() > 0) {
+                builder.append(", ");
+            }
+            builder.append(String.format(Locale.US, "%s: hits=%d, joins=%d, misses=%d, hitRate=%.2f",
+                    property.getReadableName(), getHitCount(property), getJoinCount(property),
+                    getMissCount(property), getHitRate(property)));
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * The counts of a single property.
+     */
+    static final class Counts {
+
+        private final long hitCount;
+
+        private final long joinCount;
+
+        private final long missCount;
+
+        Counts(long hitCount, long joinCount, long missCount) {
+            this.hitCount = hitCount;
+            this.joinCount = joinCount;
+            this.missCount = missCount;
+        }
+
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.nexenio.seamlessauthenticationintegrationsample.registry;
+
+import android.annotation.SuppressLint;
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthenticationintegrationsample.property.AuthenticatorPropertyCache;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import timber.log.Timber;
+
+/**
+ * Keeps track of all detected {@link SeamlessAuthenticator}s by their UUID. Needs to be notified
+ * about detections through {@link #onAuthenticatorDetected(SeamlessAuthenticator)}, authenticators
+ * that have not been detected within the time to live get evicted.
+ *
+ * The ID of an authenticator instance is only requested the first time it gets detected, following
+ * detections of the same instance update the index without any I/O. IDs are resolved through the
+ * {@link AuthenticatorPropertyCache}, so that they are read through the SDK only once per
+ * instance, on the detection scheduler of the {@link WorkloadSchedulers}.
+ */
+public class AuthenticatorRegistry {
+
+    public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.SECONDS.toMillis(10);
+
+    @NonNull
+    private final AuthenticatorIndex<SeamlessAuthenticator> index;
+
+    /**
+     * IDs of authenticator instances that are currently present in the index.
+     */
+    @NonNull
+    private final Map<SeamlessAuthenticator, UUID> knownIds = new ConcurrentHashMap<>();
+
+    @NonNull
+    private final Subject<AuthenticatorIndex.Entry<SeamlessAuthenticator>> updateSubject = PublishSubject.<AuthenticatorIndex.Entry<SeamlessAuthenticator>>create().toSerialized();
+
+    @NonNull
+    private final AuthenticatorPropertyCache propertyCache;
+
+    @NonNull
+    private final WorkloadSchedulers workloadSchedulers;
+
+    @NonNull
+    private final Disposable evictionDisposable;
+
+    public AuthenticatorRegistry(@NonNull AuthenticatorPropertyCache propertyCache, @NonNull WorkloadSchedulers workloadSchedulers) {
+        this(DEFAULT_TIME_TO_LIVE, propertyCache, workloadSchedulers);
+    }
+
+    public AuthenticatorRegistry(long timeToLive, @NonNull AuthenticatorPropertyCache propertyCache, @NonNull WorkloadSchedulers workloadSchedulers) {
+        this.index = new AuthenticatorIndex<>(timeToLive);
+        this.propertyCache = propertyCache;
+        this.workloadSchedulers = workloadSchedulers;
+        this.evictionDisposable = Observable.interval(timeToLive / 2, TimeUnit.MILLISECONDS, Schedulers.computation())
+                .subscribe(
+                        count -> evictExpiredAuthenticators(),
+                        throwable -> Timber.w(throwable, "Unable to evict expired authenticators")
+                );
+    }
+
+    /**
+     * Adds or refreshes the specified authenticator. Doesn't block, the ID of previously unknown
+     * instances is resolved asynchronously.
+     */
+    @SuppressLint("CheckResult")
+    public void onAuthenticatorDetected(@NonNull SeamlessAuthenticator authenticator) {
+        UUID id = knownIds.get(authenticator);
+        if (id != null) {
+            put(id, authenticator);
+            return;
+        }
+        propertyCache.getId(authenticator)
+                .subscribeOn(workloadSchedulers.detection())
+                .subscribe(
+                        resolvedId -> {
+                            knownIds.put(authenticator, resolvedId);
+                            put(resolvedId, authenticator);
+                        },
+                        throwable -> Timber.w(throwable, "Unable to resolve authenticator ID")
+                );
+    }
+
+    private void put(@NonNull UUID id, @NonNull SeamlessAuthenticator authenticator) {
+        AuthenticatorIndex.Entry<SeamlessAuthenticator> previousEntry = index.getEntry(id);
+        if (previousEntry != null && previousEntry.getValue() != authenticator) {
+            knownIds.remove(previousEntry.getValue());
+        }
+        updateSubject.onNext(index.put(id, authenticator, SystemClock.elapsedRealtime()));
+    }
+
+    private void evictExpiredAuthenticators() {
+        List<AuthenticatorIndex.Entry<SeamlessAuthenticator>> evictedEntries = index.evictExpired(SystemClock.elapsedRealtime());
+        for (AuthenticatorIndex.Entry<SeamlessAuthenticator> evictedEntry : evictedEntries) {
+            knownIds.remove(evictedEntry.getValue());
+        }
+        if (!evictedEntries.isEmpty()) {
+            Timber.d("Evicted %d expired authenticators", evictedEntries.size());
+        }
+    }
+
+    /**
+     * @return the authenticator with the specified ID, or null if it has not been detected within
+     * the time to live
+     */
+    @Nullable
+    public SeamlessAuthenticator getAuthenticator(@NonNull UUID id) {
+        return index.get(id);
+    }
+
+    /**
+     * Emits the authenticator with the specified ID immediately if it's known and again every time
+     * it gets detected. Never completes.
+     */
+    @NonNull
+    public Observable<SeamlessAuthenticator> observeAuthenticator(@NonNull UUID id) {
+        return Observable.defer(() -> {
+            Observable<SeamlessAuthenticator> updates = updateSubject
+                    .filter(entry -> entry.getId().equals(id))
+                    .map(AuthenticatorIndex.Entry::getValue);
+            SeamlessAuthenticator authenticator = index.get(id);
+            return authenticator != null ? updates.startWith(authenticator) : updates;
+        });
+    }
+
+    /**
+     * Emits the entry of every detected authenticator, possibly the same one multiple times. Never
+     * completes.
+     */
+    @NonNull
+    public Observable<AuthenticatorIndex.Entry<SeamlessAuthenticator>> observeUpdates() {
+        return updateSubject;
+    }
+
+    /**
+     * @return all authenticators that have been detected within the time to live
+     */
+    @NonNull
+    public Collection<AuthenticatorIndex.Entry<SeamlessAuthenticator>> getEntries() {
+        return index.getEntries();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public void dispose() {
+        evictionDisposable.dispose();
+        index.clear();
+        knownIds.clear();
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthenticationintegrationsample.detection.DetectionManager;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.GatewayTracker;
+import com.nexenio.seamlessauthenticationintegrationsample.gateway.TrackedGateway;
+import com.nexenio.seamlessauthenticationintegrationsample.property.AuthenticatorPropertyCache;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * Records every detection of the {@link DetectionManager} to a session log, so that the session
+ * can be replayed with the {@link SessionReplayer} without hardware.
+ *
+ * Each detection is recorded with the current distance, the active state from the {@link
+ * AuthenticatorPropertyCache} and the closest gateway that the {@link GatewayTracker} tracked
+ * last, so recording doesn't cause additional SDK calls apart from reading the distance. Like the
+ * seamless mode, detections are sampled with limited concurrency and dropped while all samples
+ * are busy.
+ *
+ * Samples are taken on the property fetch workload and written on the io scheduler. The session
+ * log is flushed and closed on the io scheduler as well, even when recording is stopped from the
+ * main thread.
+ *
+ * Doesn't keep detection running by itself, detections are only recorded while detection is
+ * running.
+ */
+public class SessionRecorder {
+
+    /**
+     * Maximum number of detections that are sampled at the same time.
+     */
+    public static final int MAXIMUM_CONCURRENT_SAMPLES = 4;
+
+    /**
+     * Number of samples after which the log gets flushed, so that a killed process loses few
+     * samples.
+     */
+    private static final int FLUSH_INTERVAL = 64;
+
+    @NonNull
+    private final DetectionManager detectionManager;
+
+    @NonNull
+    private final AuthenticatorPropertyCache propertyCache;
+
+    @NonNull
+    private final GatewayTracker gatewayTracker;
+
+    @NonNull
+    private final WorkloadSchedulers workloadSchedulers;
+
+    private final AtomicLong recordedSampleCount = new AtomicLong();
+    private final AtomicLong droppedSampleCount = new AtomicLong();
+
+    @Nullable
+    private File file;
+
+    private Disposable recordingDisposable;
+
+    public SessionRecorder(@NonNull DetectionManager detectionManager, @NonNull AuthenticatorPropertyCache propertyCache,
+                           @NonNull GatewayTracker gatewayTracker, @NonNull WorkloadSchedulers workloadSchedulers) {
+        this.detectionManager = detectionManager;
+        this.propertyCache = propertyCache;
+        this.gatewayTracker = gatewayTracker;
+        this.workloadSchedulers = workloadSchedulers;
+    }
+
+    /**
+     * Starts appending detections to the specified session log. Does nothing if already
+     * recording.
+     */
+    public synchronized void start(@NonNull File file) {
+        if (isRecording()) {
+            return;
+        }
+        Timber.d("Starting to record session to %s", file);
+        this.file = file;
+        recordedSampleCount.set(0);
+        droppedSampleCount.set(0);
+        recordingDisposable = Flowable.<SessionSample, SessionLogWriter>using(
+                () -> new SessionLogWriter(file),
+                writer -> detectionManager.getDetectedAuthenticatorEvents()
+                        .toFlowable(BackpressureStrategy.MISSING)
+                        .onBackpressureDrop(authenticator -> droppedSampleCount.incrementAndGet())
+                        .flatMapMaybe(this::sample, false, MAXIMUM_CONCURRENT_SAMPLES)
+                        .observeOn(Schedulers.io())
+                        .doOnNext(sample -> {
+                            writer.write(sample);
+                            if (recordedSampleCount.incrementAndGet() % FLUSH_INTERVAL == 0) {
+                                writer.flush();
+                            }
+                        }),
+                SessionLogWriter::close)
+                .unsubscribeOn(Schedulers.io())
+                .subscribeOn(Schedulers.io())
+                .ignoreElements()
+                .subscribe(
+                        () -> Timber.d("Session recording completed"),
+                        throwable -> Timber.w(throwable, "Unable to record session")
+                );
+    }
+
+    /**
+     * Stops recording and closes the session log.
+     */
+    public synchronized void stop() {
+        if (!isRecording()) {
+            return;
+        }
+        Timber.d("Stopping session recording: %s", this);
+        recordingDisposable.dispose();
+    }
+
+    public synchronized boolean isRecording() {
+        return recordingDisposable != null && !recordingDisposable.isDisposed();
+    }
+
+    /**
+     * @return the session log that is or has been recorded last, or null if nothing has been
+     * recorded yet
+     */
+    @Nullable
+    public synchronized File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the number of samples recorded since the recording has been started
+     */
+    public long getRecordedSampleCount() {
+        return recordedSampleCount.get();
+    }
+
+    @NonNull
+    private Maybe<SessionSample> sample(@NonNull SeamlessAuthenticator authenticator) {
+        return propertyCache.getId(authenticator)
+                .flatMap(id -> Single.<Double, SessionSample.State, SessionSample>zip(
+                        propertyCache.getDistance(authenticator)
+                                .onErrorReturnItem(Double.NaN),
+                        propertyCache.isActive(id, authenticator)
+                                .map(active -> active ? SessionSample.State.ACTIVE : SessionSample.State.INACTIVE)
+                                .onErrorReturnItem(SessionSample.State.UNKNOWN),
+                        (distance, state) -> createSample(id, distance, state)))
+                .toMaybe()
+                .subscribeOn(workloadSchedulers.propertyFetch())
+                .doOnError(throwable -> Timber.w(throwable, "Unable to sample authenticator"))
+                .onErrorComplete();
+    }
+
+    @NonNull
+    private SessionSample createSample(@NonNull UUID id, double distance, @NonNull SessionSample.State state) {
+        TrackedGateway trackedGateway = gatewayTracker.getTrackedGateway(id);
+        int gatewayIndex = trackedGateway != null ? (int) trackedGateway.getClosestGatewayIndex() : SessionSample.UNKNOWN_GATEWAY_INDEX;
+        return new SessionSample(id, SystemClock.elapsedRealtime(), distance, state, gatewayIndex);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "SessionRecorder{recording=%b, samples=%d, dropped=%d}",
+                isRecording(), recordedSampleCount.get(), droppedSampleCount.get());
+    }
+
+}
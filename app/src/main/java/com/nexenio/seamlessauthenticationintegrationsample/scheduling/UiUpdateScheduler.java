@@ -0,0 +1,181 @@
+package com.nexenio.seamlessauthenticationintegrationsample.scheduling;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Applies UI updates on the main thread aligned to vsync, using a {@link CoalescingUpdateQueue}
+ * that is drained by a {@link Choreographer} frame callback. All updates that are pending when a
+ * frame starts are applied in that frame, updates that are replaced before are dropped.
+ *
+ * Deferrable updates are held back while a list is scrolling, so that the frames of a fling are
+ * not spent on refreshing content that is moving anyway. Lists report their scroll state with
+ * {@link #trackScrolling(RecyclerView)}.
+ */
+public class UiUpdateScheduler {
+
+    @NonNull
+    private final CoalescingUpdateQueue queue = new CoalescingUpdateQueue();
+
+    @NonNull
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> applyPendingUpdates();
+
+    /**
+     * Applies the specified update with the next frame, replacing the pending update with the same
+     * key. Updates that must not be dropped, e.g. because they depend on the previous one, need a
+     * key of their own. Pending updates are applied in the order they have been scheduled in. May
+     * be called from any thread.
+     *
+     * @param deferrable whether the update may be held back while a list is scrolling
+     */
+    public void schedule(@NonNull Object key, boolean deferrable, @NonNull Runnable update) {
+        if (queue.enqueue(key, deferrable, update)) {
+            requestFrame();
+        }
+    }
+
+    /**
+     * Drops the pending update with the specified key, if any.
+     */
+    public void cancel(@NonNull Object key) {
+        queue.cancel(key);
+    }
+
+    /**
+     * Emits the items of the upstream on the main thread, at most once per frame. Items that are
+     * superseded before the next frame are dropped, errors are emitted without waiting for a
+     * frame.
+     *
+     * @param deferrable whether items may be held back while a list is scrolling
+     */
+    @NonNull
+    public <T> ObservableTransformer<T, T> coalesce(boolean deferrable) {
+        return upstream -> Observable.create(emitter -> {
+            CoalescingEmitter<T> coalescingEmitter = new CoalescingEmitter<>(emitter);
+            Disposable disposable = upstream.subscribe(
+                    item -> {
+                        coalescingEmitter.latestItem.set(item);
+                        schedule(coalescingEmitter, deferrable, coalescingEmitter);
+                    },
+                    throwable -> mainHandler.post(() -> emitter.tryOnError(throwable)),
+                    () -> {
+                        coalescingEmitter.completed = true;
+                        schedule(coalescingEmitter, deferrable, coalescingEmitter);
+                    }
+            );
+            emitter.setCancellable(() -> {
+                disposable.dispose();
+                cancel(coalescingEmitter);
+            });
+        });
+    }
+
+    /**
+     * Holds back deferrable updates while the specified list is scrolling. Must be called on the
+     * main thread.
+     */
+    public void trackScrolling(@NonNull RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                setScrolling(newState != RecyclerView.SCROLL_STATE_IDLE);
+            }
+        });
+    }
+
+    /**
+     * Starts or stops holding back deferrable updates. Lists that stop being shown while scrolling
+     * should reset this, otherwise deferrable updates are held back until the next scroll ends.
+     */
+    public void setScrolling(boolean scrolling) {
+        if (queue.setDeferring(scrolling)) {
+            requestFrame();
+        }
+    }
+
+    private void requestFrame() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        } else {
+            mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(frameCallback));
+        }
+    }
+
+    private void applyPendingUpdates() {
+        boolean traced = Tracing.beginSection("apply ui updates");
+        try {
+            queue.applyPending();
+        } finally {
+            if (traced) {
+                Tracing.endSection();
+            }
+        }
+    }
+
+    /**
+     * @return the number of updates that have been replaced before they were applied
+     */
+    public long getCoalescedCount() {
+        return queue.getCoalescedCount();
+    }
+
+    public long getAppliedCount() {
+        return queue.getAppliedCount();
+    }
+
+    public void resetCounters() {
+        queue.resetCounters();
+    }
+
+    @Override
+    public String toString() {
+        return queue.toString();
+    }
+
+    /**
+     * Emits the latest item when its frame is applied. Serves as the key of the pending update as
+     * well, so that each subscription is coalesced separately.
+     */
+    private static final class CoalescingEmitter<T> implements Runnable {
+
+        @NonNull
+        private final ObservableEmitter<T> emitter;
+
+        @NonNull
+        private final AtomicReference<T> latestItem = new AtomicReference<>();
+
+        private volatile boolean completed;
+
+        CoalescingEmitter(@NonNull ObservableEmitter<T> emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void run() {
+            T item = latestItem.getAndSet(null);
+            if (item != null) {
+                emitter.onNext(item);
+            }
+            if (completed) {
+                emitter.onComplete();
+            }
+        }
+
+    }
+
+}
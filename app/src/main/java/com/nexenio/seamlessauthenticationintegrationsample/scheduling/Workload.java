@@ -0,0 +1,81 @@
+package com.nexenio.seamlessauthenticationintegrationsample.scheduling;
+
+import android.os.Process;
+
+/**
+ * The classes of background work that get their own bounded pool of threads from the {@link
+ * WorkloadSchedulers}, so that they don't compete for the same threads.
+ */
+public enum Workload {
+
+    /**
+     * Handling detected authenticators: subscribing to the detector and resolving IDs for the
+     * registry.
+     */
+    DETECTION("Detection", 2, 64, Process.THREAD_PRIORITY_DEFAULT),
+
+    /**
+     * Reading properties like the distance through the SDK, for the seamless triggers, the
+     * anticipation ranking, the snapshots and the session recorder.
+     */
+    PROPERTY_FETCH("PropertyFetch", 4, 256, Process.THREAD_PRIORITY_DEFAULT),
+
+    /**
+     * Preparing what gets rendered: creating and ranking snapshots. Runs with background priority,
+     * as nothing waits for it but the next frame.
+     */
+    RENDERING("Rendering", 2, 128, Process.THREAD_PRIORITY_BACKGROUND),
+
+    /**
+     * Anticipating authentications of the nearest authenticators. Separate from the authentication
+     * workload, so that anticipations can't delay an authentication the user waits for.
+     */
+    ANTICIPATION("Anticipation", 2, 32, Process.THREAD_PRIORITY_DEFAULT),
+
+    /**
+     * Authenticating, which the user waits for at the gate. Runs with foreground priority, so that
+     * it's scheduled before all other work of the app.
+     */
+    AUTHENTICATION("Authentication", 2, 32, Process.THREAD_PRIORITY_FOREGROUND);
+
+    private final String readableName;
+
+    private final int maximumConcurrency;
+
+    private final int queueCapacity;
+
+    private final int threadPriority;
+
+    Workload(String readableName, int maximumConcurrency, int queueCapacity, int threadPriority) {
+        this.readableName = readableName;
+        this.maximumConcurrency = maximumConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.threadPriority = threadPriority;
+    }
+
+    public String getReadableName() {
+        return readableName;
+    }
+
+    /**
+     * @return the maximum number of tasks that run at the same time
+     */
+    public int getMaximumConcurrency() {
+        return maximumConcurrency;
+    }
+
+    /**
+     * @return the maximum number of tasks that wait for a thread before further tasks overflow
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return the Linux thread priority of the threads, see {@link Process#setThreadPriority(int)}
+     */
+    public int getThreadPriority() {
+        return threadPriority;
+    }
+
+}
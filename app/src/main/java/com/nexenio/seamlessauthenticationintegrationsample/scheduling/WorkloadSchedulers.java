@@ -0,0 +1,117 @@
+package com.nexenio.seamlessauthenticationintegrationsample.scheduling;
+
+import android.os.Process;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Provides a bounded {@link Scheduler} per {@link Workload}, instead of sharing the unbounded
+ * {@link Schedulers#io()} pool between all background work.
+ *
+ * Each workload has its own {@link WorkloadExecutor} with a fixed number of threads that run with
+ * the priority of the workload, so that e.g. preparing list updates can't delay an
+ * authentication. Tasks that exceed the queue capacity of a workload overflow to {@link
+ * Schedulers#io()}. They are still executed, but counted as rejections, which indicates that the
+ * workload needs more threads or produces too much work.
+ *
+ * Disk I/O and timers are not a workload, they stay on the {@link Schedulers#io()} and {@link
+ * Schedulers#computation()} schedulers.
+ */
+public class WorkloadSchedulers {
+
+    private static final Executor OVERFLOW_EXECUTOR = runnable -> Schedulers.io().scheduleDirect(runnable);
+
+    @NonNull
+    private final Map<Workload, WorkloadExecutor> executors = new EnumMap<>(Workload.class);
+
+    @NonNull
+    private final Map<Workload, Scheduler> schedulers = new EnumMap<>(Workload.class);
+
+    public WorkloadSchedulers() {
+        for (Workload workload : Workload.values()) {
+            WorkloadExecutor executor = new WorkloadExecutor(workload.getReadableName(), workload.getMaximumConcurrency(),
+                    workload.getQueueCapacity(), createThreadFactory(workload), OVERFLOW_EXECUTOR);
+            executors.put(workload, executor);
+            schedulers.put(workload, Schedulers.from(executor));
+        }
+    }
+
+    /**
+     * Creates daemon threads that are named after the workload and run with its priority. The
+     * priority has to be set by the thread itself.
+     */
+    @NonNull
+    private static ThreadFactory createThreadFactory(@NonNull Workload workload) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(workload.getThreadPriority());
+                runnable.run();
+            }, workload.getReadableName() + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @NonNull
+    public Scheduler get(@NonNull Workload workload) {
+        return schedulers.get(workload);
+    }
+
+    @NonNull
+    public Scheduler detection() {
+        return get(Workload.DETECTION);
+    }
+
+    @NonNull
+    public Scheduler propertyFetch() {
+        return get(Workload.PROPERTY_FETCH);
+    }
+
+    @NonNull
+    public Scheduler rendering() {
+        return get(Workload.RENDERING);
+    }
+
+    @NonNull
+    public Scheduler anticipation() {
+        return get(Workload.ANTICIPATION);
+    }
+
+    @NonNull
+    public Scheduler authentication() {
+        return get(Workload.AUTHENTICATION);
+    }
+
+    @NonNull
+    public WorkloadStatistics getStatistics(@NonNull Workload workload) {
+        return executors.get(workload).getStatistics();
+    }
+
+    public void resetStatistics() {
+        for (WorkloadExecutor executor : executors.values()) {
+            executor.resetStatistics();
+        }
+    }
+
+    /**
+     * Writes the statistics of all workloads in a human readable format.
+     */
+    public void dump(@NonNull Writer writer) throws IOException {
+        for (WorkloadExecutor executor : executors.values()) {
+            writer.write(executor.getStatistics().toString());
+            writer.write(System.lineSeparator());
+        }
+    }
+
+}
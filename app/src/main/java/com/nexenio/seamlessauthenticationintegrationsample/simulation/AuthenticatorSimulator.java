@@ -0,0 +1,105 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthentication.SeamlessAuthenticatorDetector;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * Provides a {@link SeamlessAuthenticatorDetector} that detects the authenticators of a {@link
+ * Simulation} instead of real ones, in order to load test the app without hardware.
+ *
+ * The SDK types are implemented by the simulated classes of this package. Calls that the
+ * simulation doesn't model, like whether an authenticator is active, succeed with a fixed result.
+ */
+public class AuthenticatorSimulator {
+
+    @NonNull
+    private final Simulation simulation;
+
+    @NonNull
+    private final Map<SimulatedAuthenticatorModel, SeamlessAuthenticator> authenticators = new IdentityHashMap<>();
+
+    @NonNull
+    private final Observable<SeamlessAuthenticator> detection;
+
+    private final long startTimestamp;
+
+    public AuthenticatorSimulator(@NonNull SimulationConfiguration configuration) {
+        this.simulation = new Simulation(configuration);
+        this.startTimestamp = SystemClock.elapsedRealtime();
+        for (SimulatedAuthenticatorModel model : simulation.getAuthenticators()) {
+            authenticators.put(model, model.isGate() ? new SimulatedGate(model, this) : new SimulatedAuthenticator(model, this));
+        }
+        this.detection = Observable.interval(0, configuration.getDetectionInterval(), TimeUnit.MILLISECONDS, Schedulers.computation())
+                .flatMapIterable(count -> getAuthenticatorsInRange())
+                .doOnSubscribe(disposable -> Timber.d("Starting simulated detection of %d authenticators", authenticators.size()))
+                .doFinally(() -> Timber.d("Stopped simulated detection"))
+                .share();
+    }
+
+    /**
+     * @return the time in milliseconds since the simulator has been created
+     */
+    long getSimulationTime() {
+        return SystemClock.elapsedRealtime() - startTimestamp;
+    }
+
+    /**
+     * Emits all simulated authenticators that are in range in the configured detection interval,
+     * while subscribed.
+     */
+    @NonNull
+    Observable<SeamlessAuthenticator> getDetection() {
+        return detection;
+    }
+
+    @NonNull
+    List<SeamlessAuthenticator> getAuthenticatorsInRange() {
+        List<SimulatedAuthenticatorModel> models = simulation.getAuthenticatorsInRange(getSimulationTime());
+        List<SeamlessAuthenticator> authenticatorsInRange = new ArrayList<>(models.size());
+        for (SimulatedAuthenticatorModel model : models) {
+            authenticatorsInRange.add(authenticators.get(model));
+        }
+        return authenticatorsInRange;
+    }
+
+    @Nullable
+    SeamlessAuthenticator getClosestAuthenticator() {
+        long time = getSimulationTime();
+        SimulatedAuthenticatorModel closestModel = null;
+        for (SimulatedAuthenticatorModel model : simulation.getAuthenticatorsInRange(time)) {
+            if (closestModel == null || model.getDistance(time) < closestModel.getDistance(time)) {
+                closestModel = model;
+            }
+        }
+        return closestModel != null ? authenticators.get(closestModel) : null;
+    }
+
+    @NonNull
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Creates a detector that emits all simulated authenticators that are in range in the
+     * configured detection interval, while subscribed to {@link SeamlessAuthenticatorDetector#detect()}.
+     */
+    @NonNull
+    public SeamlessAuthenticatorDetector createDetector() {
+        return new SimulatedDetector(this);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import com.nexenio.seamlessauthentication.AuthenticationProperties;
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthentication.distance.DistanceProvider;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * A {@link SeamlessAuthenticator} that moves according to a {@link SimulatedAuthenticatorModel}.
+ * Its calls are delayed and fail as configured for the model.
+ */
+class SimulatedAuthenticator implements SeamlessAuthenticator {
+
+    @NonNull
+    final SimulatedAuthenticatorModel model;
+
+    @NonNull
+    final AuthenticatorSimulator simulator;
+
+    @NonNull
+    private final DistanceProvider distanceProvider;
+
+    SimulatedAuthenticator(@NonNull SimulatedAuthenticatorModel model, @NonNull AuthenticatorSimulator simulator) {
+        this.model = model;
+        this.simulator = simulator;
+        this.distanceProvider = new SimulatedDistanceProvider(this, simulator.getSimulation().getConfiguration().getDetectionInterval());
+    }
+
+    @Override
+    public Single<UUID> getId() {
+        return inject(SimulatedOperation.GET_ID, model::getId);
+    }
+
+    @Override
+    public Single<String> getName() {
+        return inject(SimulatedOperation.GET_NAME, model::getName);
+    }
+
+    @Override
+    public Single<Double> getDistance() {
+        return inject(SimulatedOperation.GET_DISTANCE, () -> model.getDistance(simulator.getSimulationTime()));
+    }
+
+    @Override
+    public Single<DistanceProvider> getDistanceProvider() {
+        return Single.just(distanceProvider);
+    }
+
+    @Override
+    public Single<Boolean> isActive() {
+        return Single.just(true);
+    }
+
+    @Override
+    public Completable anticipateAuthentication(@NonNull AuthenticationProperties authenticationProperties) {
+        return inject(SimulatedOperation.ANTICIPATE_AUTHENTICATION, () -> true).ignoreElement();
+    }
+
+    @Override
+    public Completable authenticate(@NonNull AuthenticationProperties authenticationProperties) {
+        return inject(SimulatedOperation.AUTHENTICATE, () -> true).ignoreElement();
+    }
+
+    /**
+     * Delays the specified call by the latency of the next call to the operation and replaces it
+     * with a {@link SimulatedFailureException} if the call should fail.
+     */
+    @NonNull
+    private <T> Single<T> inject(@NonNull SimulatedOperation operation, @NonNull Callable<T> callable) {
+        return Single.defer(() -> {
+            long latency = model.nextLatency(operation);
+            Single<T> result = model.nextFailure(operation) ?
+                    Single.error(new SimulatedFailureException(operation, model.getId())) : Single.fromCallable(callable);
+            return latency > 0 ? result.delaySubscription(latency, TimeUnit.MILLISECONDS, Schedulers.computation()) : result;
+        });
+    }
+
+    @Override
+    public String toString() {
+        return model.getName();
+    }
+
+}
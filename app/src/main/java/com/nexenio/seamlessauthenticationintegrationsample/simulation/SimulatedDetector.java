@@ -0,0 +1,42 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthentication.SeamlessAuthenticatorDetector;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+
+/**
+ * Detects the authenticators of an {@link AuthenticatorSimulator} that are in range.
+ */
+class SimulatedDetector implements SeamlessAuthenticatorDetector {
+
+    @NonNull
+    private final AuthenticatorSimulator simulator;
+
+    SimulatedDetector(@NonNull AuthenticatorSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @Override
+    public Observable<SeamlessAuthenticator> detect() {
+        return simulator.getDetection();
+    }
+
+    @Override
+    public Observable<SeamlessAuthenticator> getDetectedAuthenticators() {
+        return Observable.defer(() -> Observable.fromIterable(simulator.getAuthenticatorsInRange()));
+    }
+
+    @Override
+    public Maybe<SeamlessAuthenticator> getClosestAuthenticator() {
+        return Maybe.fromCallable(simulator::getClosestAuthenticator);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedDetector";
+    }
+
+}
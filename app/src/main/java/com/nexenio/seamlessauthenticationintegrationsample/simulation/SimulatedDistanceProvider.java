@@ -0,0 +1,38 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import com.nexenio.seamlessauthentication.distance.DistanceProvider;
+
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Provides the distances of a {@link SimulatedAuthenticator}, sampled in the detection interval.
+ */
+class SimulatedDistanceProvider implements DistanceProvider {
+
+    @NonNull
+    private final SimulatedAuthenticator authenticator;
+
+    private final long interval;
+
+    SimulatedDistanceProvider(@NonNull SimulatedAuthenticator authenticator, long interval) {
+        this.authenticator = authenticator;
+        this.interval = interval;
+    }
+
+    @Override
+    public Single<Double> getDistance() {
+        return authenticator.getDistance();
+    }
+
+    @Override
+    public Observable<Double> getDistances() {
+        return Observable.interval(interval, TimeUnit.MILLISECONDS, Schedulers.computation())
+                .concatMapSingle(count -> authenticator.getDistance());
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Emitted by simulated authenticators if a failure got injected into a call.
+ */
+public class SimulatedFailureException extends RuntimeException {
+
+    public SimulatedFailureException(@NonNull SimulatedOperation operation, @NonNull UUID authenticatorId) {
+        super("Simulated failure of " + operation + " for " + authenticatorId);
+    }
+
+}
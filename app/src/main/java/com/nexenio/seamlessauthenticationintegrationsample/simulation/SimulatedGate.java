@@ -0,0 +1,41 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import com.nexenio.seamlessauthentication.accesscontrol.gate.Gate;
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.Gateway;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+
+/**
+ * A {@link SimulatedAuthenticator} with the gateways of its model. The closest gateway doesn't
+ * change, as the model doesn't move sideways.
+ */
+class SimulatedGate extends SimulatedAuthenticator implements Gate {
+
+    @NonNull
+    private final List<Gateway> gateways;
+
+    SimulatedGate(@NonNull SimulatedAuthenticatorModel model, @NonNull AuthenticatorSimulator simulator) {
+        super(model, simulator);
+        gateways = new ArrayList<>(model.getGatewaysCount());
+        SimulatedGatewayOpening opening = new SimulatedGatewayOpening(this);
+        for (int index = 0; index < model.getGatewaysCount(); index++) {
+            gateways.add(new SimulatedGateway(index, opening));
+        }
+    }
+
+    @Override
+    public Single<Gateway> getClosestGateway() {
+        return Single.just(gateways.get(model.getClosestGatewayIndex()));
+    }
+
+    @Override
+    public Observable<Gateway> getGateways() {
+        return Observable.fromIterable(gateways);
+    }
+
+}
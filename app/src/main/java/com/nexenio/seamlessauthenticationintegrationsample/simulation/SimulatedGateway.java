@@ -0,0 +1,39 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.Gateway;
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.opening.GatewayOpening;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Single;
+
+/**
+ * A gateway of a {@link SimulatedGate} with a single opening.
+ */
+class SimulatedGateway implements Gateway {
+
+    private final int index;
+
+    @NonNull
+    private final GatewayOpening opening;
+
+    SimulatedGateway(int index, @NonNull GatewayOpening opening) {
+        this.index = index;
+        this.opening = opening;
+    }
+
+    @Override
+    public Single<Integer> getIndex() {
+        return Single.just(index);
+    }
+
+    @Override
+    public Single<GatewayOpening> getClosestOpening() {
+        return Single.just(opening);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedGateway " + index;
+    }
+
+}
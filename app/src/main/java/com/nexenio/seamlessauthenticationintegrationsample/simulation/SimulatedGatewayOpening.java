@@ -0,0 +1,28 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.GatewayDirection;
+import com.nexenio.seamlessauthentication.accesscontrol.gateway.opening.GatewayOpening;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Single;
+
+/**
+ * An opening that is passed as an entry while the user approaches the {@link SimulatedGate} and as
+ * an exit otherwise.
+ */
+class SimulatedGatewayOpening implements GatewayOpening {
+
+    @NonNull
+    private final SimulatedGate gate;
+
+    SimulatedGatewayOpening(@NonNull SimulatedGate gate) {
+        this.gate = gate;
+    }
+
+    @Override
+    public Single<GatewayDirection> getDirection() {
+        return Single.fromCallable(() -> gate.model.isApproaching(gate.simulator.getSimulationTime()) ?
+                GatewayDirection.ENTRY : GatewayDirection.EXIT);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trace;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Completable;
+import io.reactivex.CompletableTransformer;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeTransformer;
+import io.reactivex.Single;
+import io.reactivex.SingleTransformer;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Connects RxJava to {@link Tracing}.
+ *
+ * Once installed, every task that is handed to a scheduler is traced while tracing is enabled: the
+ * time it waits for a thread as an async section and its execution as a section on the thread it
+ * runs on. The transformers trace the lifetime of a subscription as an async section of an
+ * authenticator.
+ */
+public final class RxTracing {
+
+    public static final String SCHEDULER_WAIT_SECTION = "rx wait";
+
+    public static final String SCHEDULER_RUN_SECTION = "rx run";
+
+    private RxTracing() {
+    }
+
+    /**
+     * Traces the tasks of all schedulers. Replaces any other schedule handler.
+     */
+    public static void install() {
+        RxJavaPlugins.setScheduleHandler(runnable -> Tracing.isEnabled() ? new TracedRunnable(runnable) : runnable);
+    }
+
+    /**
+     * Traces the specified {@link io.reactivex.Completable} from subscription until it terminates
+     * or gets disposed, as a separate section per subscription.
+     */
+    @NonNull
+    public static CompletableTransformer traceCompletable(@NonNull String name, @NonNull UUID id) {
+        return upstream -> Completable.defer(() -> {
+            AtomicInteger cookie = new AtomicInteger(Tracing.NO_COOKIE);
+            return upstream
+                    .doOnSubscribe(disposable -> cookie.set(Tracing.beginAsyncSection(name, id)))
+                    .doFinally(() -> Tracing.endAsyncSection(name, id, cookie.get()));
+        });
+    }
+
+    @NonNull
+    public static <T> SingleTransformer<T, T> traceSingle(@NonNull String name, @NonNull UUID id) {
+        return upstream -> Single.defer(() -> {
+            AtomicInteger cookie = new AtomicInteger(Tracing.NO_COOKIE);
+            return upstream
+                    .doOnSubscribe(disposable -> cookie.set(Tracing.beginAsyncSection(name, id)))
+                    .doFinally(() -> Tracing.endAsyncSection(name, id, cookie.get()));
+        });
+    }
+
+    @NonNull
+    public static <T> MaybeTransformer<T, T> traceMaybe(@NonNull String name, @NonNull UUID id) {
+        return upstream -> Maybe.defer(() -> {
+            AtomicInteger cookie = new AtomicInteger(Tracing.NO_COOKIE);
+            return upstream
+                    .doOnSubscribe(disposable -> cookie.set(Tracing.beginAsyncSection(name, id)))
+                    .doFinally(() -> Tracing.endAsyncSection(name, id, cookie.get()));
+        });
+    }
+
+    /**
+     * Traces the hop of a task from the thread that scheduled it to the thread that runs it. The
+     * wait section is named after the scheduling thread.
+     */
+    private static final class TracedRunnable implements Runnable {
+
+        @NonNull
+        private final Runnable runnable;
+
+        @NonNull
+        private final String waitSectionName;
+
+        private final int cookie;
+
+        TracedRunnable(@NonNull Runnable runnable) {
+            this.runnable = runnable;
+            this.waitSectionName = SCHEDULER_WAIT_SECTION + " from " + Thread.currentThread().getName();
+            this.cookie = Tracing.beginAsyncSection(waitSectionName);
+        }
+
+        @Override
+        public void run() {
+            Tracing.endAsyncSection(waitSectionName, cookie);
+            boolean traced = Tracing.beginSection(SCHEDULER_RUN_SECTION);
+            try {
+                runnable.run();
+            } finally {
+                if (traced) {
+                    Tracing.endSection();
+                }
+            }
+        }
+
+    }
+
+}
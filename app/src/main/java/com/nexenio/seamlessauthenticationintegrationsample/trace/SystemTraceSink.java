@@ -0,0 +1,92 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trace;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.lang.reflect.Method;
+
+import androidx.annotation.NonNull;
+import timber.log.Timber;
+
+/**
+ * Forwards trace sections to {@link Trace}, so that they show up in Perfetto and systrace captures
+ * of the app.
+ *
+ * Async sections are only public API since Android Q, older versions are called via reflection. If
+ * that fails, async sections are dropped.
+ */
+public class SystemTraceSink implements TraceSink {
+
+    /**
+     * The maximum length of section names accepted by {@link Trace}.
+     */
+    private static final int MAXIMUM_NAME_LENGTH = 127;
+
+    /**
+     * Trace.TRACE_TAG_APP, required by the hidden async methods.
+     */
+    private static final long TRACE_TAG_APP = 1L << 12;
+
+    private Method beginAsyncSectionMethod;
+
+    private Method endAsyncSectionMethod;
+
+    private boolean asyncSectionsSupported;
+
+    public SystemTraceSink() {
+        try {
+            if (Build.VERSION.SDK_INT >= 29) {
+                beginAsyncSectionMethod = Trace.class.getMethod("beginAsyncSection", String.class, int.class);
+                endAsyncSectionMethod = Trace.class.getMethod("endAsyncSection", String.class, int.class);
+            } else {
+                beginAsyncSectionMethod = Trace.class.getMethod("asyncTraceBegin", long.class, String.class, int.class);
+                endAsyncSectionMethod = Trace.class.getMethod("asyncTraceEnd", long.class, String.class, int.class);
+            }
+            asyncSectionsSupported = true;
+        } catch (NoSuchMethodException e) {
+            Timber.w(e, "Async trace sections are not supported");
+        }
+    }
+
+    @Override
+    public void beginSection(@NonNull String name) {
+        Trace.beginSection(truncate(name));
+    }
+
+    @Override
+    public void endSection() {
+        Trace.endSection();
+    }
+
+    @Override
+    public void beginAsyncSection(@NonNull String name, int cookie) {
+        invokeAsyncSectionMethod(beginAsyncSectionMethod, name, cookie);
+    }
+
+    @Override
+    public void endAsyncSection(@NonNull String name, int cookie) {
+        invokeAsyncSectionMethod(endAsyncSectionMethod, name, cookie);
+    }
+
+    private void invokeAsyncSectionMethod(Method method, @NonNull String name, int cookie) {
+        if (!asyncSectionsSupported) {
+            return;
+        }
+        try {
+            if (Build.VERSION.SDK_INT >= 29) {
+                method.invoke(null, truncate(name), cookie);
+            } else {
+                method.invoke(null, TRACE_TAG_APP, truncate(name), cookie);
+            }
+        } catch (Exception e) {
+            Timber.w(e, "Unable to trace async section, disabling async sections");
+            asyncSectionsSupported = false;
+        }
+    }
+
+    @NonNull
+    private static String truncate(@NonNull String name) {
+        return name.length() > MAXIMUM_NAME_LENGTH ? name.substring(0, MAXIMUM_NAME_LENGTH) : name;
+    }
+
+}
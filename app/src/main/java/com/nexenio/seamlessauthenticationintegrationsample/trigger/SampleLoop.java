@@ -0,0 +1,108 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Scheduler;
+
+/**
+ * Samples detected authenticators in batches on a single worker of a scheduler, spending a fixed
+ * budget of samples per second by priority, see {@link SampleQueue}.
+ *
+ * A batch is scheduled when the first authenticator is detected after the previous batch, so that
+ * no timer is running while nothing gets detected. Each batch is sampled one authenticator after
+ * the other into a reused buffer, so that the loop itself doesn't allocate apart from scheduling
+ * the batch.
+ */
+final class SampleLoop implements Runnable {
+
+    interface Sampler {
+
+        /**
+         * Samples the specified authenticator, called on the worker.
+         */
+        void sample(@NonNull SeamlessAuthenticator authenticator);
+
+        /**
+         * Called on the worker after each batch.
+         *
+         * @param sampledCount the number of authenticators that have been sampled
+         * @param droppedCount the number of detected authenticators that have been dropped to stay
+         *                     within the budget
+         */
+        void onBatchSampled(int sampledCount, int droppedCount);
+
+    }
+
+    private final long batchInterval;
+
+    private final int budget;
+
+    @NonNull
+    private final Scheduler.Worker worker;
+
+    @NonNull
+    private final SampleQueue.Prioritizer<SeamlessAuthenticator> prioritizer;
+
+    @NonNull
+    private final Sampler sampler;
+
+    @NonNull
+    private final SampleQueue<SeamlessAuthenticator> queue = new SampleQueue<>();
+
+    /**
+     * Owned by the worker.
+     */
+    @NonNull
+    private final List<SeamlessAuthenticator> samples = new ArrayList<>();
+
+    /**
+     * @param batchInterval    the time in milliseconds that detected authenticators are collected
+     *                         for
+     * @param samplesPerSecond the number of samples to spend per second, exceeded only by priority
+     *                         authenticators
+     */
+    SampleLoop(@NonNull Scheduler scheduler, long batchInterval, int samplesPerSecond,
+               @NonNull SampleQueue.Prioritizer<SeamlessAuthenticator> prioritizer, @NonNull Sampler sampler) {
+        this.batchInterval = batchInterval;
+        this.budget = (int) Math.max(1, samplesPerSecond * batchInterval / 1000);
+        this.worker = scheduler.createWorker();
+        this.prioritizer = prioritizer;
+        this.sampler = sampler;
+    }
+
+    /**
+     * Queues the specified authenticator for the next batch. May be called from any thread.
+     */
+    void onAuthenticatorDetected(@NonNull SeamlessAuthenticator authenticator) {
+        if (queue.offer(authenticator) && !worker.isDisposed()) {
+            worker.schedule(this, batchInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void run() {
+        int droppedCount = queue.drain(samples, budget, prioritizer);
+        int sampledCount = samples.size();
+        try {
+            for (int index = 0; index < sampledCount && !worker.isDisposed(); index++) {
+                sampler.sample(samples.get(index));
+            }
+        } finally {
+            samples.clear();
+        }
+        sampler.onBatchSampled(sampledCount, droppedCount);
+    }
+
+    /**
+     * Stops sampling, a batch that is being sampled stops after the current authenticator.
+     */
+    void dispose() {
+        worker.dispose();
+    }
+
+}
@@ -0,0 +1,364 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+import android.os.SystemClock;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticator;
+import com.nexenio.seamlessauthenticationintegrationsample.authentication.AuthenticationCooldownException;
+import com.nexenio.seamlessauthenticationintegrationsample.authentication.AuthenticationCoordinator;
+import com.nexenio.seamlessauthenticationintegrationsample.detection.DetectionManager;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyMetrics;
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyStage;
+import com.nexenio.seamlessauthenticationintegrationsample.property.AuthenticatorPropertyCache;
+import com.nexenio.seamlessauthenticationintegrationsample.registry.AuthenticatorRegistry;
+import com.nexenio.seamlessauthenticationintegrationsample.scheduling.WorkloadSchedulers;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import timber.log.Timber;
+
+/**
+ * Authenticates seamlessly with whichever detected authenticator the user walks up to, instead of
+ * a single manually selected one.
+ *
+ * Detected authenticators provide distance samples to the {@link SeamlessCandidates}, which keep
+ * all authenticators ordered by distance, so that a sample costs O(log n). Detection events are
+ * collected for {@link #MINIMUM_BATCH_INTERVAL} and sampled with a budget of {@link
+ * #SAMPLES_PER_SECOND}, so that the CPU time spent doesn't grow with the number of detected
+ * authenticators. The budget is spent by priority: authenticators that the user is close to are
+ * always sampled, the others take turns, see {@link SeamlessCandidates#isPriority(UUID, long)}.
+ *
+ * The seamless mode can be enabled from the UI with {@link #start()} and held by a background
+ * component with {@link #startInBackground(long)}, independently of each other. It runs while
+ * either holds it. While held in the background, events are collected in longer batches, so that
+ * they cause fewer wakeups. Either way, each batch is sampled by a {@link SampleLoop} on a single
+ * property fetch worker, without allocating apart from reading the distances through the SDK.
+ *
+ * Doesn't keep detection running by itself, samples are only provided while detection is running.
+ */
+public class SeamlessModeManager {
+
+    public static final double DEFAULT_RANGE_THRESHOLD = 1;
+
+    /**
+     * The time in milliseconds that detection events are collected for before they are sampled,
+     * unless started with a longer batch interval.
+     */
+    public static final long MINIMUM_BATCH_INTERVAL = 100;
+
+    /**
+     * The number of distance samples per second that authenticators which are not close to the user
+     * share.
+     */
+    public static final int SAMPLES_PER_SECOND = 400;
+
+    @NonNull
+    private final DetectionManager detectionManager;
+
+    @NonNull
+    private final AuthenticatorRegistry authenticatorRegistry;
+
+    @NonNull
+    private final AuthenticatorPropertyCache propertyCache;
+
+    @NonNull
+    private final AuthenticationCoordinator authenticationCoordinator;
+
+    @NonNull
+    private final LatencyMetrics latencyMetrics;
+
+    @NonNull
+    private final WorkloadSchedulers workloadSchedulers;
+
+    @NonNull
+    private final SeamlessCandidates candidates = new SeamlessCandidates(DEFAULT_RANGE_THRESHOLD);
+
+    @NonNull
+    private final Subject<Boolean> runningSubject = BehaviorSubject.createDefault(false).toSerialized();
+
+    @NonNull
+    private final Subject<Integer> sampleBatchSubject = PublishSubject.<Integer>create().toSerialized();
+
+    /**
+     * The authentications requested by the seamless mode, cancelled when it gets stopped.
+     */
+    @NonNull
+    private final CompositeDisposable authenticationDisposables = new CompositeDisposable();
+
+    private final AtomicLong sampleCount = new AtomicLong();
+    private final AtomicLong droppedSampleCount = new AtomicLong();
+    private final AtomicLong authenticationCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private Disposable samplingDisposable;
+
+    /**
+     * Whether the seamless mode has been enabled from the UI.
+     */
+    private boolean enabled;
+
+    /**
+     * The batch interval requested by the background component that holds the seamless mode, or 0
+     * if none does.
+     */
+    private long backgroundBatchInterval;
+
+    /**
+     * The batch interval of the running sample loop.
+     */
+    private long batchInterval;
+
+    @NonNull
+    private final SampleLoop.Sampler sampler = new SampleLoop.Sampler() {
+        @Override
+        public void sample(@NonNull SeamlessAuthenticator authenticator) {
+            sampleNow(authenticator);
+        }
+
+        @Override
+        public void onBatchSampled(int sampledCount, int droppedCount) {
+            batchCount.incrementAndGet();
+            droppedSampleCount.addAndGet(droppedCount);
+            sampleBatchSubject.onNext(sampledCount);
+        }
+    };
+
+    /**
+     * Decides which detected authenticators are sampled if not all of them can be.
+     */
+    @NonNull
+    private final SampleQueue.Prioritizer<SeamlessAuthenticator> prioritizer = new SampleQueue.Prioritizer<SeamlessAuthenticator>() {
+        @Override
+        public boolean isPriority(@NonNull SeamlessAuthenticator authenticator) {
+            UUID id = propertyCache.getMemoizedId(authenticator);
+            return id != null && candidates.isPriority(id, SystemClock.elapsedRealtime());
+        }
+
+        @Override
+        public long getLastSampleTimestamp(@NonNull SeamlessAuthenticator authenticator) {
+            UUID id = propertyCache.getMemoizedId(authenticator);
+            return id != null ? candidates.getLastSampleTimestamp(id) : Long.MIN_VALUE;
+        }
+    };
+
+    public SeamlessModeManager(@NonNull DetectionManager detectionManager, @NonNull AuthenticatorRegistry authenticatorRegistry,
+                               @NonNull AuthenticatorPropertyCache propertyCache, @NonNull AuthenticationCoordinator authenticationCoordinator,
+                               @NonNull LatencyMetrics latencyMetrics, @NonNull WorkloadSchedulers workloadSchedulers) {
+        this.detectionManager = detectionManager;
+        this.authenticatorRegistry = authenticatorRegistry;
+        this.propertyCache = propertyCache;
+        this.authenticationCoordinator = authenticationCoordinator;
+        this.latencyMetrics = latencyMetrics;
+        this.workloadSchedulers = workloadSchedulers;
+    }
+
+    /**
+     * Enables the seamless mode from the UI. Distance samples of all detected authenticators are
+     * collected for {@link #MINIMUM_BATCH_INTERVAL}, unless held in the background as well.
+     */
+    public synchronized void start() {
+        enabled = true;
+        updateSampling();
+    }
+
+    /**
+     * Disables the seamless mode from the UI. Keeps running while held in the background.
+     */
+    public synchronized void stop() {
+        enabled = false;
+        updateSampling();
+    }
+
+    /**
+     * Holds the seamless mode in the background until {@link #stopInBackground()}, regardless of
+     * whether it's enabled from the UI. Replaces the batch interval of a previous hold.
+     *
+     * @param batchInterval the time in milliseconds that detection events are collected for before
+     *                      the detected authenticators get sampled
+     */
+    public synchronized void startInBackground(long batchInterval) {
+        backgroundBatchInterval = Math.max(batchInterval, MINIMUM_BATCH_INTERVAL);
+        updateSampling();
+    }
+
+    /**
+     * Releases the hold of {@link #startInBackground(long)}. Keeps running while enabled from the
+     * UI, with the batch interval of the UI.
+     */
+    public synchronized void stopInBackground() {
+        backgroundBatchInterval = 0;
+        updateSampling();
+    }
+
+    /**
+     * Starts, restarts or stops the sample loop, so that it runs with the batch interval of the
+     * background hold, or of the UI if only enabled there. Candidates are kept when restarting.
+     */
+    private void updateSampling() {
+        boolean shouldRun = enabled || backgroundBatchInterval > 0;
+        long requestedBatchInterval = backgroundBatchInterval > 0 ? backgroundBatchInterval : MINIMUM_BATCH_INTERVAL;
+        if (isRunning()) {
+            if (shouldRun && requestedBatchInterval == batchInterval) {
+                return;
+            }
+            samplingDisposable.dispose();
+            if (!shouldRun) {
+                Timber.d("Stopping seamless mode: %s", getStatistics());
+                authenticationDisposables.clear();
+                runningSubject.onNext(false);
+                return;
+            }
+        } else if (!shouldRun) {
+            return;
+        } else {
+            candidates.clear();
+        }
+        Timber.d("Sampling seamless mode with a batch interval of %d ms", requestedBatchInterval);
+        batchInterval = requestedBatchInterval;
+        SampleLoop sampleLoop = new SampleLoop(workloadSchedulers.propertyFetch(), batchInterval, SAMPLES_PER_SECOND, prioritizer, sampler);
+        samplingDisposable = new CompositeDisposable(
+                detectionManager.getDetectedAuthenticatorEvents()
+                        .subscribe(
+                                sampleLoop::onAuthenticatorDetected,
+                                throwable -> Timber.w(throwable, "Unable to trigger seamless authentication")
+                        ),
+                Disposables.fromAction(sampleLoop::dispose)
+        );
+        runningSubject.onNext(true);
+    }
+
+    /**
+     * @return true if enabled from the UI or held in the background
+     */
+    public synchronized boolean isRunning() {
+        return samplingDisposable != null && !samplingDisposable.isDisposed();
+    }
+
+    /**
+     * @return true if enabled from the UI, regardless of a background hold
+     */
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Emits whether the seamless mode is running, starting with the current state.
+     */
+    @NonNull
+    public Observable<Boolean> observeRunning() {
+        return runningSubject.distinctUntilChanged();
+    }
+
+    /**
+     * Emits the number of authenticators that have been sampled with each batch.
+     */
+    @NonNull
+    public Observable<Integer> observeSampleBatches() {
+        return sampleBatchSubject;
+    }
+
+    /**
+     * Sets the distance in meters below which the specified authenticator should be authenticated.
+     */
+    public void setRangeThreshold(@NonNull UUID id, double rangeThreshold) {
+        candidates.setRangeThreshold(id, rangeThreshold);
+    }
+
+    /**
+     * Sets the distance in meters below which authenticators without a range threshold of their own
+     * should be authenticated.
+     */
+    public void setDefaultRangeThreshold(double rangeThreshold) {
+        candidates.setDefaultRangeThreshold(rangeThreshold);
+    }
+
+    @NonNull
+    public SeamlessModeStatistics getStatistics() {
+        return new SeamlessModeStatistics(sampleCount.get(), droppedSampleCount.get(), candidates.size(),
+                candidates.getTriggeredCount(), candidates.getSuppressedCount(), authenticationCount.get(), batchCount.get());
+    }
+
+    /**
+     * Provides the current distance of the specified authenticator to the {@link
+     * SeamlessCandidates} and authenticates if it should be authenticated now. Blocks until the
+     * distance has been read, called on the worker of the {@link SampleLoop}.
+     */
+    private void sampleNow(@NonNull SeamlessAuthenticator authenticator) {
+        boolean traced = Tracing.beginSection("seamless sample");
+        try {
+            UUID id = propertyCache.getMemoizedId(authenticator);
+            if (id == null) {
+                id = propertyCache.getId(authenticator).blockingGet();
+            }
+            double distance = propertyCache.getDistance(authenticator).blockingGet();
+            sampleCount.incrementAndGet();
+            if (candidates.onDistanceSample(id, distance, SystemClock.elapsedRealtime()) && canAuthenticate(id)) {
+                authenticate(new Trigger(id, SystemClock.elapsedRealtimeNanos()));
+            }
+        } catch (RuntimeException e) {
+            Timber.w(e, "Unable to get distance");
+        } finally {
+            if (traced) {
+                Tracing.endSection();
+            }
+        }
+    }
+
+    /**
+     * @return false if an authentication is already in flight or the cooldown after the last one is
+     * not over yet, so that staying in range doesn't trigger further authentications
+     */
+    private boolean canAuthenticate(@NonNull UUID id) {
+        return !authenticationCoordinator.isAuthenticating(id) && authenticationCoordinator.getRemainingCooldown(id) == 0;
+    }
+
+    private void authenticate(@NonNull Trigger trigger) {
+        SeamlessAuthenticator authenticator = authenticatorRegistry.getAuthenticator(trigger.id);
+        if (authenticator == null) {
+            Timber.w("Unable to authenticate, authenticator %s has not been detected", trigger.id);
+            return;
+        }
+        Timber.d("Seamlessly authenticating with %s", trigger.id);
+        authenticationDisposables.add(authenticationCoordinator.authenticate(trigger.id, authenticator)
+                .subscribe(
+                        () -> {
+                            authenticationCount.incrementAndGet();
+                            latencyMetrics.recordSince(LatencyStage.IN_RANGE_TO_AUTHENTICATED,
+                                    trigger.timestamp, SystemClock.elapsedRealtimeNanos());
+                        },
+                        throwable -> {
+                            if (throwable instanceof AuthenticationCooldownException) {
+                                Timber.d(throwable.getMessage());
+                            } else {
+                                Timber.w(throwable, "Seamless authentication with %s failed", trigger.id);
+                            }
+                        }
+                ));
+    }
+
+    private static final class Trigger {
+
+        private final UUID id;
+
+        /**
+         * The {@link SystemClock#elapsedRealtimeNanos()} when the trigger fired.
+         */
+        private final long timestamp;
+
+        Trigger(@NonNull UUID id, long timestamp) {
+            this.id = id;
+            this.timestamp = timestamp;
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+import java.util.Locale;
+
+/**
+ * An immutable snapshot of the counters of a {@link SeamlessModeManager}.
+ *
+ * Dropped samples are detected authenticators that have not been sampled to stay within the
+ * sampling budget. Suppressed triggers fired while the user was nearer to another
+ * authenticator.
+ */
+public final class SeamlessModeStatistics {
+
+    private final long sampleCount;
+    private final long droppedSampleCount;
+    private final int candidateCount;
+    private final long triggeredCount;
+    private final long suppressedCount;
+    private final long authenticationCount;
+    private final long batchCount;
+
+    SeamlessModeStatistics(long sampleCount, long droppedSampleCount, int candidateCount,
+                           long triggeredCount, long suppressedCount, long authenticationCount, long batchCount) {
+        this.sampleCount = sampleCount;
+        this.droppedSampleCount = droppedSampleCount;
+        this.candidateCount = candidateCount;
+        this.triggeredCount = triggeredCount;
+        this.suppressedCount = suppressedCount;
+        this.authenticationCount = authenticationCount;
+        this.batchCount = batchCount;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public long getDroppedSampleCount() {
+        return droppedSampleCount;
+    }
+
+    /**
+     * @return the number of authenticators that recently provided samples
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public long getTriggeredCount() {
+        return triggeredCount;
+    }
+
+    public long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    public long getAuthenticationCount() {
+        return authenticationCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * @return the ratio of detection events that have been dropped, or 0 if there were none
+     */
+    public double getDropRate() {
+        long eventCount = sampleCount + droppedSampleCount;
+        return eventCount > 0 ? (double) droppedSampleCount / eventCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "SeamlessModeStatistics{samples=%d, dropped=%d, dropRate=%.2f, candidates=%d, "
+                        + "triggered=%d, suppressed=%d, authentications=%d, batches=%d}",
+                sampleCount, droppedSampleCount, getDropRate(), candidateCount,
+                triggeredCount, suppressedCount, authenticationCount, batchCount);
+    }
+
+}
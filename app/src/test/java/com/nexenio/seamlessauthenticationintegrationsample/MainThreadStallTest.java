@@ -0,0 +1,175 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import android.Manifest;
+import android.app.Application;
+import android.content.Intent;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.View;
+
+import com.nexenio.seamlessauthenticationintegrationsample.guard.MainThreadGuard;
+import com.nexenio.seamlessauthenticationintegrationsample.guard.StallDetector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Drives the list and detail screens against simulated authenticators and fails if any work on the
+ * main thread exceeds the stall budget or blocks on RxJava.
+ *
+ * The main looper is paused and its clock is faked: the test advances the clock frame by frame
+ * and dispatches every message that is due on its own, through the {@link MainThreadGuard} of the
+ * application. Each message is checked against the stall budget of the guard, see {@link
+ * TestSampleApplication#STALL_BUDGET}, so that a failure names the message that stalled.
+ * Background work keeps running in real time.
+ *
+ * Creating an activity for the first time is not measured, as it mostly consists of loading
+ * classes and resources in the JVM.
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+@Config(application = TestSampleApplication.class, sdk = 28)
+public class MainThreadStallTest {
+
+    /**
+     * Maximum time in milliseconds until the simulated authenticators should be shown.
+     */
+    private static final long DETECTION_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Time in milliseconds that a screen keeps updating before it's paused.
+     */
+    private static final long UPDATE_DURATION = TimeUnit.SECONDS.toMillis(3);
+
+    private static final long FRAME_INTERVAL = 16;
+
+    private static final int WIDTH = 1080;
+
+    private static final int HEIGHT = 1920;
+
+    private SampleApplication application;
+
+    private MainThreadGuard mainThreadGuard;
+
+    private ShadowLooper mainLooper;
+
+    @Before
+    public void setUp() {
+        application = ApplicationProvider.getApplicationContext();
+        shadowOf((Application) application).grantPermissions(Manifest.permission.BLUETOOTH, Manifest.permission.ACCESS_COARSE_LOCATION);
+        mainThreadGuard = application.getMainThreadGuard();
+        mainLooper = shadowOf(Looper.getMainLooper());
+    }
+
+    @After
+    public void tearDown() {
+        mainThreadGuard.uninstall();
+    }
+
+    @Test
+    public void authenticatorList_simulatedAuthenticators_doesNotStall() throws InterruptedException {
+        ActivityController<AuthenticatorListActivity> controller = Robolectric.buildActivity(AuthenticatorListActivity.class).setup();
+        RecyclerView recyclerView = controller.get().findViewById(R.id.authenticator_list);
+        mainThreadGuard.getStallDetector().reset();
+
+        awaitAuthenticators(recyclerView);
+        keepUpdating(recyclerView, UPDATE_DURATION);
+        monitor("pause list", controller::pause);
+        monitor("resume list", controller::resume);
+        keepUpdating(recyclerView, UPDATE_DURATION);
+        monitor("destroy list", () -> controller.pause().stop().destroy());
+
+        assertNoStalls();
+    }
+
+    @Test
+    public void authenticatorDetail_selectedAuthenticator_doesNotStall() throws InterruptedException {
+        ActivityController<AuthenticatorListActivity> listController = Robolectric.buildActivity(AuthenticatorListActivity.class).setup();
+        RecyclerView recyclerView = listController.get().findViewById(R.id.authenticator_list);
+        mainThreadGuard.getStallDetector().reset();
+        awaitAuthenticators(recyclerView);
+
+        View itemView = recyclerView.getChildAt(0);
+        monitor("select authenticator", itemView::performClick);
+        Intent detailIntent = shadowOf(listController.get()).getNextStartedActivity();
+        assertNotNull("Detail screen not started", detailIntent);
+        monitor("pause list", listController::pause);
+
+        ActivityController<AuthenticatorDetailActivity> detailController = Robolectric.buildActivity(AuthenticatorDetailActivity.class, detailIntent).setup();
+        keepUpdating(detailController.get().getWindow().getDecorView(), UPDATE_DURATION);
+        monitor("destroy detail", () -> detailController.pause().stop().destroy());
+        monitor("resume list", listController::resume);
+        keepUpdating(recyclerView, UPDATE_DURATION);
+
+        assertNoStalls();
+    }
+
+    /**
+     * Keeps rendering frames until the list shows authenticators.
+     */
+    private void awaitAuthenticators(@NonNull RecyclerView recyclerView) throws InterruptedException {
+        long timeoutTimestamp = System.currentTimeMillis() + DETECTION_TIMEOUT;
+        while (recyclerView.getChildCount() == 0) {
+            assertTrue("No authenticators shown", System.currentTimeMillis() < timeoutTimestamp);
+            renderFrame(recyclerView);
+        }
+    }
+
+    private void keepUpdating(@NonNull View view, long duration) throws InterruptedException {
+        long endTimestamp = System.currentTimeMillis() + duration;
+        while (System.currentTimeMillis() < endTimestamp) {
+            renderFrame(view);
+        }
+    }
+
+    /**
+     * Lets background work progress for a frame, advances the fake clock by a frame and dispatches
+     * the messages that are due one by one, then lays out the specified view.
+     */
+    private void renderFrame(@NonNull View view) throws InterruptedException {
+        Thread.sleep(FRAME_INTERVAL);
+        SystemClock.setCurrentTimeMillis(SystemClock.uptimeMillis() + FRAME_INTERVAL);
+        int messageIndex = 0;
+        while (!mainLooper.isIdle()) {
+            monitor("main thread message " + messageIndex++ + " at " + SystemClock.uptimeMillis() + " ms", mainLooper::runOneTask);
+        }
+        monitor("layout", () -> {
+            view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            view.layout(0, 0, WIDTH, HEIGHT);
+        });
+    }
+
+    /**
+     * Runs the specified work through the guard and fails if it exceeded the stall budget.
+     */
+    private void monitor(@NonNull String description, @NonNull Runnable work) {
+        StallDetector.Stall stall = mainThreadGuard.monitor(description, work);
+        assertNull("Main thread stalled: " + stall, stall);
+    }
+
+    private void assertNoStalls() {
+        StallDetector stallDetector = mainThreadGuard.getStallDetector();
+        assertTrue("No main thread work monitored", stallDetector.getWorkCount() > 0);
+        assertEquals("Main thread stalls: " + stallDetector.getStalls(), 0, stallDetector.getStallCount());
+        assertEquals("Blocking calls on the main thread", 0, mainThreadGuard.getBlockingCallCount());
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.nexenio.seamlessauthenticationintegrationsample;
+
+import com.nexenio.seamlessauthentication.SeamlessAuthenticatorDetector;
+import com.nexenio.seamlessauthenticationintegrationsample.guard.MainThreadGuard;
+import com.nexenio.seamlessauthenticationintegrationsample.simulation.AuthenticatorSimulator;
+import com.nexenio.seamlessauthenticationintegrationsample.simulation.SimulationConfiguration;
+
+/**
+ * Detects simulated authenticators instead of real ones and always guards the main thread, so
+ * that tests can drive the screens without Bluetooth. The guard is strict, so that StrictMode
+ * violations fail tests where they are detected.
+ */
+public class TestSampleApplication extends SampleApplication {
+
+    static final int SIMULATED_AUTHENTICATORS = 50;
+
+    /**
+     * Higher than {@link MainThreadGuard#DEFAULT_STALL_BUDGET}, as Robolectric is slower than a
+     * device.
+     */
+    static final long STALL_BUDGET = 250;
+
+    @Override
+    protected boolean shouldGuardMainThread() {
+        return true;
+    }
+
+    @Override
+    protected MainThreadGuard createMainThreadGuard() {
+        return new MainThreadGuard(STALL_BUDGET, true);
+    }
+
+    @Override
+    protected SeamlessAuthenticatorDetector createAuthenticatorDetector() {
+        SimulationConfiguration configuration = new SimulationConfiguration.Builder()
+                .setAuthenticatorCount(SIMULATED_AUTHENTICATORS)
+                .setSeed(1)
+                .build();
+        return new AuthenticatorSimulator(configuration).createDetector();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.nexenio.seamlessauthenticationintegrationsample.benchmark;
+
+import com.nexenio.seamlessauthenticationintegrationsample.registry.AuthenticatorIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures resolving an authenticator by its UUID, as done by the detail screen. Compares the
+ * {@link AuthenticatorIndex} with a linear scan over all detected authenticators, which is what
+ * the detail screen did before the index existed.
+ */
+@State(Scope.Thread)
+public class AuthenticatorLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int authenticatorCount;
+
+    private List<UUID> ids;
+
+    private AuthenticatorIndex<Object> index;
+
+    private UUID lastId;
+
+    private UUID missingId;
+
+    @Setup
+    public void setUp() {
+        ids = Fixtures.createIds(authenticatorCount, 1);
+        index = new AuthenticatorIndex<>(Long.MAX_VALUE);
+        for (UUID id : ids) {
+            index.put(id, new Object(), 0);
+        }
+        lastId = ids.get(ids.size() - 1);
+        missingId = new UUID(0, 0);
+    }
+
+    @Benchmark
+    public Object indexLookup() {
+        return index.get(lastId);
+    }
+
+    @Benchmark
+    public Object indexLookupMissing() {
+        return index.get(missingId);
+    }
+
+    @Benchmark
+    public UUID linearScan() {
+        for (UUID id : ids) {
+            if (id.equals(lastId)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+}
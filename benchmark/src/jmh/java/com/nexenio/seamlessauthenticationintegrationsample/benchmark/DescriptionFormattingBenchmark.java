@@ -0,0 +1,72 @@
+package com.nexenio.seamlessauthenticationintegrationsample.benchmark;
+
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorDescriptionFormatter;
+import com.nexenio.seamlessauthenticationintegrationsample.model.GateDetails;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Measures formatting a single authenticator description, which happens for every authenticator
+ * on every list and detail update. The {@code stringFormat} benchmark is the baseline of using
+ * {@link String#format(Locale, String, Object...)} directly, and {@code formatDoorMemoized}
+ * measures the common case of an authenticator whose displayed values didn't change.
+ */
+@State(Scope.Thread)
+public class DescriptionFormattingBenchmark {
+
+    private AuthenticatorDescriptionFormatter formatter;
+
+    private GateDetails doorDetails;
+
+    private GateDetails gateDetails;
+
+    private double distance;
+
+    private UUID id;
+
+    @Setup
+    public void setUp() {
+        formatter = Fixtures.createDescriptionFormatter();
+        doorDetails = new GateDetails(Fixtures.DIRECTION_ENTRY, 1, 0);
+        gateDetails = new GateDetails(Fixtures.DIRECTION_ENTRY, 3, 1);
+        distance = 4.2;
+        id = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(Locale.US, Fixtures.DOOR_TEMPLATE, distance, Fixtures.STATE_ACTIVE, Fixtures.DIRECTION_ENTRY);
+    }
+
+    @Benchmark
+    public String formatGeneric() {
+        return formatter.format(distance, Fixtures.STATE_ACTIVE, GateDetails.NONE);
+    }
+
+    @Benchmark
+    public String formatDoor() {
+        return formatter.format(distance, Fixtures.STATE_ACTIVE, doorDetails);
+    }
+
+    @Benchmark
+    public String formatDoorMemoized() {
+        return formatter.format(id, distance, Fixtures.STATE_ACTIVE, doorDetails);
+    }
+
+    @Benchmark
+    public String formatGate() {
+        return formatter.format(distance, Fixtures.STATE_ACTIVE, gateDetails);
+    }
+
+    @Benchmark
+    public String formatUnknown() {
+        return formatter.format(Double.NaN, Fixtures.STATE_ACTIVE, GateDetails.UNKNOWN);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.nexenio.seamlessauthenticationintegrationsample.benchmark;
+
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorDescriptionFormatter;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.model.GateDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic test data that mirrors what the app displays, using the templates of the default
+ * string resources.
+ */
+final class Fixtures {
+
+    static final String STATE_ACTIVE = "active";
+
+    static final String DIRECTION_ENTRY = "entry";
+
+    static final String GENERIC_TEMPLATE = "Authenticator, about %.1f meters away and currently %s.";
+
+    static final String DOOR_TEMPLATE = "Access control door, about %.1f meters away and currently %s. The closest opening is the %s.";
+
+    static final String GATE_TEMPLATE = "Access control gate, about %.1f meters away and currently %s. It has %d gateways, the closest one is the %s with index %d.";
+
+    private Fixtures() {
+    }
+
+    static AuthenticatorDescriptionFormatter createDescriptionFormatter() {
+        return new AuthenticatorDescriptionFormatter(
+                Locale.US,
+                GENERIC_TEMPLATE,
+                DOOR_TEMPLATE,
+                GATE_TEMPLATE,
+                "Unknown Authenticator"
+        );
+    }
+
+    static List<UUID> createIds(int count, long seed) {
+        Random random = new Random(seed);
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return ids;
+    }
+
+    static double[] createDistances(int count, long seed) {
+        Random random = new Random(seed);
+        double[] distances = new double[count];
+        for (int i = 0; i < count; i++) {
+            distances[i] = random.nextDouble() * 20;
+        }
+        return distances;
+    }
+
+    /**
+     * Builds one snapshot per ID the same way the app does, every third authenticator being a gate.
+     */
+    static List<AuthenticatorSnapshot> createSnapshots(List<UUID> ids, double[] distances, AuthenticatorDescriptionFormatter formatter) {
+        List<AuthenticatorSnapshot> snapshots = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            GateDetails gateDetails = i % 3 == 0 ? new GateDetails(DIRECTION_ENTRY, 3, i % 3) : GateDetails.NONE;
+            String direction = gateDetails.getDirection().isEmpty() ? null : gateDetails.getDirection();
+            String description = formatter.format(id, distances[i], STATE_ACTIVE, gateDetails);
+            snapshots.add(new AuthenticatorSnapshot(id, "Authenticator " + i, id.toString(),
+                    distances[i], STATE_ACTIVE, direction, description));
+        }
+        return snapshots;
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.nexenio.seamlessauthenticationintegrationsample.benchmark;
+
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessCandidates;
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessTrigger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures processing a single distance sample in the seamless mode, which observes all detected
+ * authenticators. Compares the incrementally ordered {@link SeamlessCandidates} with feeding the
+ * sample into a {@link SeamlessTrigger} and scanning all triggers for the nearest one.
+ */
+@State(Scope.Thread)
+public class SeamlessCandidatesBenchmark {
+
+    private static final double RANGE_THRESHOLD = 1;
+
+    @Param({"10", "100", "1000"})
+    public int authenticatorCount;
+
+    private List<UUID> ids;
+
+    private double[] distances;
+
+    private SeamlessCandidates candidates;
+
+    private List<SeamlessTrigger> triggers;
+
+    private int sampleIndex;
+
+    private long timestamp;
+
+    @Setup
+    public void setUp() {
+        ids = Fixtures.createIds(authenticatorCount, 1);
+        distances = Fixtures.createDistances(authenticatorCount, 1);
+        candidates = new SeamlessCandidates(RANGE_THRESHOLD);
+        triggers = new ArrayList<>(authenticatorCount);
+        for (int index = 0; index < authenticatorCount; index++) {
+            distances[index] += 2;
+            candidates.onDistanceSample(ids.get(index), distances[index], 0);
+            SeamlessTrigger trigger = new SeamlessTrigger(RANGE_THRESHOLD);
+            trigger.onDistanceSample(distances[index], 0);
+            triggers.add(trigger);
+        }
+    }
+
+    @Benchmark
+    public boolean incrementalOrder() {
+        int index = nextSampleIndex();
+        return candidates.onDistanceSample(ids.get(index), nextDistance(index), timestamp);
+    }
+
+    @Benchmark
+    public int fullScan() {
+        int index = nextSampleIndex();
+        triggers.get(index).onDistanceSample(nextDistance(index), timestamp);
+        int nearestIndex = -1;
+        double nearestSlack = Double.MAX_VALUE;
+        for (int triggerIndex = 0; triggerIndex < triggers.size(); triggerIndex++) {
+            SeamlessTrigger trigger = triggers.get(triggerIndex);
+            double slack = trigger.getSmoothedDistance() - trigger.getRangeThreshold();
+            if (slack < nearestSlack) {
+                nearestSlack = slack;
+                nearestIndex = triggerIndex;
+            }
+        }
+        return nearestIndex;
+    }
+
+    private int nextSampleIndex() {
+        int index = sampleIndex;
+        sampleIndex = (sampleIndex + 1) % authenticatorCount;
+        if (sampleIndex == 0) {
+            timestamp += 100;
+        }
+        return index;
+    }
+
+    /**
+     * Lets the distance jitter around its initial value, so that the order changes but no trigger
+     * fires.
+     */
+    private double nextDistance(int index) {
+        return distances[index] + ((timestamp / 100) % 2 == 0 ? 0.3 : -0.3);
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.nexenio.seamlessauthenticationintegrationsample.benchmark;
+
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorDescriptionFormatter;
+import com.nexenio.seamlessauthenticationintegrationsample.model.AuthenticatorSnapshot;
+import com.nexenio.seamlessauthenticationintegrationsample.model.SnapshotRanking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Measures the per update work of the authenticator list: building the snapshots, detecting
+ * unchanged lists, ranking them by distance and comparing the items of consecutive lists.
+ *
+ * The diff itself is calculated by {@code DiffUtil}, which is only available for Android. The
+ * comparison benchmarks cover the item and content checks it performs, once for a list that
+ * changed a single item and once for a reordered list.
+ */
+@State(Scope.Thread)
+public class SnapshotListBenchmark {
+
+    private static final int VISIBLE_COUNT = 25;
+
+    @Param({"10", "100", "1000"})
+    public int authenticatorCount;
+
+    private AuthenticatorDescriptionFormatter formatter;
+
+    private List<UUID> ids;
+
+    private double[] distances;
+
+    private List<AuthenticatorSnapshot> snapshots;
+
+    private List<AuthenticatorSnapshot> unchangedSnapshots;
+
+    private List<AuthenticatorSnapshot> changedSnapshots;
+
+    private List<AuthenticatorSnapshot> reorderedSnapshots;
+
+    private List<AuthenticatorSnapshot> jitteredSnapshots;
+
+    private SnapshotRanking ranking;
+
+    private boolean rankJitteredSnapshots;
+
+    @Setup
+    public void setUp() {
+        formatter = Fixtures.createDescriptionFormatter();
+        ids = Fixtures.createIds(authenticatorCount, 1);
+        distances = Fixtures.createDistances(authenticatorCount, 2);
+        snapshots = Fixtures.createSnapshots(ids, distances, formatter);
+        unchangedSnapshots = Fixtures.createSnapshots(ids, distances, formatter);
+
+        double[] changedDistances = distances.clone();
+        changedDistances[authenticatorCount / 2] += 1;
+        changedSnapshots = Fixtures.createSnapshots(ids, changedDistances, formatter);
+
+        reorderedSnapshots = new ArrayList<>(unchangedSnapshots);
+        Collections.reverse(reorderedSnapshots);
+
+        Random random = new Random(3);
+        double[] jitteredDistances = distances.clone();
+        for (int index = 0; index < authenticatorCount; index++) {
+            jitteredDistances[index] += random.nextDouble() - 0.5;
+        }
+        jitteredSnapshots = Fixtures.createSnapshots(ids, jitteredDistances, formatter);
+        ranking = new SnapshotRanking();
+        ranking.rank(snapshots, VISIBLE_COUNT);
+    }
+
+    @Benchmark
+    public List<AuthenticatorSnapshot> buildSnapshots() {
+        return Fixtures.createSnapshots(ids, distances, formatter);
+    }
+
+    @Benchmark
+    public boolean compareUnchangedList() {
+        return snapshots.equals(unchangedSnapshots);
+    }
+
+    @Benchmark
+    public int compareChangedItems() {
+        return countChangedItems(snapshots, changedSnapshots);
+    }
+
+    @Benchmark
+    public int compareReorderedItems() {
+        return countChangedItems(snapshots, reorderedSnapshots);
+    }
+
+    /**
+     * Ranks lists whose distances jittered by up to half a meter, alternately.
+     */
+    @Benchmark
+    public List<AuthenticatorSnapshot> rankIncrementally() {
+        rankJitteredSnapshots = !rankJitteredSnapshots;
+        return ranking.rank(rankJitteredSnapshots ? jitteredSnapshots : snapshots, VISIBLE_COUNT);
+    }
+
+    @Benchmark
+    public List<AuthenticatorSnapshot> sortFully() {
+        rankJitteredSnapshots = !rankJitteredSnapshots;
+        List<AuthenticatorSnapshot> sortedSnapshots = new ArrayList<>(rankJitteredSnapshots ? jitteredSnapshots : snapshots);
+        Collections.sort(sortedSnapshots, (first, second) -> Double.compare(first.getDistance(), second.getDistance()));
+        return new ArrayList<>(sortedSnapshots.subList(0, Math.min(VISIBLE_COUNT, sortedSnapshots.size())));
+    }
+
+    /**
+     * Matches the items of both lists by ID and counts inserted, removed and changed ones.
+     */
+    private static int countChangedItems(List<AuthenticatorSnapshot> oldSnapshots, List<AuthenticatorSnapshot> newSnapshots) {
+        Map<UUID, AuthenticatorSnapshot> oldSnapshotsById = new HashMap<>(oldSnapshots.size() * 2);
+        for (AuthenticatorSnapshot oldSnapshot : oldSnapshots) {
+            oldSnapshotsById.put(oldSnapshot.getId(), oldSnapshot);
+        }
+        int changedCount = 0;
+        for (AuthenticatorSnapshot newSnapshot : newSnapshots) {
+            AuthenticatorSnapshot oldSnapshot = oldSnapshotsById.remove(newSnapshot.getId());
+            if (oldSnapshot == null || !oldSnapshot.equals(newSnapshot)) {
+                changedCount++;
+            }
+        }
+        return changedCount + oldSnapshotsById.size();
+    }
+
+}
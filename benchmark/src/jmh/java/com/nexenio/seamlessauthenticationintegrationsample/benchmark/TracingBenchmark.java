@@ -0,0 +1,56 @@
+package com.nexenio.seamlessauthenticationintegrationsample.benchmark;
+
+import com.nexenio.seamlessauthenticationintegrationsample.trace.TraceRecorder;
+import com.nexenio.seamlessauthenticationintegrationsample.trace.Tracing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.UUID;
+
+/**
+ * Measures the overhead of an instrumented stage, with tracing disabled and with tracing into a
+ * {@link TraceRecorder}.
+ */
+@State(Scope.Thread)
+public class TracingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean tracingEnabled;
+
+    private TraceRecorder traceRecorder;
+
+    private UUID id;
+
+    @Setup
+    public void setUp() {
+        traceRecorder = new TraceRecorder();
+        Tracing.addSink(traceRecorder);
+        Tracing.setEnabled(tracingEnabled);
+        id = Fixtures.createIds(1, 1).get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Tracing.setEnabled(false);
+        Tracing.removeSink(traceRecorder);
+    }
+
+    @Benchmark
+    public void section() {
+        if (Tracing.beginSection("render authenticator")) {
+            Tracing.endSection();
+        }
+    }
+
+    @Benchmark
+    public void asyncSection() {
+        int cookie = Tracing.beginAsyncSection("authenticate", id);
+        Tracing.endAsyncSection("authenticate", id, cookie);
+    }
+
+}
@@ -0,0 +1,47 @@
+#!/bin/sh
+#
+# Measures cold starts of the app on the connected device. Each run kills the process, launches
+# the authenticator list and waits for the startup trace that gets logged once the first
+# authenticator has been detected. Use the simulation build type for reproducible detections.
+#
+# usage: startup-benchmark.sh [runs] [package] [output]
+
+RUNS=${1:-10}
+PACKAGE=${2:-com.nexenio.seamlessauthenticationintegrationsample.simulation}
+OUTPUT=${3:-$(dirname "$0")/build/reports/startup/results.csv}
+ACTIVITY=com.nexenio.seamlessauthenticationintegrationsample.AuthenticatorListActivity
+TIMEOUT=30
+
+COLUMNS="total_time,application_created,first_activity_created,first_frame,detector_created,first_authenticator"
+
+mkdir -p "$(dirname "$OUTPUT")"
+echo "run,$COLUMNS" > "$OUTPUT"
+
+for run in $(seq 1 "$RUNS"); do
+    adb shell am force-stop "$PACKAGE"
+    adb logcat -c
+    total_time=$(adb shell am start -W -n "$PACKAGE/$ACTIVITY" | tr -d '\r' | awk '/TotalTime/ { print $2 }')
+
+    trace=""
+    for second in $(seq 1 "$TIMEOUT"); do
+        trace=$(adb logcat -d | tr -d '\r' | grep -o 'StartupTrace{[^}]*}' | tail -n 1)
+        [ -n "$trace" ] && break
+        sleep 1
+    done
+    if [ -z "$trace" ]; then
+        echo "Run $run: no startup trace within $TIMEOUT s" >&2
+        trace="StartupTrace{a=-1, b=-1, c=-1, d=-1, e=-1}"
+    fi
+
+    phases=$(echo "$trace" | sed -e 's/StartupTrace{//' -e 's/}//' -e 's/[a-z_]*=//g' -e 's/ //g')
+    echo "$run,${total_time:--1},$phases" | tee -a "$OUTPUT"
+done
+
+echo "Medians:"
+column=2
+for name in $(echo "$COLUMNS" | tr ',' ' '); do
+    median=$(tail -n +2 "$OUTPUT" | cut -d, -f"$column" | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }')
+    echo "  $name: $median ms"
+    column=$((column + 1))
+done
+echo "Results written to $OUTPUT"
@@ -0,0 +1,146 @@
+package com.nexenio.seamlessauthenticationintegrationsample.authentication;
+
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Describes how long an authentication may take, how failed attempts are retried and how long an
+ * authenticator can't be authenticated again after a successful authentication. Use the {@link
+ * Builder} to create instances, all values have sensible defaults. All durations are in
+ * milliseconds.
+ */
+public final class AuthenticationPolicy {
+
+    public static final long DEFAULT_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    public static final int DEFAULT_MAXIMUM_RETRIES = 2;
+
+    public static final long DEFAULT_INITIAL_RETRY_DELAY = 500;
+
+    public static final double DEFAULT_RETRY_DELAY_MULTIPLIER = 2;
+
+    public static final long DEFAULT_MAXIMUM_RETRY_DELAY = TimeUnit.SECONDS.toMillis(5);
+
+    public static final long DEFAULT_COOLDOWN = TimeUnit.SECONDS.toMillis(10);
+
+    private final long timeout;
+
+    private final int maximumRetries;
+
+    private final long initialRetryDelay;
+
+    private final double retryDelayMultiplier;
+
+    private final long maximumRetryDelay;
+
+    private final long cooldown;
+
+    private AuthenticationPolicy(@NonNull Builder builder) {
+        this.timeout = builder.timeout;
+        this.maximumRetries = builder.maximumRetries;
+        this.initialRetryDelay = builder.initialRetryDelay;
+        this.retryDelayMultiplier = builder.retryDelayMultiplier;
+        this.maximumRetryDelay = builder.maximumRetryDelay;
+        this.cooldown = builder.cooldown;
+    }
+
+    /**
+     * @return the duration after which a single authentication attempt is cancelled
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return the number of attempts that are made after the first one failed
+     */
+    public int getMaximumRetries() {
+        return maximumRetries;
+    }
+
+    /**
+     * @param retry the number of the retry, starting with 1 for the attempt after the first failure
+     * @return the delay before the specified retry, growing exponentially up to the maximum retry
+     * delay
+     */
+    public long getRetryDelay(int retry) {
+        if (retry < 1) {
+            throw new IllegalArgumentException("Retry must be positive");
+        }
+        double delay = initialRetryDelay * Math.pow(retryDelayMultiplier, retry - 1);
+        return (long) Math.min(delay, maximumRetryDelay);
+    }
+
+    /**
+     * @return the duration after a successful authentication in which the same authenticator is not
+     * authenticated again
+     */
+    public long getCooldown() {
+        return cooldown;
+    }
+
+    /**
+     * @param successTimestamp the time of the last successful authentication
+     * @param timestamp        the current time
+     * @return the remaining cooldown, or 0 if the cooldown is over
+     */
+    public long getRemainingCooldown(long successTimestamp, long timestamp) {
+        return Math.max(0, successTimestamp + cooldown - timestamp);
+    }
+
+    public static final class Builder {
+
+        private long timeout = DEFAULT_TIMEOUT;
+        private int maximumRetries = DEFAULT_MAXIMUM_RETRIES;
+        private long initialRetryDelay = DEFAULT_INITIAL_RETRY_DELAY;
+        private double retryDelayMultiplier = DEFAULT_RETRY_DELAY_MULTIPLIER;
+        private long maximumRetryDelay = DEFAULT_MAXIMUM_RETRY_DELAY;
+        private long cooldown = DEFAULT_COOLDOWN;
+
+        public Builder setTimeout(long timeout) {
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder setMaximumRetries(int maximumRetries) {
+            if (maximumRetries < 0) {
+                throw new IllegalArgumentException("Maximum retries must not be negative");
+            }
+            this.maximumRetries = maximumRetries;
+            return this;
+        }
+
+        /**
+         * @param initialRetryDelay the delay before the first retry
+         * @param multiplier        the factor that the delay grows with every further retry
+         * @param maximumRetryDelay the upper bound of the delay
+         */
+        public Builder setRetryDelay(long initialRetryDelay, double multiplier, long maximumRetryDelay) {
+            if (initialRetryDelay < 0 || multiplier < 1 || maximumRetryDelay < initialRetryDelay) {
+                throw new IllegalArgumentException("Invalid retry delay");
+            }
+            this.initialRetryDelay = initialRetryDelay;
+            this.retryDelayMultiplier = multiplier;
+            this.maximumRetryDelay = maximumRetryDelay;
+            return this;
+        }
+
+        public Builder setCooldown(long cooldown) {
+            if (cooldown < 0) {
+                throw new IllegalArgumentException("Cooldown must not be negative");
+            }
+            this.cooldown = cooldown;
+            return this;
+        }
+
+        public AuthenticationPolicy build() {
+            return new AuthenticationPolicy(this);
+        }
+
+    }
+
+}
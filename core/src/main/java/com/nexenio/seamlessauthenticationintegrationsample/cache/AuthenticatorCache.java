@@ -0,0 +1,304 @@
+package com.nexenio.seamlessauthenticationintegrationsample.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PushbackInputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Persists the last known values of recently seen authenticators, so that they can be shown before
+ * the first detection after a cold start.
+ *
+ * The cache file is an append-only log of binary records, the last record of an authenticator wins.
+ * Updates append a single record and are skipped if nothing relevant changed. The file gets
+ * compacted once it contains too many outdated records. Nothing is read from disk until the cache
+ * is accessed for the first time, so I/O should happen on a background thread.
+ */
+public class AuthenticatorCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    /**
+     * Minimum time in milliseconds between two persisted detections of the same authenticator.
+     */
+    public static final long MINIMUM_UPDATE_INTERVAL = 60_000;
+
+    /**
+     * Minimum distance change in meters that gets persisted before the update interval passed.
+     */
+    public static final double MINIMUM_DISTANCE_CHANGE = 1;
+
+    private static final int MAGIC = 0x53414331;
+
+    private static final int MINIMUM_COMPACTION_RECORD_COUNT = 64;
+
+    @NonNull
+    private final File file;
+
+    private final int maximumSize;
+
+    @NonNull
+    private final Map<UUID, CachedAuthenticator> entries = new HashMap<>();
+
+    private boolean loaded;
+
+    private int recordCount;
+
+    public AuthenticatorCache(@NonNull File file) {
+        this(file, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize the maximum number of authenticators, the ones that have not been seen
+     *                    for the longest time get dropped on compaction
+     */
+    public AuthenticatorCache(@NonNull File file, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.file = file;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Reads the cache file, if not done yet. A truncated last record (e.g. because the process got
+     * killed while writing) is dropped by compacting the file, an unreadable file is discarded.
+     */
+    public synchronized void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+        boolean truncated = false;
+        try (PushbackInputStream pushbackInputStream = new PushbackInputStream(new BufferedInputStream(new FileInputStream(file)));
+             DataInputStream inputStream = new DataInputStream(pushbackInputStream)) {
+            if (inputStream.readInt() != MAGIC) {
+                throw new IOException("Unknown cache format");
+            }
+            int nextByte;
+            while ((nextByte = pushbackInputStream.read()) >= 0) {
+                pushbackInputStream.unread(nextByte);
+                CachedAuthenticator cachedAuthenticator = readRecord(inputStream);
+                entries.put(cachedAuthenticator.getId(), cachedAuthenticator);
+                recordCount++;
+            }
+        } catch (EOFException e) {
+            truncated = true;
+        } catch (IOException e) {
+            entries.clear();
+            recordCount = 0;
+            if (!file.delete()) {
+                throw new IOException("Unable to delete unreadable cache file", e);
+            }
+        }
+        if (truncated) {
+            compact();
+        }
+    }
+
+    /**
+     * Updates the values of the specified authenticator. Only persisted if it's unknown, its name
+     * or gateways changed, it moved significantly or the last persisted detection is older than
+     * {@link #MINIMUM_UPDATE_INTERVAL}.
+     *
+     * @return true if the update has been persisted
+     */
+    public synchronized boolean update(@NonNull UUID id, @NonNull String name, int gatewaysCount, double distance, long timestamp) throws IOException {
+        load();
+        CachedAuthenticator updatedAuthenticator = createUpdate(id, name, gatewaysCount, distance, timestamp);
+        if (updatedAuthenticator == null) {
+            return false;
+        }
+        putAll(Collections.singletonList(updatedAuthenticator));
+        return true;
+    }
+
+    /**
+     * Updates the values of all specified authenticators like {@link #update(UUID, String, int,
+     * double, long)}, but appends all persisted updates at once. The authentication counts of the
+     * specified authenticators are ignored, the cached ones are kept.
+     *
+     * @return the number of persisted updates
+     */
+    public synchronized int updateAll(@NonNull Collection<CachedAuthenticator> detectedAuthenticators) throws IOException {
+        load();
+        List<CachedAuthenticator> updatedAuthenticators = new ArrayList<>(detectedAuthenticators.size());
+        for (CachedAuthenticator detectedAuthenticator : detectedAuthenticators) {
+            CachedAuthenticator updatedAuthenticator = createUpdate(detectedAuthenticator.getId(), detectedAuthenticator.getName(),
+                    detectedAuthenticator.getGatewaysCount(), detectedAuthenticator.getLastDistance(),
+                    detectedAuthenticator.getLastSeenTimestamp());
+            if (updatedAuthenticator != null) {
+                entries.put(updatedAuthenticator.getId(), updatedAuthenticator);
+                updatedAuthenticators.add(updatedAuthenticator);
+            }
+        }
+        putAll(updatedAuthenticators);
+        return updatedAuthenticators.size();
+    }
+
+    /**
+     * @return the updated entry of the specified authenticator, or null if nothing relevant changed
+     */
+    @Nullable
+    private CachedAuthenticator createUpdate(@NonNull UUID id, @NonNull String name, int gatewaysCount, double distance, long timestamp) {
+        CachedAuthenticator previous = entries.get(id);
+        if (previous != null
+                && previous.getName().equals(name)
+                && previous.getGatewaysCount() == gatewaysCount
+                && Math.abs(previous.getLastDistance() - distance) < MINIMUM_DISTANCE_CHANGE
+                && timestamp - previous.getLastSeenTimestamp() < MINIMUM_UPDATE_INTERVAL) {
+            return null;
+        }
+        int authenticationCount = previous != null ? previous.getAuthenticationCount() : 0;
+        return new CachedAuthenticator(id, name, gatewaysCount, distance, timestamp, authenticationCount);
+    }
+
+    /**
+     * Increments the authentication count of the specified authenticator, if it's cached.
+     */
+    public synchronized void recordAuthentication(@NonNull UUID id, long timestamp) throws IOException {
+        load();
+        CachedAuthenticator previous = entries.get(id);
+        if (previous == null) {
+            return;
+        }
+        putAll(Collections.singletonList(new CachedAuthenticator(id, previous.getName(), previous.getGatewaysCount(),
+                previous.getLastDistance(), timestamp, previous.getAuthenticationCount() + 1)));
+    }
+
+    /**
+     * Appends a record for each of the specified authenticators with a single write, or compacts
+     * the file instead if it contains too many outdated records.
+     */
+    private void putAll(@NonNull List<CachedAuthenticator> cachedAuthenticators) throws IOException {
+        if (cachedAuthenticators.isEmpty()) {
+            return;
+        }
+        for (CachedAuthenticator cachedAuthenticator : cachedAuthenticators) {
+            entries.put(cachedAuthenticator.getId(), cachedAuthenticator);
+        }
+        if (recordCount + cachedAuthenticators.size() > Math.max(MINIMUM_COMPACTION_RECORD_COUNT, 2 * entries.size())) {
+            compact();
+            return;
+        }
+        boolean writeHeader = !file.exists() || file.length() == 0;
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+            if (writeHeader) {
+                outputStream.writeInt(MAGIC);
+            }
+            for (CachedAuthenticator cachedAuthenticator : cachedAuthenticators) {
+                writeRecord(outputStream, cachedAuthenticator);
+            }
+        }
+        recordCount += cachedAuthenticators.size();
+    }
+
+    /**
+     * Rewrites the cache file with a single record per authenticator, dropping the least recently
+     * seen ones that exceed the maximum size.
+     */
+    public synchronized void compact() throws IOException {
+        load();
+        List<CachedAuthenticator> retainedEntries = getEntries();
+        if (retainedEntries.size() > maximumSize) {
+            for (CachedAuthenticator droppedEntry : retainedEntries.subList(maximumSize, retainedEntries.size())) {
+                entries.remove(droppedEntry.getId());
+            }
+            retainedEntries = retainedEntries.subList(0, maximumSize);
+        }
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            outputStream.writeInt(MAGIC);
+            for (CachedAuthenticator cachedAuthenticator : retainedEntries) {
+                writeRecord(outputStream, cachedAuthenticator);
+            }
+        }
+        if (!temporaryFile.renameTo(file)) {
+            throw new IOException("Unable to replace cache file");
+        }
+        recordCount = retainedEntries.size();
+    }
+
+    private static CachedAuthenticator readRecord(@NonNull DataInputStream inputStream) throws IOException {
+        UUID id = new UUID(inputStream.readLong(), inputStream.readLong());
+        String name = inputStream.readUTF();
+        int gatewaysCount = inputStream.readInt();
+        double lastDistance = inputStream.readDouble();
+        long lastSeenTimestamp = inputStream.readLong();
+        int authenticationCount = inputStream.readInt();
+        return new CachedAuthenticator(id, name, gatewaysCount, lastDistance, lastSeenTimestamp, authenticationCount);
+    }
+
+    private static void writeRecord(@NonNull DataOutputStream outputStream, @NonNull CachedAuthenticator cachedAuthenticator) throws IOException {
+        outputStream.writeLong(cachedAuthenticator.getId().getMostSignificantBits());
+        outputStream.writeLong(cachedAuthenticator.getId().getLeastSignificantBits());
+        outputStream.writeUTF(cachedAuthenticator.getName());
+        outputStream.writeInt(cachedAuthenticator.getGatewaysCount());
+        outputStream.writeDouble(cachedAuthenticator.getLastDistance());
+        outputStream.writeLong(cachedAuthenticator.getLastSeenTimestamp());
+        outputStream.writeInt(cachedAuthenticator.getAuthenticationCount());
+    }
+
+    @Nullable
+    public synchronized CachedAuthenticator get(@NonNull UUID id) throws IOException {
+        load();
+        return entries.get(id);
+    }
+
+    /**
+     * @return all cached authenticators, most recently seen first
+     */
+    @NonNull
+    public synchronized List<CachedAuthenticator> getEntries() throws IOException {
+        load();
+        List<CachedAuthenticator> sortedEntries = new ArrayList<>(entries.values());
+        Collections.sort(sortedEntries, (first, second) -> Long.compare(second.getLastSeenTimestamp(), first.getLastSeenTimestamp()));
+        return sortedEntries;
+    }
+
+    /**
+     * @return the IDs of the authenticators with the most authentications, at most the specified
+     * number
+     */
+    @NonNull
+    public synchronized List<UUID> getFrequentlyUsedIds(int limit) throws IOException {
+        load();
+        List<CachedAuthenticator> usedEntries = new ArrayList<>();
+        for (CachedAuthenticator cachedAuthenticator : entries.values()) {
+            if (cachedAuthenticator.getAuthenticationCount() > 0) {
+                usedEntries.add(cachedAuthenticator);
+            }
+        }
+        Collections.sort(usedEntries, (first, second) -> Integer.compare(second.getAuthenticationCount(), first.getAuthenticationCount()));
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, usedEntries.size()); i++) {
+            ids.add(usedEntries.get(i).getId());
+        }
+        return ids;
+    }
+
+    public synchronized int size() throws IOException {
+        load();
+        return entries.size();
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.nexenio.seamlessauthenticationintegrationsample.cache;
+
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The last known values of an authenticator, as stored in the {@link AuthenticatorCache}.
+ */
+public final class CachedAuthenticator {
+
+    @NonNull
+    private final UUID id;
+
+    @NonNull
+    private final String name;
+
+    private final int gatewaysCount;
+
+    private final double lastDistance;
+
+    private final long lastSeenTimestamp;
+
+    private final int authenticationCount;
+
+    /**
+     * @param gatewaysCount       the number of gateways, or 0 if the authenticator is not a gate
+     * @param lastDistance        the last known distance in meters
+     * @param lastSeenTimestamp   the wall clock time in milliseconds of the last detection
+     * @param authenticationCount the number of successful authentications
+     */
+    public CachedAuthenticator(@NonNull UUID id, @NonNull String name, int gatewaysCount, double lastDistance,
+                               long lastSeenTimestamp, int authenticationCount) {
+        this.id = id;
+        this.name = name;
+        this.gatewaysCount = gatewaysCount;
+        this.lastDistance = lastDistance;
+        this.lastSeenTimestamp = lastSeenTimestamp;
+        this.authenticationCount = authenticationCount;
+    }
+
+    @NonNull
+    public UUID getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public int getGatewaysCount() {
+        return gatewaysCount;
+    }
+
+    public double getLastDistance() {
+        return lastDistance;
+    }
+
+    public long getLastSeenTimestamp() {
+        return lastSeenTimestamp;
+    }
+
+    public int getAuthenticationCount() {
+        return authenticationCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedAuthenticator{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", lastSeenTimestamp=" + lastSeenTimestamp +
+                ", authenticationCount=" + authenticationCount +
+                '}';
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.nexenio.seamlessauthenticationintegrationsample.gateway;
+
+/**
+ * Decides when the closest gateway and opening of a gate need to be resolved again.
+ *
+ * The closest gateway can only change if the user moved, so the tracked gateway is kept as long
+ * as the distance to the gate didn't change noticeably. As the distance to a gate is not
+ * necessarily the distance to its closest gateway, the tracked gateway also expires after a
+ * maximum age.
+ */
+public final class GatewayTrackingPolicy {
+
+    public static final double DEFAULT_DISTANCE_TOLERANCE = 0.1;
+
+    public static final long DEFAULT_MAXIMUM_AGE = 3000;
+
+    public static final GatewayTrackingPolicy DEFAULT = new GatewayTrackingPolicy(DEFAULT_DISTANCE_TOLERANCE, DEFAULT_MAXIMUM_AGE);
+
+    private final double distanceTolerance;
+
+    private final long maximumAge;
+
+    /**
+     * @param distanceTolerance the distance change in meters that is not considered a movement
+     * @param maximumAge        the duration in milliseconds after which the tracked gateway needs to
+     *                          be resolved again, even if the distance didn't change
+     */
+    public GatewayTrackingPolicy(double distanceTolerance, long maximumAge) {
+        if (distanceTolerance < 0) {
+            throw new IllegalArgumentException("Distance tolerance must not be negative");
+        }
+        if (maximumAge <= 0) {
+            throw new IllegalArgumentException("Maximum age must be positive");
+        }
+        this.distanceTolerance = distanceTolerance;
+        this.maximumAge = maximumAge;
+    }
+
+    /**
+     * @param trackedDistance  the distance in meters when the gateway has been resolved, may be NaN
+     * @param trackedTimestamp the time in milliseconds when the gateway has been resolved
+     * @param distance         the current distance in meters, may be NaN
+     * @param timestamp        the current time in milliseconds
+     * @return true if the tracked gateway may be outdated
+     */
+    public boolean requiresUpdate(double trackedDistance, long trackedTimestamp, double distance, long timestamp) {
+        if (timestamp - trackedTimestamp >= maximumAge) {
+            return true;
+        }
+        if (Double.isNaN(trackedDistance) || Double.isNaN(distance)) {
+            return Double.isNaN(trackedDistance) != Double.isNaN(distance);
+        }
+        return Math.abs(distance - trackedDistance) > distanceTolerance;
+    }
+
+    public double getDistanceTolerance() {
+        return distanceTolerance;
+    }
+
+    public long getMaximumAge() {
+        return maximumAge;
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.nexenio.seamlessauthenticationintegrationsample.guard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Detects stalls of a thread that processes work item by item, e.g. the main thread processing
+ * messages. A stall is a work item that took longer than the budget.
+ *
+ * The thread reports the start and the end of every work item. Stalls are reported to the {@link
+ * Listener} on the stalled thread and the most recent ones are kept, so that tests can fail with a
+ * description of each. Timestamps and durations are in milliseconds.
+ */
+public class StallDetector {
+
+    /**
+     * Maximum number of stalls that are kept.
+     */
+    public static final int MAXIMUM_STALLS_COUNT = 32;
+
+    public interface Listener {
+
+        void onStall(@NonNull Stall stall);
+
+    }
+
+    private final long budget;
+
+    @Nullable
+    private final Listener listener;
+
+    private final List<Stall> stalls = new ArrayList<>();
+
+    private long startTimestamp = -1;
+
+    private long workCount;
+
+    private long stallCount;
+
+    private long longestDuration;
+
+    /**
+     * @param budget the maximum duration of a work item in milliseconds
+     */
+    public StallDetector(long budget, @Nullable Listener listener) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Budget must be positive");
+        }
+        this.budget = budget;
+        this.listener = listener;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Reports the start of a work item. Nested work items are not supported, a start without end
+     * replaces the previous one.
+     */
+    public synchronized void onWorkStarted(long timestamp) {
+        startTimestamp = timestamp;
+    }
+
+    /**
+     * Reports the end of the work item that has been started last.
+     *
+     * @param description describes the work item, e.g. the message that has been dispatched
+     * @return the stall if the work item exceeded the budget, null otherwise
+     */
+    @Nullable
+    public Stall onWorkFinished(long timestamp, @NonNull String description) {
+        Stall stall;
+        synchronized (this) {
+            if (startTimestamp < 0) {
+                return null;
+            }
+            long duration = timestamp - startTimestamp;
+            startTimestamp = -1;
+            workCount++;
+            longestDuration = Math.max(longestDuration, duration);
+            if (duration <= budget) {
+                return null;
+            }
+            stallCount++;
+            stall = new Stall(description, duration);
+            if (stalls.size() == MAXIMUM_STALLS_COUNT) {
+                stalls.remove(0);
+            }
+            stalls.add(stall);
+        }
+        if (listener != null) {
+            listener.onStall(stall);
+        }
+        return stall;
+    }
+
+    public synchronized long getWorkCount() {
+        return workCount;
+    }
+
+    public synchronized long getStallCount() {
+        return stallCount;
+    }
+
+    /**
+     * @return the duration of the longest work item in milliseconds, including the ones within the
+     * budget
+     */
+    public synchronized long getLongestDuration() {
+        return longestDuration;
+    }
+
+    /**
+     * @return the most recent stalls, oldest first
+     */
+    @NonNull
+    public synchronized List<Stall> getStalls() {
+        return new ArrayList<>(stalls);
+    }
+
+    public synchronized void reset() {
+        stalls.clear();
+        startTimestamp = -1;
+        workCount = 0;
+        stallCount = 0;
+        longestDuration = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "StallDetector{budget=%d, work=%d, stalls=%d, longest=%d}",
+                budget, workCount, stallCount, longestDuration);
+    }
+
+    public static final class Stall {
+
+        @NonNull
+        private final String description;
+
+        private final long duration;
+
+        Stall(@NonNull String description, long duration) {
+            this.description = description;
+            this.duration = duration;
+        }
+
+        @NonNull
+        public String getDescription() {
+            return description;
+        }
+
+        public long getDuration() {
+            return duration;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s took %d ms", description, duration);
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+/**
+ * An immutable copy of the state of a {@link LatencyHistogram}.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] bucketCounts;
+    private final long count;
+    private final long sum;
+    private final long maximum;
+
+    HistogramSnapshot(long[] bucketCounts, long count, long sum, long maximum) {
+        this.bucketCounts = bucketCounts;
+        this.count = count;
+        this.sum = sum;
+        this.maximum = maximum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * @return the arithmetic mean of all values, or 0 if no value has been recorded
+     */
+    public double getMean() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    /**
+     * @param percentile the percentile in [0, 100]
+     * @return an upper bound of the value below which the specified percentage of values fall, or
+     * 0 if no value has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long targetCount = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long cumulativeCount = 0;
+        for (int bucketIndex = 0; bucketIndex < bucketCounts.length; bucketIndex++) {
+            cumulativeCount += bucketCounts[bucketIndex];
+            if (cumulativeCount >= targetCount) {
+                return Math.min(LatencyHistogram.getBucketUpperBound(bucketIndex), maximum);
+            }
+        }
+        return maximum;
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Records the wakeups and the CPU time spent while running in the background, per hour since the
+ * start. Used to tell whether the battery cost of a background mode is acceptable.
+ *
+ * CPU time is provided as a cumulative reading, e.g. the CPU time of the process. The time spent
+ * since the previous reading is attributed to the hour of the current reading. Timestamps and CPU
+ * times are in milliseconds. Thread-safe.
+ */
+public class HourlyUsage {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final long startTimestamp;
+
+    private long lastCpuTime;
+
+    private long lastTimestamp;
+
+    private final List<Hour> hours = new ArrayList<>();
+
+    /**
+     * @param startTimestamp the start of the background mode
+     * @param startCpuTime   the CPU time reading at the start
+     */
+    public HourlyUsage(long startTimestamp, long startCpuTime) {
+        this.startTimestamp = startTimestamp;
+        this.lastTimestamp = startTimestamp;
+        this.lastCpuTime = startCpuTime;
+    }
+
+    /**
+     * Records a wakeup, e.g. a timer that started some work, together with the current CPU time
+     * reading.
+     */
+    public synchronized void recordWakeup(long timestamp, long cpuTime) {
+        getHour(timestamp).wakeupCount++;
+        recordCpuTime(timestamp, cpuTime);
+    }
+
+    /**
+     * Records the current CPU time reading, without a wakeup.
+     */
+    public synchronized void recordCpuTime(long timestamp, long cpuTime) {
+        getHour(timestamp).cpuTime += Math.max(0, cpuTime - lastCpuTime);
+        lastCpuTime = Math.max(lastCpuTime, cpuTime);
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+    }
+
+    @NonNull
+    private Hour getHour(long timestamp) {
+        int hour = (int) (Math.max(0, timestamp - startTimestamp) / HOUR);
+        while (hours.size() <= hour) {
+            hours.add(new Hour());
+        }
+        return hours.get(hour);
+    }
+
+    /**
+     * @return the number of hours that have been started, up to the last reading
+     */
+    public synchronized int getHourCount() {
+        return hours.size();
+    }
+
+    public synchronized long getWakeupCount(int hour) {
+        return hour < hours.size() ? hours.get(hour).wakeupCount : 0;
+    }
+
+    public synchronized long getCpuTime(int hour) {
+        return hour < hours.size() ? hours.get(hour).cpuTime : 0;
+    }
+
+    public synchronized long getWakeupCount() {
+        long wakeupCount = 0;
+        for (Hour hour : hours) {
+            wakeupCount += hour.wakeupCount;
+        }
+        return wakeupCount;
+    }
+
+    public synchronized long getCpuTime() {
+        long cpuTime = 0;
+        for (Hour hour : hours) {
+            cpuTime += hour.cpuTime;
+        }
+        return cpuTime;
+    }
+
+    /**
+     * @return the average number of wakeups per hour until the last reading, or 0 if no time
+     * passed yet
+     */
+    public synchronized double getWakeupsPerHour() {
+        return getPerHour(getWakeupCount());
+    }
+
+    /**
+     * @return the average CPU time in milliseconds per hour until the last reading, or 0 if no time
+     * passed yet
+     */
+    public synchronized double getCpuTimePerHour() {
+        return getPerHour(getCpuTime());
+    }
+
+    private double getPerHour(long value) {
+        long duration = lastTimestamp - startTimestamp;
+        return duration > 0 ? (double) value * HOUR / duration : 0;
+    }
+
+    /**
+     * Writes a human readable summary of the averages and of each hour.
+     */
+    public synchronized void dump(@NonNull Writer writer) throws IOException {
+        writer.write(String.format(Locale.US, "Background usage%n"));
+        writer.write(String.format(Locale.US, "  Per hour: %.1f wakeups, %.0f ms CPU%n", getWakeupsPerHour(), getCpuTimePerHour()));
+        for (int hour = 0; hour < hours.size(); hour++) {
+            writer.write(String.format(Locale.US, "  Hour %d: %d wakeups, %d ms CPU%n", hour + 1, hours.get(hour).wakeupCount, hours.get(hour).cpuTime));
+        }
+        writer.flush();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "HourlyUsage{hours=%d, wakeups=%d, cpuTime=%d, wakeupsPerHour=%.1f, cpuTimePerHour=%.0f}",
+                hours.size(), getWakeupCount(), getCpuTime(), getWakeupsPerHour(), getCpuTimePerHour());
+    }
+
+    /**
+     * The usage within one hour, guarded by the {@link HourlyUsage}.
+     */
+    private static final class Hour {
+
+        private long wakeupCount;
+
+        private long cpuTime;
+
+    }
+
+}
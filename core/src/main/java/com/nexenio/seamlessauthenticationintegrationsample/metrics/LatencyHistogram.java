@@ -0,0 +1,86 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A thread-safe histogram of non-negative values with fixed memory usage.
+ *
+ * Values are counted in log-linear buckets: every power of two is split into {@link
+ * #SUB_BUCKET_COUNT} linear sub-buckets, which limits the relative error of percentiles to about
+ * 6%. Recording a value doesn't allocate and doesn't lock.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong maximum = new AtomicLong();
+
+    /**
+     * Counts the specified value. Negative values are counted as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(getBucketIndex(value));
+        totalCount.incrementAndGet();
+        sum.addAndGet(value);
+        long currentMaximum = maximum.get();
+        while (value > currentMaximum && !maximum.compareAndSet(currentMaximum, value)) {
+            currentMaximum = maximum.get();
+        }
+    }
+
+    public void reset() {
+        for (int bucketIndex = 0; bucketIndex < BUCKET_COUNT; bucketIndex++) {
+            counts.set(bucketIndex, 0);
+        }
+        totalCount.set(0);
+        sum.set(0);
+        maximum.set(0);
+    }
+
+    /**
+     * Copies the current state of the histogram. Concurrent recordings may or may not be included.
+     */
+    @NonNull
+    public HistogramSnapshot getSnapshot() {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        for (int bucketIndex = 0; bucketIndex < BUCKET_COUNT; bucketIndex++) {
+            bucketCounts[bucketIndex] = counts.get(bucketIndex);
+        }
+        return new HistogramSnapshot(bucketCounts, totalCount.get(), sum.get(), maximum.get());
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucketIndex = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucketIndex;
+    }
+
+    /**
+     * @return the largest value that is counted in the bucket with the specified index
+     */
+    static long getBucketUpperBound(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        int exponent = bucketIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucketIndex = bucketIndex % SUB_BUCKET_COUNT;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucketIndex) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + width - 1;
+    }
+
+}
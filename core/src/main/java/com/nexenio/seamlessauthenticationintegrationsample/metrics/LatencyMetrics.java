@@ -0,0 +1,69 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Holds one {@link LatencyHistogram} per {@link LatencyStage}. Durations are recorded in
+ * nanoseconds and stored with microsecond resolution.
+ */
+public class LatencyMetrics {
+
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 100};
+
+    private final Map<LatencyStage, LatencyHistogram> histograms = new EnumMap<>(LatencyStage.class);
+
+    public LatencyMetrics() {
+        for (LatencyStage stage : LatencyStage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Records the specified duration. Doesn't allocate and can be called from any thread.
+     */
+    public void record(@NonNull LatencyStage stage, long durationNanos) {
+        histograms.get(stage).record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+    /**
+     * Records the duration from the specified timestamp until the specified end timestamp.
+     */
+    public void recordSince(@NonNull LatencyStage stage, long startNanos, long endNanos) {
+        record(stage, endNanos - startNanos);
+    }
+
+    @NonNull
+    public HistogramSnapshot getSnapshot(@NonNull LatencyStage stage) {
+        return histograms.get(stage).getSnapshot();
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Writes a human readable summary of all stages, with values in milliseconds.
+     */
+    public void dump(@NonNull Writer writer) throws IOException {
+        for (LatencyStage stage : LatencyStage.values()) {
+            HistogramSnapshot snapshot = getSnapshot(stage);
+            writer.write(String.format(Locale.US, "%s%n  count: %d, mean: %.1f ms%n",
+                    stage.getReadableName(), snapshot.getCount(), snapshot.getMean() / 1000));
+            for (double percentile : REPORTED_PERCENTILES) {
+                writer.write(String.format(Locale.US, "  p%.0f: %.1f ms%n",
+                        percentile, snapshot.getValueAtPercentile(percentile) / 1000d));
+            }
+        }
+        writer.flush();
+    }
+
+}
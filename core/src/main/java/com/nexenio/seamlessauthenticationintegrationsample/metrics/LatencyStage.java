@@ -0,0 +1,59 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+/**
+ * The stages of the detection-to-authentication pipeline whose latencies are recorded.
+ */
+public enum LatencyStage {
+
+    /**
+     * From subscribing to the detector until the first authenticator has been detected.
+     */
+    FIRST_DETECTION("Detection to first authenticator"),
+
+    /**
+     * From a screen becoming visible while no other screen was visible until the next detection.
+     */
+    REDISCOVERY("Rediscovery"),
+
+    /**
+     * From a detection until the resulting list update has been rendered.
+     */
+    DETECTION_TO_RENDER("Detection to render"),
+
+    /**
+     * Duration of a successful authentication anticipation.
+     */
+    ANTICIPATION("Anticipation"),
+
+    /**
+     * Duration of a successful authentication.
+     */
+    AUTHENTICATION("Authentication"),
+
+    /**
+     * From the seamless trigger firing until the authentication completed.
+     */
+    IN_RANGE_TO_AUTHENTICATED("In range to authenticated"),
+
+    /**
+     * Total duration of a frame that has been rendered while the authenticator list was scrolling.
+     */
+    LIST_SCROLL_FRAME("List frame while scrolling"),
+
+    /**
+     * Total duration of the first frame that has been rendered after the authenticator list has
+     * been updated.
+     */
+    LIST_UPDATE_FRAME("List frame after update");
+
+    private final String readableName;
+
+    LatencyStage(String readableName) {
+        this.readableName = readableName;
+    }
+
+    public String getReadableName() {
+        return readableName;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+/**
+ * The milestones of an application start that are recorded by the {@link StartupTrace}, in the
+ * order in which they are usually reached.
+ */
+public enum StartupPhase {
+
+    /**
+     * The end of {@code Application.onCreate()}.
+     */
+    APPLICATION_CREATED("Application created"),
+
+    /**
+     * The end of {@code onCreate()} of the first activity.
+     */
+    FIRST_ACTIVITY_CREATED("First activity created"),
+
+    /**
+     * The first frame of the first activity is about to be drawn.
+     */
+    FIRST_FRAME("First frame"),
+
+    /**
+     * The authenticator detector has been created in the background.
+     */
+    DETECTOR_CREATED("Detector created"),
+
+    /**
+     * The first authenticator has been detected.
+     */
+    FIRST_AUTHENTICATOR("First authenticator");
+
+    private final String readableName;
+
+    StartupPhase(String readableName) {
+        this.readableName = readableName;
+    }
+
+    public String getReadableName() {
+        return readableName;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Records when each {@link StartupPhase} has been reached for the first time, relative to the start
+ * of the process. Timestamps are in nanoseconds and can be marked from any thread.
+ */
+public class StartupTrace {
+
+    private final long startTimestamp;
+
+    /**
+     * The timestamp of each phase, or 0 if not reached yet.
+     */
+    private final AtomicLongArray timestamps = new AtomicLongArray(StartupPhase.values().length);
+
+    /**
+     * @param startTimestamp the start of the process in nanoseconds
+     */
+    public StartupTrace(long startTimestamp) {
+        this.startTimestamp = startTimestamp;
+    }
+
+    /**
+     * Marks the specified phase as reached, unless it has been reached before.
+     *
+     * @return true if the phase has been reached for the first time
+     */
+    public boolean mark(@NonNull StartupPhase phase, long timestamp) {
+        return timestamps.compareAndSet(phase.ordinal(), 0, timestamp);
+    }
+
+    public boolean isReached(@NonNull StartupPhase phase) {
+        return timestamps.get(phase.ordinal()) != 0;
+    }
+
+    /**
+     * @return the time in nanoseconds from the start of the process until the specified phase has
+     * been reached, or -1 if not reached yet
+     */
+    public long getDuration(@NonNull StartupPhase phase) {
+        long timestamp = timestamps.get(phase.ordinal());
+        return timestamp != 0 ? timestamp - startTimestamp : -1;
+    }
+
+    /**
+     * Writes a human readable summary of all phases, with values in milliseconds.
+     */
+    public void dump(@NonNull Writer writer) throws IOException {
+        writer.write(String.format(Locale.US, "Startup%n"));
+        for (StartupPhase phase : StartupPhase.values()) {
+            long duration = getDuration(phase);
+            if (duration >= 0) {
+                writer.write(String.format(Locale.US, "  %s: %d ms%n", phase.getReadableName(), TimeUnit.NANOSECONDS.toMillis(duration)));
+            } else {
+                writer.write(String.format(Locale.US, "  %s: -%n", phase.getReadableName()));
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * @return a single line summary that is easy to parse from logs, with values in milliseconds
+     * and -1 for phases that have not been reached
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("StartupTrace{");
+        for (StartupPhase phase : StartupPhase.values()) {
+            if (phase.ordinal() > 0) {
+                stringBuilder.append(", ");
+            }
+            long duration = getDuration(phase);
+            stringBuilder.append(phase.name().toLowerCase(Locale.US))
+                    .append('=')
+                    .append(duration >= 0 ? TimeUnit.NANOSECONDS.toMillis(duration) : -1);
+        }
+        return stringBuilder.append('}').toString();
+    }
+
+}
@@ -0,0 +1,258 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import java.text.DecimalFormatSymbols;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Formats the description of an authenticator from its already resolved values. The templates are
+ * passed in once, so that formatting doesn't depend on Android resources and can run on any
+ * thread.
+ *
+ * The templates are parsed once and rendered into a reused builder per thread, so the only
+ * allocation per description is the resulting string. Templates that use format syntax or digits
+ * that the renderer doesn't support are formatted using {@link String#format(Locale, String,
+ * Object...)} instead.
+ *
+ * Descriptions that are formatted with {@link #format(UUID, double, String, GateDetails)} are
+ * memoized per authenticator. If none of the displayed values changed, the previously formatted
+ * instance is returned, which also makes comparing snapshots a reference check.
+ */
+public class AuthenticatorDescriptionFormatter {
+
+    /**
+     * Once exceeded, the least recently formatted descriptions are dropped.
+     */
+    public static final int MAXIMUM_MEMOIZED_DESCRIPTIONS_COUNT = 1024;
+
+    private static final String GENERIC_CONVERSIONS = "fs";
+    private static final String DOOR_CONVERSIONS = "fss";
+    private static final String GATE_CONVERSIONS = "fsdsd";
+
+    private static final int DEFAULT_BUILDER_CAPACITY = 256;
+
+    @NonNull
+    private final Locale locale;
+
+    @NonNull
+    private final String genericTemplate;
+
+    @NonNull
+    private final String doorTemplate;
+
+    @NonNull
+    private final String gateTemplate;
+
+    @NonNull
+    private final String unknownDescription;
+
+    @Nullable
+    private final DescriptionTemplate parsedGenericTemplate;
+
+    @Nullable
+    private final DescriptionTemplate parsedDoorTemplate;
+
+    @Nullable
+    private final DescriptionTemplate parsedGateTemplate;
+
+    private final char decimalSeparator;
+
+    /**
+     * Distances are compared after being multiplied with this scale and rounded, so that samples
+     * that would be displayed equally don't cause a new description.
+     */
+    private final double distanceScale;
+
+    private final ThreadLocal<Renderer> renderer = new ThreadLocal<Renderer>() {
+        @Override
+        protected Renderer initialValue() {
+            return new Renderer();
+        }
+    };
+
+    private final Map<UUID, MemoizedDescription> memoizedDescriptions = new LinkedHashMap<UUID, MemoizedDescription>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, MemoizedDescription> eldest) {
+            return size() > MAXIMUM_MEMOIZED_DESCRIPTIONS_COUNT;
+        }
+    };
+
+    /**
+     * @param genericTemplate    format with the distance and state
+     * @param doorTemplate       format with the distance, state and direction
+     * @param gateTemplate       format with the distance, state, gateways count, direction and
+     *                           closest gateway index
+     * @param unknownDescription used if the distance or gateway values are unknown
+     */
+    public AuthenticatorDescriptionFormatter(@NonNull Locale locale, @NonNull String genericTemplate, @NonNull String doorTemplate,
+                                             @NonNull String gateTemplate, @NonNull String unknownDescription) {
+        this.locale = locale;
+        this.genericTemplate = genericTemplate;
+        this.doorTemplate = doorTemplate;
+        this.gateTemplate = gateTemplate;
+        this.unknownDescription = unknownDescription;
+
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        boolean asciiDigits = symbols.getZeroDigit() == '0';
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.parsedGenericTemplate = asciiDigits ? parse(genericTemplate, GENERIC_CONVERSIONS) : null;
+        this.parsedDoorTemplate = asciiDigits ? parse(doorTemplate, DOOR_CONVERSIONS) : null;
+        this.parsedGateTemplate = asciiDigits ? parse(gateTemplate, GATE_CONVERSIONS) : null;
+
+        if (parsedGenericTemplate != null && parsedDoorTemplate != null && parsedGateTemplate != null) {
+            int precision = Math.max(parsedGenericTemplate.getMaximumPrecision(),
+                    Math.max(parsedDoorTemplate.getMaximumPrecision(), parsedGateTemplate.getMaximumPrecision()));
+            this.distanceScale = Math.pow(10, precision);
+        } else {
+            this.distanceScale = Double.NaN;
+        }
+    }
+
+    @Nullable
+    private static DescriptionTemplate parse(@NonNull String template, @NonNull String expectedConversions) {
+        DescriptionTemplate parsedTemplate = DescriptionTemplate.parse(template);
+        if (parsedTemplate == null || !parsedTemplate.matches(expectedConversions)) {
+            return null;
+        }
+        return parsedTemplate;
+    }
+
+    /**
+     * Formats the description and returns the previously formatted instance for the same
+     * authenticator if none of the displayed values changed.
+     *
+     * @param distance the distance in meters, or {@link Double#NaN} if unknown
+     */
+    @NonNull
+    public String format(@NonNull UUID id, double distance, @NonNull String state, @NonNull GateDetails gateDetails) {
+        if (Double.isNaN(distance) || gateDetails == GateDetails.UNKNOWN) {
+            return unknownDescription;
+        }
+        long distanceKey = getDistanceKey(distance);
+        MemoizedDescription memoizedDescription;
+        synchronized (memoizedDescriptions) {
+            memoizedDescription = memoizedDescriptions.get(id);
+        }
+        if (memoizedDescription != null && memoizedDescription.matches(distanceKey, state, gateDetails)) {
+            return memoizedDescription.description;
+        }
+        String description = format(distance, state, gateDetails);
+        synchronized (memoizedDescriptions) {
+            memoizedDescriptions.put(id, new MemoizedDescription(distanceKey, state, gateDetails, description));
+        }
+        return description;
+    }
+
+    /**
+     * @param distance the distance in meters, or {@link Double#NaN} if unknown
+     */
+    @NonNull
+    public String format(double distance, @NonNull String state, @NonNull GateDetails gateDetails) {
+        if (Double.isNaN(distance) || gateDetails == GateDetails.UNKNOWN) {
+            return unknownDescription;
+        } else if (gateDetails == GateDetails.NONE) {
+            if (parsedGenericTemplate == null) {
+                return String.format(locale, genericTemplate, distance, state);
+            }
+            Renderer renderer = this.renderer.get();
+            renderer.arguments
+                    .setDecimal(0, distance)
+                    .setString(1, state);
+            return renderer.render(parsedGenericTemplate, decimalSeparator);
+        } else if (gateDetails.getGatewaysCount() > 1) {
+            if (parsedGateTemplate == null) {
+                return String.format(locale, gateTemplate, distance, state,
+                        gateDetails.getGatewaysCount(), gateDetails.getDirection(), gateDetails.getClosestGatewayIndex());
+            }
+            Renderer renderer = this.renderer.get();
+            renderer.arguments
+                    .setDecimal(0, distance)
+                    .setString(1, state)
+                    .setInteger(2, gateDetails.getGatewaysCount())
+                    .setString(3, gateDetails.getDirection())
+                    .setInteger(4, gateDetails.getClosestGatewayIndex());
+            return renderer.render(parsedGateTemplate, decimalSeparator);
+        } else {
+            if (parsedDoorTemplate == null) {
+                return String.format(locale, doorTemplate, distance, state, gateDetails.getDirection());
+            }
+            Renderer renderer = this.renderer.get();
+            renderer.arguments
+                    .setDecimal(0, distance)
+                    .setString(1, state)
+                    .setString(2, gateDetails.getDirection());
+            return renderer.render(parsedDoorTemplate, decimalSeparator);
+        }
+    }
+
+    private long getDistanceKey(double distance) {
+        if (Double.isNaN(distanceScale)) {
+            return Double.doubleToLongBits(distance);
+        }
+        return Math.round(distance * distanceScale);
+    }
+
+    /**
+     * The builder and arguments used by one thread.
+     */
+    private static final class Renderer {
+
+        private final StringBuilder builder = new StringBuilder(DEFAULT_BUILDER_CAPACITY);
+
+        private final DescriptionTemplate.Arguments arguments = new DescriptionTemplate.Arguments();
+
+        @NonNull
+        String render(@NonNull DescriptionTemplate template, char decimalSeparator) {
+            builder.setLength(0);
+            template.appendTo(builder, arguments, decimalSeparator);
+            return builder.toString();
+        }
+
+    }
+
+    /**
+     * The displayed values that a description has been formatted from.
+     */
+    private static final class MemoizedDescription {
+
+        private final long distanceKey;
+
+        @NonNull
+        private final String state;
+
+        @NonNull
+        private final GateDetails gateDetails;
+
+        @NonNull
+        private final String description;
+
+        MemoizedDescription(long distanceKey, @NonNull String state, @NonNull GateDetails gateDetails, @NonNull String description) {
+            this.distanceKey = distanceKey;
+            this.state = state;
+            this.gateDetails = gateDetails;
+            this.description = description;
+        }
+
+        boolean matches(long distanceKey, @NonNull String state, @NonNull GateDetails gateDetails) {
+            if (this.distanceKey != distanceKey || !this.state.equals(state)) {
+                return false;
+            }
+            if (this.gateDetails == gateDetails) {
+                return true;
+            }
+            if (this.gateDetails == GateDetails.NONE || gateDetails == GateDetails.NONE) {
+                return false;
+            }
+            return this.gateDetails.getGatewaysCount() == gateDetails.getGatewaysCount()
+                    && this.gateDetails.getClosestGatewayIndex() == gateDetails.getClosestGatewayIndex()
+                    && this.gateDetails.getDirection().equals(gateDetails.getDirection());
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * An immutable representation of the values that are displayed for a seamless
+ * authenticator. Rendering a snapshot doesn't require any I/O, so it can safely be done on
+ * the main thread.
+ *
+ * Two snapshots are equal if they would render the same content. The raw distance is not taken
+ * into account, as it changes with every sample while the displayed value doesn't.
+ */
+public final class AuthenticatorSnapshot {
+
+    @NonNull
+    private final UUID id;
+
+    @NonNull
+    private final String name;
+
+    @NonNull
+    private final String readableId;
+
+    private final double distance;
+
+    @NonNull
+    private final String state;
+
+    @Nullable
+    private final String direction;
+
+    @NonNull
+    private final String description;
+
+    public AuthenticatorSnapshot(@NonNull UUID id, @NonNull String name, @NonNull String readableId, double distance,
+                                 @NonNull String state, @Nullable String direction, @NonNull String description) {
+        this.id = id;
+        this.name = name;
+        this.readableId = readableId;
+        this.distance = distance;
+        this.state = state;
+        this.direction = direction;
+        this.description = description;
+    }
+
+    /**
+     * @return an ID that is derived from the authenticator UUID and can be used as a stable item ID in
+     * list adapters
+     */
+    public long getStableId() {
+        return id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+    }
+
+    @NonNull
+    public UUID getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @NonNull
+    public String getReadableId() {
+        return readableId;
+    }
+
+    /**
+     * @return the distance in meters, or {@link Double#NaN} if unknown
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    @NonNull
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * @return the direction of the closest gateway opening, or null if the authenticator is not a
+     * gate
+     */
+    @Nullable
+    public String getDirection() {
+        return direction;
+    }
+
+    @NonNull
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AuthenticatorSnapshot that = (AuthenticatorSnapshot) o;
+        return id.equals(that.id)
+                && name.equals(that.name)
+                && readableId.equals(that.readableId)
+                && state.equals(that.state)
+                && (direction != null ? direction.equals(that.direction) : that.direction == null)
+                && description.equals(that.description);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + name.hashCode();
+        result = 31 * result + readableId.hashCode();
+        result = 31 * result + state.hashCode();
+        result = 31 * result + (direction != null ? direction.hashCode() : 0);
+        result = 31 * result + description.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatorSnapshot{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", description='" + description + '\'' +
+                '}';
+    }
+
+}
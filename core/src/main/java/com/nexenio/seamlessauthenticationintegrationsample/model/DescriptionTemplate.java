@@ -0,0 +1,277 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A format string that has been split into literals and placeholders once, so that it can be
+ * rendered into a reused {@link StringBuilder} without creating a {@link java.util.Formatter} or
+ * boxing the arguments.
+ *
+ * Only the subset of the format syntax that is used by the description resources is supported:
+ * {@code %s}, {@code %d}, {@code %.Nf} (each optionally with an explicit {@code n$} argument
+ * index) and {@code %%}. Use {@link #parse(String)} to check if a template is supported.
+ */
+final class DescriptionTemplate {
+
+    static final int MAXIMUM_ARGUMENTS_COUNT = 8;
+
+    private static final int MAXIMUM_PRECISION = 6;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    /**
+     * Decimals with a larger absolute value could overflow when being scaled to a long.
+     */
+    private static final double MAXIMUM_DECIMAL = 1e12;
+
+    private static final char CONVERSION_STRING = 's';
+    private static final char CONVERSION_INTEGER = 'd';
+    private static final char CONVERSION_DECIMAL = 'f';
+
+    /**
+     * Literal segments are stored as strings, placeholders as {@code null} with the details in the
+     * arrays below at the same index.
+     */
+    @NonNull
+    private final String[] literals;
+
+    @NonNull
+    private final char[] conversions;
+
+    @NonNull
+    private final int[] argumentIndices;
+
+    @NonNull
+    private final int[] precisions;
+
+    private final int maximumPrecision;
+
+    private DescriptionTemplate(@NonNull String[] literals, @NonNull char[] conversions,
+                                @NonNull int[] argumentIndices, @NonNull int[] precisions) {
+        this.literals = literals;
+        this.conversions = conversions;
+        this.argumentIndices = argumentIndices;
+        this.precisions = precisions;
+        int maximumPrecision = 0;
+        for (int i = 0; i < literals.length; i++) {
+            if (literals[i] == null && conversions[i] == CONVERSION_DECIMAL) {
+                maximumPrecision = Math.max(maximumPrecision, precisions[i]);
+            }
+        }
+        this.maximumPrecision = maximumPrecision;
+    }
+
+    /**
+     * @return the parsed template, or {@code null} if it uses format syntax that is not supported
+     */
+    @Nullable
+    static DescriptionTemplate parse(@NonNull String template) {
+        List<String> literals = new ArrayList<>();
+        List<int[]> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int nextArgumentIndex = 0;
+        int position = 0;
+        while (position < template.length()) {
+            char character = template.charAt(position++);
+            if (character != '%') {
+                literal.append(character);
+                continue;
+            }
+            if (position >= template.length()) {
+                return null;
+            }
+            if (template.charAt(position) == '%') {
+                literal.append('%');
+                position++;
+                continue;
+            }
+
+            int argumentIndex = -1;
+            int digitsEnd = skipDigits(template, position);
+            if (digitsEnd > position && digitsEnd < template.length() && template.charAt(digitsEnd) == '$') {
+                argumentIndex = Integer.parseInt(template.substring(position, digitsEnd)) - 1;
+                position = digitsEnd + 1;
+            }
+
+            int precision = -1;
+            if (position < template.length() && template.charAt(position) == '.') {
+                digitsEnd = skipDigits(template, position + 1);
+                if (digitsEnd == position + 1) {
+                    return null;
+                }
+                precision = Integer.parseInt(template.substring(position + 1, digitsEnd));
+                position = digitsEnd;
+            }
+
+            if (position >= template.length()) {
+                return null;
+            }
+            char conversion = template.charAt(position++);
+            if (conversion == CONVERSION_DECIMAL) {
+                if (precision < 0) {
+                    precision = MAXIMUM_PRECISION;
+                } else if (precision > MAXIMUM_PRECISION) {
+                    return null;
+                }
+            } else if (conversion != CONVERSION_STRING && conversion != CONVERSION_INTEGER || precision >= 0) {
+                return null;
+            }
+
+            if (argumentIndex < 0) {
+                argumentIndex = nextArgumentIndex++;
+            }
+            if (argumentIndex >= MAXIMUM_ARGUMENTS_COUNT) {
+                return null;
+            }
+
+            if (literal.length() > 0) {
+                literals.add(literal.toString());
+                placeholders.add(null);
+                literal.setLength(0);
+            }
+            literals.add(null);
+            placeholders.add(new int[]{conversion, argumentIndex, precision});
+        }
+        if (literal.length() > 0) {
+            literals.add(literal.toString());
+            placeholders.add(null);
+        }
+
+        int count = literals.size();
+        char[] conversions = new char[count];
+        int[] argumentIndices = new int[count];
+        int[] precisions = new int[count];
+        for (int i = 0; i < count; i++) {
+            int[] placeholder = placeholders.get(i);
+            if (placeholder != null) {
+                conversions[i] = (char) placeholder[0];
+                argumentIndices[i] = placeholder[1];
+                precisions[i] = placeholder[2];
+            }
+        }
+        return new DescriptionTemplate(literals.toArray(new String[count]), conversions, argumentIndices, precisions);
+    }
+
+    private static int skipDigits(@NonNull String template, int position) {
+        while (position < template.length() && Character.isDigit(template.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * @param expectedConversions the conversion of each argument, e.g. {@code "fsd"} for a decimal,
+     *                            a string and an integer
+     * @return true if every placeholder references one of the expected arguments with the expected
+     * conversion
+     */
+    boolean matches(@NonNull String expectedConversions) {
+        for (int i = 0; i < literals.length; i++) {
+            if (literals[i] != null) {
+                continue;
+            }
+            int argumentIndex = argumentIndices[i];
+            if (argumentIndex >= expectedConversions.length() || expectedConversions.charAt(argumentIndex) != conversions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the largest number of fraction digits that any decimal placeholder displays
+     */
+    int getMaximumPrecision() {
+        return maximumPrecision;
+    }
+
+    /**
+     * Appends the rendered template to the specified builder. Each placeholder reads the argument
+     * at its index from the array that matches its conversion.
+     */
+    void appendTo(@NonNull StringBuilder builder, @NonNull Arguments arguments, char decimalSeparator) {
+        for (int i = 0; i < literals.length; i++) {
+            if (literals[i] != null) {
+                builder.append(literals[i]);
+                continue;
+            }
+            int argumentIndex = argumentIndices[i];
+            switch (conversions[i]) {
+                case CONVERSION_DECIMAL:
+                    appendDecimal(builder, arguments.decimals[argumentIndex], precisions[i], decimalSeparator);
+                    break;
+                case CONVERSION_INTEGER:
+                    builder.append(arguments.integers[argumentIndex]);
+                    break;
+                default:
+                    builder.append(arguments.strings[argumentIndex]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Appends the value rounded half up to the specified number of fraction digits, like {@code
+     * %.Nf} does for all values that are not exactly halfway between two displayed values.
+     */
+    static void appendDecimal(@NonNull StringBuilder builder, double value, int precision, char decimalSeparator) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            builder.append(value);
+            return;
+        }
+        double absoluteValue = Math.abs(value);
+        if (absoluteValue >= MAXIMUM_DECIMAL) {
+            builder.append(String.format(Locale.ROOT, "%." + precision + "f", value).replace('.', decimalSeparator));
+            return;
+        }
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            builder.append('-');
+        }
+        long scale = POWERS_OF_TEN[precision];
+        long scaledValue = Math.round(absoluteValue * scale);
+        builder.append(scaledValue / scale);
+        if (precision == 0) {
+            return;
+        }
+        builder.append(decimalSeparator);
+        long fraction = scaledValue % scale;
+        for (long power = scale / 10; power > 1 && fraction < power; power /= 10) {
+            builder.append('0');
+        }
+        builder.append(fraction);
+    }
+
+    /**
+     * Reusable argument storage, so that numbers don't need to be boxed. Not thread-safe.
+     */
+    static final class Arguments {
+
+        final double[] decimals = new double[MAXIMUM_ARGUMENTS_COUNT];
+
+        final long[] integers = new long[MAXIMUM_ARGUMENTS_COUNT];
+
+        final String[] strings = new String[MAXIMUM_ARGUMENTS_COUNT];
+
+        Arguments setDecimal(int index, double value) {
+            decimals[index] = value;
+            return this;
+        }
+
+        Arguments setInteger(int index, long value) {
+            integers[index] = value;
+            return this;
+        }
+
+        Arguments setString(int index, @NonNull String value) {
+            strings[index] = value;
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The gateway related values that are part of the description of a gate.
+ */
+public final class GateDetails {
+
+    /**
+     * Used for authenticators that are not gates.
+     */
+    public static final GateDetails NONE = new GateDetails("", 0, 0);
+
+    /**
+     * Used for gates whose gateway values could not be resolved.
+     */
+    public static final GateDetails UNKNOWN = new GateDetails("", 0, 0);
+
+    @NonNull
+    private final String direction;
+
+    private final long gatewaysCount;
+
+    private final long closestGatewayIndex;
+
+    public GateDetails(@NonNull String direction, long gatewaysCount, long closestGatewayIndex) {
+        this.direction = direction;
+        this.gatewaysCount = gatewaysCount;
+        this.closestGatewayIndex = closestGatewayIndex;
+    }
+
+    /**
+     * @return the readable direction of the closest gateway opening, or an empty string for {@link
+     * #NONE} and {@link #UNKNOWN}
+     */
+    @NonNull
+    public String getDirection() {
+        return direction;
+    }
+
+    public long getGatewaysCount() {
+        return gatewaysCount;
+    }
+
+    public long getClosestGatewayIndex() {
+        return closestGatewayIndex;
+    }
+
+}
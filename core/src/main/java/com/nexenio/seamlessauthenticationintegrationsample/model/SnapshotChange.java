@@ -0,0 +1,109 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The displayed fields that differ between two {@link AuthenticatorSnapshot}s of the same
+ * authenticator. Used as a list item change payload, so that only the views of changed fields need
+ * to be updated.
+ *
+ * There's one shared instance per combination of changed fields, so computing and combining
+ * changes doesn't allocate.
+ */
+public final class SnapshotChange {
+
+    private static final int NAME = 1;
+    private static final int READABLE_ID = 1 << 1;
+    private static final int STATE = 1 << 2;
+    private static final int DIRECTION = 1 << 3;
+    private static final int DESCRIPTION = 1 << 4;
+
+    private static final SnapshotChange[] INSTANCES = new SnapshotChange[1 << 5];
+
+    static {
+        for (int fields = 0; fields < INSTANCES.length; fields++) {
+            INSTANCES[fields] = new SnapshotChange(fields);
+        }
+    }
+
+    public static final SnapshotChange NONE = INSTANCES[0];
+
+    public static final SnapshotChange ALL = INSTANCES[INSTANCES.length - 1];
+
+    private final int fields;
+
+    private SnapshotChange(int fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Compares the displayed fields of the specified snapshots, which are expected to be of the same
+     * authenticator.
+     */
+    @NonNull
+    public static SnapshotChange between(@NonNull AuthenticatorSnapshot oldSnapshot, @NonNull AuthenticatorSnapshot newSnapshot) {
+        int fields = 0;
+        if (!oldSnapshot.getName().equals(newSnapshot.getName())) {
+            fields |= NAME;
+        }
+        if (!oldSnapshot.getReadableId().equals(newSnapshot.getReadableId())) {
+            fields |= READABLE_ID;
+        }
+        if (!oldSnapshot.getState().equals(newSnapshot.getState())) {
+            fields |= STATE;
+        }
+        if (oldSnapshot.getDirection() == null ? newSnapshot.getDirection() != null
+                : !oldSnapshot.getDirection().equals(newSnapshot.getDirection())) {
+            fields |= DIRECTION;
+        }
+        if (!oldSnapshot.getDescription().equals(newSnapshot.getDescription())) {
+            fields |= DESCRIPTION;
+        }
+        return INSTANCES[fields];
+    }
+
+    /**
+     * @return the fields that changed in this or the specified change, e.g. if multiple payloads
+     * have been dispatched before the item could be bound
+     */
+    @NonNull
+    public SnapshotChange combine(@NonNull SnapshotChange other) {
+        return INSTANCES[fields | other.fields];
+    }
+
+    public boolean isEmpty() {
+        return fields == 0;
+    }
+
+    public boolean isNameChanged() {
+        return (fields & NAME) != 0;
+    }
+
+    public boolean isReadableIdChanged() {
+        return (fields & READABLE_ID) != 0;
+    }
+
+    public boolean isStateChanged() {
+        return (fields & STATE) != 0;
+    }
+
+    public boolean isDirectionChanged() {
+        return (fields & DIRECTION) != 0;
+    }
+
+    public boolean isDescriptionChanged() {
+        return (fields & DESCRIPTION) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotChange{" +
+                "name=" + isNameChanged() +
+                ", readableId=" + isReadableIdChanged() +
+                ", state=" + isStateChanged() +
+                ", direction=" + isDirectionChanged() +
+                ", description=" + isDescriptionChanged() +
+                '}';
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Orders {@link AuthenticatorSnapshot}s by distance, nearest first, and limits them to the nearest
+ * ones.
+ *
+ * The order of the previous ranking is kept and only corrected with an insertion sort. As
+ * distances change little between two updates, the list is nearly sorted already and ranking it
+ * takes about linear time. Each authenticator is ranked by the distance it has been ranked by
+ * before, until its distance changes by more than the reorder tolerance, so that noisy distances
+ * don't make rows jump back and forth. As every ranked distance is within the tolerance of the
+ * actual one, an authenticator can't be ranked behind another one that is more than twice the
+ * tolerance farther away. Snapshots with unknown distance are ranked last.
+ *
+ * Not thread-safe, rankings are expected to be requested sequentially.
+ */
+public final class SnapshotRanking {
+
+    public static final double DEFAULT_REORDER_TOLERANCE = 0.1;
+
+    private final double reorderTolerance;
+
+    @NonNull
+    private ArrayList<AuthenticatorSnapshot> rankedSnapshots = new ArrayList<>();
+
+    /**
+     * The distances that the authenticators of the previous ranking have been ranked by.
+     */
+    @NonNull
+    private Map<UUID, Double> rankedDistances = new HashMap<>();
+
+    private int hiddenCount;
+
+    private long shiftCount;
+
+    public SnapshotRanking() {
+        this(DEFAULT_REORDER_TOLERANCE);
+    }
+
+    /**
+     * @param reorderTolerance the distance change in meters below which an authenticator is ranked
+     *                         by its previous distance
+     */
+    public SnapshotRanking(double reorderTolerance) {
+        if (reorderTolerance < 0) {
+            throw new IllegalArgumentException("Reorder tolerance must not be negative");
+        }
+        this.reorderTolerance = reorderTolerance;
+    }
+
+    /**
+     * Ranks the specified snapshots, which replace the ones of the previous ranking.
+     *
+     * @param maximumCount the maximum number of snapshots to return
+     * @return the nearest snapshots, nearest first
+     */
+    @NonNull
+    public List<AuthenticatorSnapshot> rank(@NonNull List<AuthenticatorSnapshot> snapshots, int maximumCount) {
+        Map<UUID, AuthenticatorSnapshot> snapshotsById = new HashMap<>(snapshots.size() * 2);
+        for (int snapshotIndex = 0; snapshotIndex < snapshots.size(); snapshotIndex++) {
+            AuthenticatorSnapshot snapshot = snapshots.get(snapshotIndex);
+            snapshotsById.put(snapshot.getId(), snapshot);
+        }
+
+        // keep the previous order of all authenticators that are still present
+        ArrayList<AuthenticatorSnapshot> orderedSnapshots = new ArrayList<>(snapshots.size());
+        for (int snapshotIndex = 0; snapshotIndex < rankedSnapshots.size(); snapshotIndex++) {
+            AuthenticatorSnapshot snapshot = snapshotsById.remove(rankedSnapshots.get(snapshotIndex).getId());
+            if (snapshot != null) {
+                orderedSnapshots.add(snapshot);
+            }
+        }
+        // append new authenticators in the order they have been provided
+        for (int snapshotIndex = 0; snapshotIndex < snapshots.size() && !snapshotsById.isEmpty(); snapshotIndex++) {
+            AuthenticatorSnapshot snapshot = snapshots.get(snapshotIndex);
+            if (snapshotsById.remove(snapshot.getId()) != null) {
+                orderedSnapshots.add(snapshot);
+            }
+        }
+
+        double[] sortDistances = new double[orderedSnapshots.size()];
+        Map<UUID, Double> sortDistancesById = new HashMap<>(orderedSnapshots.size() * 2);
+        for (int snapshotIndex = 0; snapshotIndex < orderedSnapshots.size(); snapshotIndex++) {
+            AuthenticatorSnapshot snapshot = orderedSnapshots.get(snapshotIndex);
+            double sortDistance = getSortDistance(snapshot, rankedDistances.get(snapshot.getId()));
+            sortDistances[snapshotIndex] = sortDistance;
+            sortDistancesById.put(snapshot.getId(), sortDistance);
+        }
+
+        sort(orderedSnapshots, sortDistances);
+        rankedSnapshots = orderedSnapshots;
+        rankedDistances = sortDistancesById;
+        int count = Math.min(maximumCount, orderedSnapshots.size());
+        hiddenCount = orderedSnapshots.size() - count;
+        return new ArrayList<>(orderedSnapshots.subList(0, count));
+    }
+
+    /**
+     * Sorts the snapshots by the specified distances with a stable insertion sort, so that
+     * snapshots with equal distances keep their previous order.
+     */
+    private void sort(@NonNull List<AuthenticatorSnapshot> snapshots, @NonNull double[] sortDistances) {
+        for (int snapshotIndex = 1; snapshotIndex < snapshots.size(); snapshotIndex++) {
+            AuthenticatorSnapshot snapshot = snapshots.get(snapshotIndex);
+            double distance = sortDistances[snapshotIndex];
+            int insertionIndex = snapshotIndex;
+            while (insertionIndex > 0 && sortDistances[insertionIndex - 1] > distance) {
+                snapshots.set(insertionIndex, snapshots.get(insertionIndex - 1));
+                sortDistances[insertionIndex] = sortDistances[insertionIndex - 1];
+                insertionIndex--;
+            }
+            if (insertionIndex != snapshotIndex) {
+                snapshots.set(insertionIndex, snapshot);
+                sortDistances[insertionIndex] = distance;
+                shiftCount += snapshotIndex - insertionIndex;
+            }
+        }
+    }
+
+    /**
+     * @param rankedDistance the distance that the authenticator has been ranked by previously, or
+     *                       null if it hasn't been ranked
+     * @return the previous distance if the distance changed by at most the reorder tolerance, the
+     * distance otherwise
+     */
+    private double getSortDistance(@NonNull AuthenticatorSnapshot snapshot, @Nullable Double rankedDistance) {
+        double distance = snapshot.getDistance();
+        if (Double.isNaN(distance)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (rankedDistance != null && Math.abs(distance - rankedDistance) <= reorderTolerance) {
+            return rankedDistance;
+        }
+        return distance;
+    }
+
+    /**
+     * @return the number of snapshots that have been cut off by the last ranking
+     */
+    public int getHiddenCount() {
+        return hiddenCount;
+    }
+
+    /**
+     * @return the total number of positions that snapshots have been moved by while sorting, a
+     * measure of how unsorted the updates were
+     */
+    public long getShiftCount() {
+        return shiftCount;
+    }
+
+}
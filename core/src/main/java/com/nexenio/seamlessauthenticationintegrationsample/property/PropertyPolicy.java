@@ -0,0 +1,66 @@
+package com.nexenio.seamlessauthenticationintegrationsample.property;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Describes for how long a fetched property value may be reused.
+ */
+public final class PropertyPolicy {
+
+    /**
+     * For properties that never change, like the name of an authenticator.
+     */
+    public static final PropertyPolicy FOREVER = new PropertyPolicy(Long.MAX_VALUE);
+
+    /**
+     * For properties that change with every sample, like the distance to an authenticator.
+     */
+    public static final PropertyPolicy LIVE = new PropertyPolicy(0);
+
+    private final long timeToLive;
+
+    private PropertyPolicy(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * For properties that change rarely, like the active state of an authenticator.
+     *
+     * @param timeToLive the duration in milliseconds after which a value needs to be fetched again
+     */
+    @NonNull
+    public static PropertyPolicy expiringAfter(long timeToLive) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        return new PropertyPolicy(timeToLive);
+    }
+
+    /**
+     * @return false if values should never be reused
+     */
+    public boolean isCacheable() {
+        return timeToLive > 0;
+    }
+
+    /**
+     * @param fetchTimestamp the time in milliseconds when the value has been fetched
+     * @param timestamp      the current time in milliseconds
+     * @return true if the value may still be reused
+     */
+    public boolean isFresh(long fetchTimestamp, long timestamp) {
+        if (timeToLive == Long.MAX_VALUE) {
+            return true;
+        }
+        return timestamp - fetchTimestamp < timeToLive;
+    }
+
+    /**
+     * @return the duration in milliseconds for which values may be reused, {@link Long#MAX_VALUE}
+     * if forever and 0 if never
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.nexenio.seamlessauthenticationintegrationsample.registry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A thread-safe index of values by authenticator UUID. Every entry remembers when it has been put
+ * last, which allows evicting entries that have not been seen within the time to live.
+ *
+ * Timestamps are provided by the caller, so the index doesn't depend on any particular clock.
+ *
+ * @param <T> the type of the indexed values
+ */
+public final class AuthenticatorIndex<T> {
+
+    private final ConcurrentMap<UUID, Entry<T>> entries = new ConcurrentHashMap<>();
+
+    private final long timeToLive;
+
+    /**
+     * @param timeToLive the duration in milliseconds after which entries that have not been put
+     *                   again are considered expired
+     */
+    public AuthenticatorIndex(long timeToLive) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Adds or replaces the value for the specified ID and marks it as seen at the specified time.
+     *
+     * @return the new entry
+     */
+    @NonNull
+    public Entry<T> put(@NonNull UUID id, @NonNull T value, long timestamp) {
+        Entry<T> entry = new Entry<>(id, value, timestamp);
+        entries.put(id, entry);
+        return entry;
+    }
+
+    @Nullable
+    public T get(@NonNull UUID id) {
+        Entry<T> entry = entries.get(id);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    @Nullable
+    public Entry<T> getEntry(@NonNull UUID id) {
+        return entries.get(id);
+    }
+
+    @NonNull
+    public Collection<Entry<T>> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all entries that have not been put within the time to live.
+     *
+     * @param timestamp the current time, in the same time base as the put timestamps
+     * @return the removed entries
+     */
+    @NonNull
+    public List<Entry<T>> evictExpired(long timestamp) {
+        List<Entry<T>> evictedEntries = new ArrayList<>();
+        for (Entry<T> entry : entries.values()) {
+            if (timestamp - entry.getTimestamp() > timeToLive && entries.remove(entry.getId(), entry)) {
+                evictedEntries.add(entry);
+            }
+        }
+        return evictedEntries;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * An immutable value of the index together with the time it has been seen last.
+     */
+    public static final class Entry<T> {
+
+        @NonNull
+        private final UUID id;
+
+        @NonNull
+        private final T value;
+
+        private final long timestamp;
+
+        Entry(@NonNull UUID id, @NonNull T value, long timestamp) {
+            this.id = id;
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+
+        @NonNull
+        public UUID getId() {
+            return id;
+        }
+
+        @NonNull
+        public T getValue() {
+            return value;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Replays session logs on the command line and prints a {@link ReplayResult} for each, so that
+ * trigger changes can be compared without a device:
+ *
+ * <pre>./gradlew :core:replaySessions -PrangeThreshold=1 -Psessions=first.bin,second.bin</pre>
+ */
+public final class ReplayCommand {
+
+    private ReplayCommand() {
+    }
+
+    /**
+     * @param args the default range threshold in meters, followed by the paths of the session logs
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ReplayCommand <range threshold> <session log>...");
+            System.exit(1);
+            return;
+        }
+        SessionReplayer replayer = new SessionReplayer(Double.parseDouble(args[0]));
+        for (int i = 1; i < args.length; i++) {
+            File file = new File(args[i]);
+            long startTimestamp = System.nanoTime();
+            ReplayResult result;
+            boolean truncated;
+            try (SessionLogReader reader = new SessionLogReader(file)) {
+                result = replayer.replay(reader);
+                truncated = reader.isTruncated();
+            }
+            long replayDuration = (System.nanoTime() - startTimestamp) / 1_000_000;
+            System.out.println(file.getName() + (truncated ? " (truncated)" : "") + ": " + result);
+            System.out.println("Replayed " + result.getDuration() + " ms in " + replayDuration + " ms");
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The outcome of replaying a session with the {@link SessionReplayer}. Latencies are in
+ * milliseconds, negative if the trigger anticipated the arrival.
+ */
+public final class ReplayResult {
+
+    private final long sampleCount;
+    private final int authenticatorCount;
+    private final long duration;
+    private final long arrivalCount;
+    private final long triggerCount;
+    private final long suppressedCount;
+    private final long falseTriggerCount;
+    private final long missedArrivalCount;
+
+    /**
+     * The latencies of the correct triggers, in ascending order.
+     */
+    @NonNull
+    private final long[] latencies;
+
+    ReplayResult(long sampleCount, int authenticatorCount, long duration, long arrivalCount, long triggerCount,
+                 long suppressedCount, long falseTriggerCount, long missedArrivalCount, @NonNull long[] latencies) {
+        this.sampleCount = sampleCount;
+        this.authenticatorCount = authenticatorCount;
+        this.duration = duration;
+        this.arrivalCount = arrivalCount;
+        this.triggerCount = triggerCount;
+        this.suppressedCount = suppressedCount;
+        this.falseTriggerCount = falseTriggerCount;
+        this.missedArrivalCount = missedArrivalCount;
+        this.latencies = latencies.clone();
+        Arrays.sort(this.latencies);
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public int getAuthenticatorCount() {
+        return authenticatorCount;
+    }
+
+    /**
+     * @return the recorded duration of the session in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the number of times an authenticator has been reached
+     */
+    public long getArrivalCount() {
+        return arrivalCount;
+    }
+
+    /**
+     * @return the number of triggers, excluding the suppressed ones
+     */
+    public long getTriggerCount() {
+        return triggerCount;
+    }
+
+    /**
+     * @return the number of triggers that have been suppressed because another authenticator was
+     * in range and nearer
+     */
+    public long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    public long getFalseTriggerCount() {
+        return falseTriggerCount;
+    }
+
+    /**
+     * @return the share of triggers that were false, 0 if there were none
+     */
+    public double getFalseTriggerRate() {
+        return triggerCount > 0 ? (double) falseTriggerCount / triggerCount : 0;
+    }
+
+    public long getMissedArrivalCount() {
+        return missedArrivalCount;
+    }
+
+    /**
+     * @return the number of triggers that were correct and have a latency
+     */
+    public int getLatencyCount() {
+        return latencies.length;
+    }
+
+    /**
+     * @param percentile in [0, 100]
+     * @return the latency at the specified percentile, or 0 if there are no latencies
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100]");
+        }
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+        return latencies[Math.max(0, Math.min(latencies.length - 1, index))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "ReplayResult{samples=%d, authenticators=%d, duration=%d, arrivals=%d, triggered=%d, "
+                        + "suppressed=%d, falseTriggers=%d, falseTriggerRate=%.2f, missed=%d, latencyP50=%d, latencyP90=%d}",
+                sampleCount, authenticatorCount, duration, arrivalCount, triggerCount,
+                suppressedCount, falseTriggerCount, getFalseTriggerRate(), missedArrivalCount,
+                getLatencyPercentile(50), getLatencyPercentile(90));
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The binary format of session logs, shared by the {@link SessionLogWriter} and the {@link
+ * SessionLogReader}.
+ *
+ * A log starts with {@link #MAGIC}, followed by records that each start with their type:
+ * <ul>
+ * <li>{@link #RECORD_SESSION}: the absolute timestamp of the first sample of a session. Resets the
+ * authenticator table and the previous timestamp, so that a log can be appended to by multiple
+ * sessions.</li>
+ * <li>{@link #RECORD_AUTHENTICATOR}: the ID of an authenticator, which gets the next index in the
+ * authenticator table.</li>
+ * <li>{@link #RECORD_SAMPLE}: the authenticator index, the time since the previous sample, the
+ * distance in centimeters plus one (0 if unknown), the state and the gateway index plus one (0 if
+ * unknown). All numbers are unsigned varints, the state is a single byte.</li>
+ * </ul>
+ *
+ * A sample of a known authenticator takes about 7 bytes.
+ */
+final class SessionLogFormat {
+
+    static final int MAGIC = 0x53534C31;
+
+    static final int RECORD_SESSION = 0;
+
+    static final int RECORD_AUTHENTICATOR = 1;
+
+    static final int RECORD_SAMPLE = 2;
+
+    private SessionLogFormat() {
+    }
+
+    /**
+     * Writes the specified non-negative value with 7 bits per byte, least significant group first.
+     */
+    static void writeVarLong(@NonNull DataOutput output, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative");
+        }
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    static long readVarLong(@NonNull DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int nextByte = input.readUnsignedByte();
+            value |= (long) (nextByte & 0x7F) << shift;
+            if ((nextByte & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static long encodeDistance(double distance) {
+        if (Double.isNaN(distance) || Double.isInfinite(distance)) {
+            return 0;
+        }
+        return Math.round(Math.max(0, distance) * 100) + 1;
+    }
+
+    static double decodeDistance(long encodedDistance) {
+        return encodedDistance == 0 ? Double.NaN : (encodedDistance - 1) / 100d;
+    }
+
+}
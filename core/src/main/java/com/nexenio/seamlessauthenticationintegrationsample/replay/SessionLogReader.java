@@ -0,0 +1,206 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Reads the samples of a session log in the format described by {@link SessionLogFormat}, in the
+ * order they have been written.
+ *
+ * A truncated last record (e.g. because the process got killed while writing) ends the log
+ * instead of failing it.
+ */
+public class SessionLogReader implements Closeable {
+
+    private static final SessionSample.State[] STATES = SessionSample.State.values();
+
+    @NonNull
+    private final CountingInputStream countingInputStream;
+
+    @NonNull
+    private final DataInputStream inputStream;
+
+    @NonNull
+    private final List<UUID> authenticatorIds = new ArrayList<>();
+
+    private boolean sessionStarted;
+
+    private long previousTimestamp;
+
+    private boolean truncated;
+
+    /**
+     * The number of bytes up to the end of the last complete record.
+     */
+    private long completeLength;
+
+    public SessionLogReader(@NonNull File file) throws IOException {
+        this.countingInputStream = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+        this.inputStream = new DataInputStream(countingInputStream);
+        try {
+            if (inputStream.readInt() != SessionLogFormat.MAGIC) {
+                throw new IOException("Unknown session log format");
+            }
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+        completeLength = countingInputStream.count;
+    }
+
+    /**
+     * @return the next sample, or null if the end of the log has been reached
+     */
+    @Nullable
+    public SessionSample read() throws IOException {
+        if (truncated) {
+            return null;
+        }
+        try {
+            while (true) {
+                int recordType = countingInputStream.read();
+                if (recordType < 0) {
+                    return null;
+                }
+                switch (recordType) {
+                    case SessionLogFormat.RECORD_SESSION:
+                        previousTimestamp = inputStream.readLong();
+                        authenticatorIds.clear();
+                        sessionStarted = true;
+                        completeLength = countingInputStream.count;
+                        break;
+                    case SessionLogFormat.RECORD_AUTHENTICATOR:
+                        authenticatorIds.add(new UUID(inputStream.readLong(), inputStream.readLong()));
+                        completeLength = countingInputStream.count;
+                        break;
+                    case SessionLogFormat.RECORD_SAMPLE:
+                        SessionSample sample = readSample();
+                        completeLength = countingInputStream.count;
+                        return sample;
+                    default:
+                        throw new IOException("Unknown record type " + recordType);
+                }
+            }
+        } catch (EOFException e) {
+            truncated = true;
+            return null;
+        }
+    }
+
+    @NonNull
+    private SessionSample readSample() throws IOException {
+        if (!sessionStarted) {
+            throw new IOException("Sample outside of a session");
+        }
+        long index = SessionLogFormat.readVarLong(inputStream);
+        if (index >= authenticatorIds.size()) {
+            throw new IOException("Unknown authenticator index " + index);
+        }
+        long timestamp = previousTimestamp + SessionLogFormat.readVarLong(inputStream);
+        double distance = SessionLogFormat.decodeDistance(SessionLogFormat.readVarLong(inputStream));
+        int state = inputStream.readUnsignedByte();
+        int gatewayIndex = (int) SessionLogFormat.readVarLong(inputStream) - 1;
+        previousTimestamp = timestamp;
+        return new SessionSample(authenticatorIds.get((int) index), timestamp, distance,
+                state < STATES.length ? STATES[state] : SessionSample.State.UNKNOWN, gatewayIndex);
+    }
+
+    /**
+     * @return true if the log ended with a truncated record
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return the number of bytes up to the end of the last complete record that has been read
+     */
+    long getCompleteLength() {
+        return completeLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    /**
+     * Reads all samples of the specified session log.
+     */
+    @NonNull
+    public static List<SessionSample> readAll(@NonNull File file) throws IOException {
+        List<SessionSample> samples = new ArrayList<>();
+        try (SessionLogReader reader = new SessionLogReader(file)) {
+            SessionSample sample;
+            while ((sample = reader.read()) != null) {
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * @return the number of bytes of the specified session log up to the end of its last complete
+     * record
+     */
+    static long getCompleteLength(@NonNull File file) throws IOException {
+        try (SessionLogReader reader = new SessionLogReader(file)) {
+            while (reader.read() != null) {
+                // skip to the end
+            }
+            return reader.getCompleteLength();
+        }
+    }
+
+    /**
+     * Counts the bytes that have been read, in order to know where the last complete record ends.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(@NonNull InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            int readCount = super.read(buffer, offset, length);
+            if (readCount > 0) {
+                count += readCount;
+            }
+            return readCount;
+        }
+
+        @Override
+        public long skip(long length) throws IOException {
+            long skipCount = super.skip(length);
+            count += skipCount;
+            return skipCount;
+        }
+
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Appends samples to a session log in the format described by {@link SessionLogFormat}.
+ *
+ * Every writer starts a new session within the log, existing sessions are kept. Samples are
+ * buffered, a process that gets killed loses at most the unflushed samples and the reader drops a
+ * truncated last record. Before appending to an existing log, a truncated last record is cut off,
+ * so that the new session doesn't start in the middle of it. Samples are expected in
+ * chronological order, earlier timestamps are recorded as the timestamp of the previous sample.
+ */
+public class SessionLogWriter implements Closeable, Flushable {
+
+    @NonNull
+    private final DataOutputStream outputStream;
+
+    @NonNull
+    private final Map<UUID, Integer> authenticatorIndices = new HashMap<>();
+
+    private boolean sessionStarted;
+
+    private long previousTimestamp;
+
+    private long sampleCount;
+
+    public SessionLogWriter(@NonNull File file) throws IOException {
+        boolean writeHeader = !file.exists() || file.length() < Integer.BYTES;
+        if (file.exists()) {
+            truncateIncompleteRecord(file, writeHeader ? 0 : SessionLogReader.getCompleteLength(file));
+        }
+        this.outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        if (writeHeader) {
+            outputStream.writeInt(SessionLogFormat.MAGIC);
+        }
+    }
+
+    private static void truncateIncompleteRecord(@NonNull File file, long completeLength) throws IOException {
+        if (file.length() == completeLength) {
+            return;
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(completeLength);
+        }
+    }
+
+    public synchronized void write(@NonNull SessionSample sample) throws IOException {
+        if (!sessionStarted) {
+            outputStream.writeByte(SessionLogFormat.RECORD_SESSION);
+            outputStream.writeLong(sample.getTimestamp());
+            previousTimestamp = sample.getTimestamp();
+            sessionStarted = true;
+        }
+
+        Integer index = authenticatorIndices.get(sample.getId());
+        if (index == null) {
+            index = authenticatorIndices.size();
+            authenticatorIndices.put(sample.getId(), index);
+            outputStream.writeByte(SessionLogFormat.RECORD_AUTHENTICATOR);
+            outputStream.writeLong(sample.getId().getMostSignificantBits());
+            outputStream.writeLong(sample.getId().getLeastSignificantBits());
+        }
+
+        long timestamp = Math.max(previousTimestamp, sample.getTimestamp());
+        outputStream.writeByte(SessionLogFormat.RECORD_SAMPLE);
+        SessionLogFormat.writeVarLong(outputStream, index);
+        SessionLogFormat.writeVarLong(outputStream, timestamp - previousTimestamp);
+        SessionLogFormat.writeVarLong(outputStream, SessionLogFormat.encodeDistance(sample.getDistance()));
+        outputStream.writeByte(sample.getState().ordinal());
+        SessionLogFormat.writeVarLong(outputStream, Math.max(SessionSample.UNKNOWN_GATEWAY_INDEX, sample.getGatewayIndex()) + 1);
+        previousTimestamp = timestamp;
+        sampleCount++;
+    }
+
+    /**
+     * @return the number of samples written by this writer
+     */
+    public synchronized long getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        outputStream.close();
+    }
+
+}
@@ -0,0 +1,234 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessCandidates;
+import com.nexenio.seamlessauthenticationintegrationsample.trigger.SeamlessTrigger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Feeds recorded samples through the {@link SeamlessCandidates} that the seamless mode uses, in
+ * order to evaluate trigger changes offline.
+ *
+ * Samples are provided with their recorded timestamps instead of the current time, so a session
+ * replays as fast as the samples can be processed and the filter sees the same velocities as
+ * during the recording.
+ *
+ * The raw distances serve as ground truth: an authenticator has been reached once a raw distance
+ * is within its range threshold, and left once a raw distance exceeds the range threshold plus
+ * the {@link SeamlessTrigger#DEFAULT_HYSTERESIS}. A trigger is correct if it happens while the
+ * authenticator has been reached and not triggered yet, or if the authenticator gets reached
+ * within the confirmation window after the trigger. The latency is the time from reaching the
+ * authenticator to the trigger, negative if the trigger anticipated the arrival. All other
+ * triggers are false and every arrival without a correct trigger is missed.
+ */
+public class SessionReplayer {
+
+    /**
+     * Default time in milliseconds after a trigger in which the authenticator has to be reached.
+     */
+    public static final long DEFAULT_CONFIRMATION_WINDOW = 2000;
+
+    private final double defaultRangeThreshold;
+
+    private final long confirmationWindow;
+
+    @NonNull
+    private final Map<UUID, Double> rangeThresholds = new HashMap<>();
+
+    public SessionReplayer(double defaultRangeThreshold) {
+        this(defaultRangeThreshold, DEFAULT_CONFIRMATION_WINDOW);
+    }
+
+    /**
+     * @param defaultRangeThreshold the distance in meters below which authentication should happen,
+     *                              unless specified otherwise for an authenticator
+     * @param confirmationWindow    the time in milliseconds after a trigger in which the
+     *                              authenticator has to be reached
+     */
+    public SessionReplayer(double defaultRangeThreshold, long confirmationWindow) {
+        if (confirmationWindow < 0) {
+            throw new IllegalArgumentException("Confirmation window must not be negative");
+        }
+        this.defaultRangeThreshold = defaultRangeThreshold;
+        this.confirmationWindow = confirmationWindow;
+    }
+
+    /**
+     * Sets the range threshold of the specified authenticator, which takes precedence over the
+     * default range threshold.
+     */
+    public void setRangeThreshold(@NonNull UUID id, double rangeThreshold) {
+        rangeThresholds.put(id, rangeThreshold);
+    }
+
+    /**
+     * Replays all samples of the specified reader, without closing it.
+     */
+    @NonNull
+    public ReplayResult replay(@NonNull SessionLogReader reader) throws IOException {
+        Replay replay = new Replay();
+        SessionSample sample;
+        while ((sample = reader.read()) != null) {
+            replay.onSample(sample);
+        }
+        return replay.finish();
+    }
+
+    @NonNull
+    public ReplayResult replay(@NonNull Iterable<SessionSample> samples) {
+        Replay replay = new Replay();
+        for (SessionSample sample : samples) {
+            replay.onSample(sample);
+        }
+        return replay.finish();
+    }
+
+    private double getRangeThreshold(@NonNull UUID id) {
+        Double rangeThreshold = rangeThresholds.get(id);
+        return rangeThreshold != null ? rangeThreshold : defaultRangeThreshold;
+    }
+
+    /**
+     * The state of a single replay, so that a replayer can be used for multiple sessions.
+     */
+    private final class Replay {
+
+        private final SeamlessCandidates candidates = new SeamlessCandidates(defaultRangeThreshold);
+
+        private final Map<UUID, Arrival> arrivals = new HashMap<>();
+
+        private final List<Long> latencies = new ArrayList<>();
+
+        private long sampleCount;
+
+        private long firstTimestamp = -1;
+
+        private long lastTimestamp;
+
+        private long arrivalCount;
+
+        private long triggerCount;
+
+        private long falseTriggerCount;
+
+        private long missedArrivalCount;
+
+        Replay() {
+            for (Map.Entry<UUID, Double> entry : rangeThresholds.entrySet()) {
+                candidates.setRangeThreshold(entry.getKey(), entry.getValue());
+            }
+        }
+
+        void onSample(@NonNull SessionSample sample) {
+            sampleCount++;
+            if (firstTimestamp < 0) {
+                firstTimestamp = sample.getTimestamp();
+            }
+            lastTimestamp = sample.getTimestamp();
+            if (!sample.hasDistance()) {
+                return;
+            }
+
+            UUID id = sample.getId();
+            long timestamp = sample.getTimestamp();
+            Arrival arrival = arrivals.get(id);
+            if (arrival == null) {
+                arrival = new Arrival();
+                arrivals.put(id, arrival);
+            }
+
+            if (arrival.pendingTriggerTimestamp >= 0 && timestamp - arrival.pendingTriggerTimestamp > confirmationWindow) {
+                falseTriggerCount++;
+                arrival.pendingTriggerTimestamp = -1;
+            }
+
+            double rangeThreshold = getRangeThreshold(id);
+            if (!arrival.reached && sample.getDistance() <= rangeThreshold) {
+                arrival.reached = true;
+                arrival.timestamp = timestamp;
+                arrival.triggered = false;
+                arrivalCount++;
+                if (arrival.pendingTriggerTimestamp >= 0) {
+                    latencies.add(arrival.pendingTriggerTimestamp - timestamp);
+                    arrival.pendingTriggerTimestamp = -1;
+                    arrival.triggered = true;
+                }
+            } else if (arrival.reached && sample.getDistance() > rangeThreshold + SeamlessTrigger.DEFAULT_HYSTERESIS) {
+                arrival.reached = false;
+                if (!arrival.triggered) {
+                    missedArrivalCount++;
+                }
+            }
+
+            if (!candidates.onDistanceSample(id, sample.getDistance(), timestamp)) {
+                return;
+            }
+            triggerCount++;
+            if (arrival.reached) {
+                if (arrival.triggered) {
+                    falseTriggerCount++;
+                } else {
+                    latencies.add(timestamp - arrival.timestamp);
+                    arrival.triggered = true;
+                }
+            } else {
+                if (arrival.pendingTriggerTimestamp >= 0) {
+                    falseTriggerCount++;
+                }
+                arrival.pendingTriggerTimestamp = timestamp;
+            }
+        }
+
+        @NonNull
+        ReplayResult finish() {
+            for (Arrival arrival : arrivals.values()) {
+                if (arrival.pendingTriggerTimestamp >= 0) {
+                    falseTriggerCount++;
+                }
+                if (arrival.reached && !arrival.triggered) {
+                    missedArrivalCount++;
+                }
+            }
+            long[] latencyArray = new long[latencies.size()];
+            for (int i = 0; i < latencyArray.length; i++) {
+                latencyArray[i] = latencies.get(i);
+            }
+            long duration = firstTimestamp >= 0 ? lastTimestamp - firstTimestamp : 0;
+            return new ReplayResult(sampleCount, arrivals.size(), duration, arrivalCount, triggerCount,
+                    candidates.getSuppressedCount(), falseTriggerCount, missedArrivalCount, latencyArray);
+        }
+
+    }
+
+    private static final class Arrival {
+
+        /**
+         * Whether the authenticator has been reached and not left since.
+         */
+        private boolean reached;
+
+        /**
+         * The time at which the authenticator has been reached.
+         */
+        private long timestamp;
+
+        /**
+         * Whether the current arrival has been triggered.
+         */
+        private boolean triggered;
+
+        /**
+         * The time of a trigger that happened before the authenticator has been reached, or -1.
+         */
+        private long pendingTriggerTimestamp = -1;
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A single detection of an authenticator, as recorded in a session log.
+ */
+public final class SessionSample {
+
+    /**
+     * Used if the closest gateway is unknown or the authenticator is not a gate.
+     */
+    public static final int UNKNOWN_GATEWAY_INDEX = -1;
+
+    public enum State {
+
+        UNKNOWN,
+
+        ACTIVE,
+
+        INACTIVE
+
+    }
+
+    @NonNull
+    private final UUID id;
+
+    private final long timestamp;
+
+    private final double distance;
+
+    @NonNull
+    private final State state;
+
+    private final int gatewayIndex;
+
+    /**
+     * @param timestamp    the time of the detection in milliseconds
+     * @param distance     the measured distance in meters, or {@link Double#NaN} if unknown
+     * @param gatewayIndex the index of the closest gateway, or {@link #UNKNOWN_GATEWAY_INDEX}
+     */
+    public SessionSample(@NonNull UUID id, long timestamp, double distance, @NonNull State state, int gatewayIndex) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.distance = distance;
+        this.state = state;
+        this.gatewayIndex = gatewayIndex;
+    }
+
+    @NonNull
+    public UUID getId() {
+        return id;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the distance in meters, or {@link Double#NaN} if unknown
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    public boolean hasDistance() {
+        return !Double.isNaN(distance);
+    }
+
+    @NonNull
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return the index of the closest gateway, or {@link #UNKNOWN_GATEWAY_INDEX}
+     */
+    public int getGatewayIndex() {
+        return gatewayIndex;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "SessionSample{id=%s, timestamp=%d, distance=%.2f, state=%s, gateway=%d}",
+                id, timestamp, distance, state, gatewayIndex);
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.nexenio.seamlessauthenticationintegrationsample.scheduling;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Collects pending UI updates until the next frame, so that they are applied together at most
+ * once per frame.
+ *
+ * Updates are enqueued with a key, an update replaces the pending update with the same key. Such
+ * updates are coalesced, only the latest one is applied. Deferrable updates are held back while
+ * deferring, e.g. while a list is scrolling, and applied with the first frame after deferring
+ * stopped.
+ *
+ * The queue doesn't request frames by itself. {@link #enqueue(Object, boolean, Runnable)} and
+ * {@link #setDeferring(boolean)} return whether a frame has to be requested, which then has to
+ * call {@link #applyPending()}. All methods may be called from any thread, updates are run on the
+ * thread that calls {@link #applyPending()}.
+ */
+public class CoalescingUpdateQueue {
+
+    private final Map<Object, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+
+    private boolean deferring;
+
+    private boolean frameRequested;
+
+    private long enqueuedCount;
+
+    private long coalescedCount;
+
+    private long deferredCount;
+
+    private long appliedCount;
+
+    private long frameCount;
+
+    /**
+     * Enqueues the specified update, replacing the pending update with the same key.
+     *
+     * @param deferrable whether the update may be held back while deferring
+     * @return true if a frame has to be requested to apply the update
+     */
+    public synchronized boolean enqueue(@NonNull Object key, boolean deferrable, @NonNull Runnable update) {
+        enqueuedCount++;
+        PendingUpdate pendingUpdate = new PendingUpdate(update, deferrable);
+        PendingUpdate replacedUpdate = pendingUpdates.remove(key);
+        if (replacedUpdate != null) {
+            coalescedCount++;
+            pendingUpdate.deferred = replacedUpdate.deferred;
+        }
+        pendingUpdates.put(key, pendingUpdate);
+        if (deferring && deferrable) {
+            markDeferred(pendingUpdate);
+            return false;
+        }
+        return requestFrame();
+    }
+
+    /**
+     * Removes the pending update with the specified key, if any.
+     */
+    public synchronized void cancel(@NonNull Object key) {
+        pendingUpdates.remove(key);
+    }
+
+    /**
+     * Starts or stops holding back deferrable updates.
+     *
+     * @return true if a frame has to be requested to apply the updates that have been held back
+     */
+    public synchronized boolean setDeferring(boolean deferring) {
+        if (this.deferring == deferring) {
+            return false;
+        }
+        this.deferring = deferring;
+        return !deferring && !pendingUpdates.isEmpty() && requestFrame();
+    }
+
+    public synchronized boolean isDeferring() {
+        return deferring;
+    }
+
+    /**
+     * Runs all pending updates that are not held back, in the order they have been enqueued in.
+     * Should be called once per requested frame.
+     *
+     * @return the number of applied updates
+     */
+    public int applyPending() {
+        List<Runnable> updates;
+        synchronized (this) {
+            frameRequested = false;
+            updates = new ArrayList<>(pendingUpdates.size());
+            Iterator<PendingUpdate> iterator = pendingUpdates.values().iterator();
+            while (iterator.hasNext()) {
+                PendingUpdate pendingUpdate = iterator.next();
+                if (deferring && pendingUpdate.deferrable) {
+                    markDeferred(pendingUpdate);
+                    continue;
+                }
+                updates.add(pendingUpdate.update);
+                iterator.remove();
+            }
+            if (updates.isEmpty()) {
+                return 0;
+            }
+            appliedCount += updates.size();
+            frameCount++;
+        }
+        for (Runnable update : updates) {
+            update.run();
+        }
+        return updates.size();
+    }
+
+    private boolean requestFrame() {
+        if (frameRequested) {
+            return false;
+        }
+        frameRequested = true;
+        return true;
+    }
+
+    private void markDeferred(@NonNull PendingUpdate pendingUpdate) {
+        if (!pendingUpdate.deferred) {
+            pendingUpdate.deferred = true;
+            deferredCount++;
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingUpdates.size();
+    }
+
+    public synchronized long getEnqueuedCount() {
+        return enqueuedCount;
+    }
+
+    /**
+     * @return the number of updates that have been replaced by a later update with the same key
+     * before they were applied
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * @return the number of updates that have been held back at least once, including the ones
+     * that have been coalesced later on
+     */
+    public synchronized long getDeferredCount() {
+        return deferredCount;
+    }
+
+    public synchronized long getAppliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * @return the number of frames in which updates have been applied
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Resets the counters, pending updates are kept.
+     */
+    public synchronized void resetCounters() {
+        enqueuedCount = 0;
+        coalescedCount = 0;
+        deferredCount = 0;
+        appliedCount = 0;
+        frameCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "CoalescingUpdateQueue{enqueued=%d, coalesced=%d, deferred=%d, applied=%d, frames=%d, pending=%d}",
+                enqueuedCount, coalescedCount, deferredCount, appliedCount, frameCount, pendingUpdates.size());
+    }
+
+    private static final class PendingUpdate {
+
+        @NonNull
+        private final Runnable update;
+
+        private final boolean deferrable;
+
+        private boolean deferred;
+
+        PendingUpdate(@NonNull Runnable update, boolean deferrable) {
+            this.update = update;
+            this.deferrable = deferrable;
+        }
+
+    }
+
+}
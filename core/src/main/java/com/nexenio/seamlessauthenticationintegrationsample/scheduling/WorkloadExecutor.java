@@ -0,0 +1,149 @@
+package com.nexenio.seamlessauthenticationintegrationsample.scheduling;
+
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.LatencyHistogram;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A bounded thread pool for a single class of work, which keeps track of how long tasks wait in
+ * its queue.
+ *
+ * At most the specified number of tasks run at the same time and at most the queue capacity of
+ * tasks wait. Further tasks are rejected: they are handed to the overflow executor if there is
+ * one, so that no work gets lost, or fail with a {@link RejectedExecutionException} otherwise.
+ * Either way they are counted, so that an undersized pool shows up in the {@link
+ * WorkloadStatistics}. Idle threads are terminated after the keep alive time.
+ *
+ * Wait times are recorded in microseconds, from handing the task to the executor to running it.
+ */
+public class WorkloadExecutor extends ThreadPoolExecutor {
+
+    public static final long DEFAULT_KEEP_ALIVE = TimeUnit.SECONDS.toMillis(30);
+
+    @NonNull
+    private final String name;
+
+    private final int queueCapacity;
+
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+    private final AtomicInteger maximumQueueDepth = new AtomicInteger();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * @param maximumConcurrency the maximum number of tasks that run at the same time
+     * @param queueCapacity      the maximum number of tasks that wait for a thread
+     * @param overflowExecutor   runs the rejected tasks, or null if they should fail
+     */
+    public WorkloadExecutor(@NonNull String name, int maximumConcurrency, int queueCapacity, @NonNull ThreadFactory threadFactory,
+                            @Nullable Executor overflowExecutor) {
+        super(maximumConcurrency, maximumConcurrency, DEFAULT_KEEP_ALIVE, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new OverflowHandler(overflowExecutor));
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        super.execute(new QueuedTask(command, System.nanoTime()));
+        int queueDepth = getQueue().size();
+        int maximum;
+        while (queueDepth > (maximum = maximumQueueDepth.get())) {
+            if (maximumQueueDepth.compareAndSet(maximum, queueDepth)) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        super.beforeExecute(thread, runnable);
+        if (runnable instanceof QueuedTask) {
+            waitTimes.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - ((QueuedTask) runnable).queueTimestamp));
+        }
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of tasks that have been rejected since the last reset
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @NonNull
+    public WorkloadStatistics getStatistics() {
+        return new WorkloadStatistics(name, getMaximumPoolSize(), getActiveCount(), getQueue().size(), queueCapacity,
+                maximumQueueDepth.get(), getCompletedTaskCount(), rejectedCount.get(), waitTimes.getSnapshot());
+    }
+
+    /**
+     * Resets the wait times, the maximum queue depth and the rejected count.
+     */
+    public void resetStatistics() {
+        waitTimes.reset();
+        maximumQueueDepth.set(0);
+        rejectedCount.set(0);
+    }
+
+    /**
+     * Counts rejected tasks and hands them to the overflow executor, if any.
+     */
+    private static final class OverflowHandler implements RejectedExecutionHandler {
+
+        @Nullable
+        private final Executor overflowExecutor;
+
+        OverflowHandler(@Nullable Executor overflowExecutor) {
+            this.overflowExecutor = overflowExecutor;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            WorkloadExecutor workloadExecutor = (WorkloadExecutor) executor;
+            workloadExecutor.rejectedCount.incrementAndGet();
+            if (overflowExecutor == null || executor.isShutdown()) {
+                throw new RejectedExecutionException("Rejected by " + workloadExecutor.name);
+            }
+            overflowExecutor.execute(runnable);
+        }
+
+    }
+
+    private static final class QueuedTask implements Runnable {
+
+        @NonNull
+        private final Runnable runnable;
+
+        private final long queueTimestamp;
+
+        QueuedTask(@NonNull Runnable runnable, long queueTimestamp) {
+            this.runnable = runnable;
+            this.queueTimestamp = queueTimestamp;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+    }
+
+}
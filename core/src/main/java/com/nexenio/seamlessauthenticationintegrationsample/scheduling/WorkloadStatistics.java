@@ -0,0 +1,96 @@
+package com.nexenio.seamlessauthenticationintegrationsample.scheduling;
+
+import com.nexenio.seamlessauthenticationintegrationsample.metrics.HistogramSnapshot;
+
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * An immutable copy of the metrics of a {@link WorkloadExecutor}. Wait times are in microseconds.
+ */
+public final class WorkloadStatistics {
+
+    @NonNull
+    private final String name;
+    private final int maximumConcurrency;
+    private final int activeCount;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final int maximumQueueDepth;
+    private final long completedCount;
+    private final long rejectedCount;
+
+    @NonNull
+    private final HistogramSnapshot waitTimes;
+
+    WorkloadStatistics(@NonNull String name, int maximumConcurrency, int activeCount, int queueDepth, int queueCapacity,
+                       int maximumQueueDepth, long completedCount, long rejectedCount, @NonNull HistogramSnapshot waitTimes) {
+        this.name = name;
+        this.maximumConcurrency = maximumConcurrency;
+        this.activeCount = activeCount;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.maximumQueueDepth = maximumQueueDepth;
+        this.completedCount = completedCount;
+        this.rejectedCount = rejectedCount;
+        this.waitTimes = waitTimes;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public int getMaximumConcurrency() {
+        return maximumConcurrency;
+    }
+
+    /**
+     * @return the approximate number of tasks that are running
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return the number of tasks that are waiting for a thread
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getMaximumQueueDepth() {
+        return maximumQueueDepth;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return the times that tasks waited for a thread, in microseconds
+     */
+    @NonNull
+    public HistogramSnapshot getWaitTimes() {
+        return waitTimes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "WorkloadStatistics{name=%s, threads=%d, active=%d, queued=%d/%d, maxQueued=%d, "
+                        + "completed=%d, rejected=%d, waitP50=%.1f ms, waitP99=%.1f ms, waitMax=%.1f ms}",
+                name, maximumConcurrency, activeCount, queueDepth, queueCapacity, maximumQueueDepth,
+                completedCount, rejectedCount, waitTimes.getValueAtPercentile(50) / 1000d,
+                waitTimes.getValueAtPercentile(99) / 1000d, waitTimes.getMaximum() / 1000d);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+/**
+ * The user walks straight towards the authenticator with a constant speed and stays at the minimum
+ * distance until the period is over. Then the approach starts again.
+ */
+public class ApproachMovement implements MovementModel {
+
+    private final double startDistance;
+
+    private final double minimumDistance;
+
+    private final double speed;
+
+    private final long period;
+
+    private final long offset;
+
+    /**
+     * @param startDistance   the distance in meters at the start of each period
+     * @param minimumDistance the distance in meters at which the user stops
+     * @param speed           the speed in meters per second
+     * @param period          the duration of one approach in milliseconds
+     * @param offset          the time in milliseconds that the first period is shifted by
+     */
+    public ApproachMovement(double startDistance, double minimumDistance, double speed, long period, long offset) {
+        if (startDistance < minimumDistance || minimumDistance < 0) {
+            throw new IllegalArgumentException("Invalid distances");
+        }
+        if (speed <= 0 || period <= 0) {
+            throw new IllegalArgumentException("Speed and period must be positive");
+        }
+        this.startDistance = startDistance;
+        this.minimumDistance = minimumDistance;
+        this.speed = speed;
+        this.period = period;
+        this.offset = offset;
+    }
+
+    @Override
+    public double getDistance(long time) {
+        long timeInPeriod = (((time + offset) % period) + period) % period;
+        return Math.max(minimumDistance, startDistance - speed * timeInPeriod / 1000);
+    }
+
+}
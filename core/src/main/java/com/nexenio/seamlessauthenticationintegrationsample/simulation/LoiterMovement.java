@@ -0,0 +1,42 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+/**
+ * The user lingers around the authenticator, moving back and forth around a center distance.
+ */
+public class LoiterMovement implements MovementModel {
+
+    private final double centerDistance;
+
+    private final double amplitude;
+
+    private final long period;
+
+    private final long offset;
+
+    /**
+     * @param centerDistance the mean distance in meters
+     * @param amplitude      the maximum deviation from the mean distance in meters
+     * @param period         the duration of one back and forth movement in milliseconds
+     * @param offset         the time in milliseconds that the movement is shifted by
+     */
+    public LoiterMovement(double centerDistance, double amplitude, long period, long offset) {
+        if (centerDistance < 0 || amplitude < 0) {
+            throw new IllegalArgumentException("Distances must not be negative");
+        }
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.centerDistance = centerDistance;
+        this.amplitude = amplitude;
+        this.period = period;
+        this.offset = offset;
+    }
+
+    @Override
+    public double getDistance(long time) {
+        long timeInPeriod = (((time + offset) % period) + period) % period;
+        double phase = 2 * Math.PI * timeInPeriod / period;
+        return Math.max(0, centerDistance + amplitude * Math.sin(phase));
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+/**
+ * Describes how the distance between the user and a simulated authenticator changes over time.
+ * Implementations are stateless and deterministic, the same time always yields the same distance.
+ */
+public interface MovementModel {
+
+    /**
+     * @param time the time in milliseconds since the start of the simulation
+     * @return the distance in meters, never negative
+     */
+    double getDistance(long time);
+
+}
@@ -0,0 +1,58 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import java.util.Random;
+
+/**
+ * The latency and failure rate of a {@link SimulatedOperation}.
+ */
+public final class OperationProfile {
+
+    /**
+     * Completes immediately and never fails.
+     */
+    public static final OperationProfile IMMEDIATE = new OperationProfile(0, 0, 0);
+
+    private final long latency;
+
+    private final long latencyJitter;
+
+    private final double failureRate;
+
+    /**
+     * @param latency       the minimum latency in milliseconds
+     * @param latencyJitter the maximum additional latency in milliseconds, uniformly distributed
+     * @param failureRate   the probability of a call failing, between 0 and 1
+     */
+    public OperationProfile(long latency, long latencyJitter, double failureRate) {
+        if (latency < 0 || latencyJitter < 0) {
+            throw new IllegalArgumentException("Latency must not be negative");
+        }
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Failure rate must be between 0 and 1");
+        }
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+        this.failureRate = failureRate;
+    }
+
+    long nextLatency(Random random) {
+        return latencyJitter > 0 ? latency + (long) (random.nextDouble() * latencyJitter) : latency;
+    }
+
+    boolean nextFailure(Random random) {
+        return failureRate > 0 && random.nextDouble() < failureRate;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public long getLatencyJitter() {
+        return latencyJitter;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+/**
+ * The user walks past the authenticator on a straight line with a constant speed, being closest in
+ * the middle of each period.
+ */
+public class PassByMovement implements MovementModel {
+
+    private final double closestDistance;
+
+    private final double speed;
+
+    private final long period;
+
+    private final long offset;
+
+    /**
+     * @param closestDistance the distance in meters between the line and the authenticator
+     * @param speed           the speed in meters per second
+     * @param period          the duration of one pass in milliseconds
+     * @param offset          the time in milliseconds that the first period is shifted by
+     */
+    public PassByMovement(double closestDistance, double speed, long period, long offset) {
+        if (closestDistance < 0) {
+            throw new IllegalArgumentException("Closest distance must not be negative");
+        }
+        if (speed <= 0 || period <= 0) {
+            throw new IllegalArgumentException("Speed and period must be positive");
+        }
+        this.closestDistance = closestDistance;
+        this.speed = speed;
+        this.period = period;
+        this.offset = offset;
+    }
+
+    @Override
+    public double getDistance(long time) {
+        long timeInPeriod = (((time + offset) % period) + period) % period;
+        double position = speed * (timeInPeriod - period / 2) / 1000;
+        return Math.hypot(closestDistance, position);
+    }
+
+}
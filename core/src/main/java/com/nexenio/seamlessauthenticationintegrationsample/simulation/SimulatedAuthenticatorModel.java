@@ -0,0 +1,109 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import java.util.Random;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The state of a single simulated authenticator. Everything except the injected latencies and
+ * failures is derived from the simulation time, so it can be queried from any thread.
+ */
+public class SimulatedAuthenticatorModel {
+
+    /**
+     * The time span in milliseconds used to determine whether the user is approaching.
+     */
+    private static final long DIRECTION_TIME_SPAN = 250;
+
+    @NonNull
+    private final UUID id;
+
+    @NonNull
+    private final String name;
+
+    private final int gatewaysCount;
+
+    private final int closestGatewayIndex;
+
+    @NonNull
+    private final MovementModel movementModel;
+
+    @NonNull
+    private final SimulationConfiguration configuration;
+
+    @NonNull
+    private final Random random;
+
+    SimulatedAuthenticatorModel(@NonNull UUID id, @NonNull String name, int gatewaysCount, int closestGatewayIndex,
+                                @NonNull MovementModel movementModel, @NonNull SimulationConfiguration configuration, long seed) {
+        this.id = id;
+        this.name = name;
+        this.gatewaysCount = gatewaysCount;
+        this.closestGatewayIndex = closestGatewayIndex;
+        this.movementModel = movementModel;
+        this.configuration = configuration;
+        this.random = new Random(seed);
+    }
+
+    @NonNull
+    public UUID getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public boolean isGate() {
+        return gatewaysCount > 0;
+    }
+
+    /**
+     * @return the number of gateways, or 0 if the authenticator is not a gate
+     */
+    public int getGatewaysCount() {
+        return gatewaysCount;
+    }
+
+    public int getClosestGatewayIndex() {
+        return closestGatewayIndex;
+    }
+
+    /**
+     * @param time the time in milliseconds since the start of the simulation
+     */
+    public double getDistance(long time) {
+        return movementModel.getDistance(time);
+    }
+
+    /**
+     * @param time the time in milliseconds since the start of the simulation
+     * @return true if the distance is currently decreasing
+     */
+    public boolean isApproaching(long time) {
+        return movementModel.getDistance(time) < movementModel.getDistance(time - DIRECTION_TIME_SPAN);
+    }
+
+    /**
+     * @return the latency in milliseconds that should be injected into the next call of the
+     * specified operation
+     */
+    public synchronized long nextLatency(@NonNull SimulatedOperation operation) {
+        return configuration.getOperationProfile(operation).nextLatency(random);
+    }
+
+    /**
+     * @return true if the next call of the specified operation should fail
+     */
+    public synchronized boolean nextFailure(@NonNull SimulatedOperation operation) {
+        return configuration.getOperationProfile(operation).nextFailure(random);
+    }
+
+    @NonNull
+    public MovementModel getMovementModel() {
+        return movementModel;
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+/**
+ * The calls of a simulated authenticator that latency and failures can be injected into.
+ */
+public enum SimulatedOperation {
+
+    GET_ID,
+    GET_NAME,
+    GET_DISTANCE,
+    ANTICIPATE_AUTHENTICATION,
+    AUTHENTICATE
+
+}
@@ -0,0 +1,97 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A deterministic set of simulated authenticators, created from a {@link SimulationConfiguration}.
+ * The same configuration always results in the same authenticators, so load tests are
+ * reproducible.
+ */
+public class Simulation {
+
+    @NonNull
+    private final SimulationConfiguration configuration;
+
+    @NonNull
+    private final List<SimulatedAuthenticatorModel> authenticators;
+
+    public Simulation(@NonNull SimulationConfiguration configuration) {
+        this.configuration = configuration;
+        this.authenticators = Collections.unmodifiableList(createAuthenticators(configuration));
+    }
+
+    private static List<SimulatedAuthenticatorModel> createAuthenticators(@NonNull SimulationConfiguration configuration) {
+        Random random = new Random(configuration.getSeed());
+        List<SimulatedAuthenticatorModel> authenticators = new ArrayList<>(configuration.getAuthenticatorCount());
+        for (int i = 0; i < configuration.getAuthenticatorCount(); i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            int gatewaysCount = 0;
+            int closestGatewayIndex = 0;
+            String name;
+            if (random.nextDouble() < configuration.getGateRatio()) {
+                gatewaysCount = 1 + random.nextInt(configuration.getMaximumGatewaysCount());
+                closestGatewayIndex = random.nextInt(gatewaysCount);
+                name = String.format(Locale.US, "Simulated %s %d", gatewaysCount > 1 ? "Gate" : "Door", i + 1);
+            } else {
+                name = String.format(Locale.US, "Simulated Authenticator %d", i + 1);
+            }
+            MovementModel movementModel = createMovementModel(configuration, random);
+            authenticators.add(new SimulatedAuthenticatorModel(id, name, gatewaysCount, closestGatewayIndex,
+                    movementModel, configuration, random.nextLong()));
+        }
+        return authenticators;
+    }
+
+    private static MovementModel createMovementModel(@NonNull SimulationConfiguration configuration, @NonNull Random random) {
+        double totalWeight = configuration.getApproachWeight() + configuration.getPassByWeight() + configuration.getLoiterWeight();
+        double value = random.nextDouble() * totalWeight;
+        long period = 20_000 + random.nextInt(40_000);
+        long offset = random.nextInt((int) period);
+        double speed = 0.8 + random.nextDouble() * 0.8;
+        if (value < configuration.getApproachWeight()) {
+            double startDistance = 10 + random.nextDouble() * 15;
+            double minimumDistance = 0.3 + random.nextDouble() * 0.7;
+            return new ApproachMovement(startDistance, minimumDistance, speed, period, offset);
+        } else if (value < configuration.getApproachWeight() + configuration.getPassByWeight()) {
+            double closestDistance = 0.5 + random.nextDouble() * 7.5;
+            return new PassByMovement(closestDistance, speed, period, offset);
+        } else {
+            double centerDistance = 1 + random.nextDouble() * 9;
+            double amplitude = 0.2 + random.nextDouble() * 2.8;
+            return new LoiterMovement(centerDistance, amplitude, period / 4, offset);
+        }
+    }
+
+    @NonNull
+    public SimulationConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    @NonNull
+    public List<SimulatedAuthenticatorModel> getAuthenticators() {
+        return authenticators;
+    }
+
+    /**
+     * @param time the time in milliseconds since the start of the simulation
+     * @return all authenticators that are within the detection range at the specified time
+     */
+    @NonNull
+    public List<SimulatedAuthenticatorModel> getAuthenticatorsInRange(long time) {
+        List<SimulatedAuthenticatorModel> authenticatorsInRange = new ArrayList<>();
+        for (SimulatedAuthenticatorModel authenticator : authenticators) {
+            if (authenticator.getDistance(time) <= configuration.getDetectionRange()) {
+                authenticatorsInRange.add(authenticator);
+            }
+        }
+        return authenticatorsInRange;
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Describes the authenticators of a {@link Simulation} and how they behave. Use the {@link
+ * Builder} to create instances, all values have sensible defaults.
+ */
+public final class SimulationConfiguration {
+
+    public static final int DEFAULT_AUTHENTICATOR_COUNT = 100;
+
+    public static final double DEFAULT_DETECTION_RANGE = 15;
+
+    public static final long DEFAULT_DETECTION_INTERVAL = 500;
+
+    public static final double DEFAULT_GATE_RATIO = 0.5;
+
+    public static final int DEFAULT_MAXIMUM_GATEWAYS_COUNT = 4;
+
+    private final int authenticatorCount;
+
+    private final long seed;
+
+    private final double detectionRange;
+
+    private final long detectionInterval;
+
+    private final double gateRatio;
+
+    private final int maximumGatewaysCount;
+
+    private final double approachWeight;
+
+    private final double passByWeight;
+
+    private final double loiterWeight;
+
+    @NonNull
+    private final Map<SimulatedOperation, OperationProfile> operationProfiles;
+
+    private SimulationConfiguration(@NonNull Builder builder) {
+        this.authenticatorCount = builder.authenticatorCount;
+        this.seed = builder.seed;
+        this.detectionRange = builder.detectionRange;
+        this.detectionInterval = builder.detectionInterval;
+        this.gateRatio = builder.gateRatio;
+        this.maximumGatewaysCount = builder.maximumGatewaysCount;
+        this.approachWeight = builder.approachWeight;
+        this.passByWeight = builder.passByWeight;
+        this.loiterWeight = builder.loiterWeight;
+        this.operationProfiles = Collections.unmodifiableMap(new EnumMap<>(builder.operationProfiles));
+    }
+
+    public int getAuthenticatorCount() {
+        return authenticatorCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the distance in meters up to which authenticators get detected
+     */
+    public double getDetectionRange() {
+        return detectionRange;
+    }
+
+    /**
+     * @return the interval in milliseconds in which authenticators in range get detected
+     */
+    public long getDetectionInterval() {
+        return detectionInterval;
+    }
+
+    /**
+     * @return the ratio of authenticators that are gates
+     */
+    public double getGateRatio() {
+        return gateRatio;
+    }
+
+    public int getMaximumGatewaysCount() {
+        return maximumGatewaysCount;
+    }
+
+    public double getApproachWeight() {
+        return approachWeight;
+    }
+
+    public double getPassByWeight() {
+        return passByWeight;
+    }
+
+    public double getLoiterWeight() {
+        return loiterWeight;
+    }
+
+    @NonNull
+    public OperationProfile getOperationProfile(@NonNull SimulatedOperation operation) {
+        OperationProfile operationProfile = operationProfiles.get(operation);
+        return operationProfile != null ? operationProfile : OperationProfile.IMMEDIATE;
+    }
+
+    public static final class Builder {
+
+        private int authenticatorCount = DEFAULT_AUTHENTICATOR_COUNT;
+        private long seed = 0;
+        private double detectionRange = DEFAULT_DETECTION_RANGE;
+        private long detectionInterval = DEFAULT_DETECTION_INTERVAL;
+        private double gateRatio = DEFAULT_GATE_RATIO;
+        private int maximumGatewaysCount = DEFAULT_MAXIMUM_GATEWAYS_COUNT;
+        private double approachWeight = 1;
+        private double passByWeight = 1;
+        private double loiterWeight = 1;
+        private final Map<SimulatedOperation, OperationProfile> operationProfiles = new EnumMap<>(SimulatedOperation.class);
+
+        public Builder() {
+            operationProfiles.put(SimulatedOperation.GET_ID, new OperationProfile(5, 20, 0));
+            operationProfiles.put(SimulatedOperation.GET_NAME, new OperationProfile(5, 20, 0));
+            operationProfiles.put(SimulatedOperation.GET_DISTANCE, new OperationProfile(2, 10, 0));
+            operationProfiles.put(SimulatedOperation.ANTICIPATE_AUTHENTICATION, new OperationProfile(200, 300, 0.05));
+            operationProfiles.put(SimulatedOperation.AUTHENTICATE, new OperationProfile(300, 500, 0.05));
+        }
+
+        public Builder setAuthenticatorCount(int authenticatorCount) {
+            if (authenticatorCount < 0) {
+                throw new IllegalArgumentException("Authenticator count must not be negative");
+            }
+            this.authenticatorCount = authenticatorCount;
+            return this;
+        }
+
+        /**
+         * Simulations created from configurations with the same seed contain the same
+         * authenticators with the same movements.
+         */
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder setDetectionRange(double detectionRange) {
+            if (detectionRange <= 0) {
+                throw new IllegalArgumentException("Detection range must be positive");
+            }
+            this.detectionRange = detectionRange;
+            return this;
+        }
+
+        public Builder setDetectionInterval(long detectionInterval) {
+            if (detectionInterval <= 0) {
+                throw new IllegalArgumentException("Detection interval must be positive");
+            }
+            this.detectionInterval = detectionInterval;
+            return this;
+        }
+
+        public Builder setGateRatio(double gateRatio) {
+            if (gateRatio < 0 || gateRatio > 1) {
+                throw new IllegalArgumentException("Gate ratio must be between 0 and 1");
+            }
+            this.gateRatio = gateRatio;
+            return this;
+        }
+
+        public Builder setMaximumGatewaysCount(int maximumGatewaysCount) {
+            if (maximumGatewaysCount < 1) {
+                throw new IllegalArgumentException("Gates need at least one gateway");
+            }
+            this.maximumGatewaysCount = maximumGatewaysCount;
+            return this;
+        }
+
+        /**
+         * Sets the relative frequencies of the movement models that get assigned to the
+         * authenticators.
+         */
+        public Builder setMovementWeights(double approachWeight, double passByWeight, double loiterWeight) {
+            if (approachWeight < 0 || passByWeight < 0 || loiterWeight < 0
+                    || approachWeight + passByWeight + loiterWeight <= 0) {
+                throw new IllegalArgumentException("Invalid movement weights");
+            }
+            this.approachWeight = approachWeight;
+            this.passByWeight = passByWeight;
+            this.loiterWeight = loiterWeight;
+            return this;
+        }
+
+        public Builder setOperationProfile(@NonNull SimulatedOperation operation, @NonNull OperationProfile operationProfile) {
+            operationProfiles.put(operation, operationProfile);
+            return this;
+        }
+
+        public SimulationConfiguration build() {
+            return new SimulationConfiguration(this);
+        }
+
+    }
+
+}
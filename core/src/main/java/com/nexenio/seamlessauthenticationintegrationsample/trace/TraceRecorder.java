@@ -0,0 +1,219 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A {@link TraceSink} that records trace events in memory, so that traces can be captured without
+ * the system tracing tools, e.g. in unit tests or simulation runs.
+ *
+ * Keeps the most recent events up to a maximum count. Recorded events can be written in the JSON
+ * trace event format, which can be opened in Perfetto or chrome://tracing. Timestamps are taken
+ * from {@link System#nanoTime()}. Thread-safe.
+ */
+public class TraceRecorder implements TraceSink {
+
+    public static final int DEFAULT_MAXIMUM_EVENT_COUNT = 100_000;
+
+    private static final char PHASE_BEGIN = 'B';
+    private static final char PHASE_END = 'E';
+    private static final char PHASE_ASYNC_BEGIN = 'b';
+    private static final char PHASE_ASYNC_END = 'e';
+
+    private final int maximumEventCount;
+
+    private final ArrayDeque<TraceEvent> events = new ArrayDeque<>();
+
+    private long droppedEventCount;
+
+    public TraceRecorder() {
+        this(DEFAULT_MAXIMUM_EVENT_COUNT);
+    }
+
+    public TraceRecorder(int maximumEventCount) {
+        if (maximumEventCount <= 0) {
+            throw new IllegalArgumentException("Maximum event count must be positive");
+        }
+        this.maximumEventCount = maximumEventCount;
+    }
+
+    @Override
+    public void beginSection(@NonNull String name) {
+        record(PHASE_BEGIN, name, 0);
+    }
+
+    @Override
+    public void endSection() {
+        record(PHASE_END, null, 0);
+    }
+
+    @Override
+    public void beginAsyncSection(@NonNull String name, int cookie) {
+        record(PHASE_ASYNC_BEGIN, name, cookie);
+    }
+
+    @Override
+    public void endAsyncSection(@NonNull String name, int cookie) {
+        record(PHASE_ASYNC_END, name, cookie);
+    }
+
+    private void record(char phase, String name, int cookie) {
+        Thread thread = Thread.currentThread();
+        TraceEvent event = new TraceEvent(phase, name, cookie, thread.getId(), thread.getName(), System.nanoTime());
+        synchronized (events) {
+            if (events.size() == maximumEventCount) {
+                events.removeFirst();
+                droppedEventCount++;
+            }
+            events.addLast(event);
+        }
+    }
+
+    public void clear() {
+        synchronized (events) {
+            events.clear();
+            droppedEventCount = 0;
+        }
+    }
+
+    /**
+     * @return the number of recorded events that have been dropped to stay within the maximum
+     * event count
+     */
+    public long getDroppedEventCount() {
+        synchronized (events) {
+            return droppedEventCount;
+        }
+    }
+
+    /**
+     * @return the recorded events, oldest first
+     */
+    @NonNull
+    public List<TraceEvent> getEvents() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+    /**
+     * Writes the recorded events in the JSON trace event format.
+     */
+    public void writeJson(@NonNull Writer writer) throws IOException {
+        List<TraceEvent> events = getEvents();
+        writer.write("{\"traceEvents\":[");
+        for (int eventIndex = 0; eventIndex < events.size(); eventIndex++) {
+            if (eventIndex > 0) {
+                writer.write(',');
+            }
+            writer.write(System.lineSeparator());
+            writeJson(events.get(eventIndex), writer);
+        }
+        writer.write(System.lineSeparator());
+        writer.write("]}");
+        writer.flush();
+    }
+
+    private static void writeJson(@NonNull TraceEvent event, @NonNull Writer writer) throws IOException {
+        writer.write(String.format(Locale.US, "{\"ph\":\"%c\",\"ts\":%.3f,\"pid\":1,\"tid\":%d",
+                event.getPhase(), event.getTimestamp() / 1000d, event.getThreadId()));
+        if (event.getName() != null) {
+            writer.write(",\"name\":\"");
+            writer.write(escape(event.getName()));
+            writer.write('"');
+        }
+        if (event.isAsync()) {
+            writer.write(String.format(Locale.US, ",\"cat\":\"async\",\"id\":\"0x%x\"", event.getCookie()));
+        }
+        writer.write(",\"args\":{\"thread\":\"");
+        writer.write(escape(event.getThreadName()));
+        writer.write("\"}}");
+    }
+
+    @NonNull
+    private static String escape(@NonNull String value) {
+        StringBuilder stringBuilder = new StringBuilder(value.length());
+        for (int charIndex = 0; charIndex < value.length(); charIndex++) {
+            char character = value.charAt(charIndex);
+            if (character == '"' || character == '\\') {
+                stringBuilder.append('\\').append(character);
+            } else if (character < 0x20) {
+                stringBuilder.append(String.format(Locale.US, "\\u%04x", (int) character));
+            } else {
+                stringBuilder.append(character);
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    public static final class TraceEvent {
+
+        private final char phase;
+
+        private final String name;
+
+        private final int cookie;
+
+        private final long threadId;
+
+        private final String threadName;
+
+        private final long timestamp;
+
+        TraceEvent(char phase, String name, int cookie, long threadId, @NonNull String threadName, long timestamp) {
+            this.phase = phase;
+            this.name = name;
+            this.cookie = cookie;
+            this.threadId = threadId;
+            this.threadName = threadName;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * @return the phase in the trace event format, 'B' and 'E' for sections and 'b' and 'e'
+         * for async sections
+         */
+        public char getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the name of the section, or null for the end of a section
+         */
+        public String getName() {
+            return name;
+        }
+
+        public int getCookie() {
+            return cookie;
+        }
+
+        public boolean isAsync() {
+            return phase == PHASE_ASYNC_BEGIN || phase == PHASE_ASYNC_END;
+        }
+
+        public long getThreadId() {
+            return threadId;
+        }
+
+        @NonNull
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * @return the {@link System#nanoTime()} of the event
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+    }
+
+}
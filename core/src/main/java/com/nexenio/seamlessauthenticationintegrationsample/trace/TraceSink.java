@@ -0,0 +1,22 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trace;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives the trace events of {@link Tracing} while tracing is enabled, e.g. to forward them to
+ * the system trace or to record them.
+ *
+ * Sections are nested per thread and begin and end on the same thread. Async sections can begin
+ * and end on different threads and are identified by their name and cookie.
+ */
+public interface TraceSink {
+
+    void beginSection(@NonNull String name);
+
+    void endSection();
+
+    void beginAsyncSection(@NonNull String name, int cookie);
+
+    void endAsyncSection(@NonNull String name, int cookie);
+
+}
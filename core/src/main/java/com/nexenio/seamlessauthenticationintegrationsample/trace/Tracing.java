@@ -0,0 +1,155 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trace;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Marks the stages of the detection to authentication path as trace sections, which are forwarded
+ * to all {@link TraceSink}s while tracing is enabled.
+ *
+ * Tracing can be toggled at runtime. While it's disabled, every begin only reads a volatile field,
+ * so instrumented code doesn't need to check {@link #isEnabled()} itself. Instead, each begin
+ * reports whether the section has begun and only those sections get ended, so that toggling
+ * tracing never reports a section without its begin or end.
+ *
+ * Async sections get a cookie per section, so that concurrent stages show up as separate slices,
+ * also if they belong to the same authenticator.
+ */
+public final class Tracing {
+
+    /**
+     * Returned instead of a cookie if an async section hasn't begun.
+     */
+    public static final int NO_COOKIE = 0;
+
+    private static final AtomicInteger cookieCount = new AtomicInteger();
+
+    private static volatile boolean enabled;
+
+    private static volatile TraceSink[] sinks = new TraceSink[0];
+
+    private Tracing() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Tracing.enabled = enabled;
+    }
+
+    public static synchronized void addSink(@NonNull TraceSink sink) {
+        TraceSink[] newSinks = new TraceSink[sinks.length + 1];
+        System.arraycopy(sinks, 0, newSinks, 0, sinks.length);
+        newSinks[sinks.length] = sink;
+        sinks = newSinks;
+    }
+
+    public static synchronized void removeSink(@NonNull TraceSink sink) {
+        TraceSink[] currentSinks = sinks;
+        for (int sinkIndex = 0; sinkIndex < currentSinks.length; sinkIndex++) {
+            if (currentSinks[sinkIndex] == sink) {
+                TraceSink[] newSinks = new TraceSink[currentSinks.length - 1];
+                System.arraycopy(currentSinks, 0, newSinks, 0, sinkIndex);
+                System.arraycopy(currentSinks, sinkIndex + 1, newSinks, sinkIndex, currentSinks.length - sinkIndex - 1);
+                sinks = newSinks;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Begins a section on the current thread, which must be ended on the same thread.
+     *
+     * @return true if the section has begun and has to be ended with {@link #endSection()}, false
+     * if tracing is disabled
+     */
+    public static boolean beginSection(@NonNull String name) {
+        if (!enabled) {
+            return false;
+        }
+        for (TraceSink sink : sinks) {
+            sink.beginSection(name);
+        }
+        return true;
+    }
+
+    /**
+     * Ends the last section that has been begun on the current thread. Must only be called if
+     * {@link #beginSection(String)} returned true, even if tracing has been disabled since.
+     */
+    public static void endSection() {
+        for (TraceSink sink : sinks) {
+            sink.endSection();
+        }
+    }
+
+    /**
+     * Begins a section of the specified authenticator, which may end on another thread.
+     *
+     * @return the cookie to end the section with, or {@link #NO_COOKIE} if tracing is disabled
+     */
+    public static int beginAsyncSection(@NonNull String name, @NonNull UUID id) {
+        if (!enabled) {
+            return NO_COOKIE;
+        }
+        return beginAsyncSection(getAsyncSectionName(name, id));
+    }
+
+    /**
+     * Ends the section of the specified authenticator that has been begun with the specified
+     * cookie. Does nothing for {@link #NO_COOKIE}.
+     */
+    public static void endAsyncSection(@NonNull String name, @NonNull UUID id, int cookie) {
+        if (cookie == NO_COOKIE) {
+            return;
+        }
+        endAsyncSection(getAsyncSectionName(name, id), cookie);
+    }
+
+    /**
+     * Begins a section that may end on another thread. Every section gets its own cookie, so that
+     * sections with the same name can overlap.
+     *
+     * @return the cookie to end the section with, or {@link #NO_COOKIE} if tracing is disabled
+     */
+    public static int beginAsyncSection(@NonNull String name) {
+        if (!enabled) {
+            return NO_COOKIE;
+        }
+        int cookie = cookieCount.incrementAndGet();
+        if (cookie == NO_COOKIE) {
+            cookie = cookieCount.incrementAndGet();
+        }
+        for (TraceSink sink : sinks) {
+            sink.beginAsyncSection(name, cookie);
+        }
+        return cookie;
+    }
+
+    /**
+     * Ends the section that has been begun with the specified cookie. Does nothing for {@link
+     * #NO_COOKIE}.
+     */
+    public static void endAsyncSection(@NonNull String name, int cookie) {
+        if (cookie == NO_COOKIE) {
+            return;
+        }
+        for (TraceSink sink : sinks) {
+            sink.endAsyncSection(name, cookie);
+        }
+    }
+
+    /**
+     * @return the name followed by the first block of the ID, short enough for the system trace
+     */
+    @NonNull
+    private static String getAsyncSectionName(@NonNull String name, @NonNull UUID id) {
+        String idString = id.toString();
+        return name + ' ' + idString.substring(0, idString.indexOf('-'));
+    }
+
+}
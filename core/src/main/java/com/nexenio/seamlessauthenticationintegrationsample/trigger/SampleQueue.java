@@ -0,0 +1,166 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Collects detected items until they get sampled and decides which of them to sample, so that the
+ * number of samples is bounded without starving the items that matter.
+ *
+ * Items that are detected multiple times before the next drain are sampled once. A drain samples
+ * all priority items, e.g. the authenticators that the user is close to, and spends the remaining
+ * budget on the other items, least recently sampled first. The other items are dropped, they get
+ * their turn with one of the next drains.
+ *
+ * Items are compared by identity. {@link #offer(Object)} may be called from any thread, {@link
+ * #drain(List, int, Prioritizer)} must not be called concurrently. Draining doesn't allocate once
+ * the buffers have grown to the number of distinct items.
+ */
+public class SampleQueue<T> {
+
+    public interface Prioritizer<T> {
+
+        /**
+         * @return true if the item must be sampled regardless of the budget
+         */
+        boolean isPriority(@NonNull T item);
+
+        /**
+         * @return the time the item has been sampled last, or {@link Long#MIN_VALUE} if it never
+         * has been
+         */
+        long getLastSampleTimestamp(@NonNull T item);
+
+    }
+
+    /**
+     * The items detected since the last drain, in the order they have been detected in. Guarded by
+     * this queue.
+     */
+    private List<T> pendingItems = new ArrayList<>();
+
+    private final Map<T, Boolean> pendingItemSet = new IdentityHashMap<>();
+
+    /**
+     * Swapped with the pending items when draining, owned by the draining thread.
+     */
+    private List<T> drainingItems = new ArrayList<>();
+
+    private Object[] otherItems = new Object[16];
+
+    private long[] otherTimestamps = new long[16];
+
+    /**
+     * Adds the specified item, unless it's already pending.
+     *
+     * @return true if the queue was empty before, so that a drain has to be scheduled
+     */
+    public synchronized boolean offer(@NonNull T item) {
+        if (pendingItemSet.put(item, Boolean.TRUE) != null) {
+            return false;
+        }
+        pendingItems.add(item);
+        return pendingItems.size() == 1;
+    }
+
+    /**
+     * Removes all pending items and adds the ones that should be sampled now to the specified list:
+     * all priority items, in the order they have been detected in, followed by as many other items
+     * as the budget leaves room for, least recently sampled first.
+     *
+     * @param samples receives the items to sample
+     * @param budget  the number of items to sample, exceeded only by priority items
+     * @return the number of items that have been dropped
+     */
+    public int drain(@NonNull List<T> samples, int budget, @NonNull Prioritizer<T> prioritizer) {
+        List<T> items;
+        synchronized (this) {
+            items = pendingItems;
+            pendingItems = drainingItems;
+            drainingItems = items;
+            pendingItemSet.clear();
+        }
+        int otherCount = 0;
+        for (int index = 0; index < items.size(); index++) {
+            T item = items.get(index);
+            if (prioritizer.isPriority(item)) {
+                samples.add(item);
+                continue;
+            }
+            if (otherCount == otherItems.length) {
+                otherItems = Arrays.copyOf(otherItems, otherCount * 2);
+                otherTimestamps = Arrays.copyOf(otherTimestamps, otherCount * 2);
+            }
+            otherItems[otherCount] = item;
+            otherTimestamps[otherCount] = prioritizer.getLastSampleTimestamp(item);
+            otherCount++;
+        }
+        items.clear();
+
+        int sampledOtherCount = Math.max(0, Math.min(otherCount, budget - samples.size()));
+        if (sampledOtherCount < otherCount) {
+            selectLeastRecentlySampled(otherCount, sampledOtherCount);
+        }
+        for (int index = 0; index < sampledOtherCount; index++) {
+            samples.add(getOtherItem(index));
+        }
+        Arrays.fill(otherItems, 0, otherCount, null);
+        return otherCount - sampledOtherCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getOtherItem(int index) {
+        return (T) otherItems[index];
+    }
+
+    /**
+     * Moves the specified number of least recently sampled items to the start of the other items,
+     * in linear time on average.
+     */
+    private void selectLeastRecentlySampled(int count, int selectedCount) {
+        int left = 0;
+        int right = count - 1;
+        while (left < right) {
+            long pivot = otherTimestamps[(left + right) >>> 1];
+            int low = left;
+            int high = right;
+            while (low <= high) {
+                while (otherTimestamps[low] < pivot) {
+                    low++;
+                }
+                while (otherTimestamps[high] > pivot) {
+                    high--;
+                }
+                if (low <= high) {
+                    swap(low++, high--);
+                }
+            }
+            if (selectedCount - 1 <= high) {
+                right = high;
+            } else if (selectedCount - 1 >= low) {
+                left = low;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int first, int second) {
+        Object item = otherItems[first];
+        otherItems[first] = otherItems[second];
+        otherItems[second] = item;
+        long timestamp = otherTimestamps[first];
+        otherTimestamps[first] = otherTimestamps[second];
+        otherTimestamps[second] = timestamp;
+    }
+
+    public synchronized int size() {
+        return pendingItems.size();
+    }
+
+}
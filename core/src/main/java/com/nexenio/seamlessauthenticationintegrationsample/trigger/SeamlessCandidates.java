@@ -0,0 +1,306 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Decides which of many authenticators should be authenticated seamlessly, based on distance
+ * samples of all of them.
+ *
+ * Every authenticator has its own {@link SeamlessTrigger}, optionally with its own range
+ * threshold. The authenticators are kept ordered by their smoothed distance relative to their
+ * range threshold, and the order is updated incrementally with every sample. That way, a sample
+ * costs O(log n) regardless of how many authenticators are detected.
+ *
+ * If the trigger of an authenticator fires while another authenticator is in range and nearer
+ * (relative to its range threshold), the trigger is suppressed. That way, walking up to one of
+ * several adjacent gates doesn't authenticate the neighbouring ones. A suppressed trigger stays
+ * armed, so that it fires as soon as its authenticator becomes the nearest one, e.g. when the user
+ * steps over from one gate to the next.
+ *
+ * Authenticators that didn't provide a sample for longer than {@link
+ * SeamlessTrigger#MAXIMUM_SAMPLE_GAP} are dropped. To keep the authenticators that matter from
+ * being dropped when not all of them can be sampled, {@link #isPriority(UUID, long)} tells which
+ * ones should always be sampled.
+ *
+ * This class has no Android dependencies. It's thread-safe, but samples of each authenticator are
+ * expected to be provided in chronological order.
+ */
+public class SeamlessCandidates {
+
+    /**
+     * Authenticators within this distance in meters beyond their range threshold should always be
+     * sampled. A user walking at 1.5 m/s needs more than 3 s to get in range from there, enough for
+     * the other authenticators to get their turn in the meantime.
+     */
+    public static final double DEFAULT_PRIORITY_MARGIN = 5;
+
+    private static final UUID MAXIMUM_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private static final Comparator<Candidate> CANDIDATE_COMPARATOR = (first, second) -> {
+        int comparison = Double.compare(first.slack, second.slack);
+        return comparison != 0 ? comparison : first.id.compareTo(second.id);
+    };
+
+    private double defaultRangeThreshold;
+
+    private final Map<UUID, Double> rangeThresholds = new HashMap<>();
+
+    private final Map<UUID, Candidate> candidates = new HashMap<>();
+
+    /**
+     * The candidates that have received a sample, ordered by their slack.
+     */
+    private final TreeSet<Candidate> orderedCandidates = new TreeSet<>(CANDIDATE_COMPARATOR);
+
+    /**
+     * Used to query the candidates that are in range, without allocating.
+     */
+    private final Candidate inRangeBound = new Candidate(MAXIMUM_ID, null);
+
+    private long triggeredCount;
+
+    private long suppressedCount;
+
+    /**
+     * @param defaultRangeThreshold the distance in meters below which authentication should happen,
+     *                              unless specified otherwise for an authenticator
+     */
+    public SeamlessCandidates(double defaultRangeThreshold) {
+        this.defaultRangeThreshold = defaultRangeThreshold;
+    }
+
+    /**
+     * Updates the estimates of the specified authenticator with the specified sample.
+     *
+     * @param distance  the measured distance in meters
+     * @param timestamp the time of the measurement in milliseconds
+     * @return true if the specified authenticator should be authenticated now
+     */
+    public synchronized boolean onDistanceSample(@NonNull UUID id, double distance, long timestamp) {
+        Candidate candidate = candidates.get(id);
+        if (candidate == null) {
+            if (Double.isNaN(distance) || Double.isInfinite(distance)) {
+                return false;
+            }
+            candidate = new Candidate(id, new SeamlessTrigger(getRangeThreshold(id)));
+            candidates.put(id, candidate);
+        }
+
+        boolean ordered = orderedCandidates.remove(candidate);
+        boolean triggered = candidate.trigger.onDistanceSample(distance, timestamp);
+        double smoothedDistance = candidate.trigger.getSmoothedDistance();
+        if (!Double.isNaN(smoothedDistance)) {
+            candidate.slack = smoothedDistance - candidate.trigger.getRangeThreshold();
+            candidate.timestamp = timestamp;
+            if (!Double.isNaN(distance) && !Double.isInfinite(distance)) {
+                candidate.distance = distance;
+            }
+            orderedCandidates.add(candidate);
+        } else if (ordered) {
+            orderedCandidates.add(candidate);
+        }
+
+        if (!triggered) {
+            return false;
+        }
+        Candidate nearestCandidate = getNearestCandidate(timestamp, candidate);
+        if (nearestCandidate != candidate && nearestCandidate.slack <= 0) {
+            candidate.trigger.rearm();
+            suppressedCount++;
+            return false;
+        }
+        triggeredCount++;
+        return true;
+    }
+
+    /**
+     * @return the ID of the authenticator that is nearest relative to its range threshold, or null
+     * if there is none
+     */
+    @Nullable
+    public synchronized UUID getNearestCandidate(long timestamp) {
+        Candidate nearestCandidate = getNearestCandidate(timestamp, null);
+        return nearestCandidate != null ? nearestCandidate.id : null;
+    }
+
+    /**
+     * @return true if the specified authenticator should be sampled even if not all authenticators
+     * can be, because it's within the {@link #DEFAULT_PRIORITY_MARGIN} of its range threshold or the
+     * nearest one. The last measured distance counts as well, as the smoothed distance lags behind
+     * while an authenticator is sampled rarely.
+     */
+    public synchronized boolean isPriority(@NonNull UUID id, long timestamp) {
+        Candidate candidate = candidates.get(id);
+        if (candidate == null || !orderedCandidates.contains(candidate) || isExpired(candidate, timestamp)) {
+            return false;
+        }
+        double slack = Math.min(candidate.slack, candidate.distance - candidate.trigger.getRangeThreshold());
+        return slack <= DEFAULT_PRIORITY_MARGIN || candidate == getNearestCandidate(timestamp, null);
+    }
+
+    /**
+     * @return the time of the last sample of the specified authenticator in milliseconds, or {@link
+     * Long#MIN_VALUE} if it didn't provide a sample or has been dropped
+     */
+    public synchronized long getLastSampleTimestamp(@NonNull UUID id) {
+        Candidate candidate = candidates.get(id);
+        return candidate != null ? candidate.timestamp : Long.MIN_VALUE;
+    }
+
+    /**
+     * @return the IDs of all authenticators whose smoothed distance is within their range
+     * threshold, nearest first
+     */
+    @NonNull
+    public synchronized List<UUID> getInRangeCandidates(long timestamp) {
+        List<UUID> ids = new ArrayList<>();
+        inRangeBound.slack = 0;
+        for (Candidate candidate : orderedCandidates.headSet(inRangeBound, true)) {
+            if (!isExpired(candidate, timestamp)) {
+                ids.add(candidate.id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the first candidate that is not expired, dropping expired ones along the way. The
+     * specified candidate is never dropped, as it just received a sample.
+     */
+    @Nullable
+    private Candidate getNearestCandidate(long timestamp, @Nullable Candidate retainedCandidate) {
+        Iterator<Candidate> iterator = orderedCandidates.iterator();
+        while (iterator.hasNext()) {
+            Candidate candidate = iterator.next();
+            if (candidate == retainedCandidate || !isExpired(candidate, timestamp)) {
+                return candidate;
+            }
+            iterator.remove();
+            candidates.remove(candidate.id);
+        }
+        return null;
+    }
+
+    private static boolean isExpired(@NonNull Candidate candidate, long timestamp) {
+        return timestamp - candidate.timestamp > SeamlessTrigger.MAXIMUM_SAMPLE_GAP;
+    }
+
+    /**
+     * Forgets all estimates of the specified authenticator, e.g. because it's not detected
+     * anymore. Its range threshold is retained.
+     */
+    public synchronized void remove(@NonNull UUID id) {
+        Candidate candidate = candidates.remove(id);
+        if (candidate != null) {
+            orderedCandidates.remove(candidate);
+        }
+    }
+
+    /**
+     * Forgets all estimates of all authenticators and re-arms their triggers.
+     */
+    public synchronized void clear() {
+        candidates.clear();
+        orderedCandidates.clear();
+    }
+
+    private double getRangeThreshold(@NonNull UUID id) {
+        Double rangeThreshold = rangeThresholds.get(id);
+        return rangeThreshold != null ? rangeThreshold : defaultRangeThreshold;
+    }
+
+    /**
+     * Sets the range threshold of the specified authenticator, which takes precedence over the
+     * default range threshold.
+     */
+    public synchronized void setRangeThreshold(@NonNull UUID id, double rangeThreshold) {
+        rangeThresholds.put(id, rangeThreshold);
+        updateRangeThreshold(candidates.get(id));
+    }
+
+    public synchronized double getDefaultRangeThreshold() {
+        return defaultRangeThreshold;
+    }
+
+    public synchronized void setDefaultRangeThreshold(double defaultRangeThreshold) {
+        this.defaultRangeThreshold = defaultRangeThreshold;
+        for (Candidate candidate : new ArrayList<>(candidates.values())) {
+            if (!rangeThresholds.containsKey(candidate.id)) {
+                updateRangeThreshold(candidate);
+            }
+        }
+    }
+
+    private void updateRangeThreshold(@Nullable Candidate candidate) {
+        if (candidate == null) {
+            return;
+        }
+        boolean ordered = orderedCandidates.remove(candidate);
+        double rangeThreshold = getRangeThreshold(candidate.id);
+        candidate.slack += candidate.trigger.getRangeThreshold() - rangeThreshold;
+        candidate.trigger.setRangeThreshold(rangeThreshold);
+        if (ordered) {
+            orderedCandidates.add(candidate);
+        }
+    }
+
+    /**
+     * @return the number of authenticators that received samples and have not been dropped
+     */
+    public synchronized int size() {
+        return candidates.size();
+    }
+
+    /**
+     * @return the number of triggers that should cause an authentication
+     */
+    public synchronized long getTriggeredCount() {
+        return triggeredCount;
+    }
+
+    /**
+     * @return the number of triggers that have been suppressed because another authenticator was
+     * in range and nearer. As suppressed triggers stay armed, this counts samples rather than
+     * approaches.
+     */
+    public synchronized long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    private static final class Candidate {
+
+        private final UUID id;
+
+        private final SeamlessTrigger trigger;
+
+        /**
+         * The smoothed distance minus the range threshold, negative if in range. Must not be
+         * changed while the candidate is ordered.
+         */
+        private double slack;
+
+        private long timestamp;
+
+        /**
+         * The last measured distance.
+         */
+        private double distance;
+
+        Candidate(@NonNull UUID id, SeamlessTrigger trigger) {
+            this.id = id;
+            this.trigger = trigger;
+        }
+
+    }
+
+}
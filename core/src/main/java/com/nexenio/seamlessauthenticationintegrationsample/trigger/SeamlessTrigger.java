@@ -0,0 +1,223 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+/**
+ * Decides when a seamless authentication should be started, based on distance samples of a single
+ * authenticator.
+ *
+ * Raw samples are smoothed with an alpha-beta filter, which also estimates the approach velocity.
+ * Residuals and velocities are limited to plausible values to reject outliers.
+ * The trigger fires if the smoothed distance is within the range threshold or if the user is
+ * approaching fast enough to reach the threshold within the expected authentication latency. That
+ * way the authentication completes about when the user arrives, instead of being started then.
+ *
+ * After firing, the trigger is disarmed until the smoothed distance exceeds the range threshold
+ * plus the hysteresis, so that noisy samples around the threshold don't cause repeated triggers.
+ *
+ * This class has no Android dependencies. It's thread-safe, but samples are expected to be
+ * provided in chronological order.
+ */
+public class SeamlessTrigger {
+
+    /**
+     * Default weight of the residual when correcting the distance estimate.
+     */
+    public static final double DEFAULT_ALPHA = 0.5;
+
+    /**
+     * Default weight of the residual when correcting the velocity estimate.
+     */
+    public static final double DEFAULT_BETA = 0.1;
+
+    public static final double DEFAULT_HYSTERESIS = 0.5;
+
+    public static final long DEFAULT_AUTHENTICATION_LATENCY = 500;
+
+    /**
+     * Velocities (in meters per second) below this value are not considered to be an approach.
+     */
+    public static final double MINIMUM_APPROACH_VELOCITY = 0.2;
+
+    /**
+     * Velocities (in meters per second) are limited to this value, as nobody walks up to a gate
+     * faster.
+     */
+    public static final double MAXIMUM_VELOCITY = 3;
+
+    /**
+     * Residuals (in meters) are limited to this value, so that single outliers can't cause a
+     * trigger.
+     */
+    public static final double MAXIMUM_RESIDUAL = 1;
+
+    /**
+     * Samples that are further apart than this duration (in milliseconds) reset the filter, as the
+     * previous estimates are not meaningful anymore.
+     */
+    public static final long MAXIMUM_SAMPLE_GAP = 5000;
+
+    /**
+     * The velocity correction treats samples as at least this duration (in milliseconds) apart.
+     * Detectors emit samples in bursts, and dividing the noise of two samples that are only
+     * milliseconds apart by their time delta would turn it into a velocity spike.
+     */
+    public static final long MINIMUM_VELOCITY_INTERVAL = 100;
+
+    private final double alpha;
+    private final double beta;
+    private final double hysteresis;
+
+    private double rangeThreshold;
+    private long authenticationLatency;
+
+    private boolean initialized;
+    private boolean armed = true;
+    private long lastTimestamp;
+    private double distance;
+    private double velocity;
+
+    public SeamlessTrigger(double rangeThreshold) {
+        this(rangeThreshold, DEFAULT_AUTHENTICATION_LATENCY, DEFAULT_HYSTERESIS, DEFAULT_ALPHA, DEFAULT_BETA);
+    }
+
+    /**
+     * @param rangeThreshold        the distance in meters below which authentication should
+     *                              happen
+     * @param authenticationLatency the expected duration of an authentication in milliseconds
+     * @param hysteresis            the distance in meters that the user has to move beyond the
+     *                              range threshold before the trigger can fire again
+     * @param alpha                 the distance correction gain of the filter, in (0, 1]
+     * @param beta                  the velocity correction gain of the filter, in [0, 1]
+     */
+    public SeamlessTrigger(double rangeThreshold, long authenticationLatency, double hysteresis, double alpha, double beta) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Alpha must be in (0, 1]");
+        }
+        if (beta < 0 || beta > 1) {
+            throw new IllegalArgumentException("Beta must be in [0, 1]");
+        }
+        if (hysteresis < 0) {
+            throw new IllegalArgumentException("Hysteresis must not be negative");
+        }
+        this.rangeThreshold = rangeThreshold;
+        this.authenticationLatency = authenticationLatency;
+        this.hysteresis = hysteresis;
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    /**
+     * Updates the estimates with the specified sample.
+     *
+     * @param distance  the measured distance in meters
+     * @param timestamp the time of the measurement in milliseconds
+     * @return true if authentication should be started now
+     */
+    public synchronized boolean onDistanceSample(double distance, long timestamp) {
+        if (Double.isNaN(distance) || Double.isInfinite(distance)) {
+            return false;
+        }
+
+        long timeDelta = timestamp - lastTimestamp;
+        if (!initialized || timeDelta > MAXIMUM_SAMPLE_GAP) {
+            this.distance = distance;
+            this.velocity = 0;
+            this.lastTimestamp = timestamp;
+            this.initialized = true;
+        } else if (timeDelta > 0) {
+            double seconds = timeDelta / 1000d;
+            double predictedDistance = this.distance + velocity * seconds;
+            double residual = clamp(distance - predictedDistance, MAXIMUM_RESIDUAL);
+            this.distance = predictedDistance + alpha * residual;
+            double velocitySeconds = Math.max(timeDelta, MINIMUM_VELOCITY_INTERVAL) / 1000d;
+            this.velocity = clamp(velocity + (beta / velocitySeconds) * residual, MAXIMUM_VELOCITY);
+            this.lastTimestamp = timestamp;
+        }
+
+        if (!armed) {
+            if (this.distance > rangeThreshold + hysteresis) {
+                armed = true;
+            }
+            return false;
+        }
+
+        if (this.distance <= rangeThreshold || getTimeToThreshold() <= authenticationLatency) {
+            armed = false;
+            return true;
+        }
+        return false;
+    }
+
+    private static double clamp(double value, double limit) {
+        return Math.max(-limit, Math.min(limit, value));
+    }
+
+    /**
+     * @return the estimated duration in milliseconds until the range threshold will be reached, or
+     * {@link Long#MAX_VALUE} if the user is not approaching
+     */
+    public synchronized long getTimeToThreshold() {
+        if (!initialized) {
+            return Long.MAX_VALUE;
+        }
+        if (distance <= rangeThreshold) {
+            return 0;
+        }
+        if (-velocity < MINIMUM_APPROACH_VELOCITY) {
+            return Long.MAX_VALUE;
+        }
+        return (long) ((distance - rangeThreshold) / -velocity * 1000);
+    }
+
+    /**
+     * Arms the trigger again after it fired without causing an authentication, so that it fires
+     * again with the next sample that meets the conditions.
+     */
+    public synchronized void rearm() {
+        armed = true;
+    }
+
+    /**
+     * Forgets all estimates and re-arms the trigger.
+     */
+    public synchronized void reset() {
+        initialized = false;
+        armed = true;
+        distance = 0;
+        velocity = 0;
+    }
+
+    /**
+     * @return the smoothed distance in meters, or {@link Double#NaN} if no sample has been provided
+     */
+    public synchronized double getSmoothedDistance() {
+        return initialized ? distance : Double.NaN;
+    }
+
+    /**
+     * @return the estimated velocity in meters per second, negative when approaching
+     */
+    public synchronized double getVelocity() {
+        return velocity;
+    }
+
+    public synchronized boolean isArmed() {
+        return armed;
+    }
+
+    public synchronized double getRangeThreshold() {
+        return rangeThreshold;
+    }
+
+    public synchronized void setRangeThreshold(double rangeThreshold) {
+        this.rangeThreshold = rangeThreshold;
+    }
+
+    public synchronized long getAuthenticationLatency() {
+        return authenticationLatency;
+    }
+
+    public synchronized void setAuthenticationLatency(long authenticationLatency) {
+        this.authenticationLatency = authenticationLatency;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.nexenio.seamlessauthenticationintegrationsample.authentication;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AuthenticationPolicyTest {
+
+    @Test
+    public void getRetryDelay_subsequentRetries_growsUpToMaximum() {
+        AuthenticationPolicy policy = new AuthenticationPolicy.Builder()
+                .setRetryDelay(100, 3, 1000)
+                .build();
+
+        assertEquals(100, policy.getRetryDelay(1));
+        assertEquals(300, policy.getRetryDelay(2));
+        assertEquals(900, policy.getRetryDelay(3));
+        assertEquals(1000, policy.getRetryDelay(4));
+        assertEquals(1000, policy.getRetryDelay(50));
+    }
+
+    @Test
+    public void getRemainingCooldown_afterSuccess_decreasesToZero() {
+        AuthenticationPolicy policy = new AuthenticationPolicy.Builder()
+                .setCooldown(5000)
+                .build();
+
+        assertEquals(5000, policy.getRemainingCooldown(1000, 1000));
+        assertEquals(1000, policy.getRemainingCooldown(1000, 5000));
+        assertEquals(0, policy.getRemainingCooldown(1000, 6000));
+        assertEquals(0, policy.getRemainingCooldown(1000, 60000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setRetryDelay_maximumBelowInitial_throws() {
+        new AuthenticationPolicy.Builder().setRetryDelay(1000, 2, 500);
+    }
+
+}
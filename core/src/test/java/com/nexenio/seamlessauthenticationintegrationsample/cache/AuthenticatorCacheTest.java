@@ -0,0 +1,114 @@
+package com.nexenio.seamlessauthenticationintegrationsample.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class AuthenticatorCacheTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("authenticators", ".bin");
+        assertTrue(file.delete());
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void load_afterUpdates_restoresLatestValues() throws IOException {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        AuthenticatorCache cache = new AuthenticatorCache(file);
+        cache.update(firstId, "Door", 1, 3, 1_000);
+        cache.update(secondId, "Gate", 3, 5, 2_000);
+        cache.update(firstId, "Renamed Door", 1, 3, 3_000);
+        cache.recordAuthentication(secondId, 4_000);
+
+        AuthenticatorCache reloadedCache = new AuthenticatorCache(file);
+        List<CachedAuthenticator> entries = reloadedCache.getEntries();
+
+        assertEquals(2, entries.size());
+        assertEquals(secondId, entries.get(0).getId());
+        assertEquals(3, entries.get(0).getGatewaysCount());
+        assertEquals(1, entries.get(0).getAuthenticationCount());
+        assertEquals("Renamed Door", reloadedCache.get(firstId).getName());
+        assertEquals(secondId, reloadedCache.getFrequentlyUsedIds(3).get(0));
+    }
+
+    @Test
+    public void update_withoutRelevantChange_isNotPersisted() throws IOException {
+        UUID id = UUID.randomUUID();
+        AuthenticatorCache cache = new AuthenticatorCache(file);
+
+        assertTrue(cache.update(id, "Door", 1, 3, 1_000));
+        assertFalse(cache.update(id, "Door", 1, 3.5, 2_000));
+        assertTrue(cache.update(id, "Door", 1, 5, 3_000));
+        assertTrue(cache.update(id, "Door", 1, 5, 3_000 + AuthenticatorCache.MINIMUM_UPDATE_INTERVAL));
+    }
+
+    @Test
+    public void updateAll_detectedAuthenticators_persistsOnlyChanged() throws IOException {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        AuthenticatorCache cache = new AuthenticatorCache(file);
+        cache.update(firstId, "Door", 1, 3, 1_000);
+        cache.recordAuthentication(firstId, 1_500);
+
+        int persistedCount = cache.updateAll(Arrays.asList(
+                new CachedAuthenticator(firstId, "Door", 1, 3.2, 2_000, 0),
+                new CachedAuthenticator(secondId, "Gate", 3, 5, 2_000, 0)));
+
+        assertEquals(1, persistedCount);
+        AuthenticatorCache reloadedCache = new AuthenticatorCache(file);
+        assertEquals(2, reloadedCache.size());
+        assertEquals(1, reloadedCache.get(firstId).getAuthenticationCount());
+        assertEquals("Gate", reloadedCache.get(secondId).getName());
+    }
+
+    @Test
+    public void load_withTruncatedRecord_keepsCompleteRecords() throws IOException {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        AuthenticatorCache cache = new AuthenticatorCache(file);
+        cache.update(firstId, "Door", 1, 3, 1_000);
+        cache.update(secondId, "Gate", 3, 5, 2_000);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 5);
+        }
+
+        AuthenticatorCache reloadedCache = new AuthenticatorCache(file);
+        assertEquals(1, reloadedCache.size());
+        reloadedCache.update(secondId, "Gate", 3, 5, 2_000);
+
+        assertEquals(2, new AuthenticatorCache(file).size());
+    }
+
+    @Test
+    public void compact_exceedingMaximumSize_dropsLeastRecentlySeen() throws IOException {
+        AuthenticatorCache cache = new AuthenticatorCache(file, 2);
+        UUID oldestId = UUID.randomUUID();
+        cache.update(oldestId, "Oldest", 0, 1, 1_000);
+        cache.update(UUID.randomUUID(), "Older", 0, 1, 2_000);
+        cache.update(UUID.randomUUID(), "Newest", 0, 1, 3_000);
+        cache.compact();
+
+        AuthenticatorCache reloadedCache = new AuthenticatorCache(file, 2);
+        assertEquals(2, reloadedCache.size());
+        assertNull(reloadedCache.get(oldestId));
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.nexenio.seamlessauthenticationintegrationsample.gateway;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GatewayTrackingPolicyTest {
+
+    private final GatewayTrackingPolicy policy = new GatewayTrackingPolicy(0.1, 3000);
+
+    @Test
+    public void requiresUpdate_distanceWithinTolerance_false() {
+        assertFalse(policy.requiresUpdate(2.5, 1000, 2.5, 1000));
+        assertFalse(policy.requiresUpdate(2.5, 1000, 2.55, 2000));
+        assertFalse(policy.requiresUpdate(2.5, 1000, 2.45, 3999));
+    }
+
+    @Test
+    public void requiresUpdate_distanceChanged_true() {
+        assertTrue(policy.requiresUpdate(2.5, 1000, 2.7, 1000));
+        assertTrue(policy.requiresUpdate(2.5, 1000, 2.3, 1000));
+    }
+
+    @Test
+    public void requiresUpdate_maximumAgeExceeded_true() {
+        assertTrue(policy.requiresUpdate(2.5, 1000, 2.5, 4000));
+    }
+
+    @Test
+    public void requiresUpdate_unknownDistance_trueOnlyIfKnownDistanceChanged() {
+        assertFalse(policy.requiresUpdate(Double.NaN, 1000, Double.NaN, 2000));
+        assertTrue(policy.requiresUpdate(Double.NaN, 1000, 2.5, 2000));
+        assertTrue(policy.requiresUpdate(2.5, 1000, Double.NaN, 2000));
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.nexenio.seamlessauthenticationintegrationsample.guard;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StallDetectorTest {
+
+    @Test
+    public void onWorkFinished_withinBudget_returnsNull() {
+        StallDetector stallDetector = new StallDetector(100, null);
+
+        stallDetector.onWorkStarted(1000);
+
+        assertNull(stallDetector.onWorkFinished(1100, "bind"));
+        assertEquals(1, stallDetector.getWorkCount());
+        assertEquals(0, stallDetector.getStallCount());
+        assertEquals(100, stallDetector.getLongestDuration());
+    }
+
+    @Test
+    public void onWorkFinished_overBudget_notifiesListener() {
+        List<StallDetector.Stall> reportedStalls = new ArrayList<>();
+        StallDetector stallDetector = new StallDetector(100, reportedStalls::add);
+
+        stallDetector.onWorkStarted(1000);
+        StallDetector.Stall stall = stallDetector.onWorkFinished(1250, "bind");
+
+        assertNotNull(stall);
+        assertEquals(250, stall.getDuration());
+        assertEquals("bind", stall.getDescription());
+        assertEquals(1, reportedStalls.size());
+        assertEquals(1, stallDetector.getStalls().size());
+    }
+
+    @Test
+    public void onWorkFinished_notStarted_ignoresWork() {
+        StallDetector stallDetector = new StallDetector(100, null);
+
+        assertNull(stallDetector.onWorkFinished(5000, "bind"));
+        assertEquals(0, stallDetector.getWorkCount());
+    }
+
+}
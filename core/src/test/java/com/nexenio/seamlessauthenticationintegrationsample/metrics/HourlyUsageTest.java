@@ -0,0 +1,49 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HourlyUsageTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void recordWakeup_multipleHours_attributesToHourOfReading() {
+        HourlyUsage usage = new HourlyUsage(1000, 500);
+
+        usage.recordWakeup(1000 + 10, 520);
+        usage.recordWakeup(1000 + HOUR + 10, 600);
+        usage.recordWakeup(1000 + HOUR + 20, 610);
+
+        assertEquals(2, usage.getHourCount());
+        assertEquals(1, usage.getWakeupCount(0));
+        assertEquals(20, usage.getCpuTime(0));
+        assertEquals(2, usage.getWakeupCount(1));
+        assertEquals(90, usage.getCpuTime(1));
+        assertEquals(3, usage.getWakeupCount());
+        assertEquals(110, usage.getCpuTime());
+    }
+
+    @Test
+    public void getWakeupsPerHour_halfHour_extrapolates() {
+        HourlyUsage usage = new HourlyUsage(0, 0);
+
+        usage.recordWakeup(HOUR / 4, 10);
+        usage.recordWakeup(HOUR / 2, 20);
+
+        assertEquals(4, usage.getWakeupsPerHour(), 0.001);
+        assertEquals(40, usage.getCpuTimePerHour(), 0.001);
+    }
+
+    @Test
+    public void getWakeupsPerHour_noTimePassed_returnsZero() {
+        HourlyUsage usage = new HourlyUsage(100, 0);
+
+        assertEquals(0, usage.getWakeupsPerHour(), 0);
+        assertEquals(0, usage.getCpuTimePerHour(), 0);
+    }
+
+}
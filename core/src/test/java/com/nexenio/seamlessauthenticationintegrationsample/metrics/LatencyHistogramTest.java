@@ -0,0 +1,47 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void getBucketIndex_isMonotonicAndWithinBounds() {
+        int previousIndex = -1;
+        for (long value = 0; value < 1_000_000; value += 7) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            assertTrue(index >= previousIndex);
+            assertTrue(value <= LatencyHistogram.getBucketUpperBound(index));
+            previousIndex = index;
+        }
+        assertTrue(LatencyHistogram.getBucketIndex(Long.MAX_VALUE) < LatencyHistogram.BUCKET_COUNT);
+    }
+
+    @Test
+    public void getValueAtPercentile_uniformValues_isWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        HistogramSnapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(5_000.5, snapshot.getMean(), 0.001);
+        assertEquals(5_000, snapshot.getValueAtPercentile(50), 5_000 * 0.07);
+        assertEquals(9_900, snapshot.getValueAtPercentile(99), 9_900 * 0.07);
+        assertEquals(10_000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void reset_clearsAllValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+        histogram.reset();
+
+        HistogramSnapshot snapshot = histogram.getSnapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+    }
+
+}
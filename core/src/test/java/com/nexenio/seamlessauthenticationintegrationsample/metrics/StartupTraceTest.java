@@ -0,0 +1,31 @@
+package com.nexenio.seamlessauthenticationintegrationsample.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StartupTraceTest {
+
+    @Test
+    public void mark_secondTime_keepsFirstTimestamp() {
+        StartupTrace startupTrace = new StartupTrace(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertTrue(startupTrace.mark(StartupPhase.FIRST_FRAME, TimeUnit.MILLISECONDS.toNanos(300)));
+        assertFalse(startupTrace.mark(StartupPhase.FIRST_FRAME, TimeUnit.MILLISECONDS.toNanos(500)));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), startupTrace.getDuration(StartupPhase.FIRST_FRAME));
+        assertEquals(-1, startupTrace.getDuration(StartupPhase.FIRST_AUTHENTICATOR));
+    }
+
+    @Test
+    public void toString_containsAllPhases() {
+        StartupTrace startupTrace = new StartupTrace(0);
+        startupTrace.mark(StartupPhase.APPLICATION_CREATED, TimeUnit.MILLISECONDS.toNanos(42));
+
+        assertEquals("StartupTrace{application_created=42, first_activity_created=-1, first_frame=-1, "
+                + "detector_created=-1, first_authenticator=-1}", startupTrace.toString());
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class AuthenticatorDescriptionFormatterTest {
+
+    private static final String GENERIC_TEMPLATE = "Authenticator, about %.1f meters away and currently %s.";
+    private static final String DOOR_TEMPLATE = "Access control door, about %.1f meters away and currently %s. The closest opening is the %s.";
+    private static final String GATE_TEMPLATE = "Access control gate, about %.1f meters away and currently %s. It has %d gateways, the closest one is the %s with index %d.";
+    private static final String UNKNOWN_DESCRIPTION = "Unknown Authenticator";
+
+    private static AuthenticatorDescriptionFormatter createFormatter(Locale locale, String gateTemplate) {
+        return new AuthenticatorDescriptionFormatter(locale, GENERIC_TEMPLATE, DOOR_TEMPLATE, gateTemplate, UNKNOWN_DESCRIPTION);
+    }
+
+    @Test
+    public void format_variousDistances_matchesStringFormat() {
+        double[] distances = {0, 0.04, 0.96, 1, 4.2, 9.99, 12.34, 123.456, 1e13};
+        GateDetails gateDetails = new GateDetails("entry", 3, 1);
+        for (Locale locale : new Locale[]{Locale.US, Locale.GERMANY}) {
+            AuthenticatorDescriptionFormatter formatter = createFormatter(locale, GATE_TEMPLATE);
+            for (double distance : distances) {
+                assertEquals(String.format(locale, GENERIC_TEMPLATE, distance, "active"),
+                        formatter.format(distance, "active", GateDetails.NONE));
+                assertEquals(String.format(locale, GATE_TEMPLATE, distance, "active", 3L, "entry", 1L),
+                        formatter.format(distance, "active", gateDetails));
+            }
+        }
+    }
+
+    @Test
+    public void format_explicitArgumentIndices_matchesStringFormat() {
+        String gateTemplate = "%4$s of %3$d gateways (%5$d), %1$.2f m, %2$s, 100%%";
+        AuthenticatorDescriptionFormatter formatter = createFormatter(Locale.US, gateTemplate);
+        GateDetails gateDetails = new GateDetails("exit", 2, 0);
+
+        assertEquals(String.format(Locale.US, gateTemplate, 3.14159, "inactive", 2L, "exit", 0L),
+                formatter.format(3.14159, "inactive", gateDetails));
+    }
+
+    @Test
+    public void format_unsupportedTemplate_fallsBackToStringFormat() {
+        String gateTemplate = "%08.3f m, %s, %x, %s, %d";
+        AuthenticatorDescriptionFormatter formatter = createFormatter(Locale.US, gateTemplate);
+        GateDetails gateDetails = new GateDetails("exit", 12, 0);
+
+        assertEquals(String.format(Locale.US, gateTemplate, 3.5, "active", 12L, "exit", 0L),
+                formatter.format(3.5, "active", gateDetails));
+    }
+
+    @Test
+    public void format_unknownValues_returnsUnknownDescription() {
+        AuthenticatorDescriptionFormatter formatter = createFormatter(Locale.US, GATE_TEMPLATE);
+
+        assertSame(UNKNOWN_DESCRIPTION, formatter.format(Double.NaN, "active", GateDetails.NONE));
+        assertSame(UNKNOWN_DESCRIPTION, formatter.format(UUID.randomUUID(), 1, "active", GateDetails.UNKNOWN));
+    }
+
+    @Test
+    public void format_sameDisplayedValues_returnsMemoizedInstance() {
+        AuthenticatorDescriptionFormatter formatter = createFormatter(Locale.US, GATE_TEMPLATE);
+        UUID id = UUID.randomUUID();
+
+        String description = formatter.format(id, 4.21, "active", new GateDetails("entry", 3, 1));
+
+        assertSame(description, formatter.format(id, 4.24, "active", new GateDetails("entry", 3, 1)));
+        assertNotSame(description, formatter.format(id, 4.26, "active", new GateDetails("entry", 3, 1)));
+    }
+
+    @Test
+    public void format_changedGateDetails_returnsNewDescription() {
+        AuthenticatorDescriptionFormatter formatter = createFormatter(Locale.US, GATE_TEMPLATE);
+        UUID id = UUID.randomUUID();
+
+        String description = formatter.format(id, 4.2, "active", new GateDetails("entry", 3, 1));
+        String changedDescription = formatter.format(id, 4.2, "active", new GateDetails("exit", 3, 2));
+
+        assertNotEquals(description, changedDescription);
+        assertNotEquals(changedDescription, formatter.format(id, 4.2, "active", GateDetails.NONE));
+    }
+
+}
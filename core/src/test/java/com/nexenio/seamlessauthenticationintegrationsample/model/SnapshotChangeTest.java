@@ -0,0 +1,60 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SnapshotChangeTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private static AuthenticatorSnapshot createSnapshot(String name, double distance, String direction, String description) {
+        return new AuthenticatorSnapshot(ID, name, ID.toString(), distance, "active", direction, description);
+    }
+
+    @Test
+    public void between_onlyDescriptionChanged_containsOnlyDescription() {
+        AuthenticatorSnapshot oldSnapshot = createSnapshot("Door", 4.2, "entry", "About 4.2 meters away");
+        AuthenticatorSnapshot newSnapshot = createSnapshot("Door", 3.1, "entry", "About 3.1 meters away");
+
+        SnapshotChange change = SnapshotChange.between(oldSnapshot, newSnapshot);
+
+        assertTrue(change.isDescriptionChanged());
+        assertFalse(change.isNameChanged());
+        assertFalse(change.isReadableIdChanged());
+        assertFalse(change.isStateChanged());
+        assertFalse(change.isDirectionChanged());
+    }
+
+    @Test
+    public void between_equalSnapshots_returnsNone() {
+        AuthenticatorSnapshot oldSnapshot = createSnapshot("Door", 4.2, null, "About 4.2 meters away");
+        AuthenticatorSnapshot newSnapshot = createSnapshot("Door", 4.21, null, "About 4.2 meters away");
+
+        assertSame(SnapshotChange.NONE, SnapshotChange.between(oldSnapshot, newSnapshot));
+    }
+
+    @Test
+    public void between_directionResolved_containsDirection() {
+        AuthenticatorSnapshot oldSnapshot = createSnapshot("Gate", 4.2, null, "About 4.2 meters away");
+        AuthenticatorSnapshot newSnapshot = createSnapshot("Gate", 4.2, "exit", "About 4.2 meters away");
+
+        assertTrue(SnapshotChange.between(oldSnapshot, newSnapshot).isDirectionChanged());
+    }
+
+    @Test
+    public void combine_differentChanges_containsBoth() {
+        AuthenticatorSnapshot snapshot = createSnapshot("Door", 4.2, null, "About 4.2 meters away");
+        SnapshotChange nameChange = SnapshotChange.between(snapshot, createSnapshot("Gate", 4.2, null, "About 4.2 meters away"));
+        SnapshotChange descriptionChange = SnapshotChange.between(snapshot, createSnapshot("Door", 1, null, "About 1.0 meters away"));
+
+        SnapshotChange change = nameChange.combine(descriptionChange);
+
+        assertTrue(change.isNameChanged());
+        assertTrue(change.isDescriptionChanged());
+        assertSame(change, descriptionChange.combine(nameChange));
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.nexenio.seamlessauthenticationintegrationsample.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SnapshotRankingTest {
+
+    private static AuthenticatorSnapshot createSnapshot(int index, double distance) {
+        UUID id = new UUID(0, index);
+        return new AuthenticatorSnapshot(id, "Authenticator " + index, id.toString(), distance, "active", null, "");
+    }
+
+    private static List<Long> getIndices(List<AuthenticatorSnapshot> snapshots) {
+        List<Long> indices = new ArrayList<>();
+        for (AuthenticatorSnapshot snapshot : snapshots) {
+            indices.add(snapshot.getId().getLeastSignificantBits());
+        }
+        return indices;
+    }
+
+    @Test
+    public void rank_unorderedSnapshots_nearestFirstAndUnknownLast() {
+        SnapshotRanking ranking = new SnapshotRanking(0);
+
+        List<AuthenticatorSnapshot> rankedSnapshots = ranking.rank(Arrays.asList(
+                createSnapshot(1, 5), createSnapshot(2, Double.NaN), createSnapshot(3, 1), createSnapshot(4, 3)), 10);
+
+        assertEquals(Arrays.asList(3L, 4L, 1L, 2L), getIndices(rankedSnapshots));
+        assertEquals(0, ranking.getHiddenCount());
+    }
+
+    @Test
+    public void rank_moreSnapshotsThanMaximum_cutsOffFarthest() {
+        SnapshotRanking ranking = new SnapshotRanking(0);
+
+        List<AuthenticatorSnapshot> rankedSnapshots = ranking.rank(Arrays.asList(
+                createSnapshot(1, 5), createSnapshot(2, 4), createSnapshot(3, 1), createSnapshot(4, 3)), 2);
+
+        assertEquals(Arrays.asList(3L, 4L), getIndices(rankedSnapshots));
+        assertEquals(2, ranking.getHiddenCount());
+    }
+
+    @Test
+    public void rank_distanceChangeWithinTolerance_keepsPreviousOrder() {
+        SnapshotRanking ranking = new SnapshotRanking(0.5);
+        ranking.rank(Arrays.asList(createSnapshot(1, 2), createSnapshot(2, 3)), 10);
+
+        List<AuthenticatorSnapshot> rankedSnapshots = ranking.rank(Arrays.asList(createSnapshot(2, 2.2), createSnapshot(1, 2.4)), 10);
+        assertEquals(Arrays.asList(1L, 2L), getIndices(rankedSnapshots));
+
+        rankedSnapshots = ranking.rank(Arrays.asList(createSnapshot(2, 1.5), createSnapshot(1, 2.4)), 10);
+        assertEquals(Arrays.asList(2L, 1L), getIndices(rankedSnapshots));
+    }
+
+    @Test
+    public void rank_chainOfSmallDifferences_showsNearest() {
+        SnapshotRanking ranking = new SnapshotRanking(0.1);
+        ranking.rank(Arrays.asList(createSnapshot(1, 1.0), createSnapshot(2, 1.0), createSnapshot(3, 1.0),
+                createSnapshot(4, 1.0), createSnapshot(5, 1.0), createSnapshot(6, 1.0)), 2);
+
+        List<AuthenticatorSnapshot> rankedSnapshots = ranking.rank(Arrays.asList(createSnapshot(1, 1.0), createSnapshot(2, 0.92),
+                createSnapshot(3, 0.84), createSnapshot(4, 0.76), createSnapshot(5, 0.68), createSnapshot(6, 0.60)), 2);
+
+        assertEquals(Arrays.asList(6L, 5L), getIndices(rankedSnapshots));
+    }
+
+    @Test
+    public void rank_nearlySortedUpdate_shiftsOnlyMovedSnapshots() {
+        SnapshotRanking ranking = new SnapshotRanking(0);
+        List<AuthenticatorSnapshot> snapshots = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            snapshots.add(createSnapshot(index, index));
+        }
+        ranking.rank(snapshots, 10);
+        long initialShiftCount = ranking.getShiftCount();
+
+        snapshots.set(50, createSnapshot(50, 10.5));
+        List<AuthenticatorSnapshot> rankedSnapshots = ranking.rank(snapshots, 100);
+
+        assertEquals(0, initialShiftCount);
+        assertEquals(39, ranking.getShiftCount());
+        assertEquals(50L, (long) getIndices(rankedSnapshots).get(11));
+    }
+
+}
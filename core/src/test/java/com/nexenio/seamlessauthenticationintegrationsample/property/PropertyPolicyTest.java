@@ -0,0 +1,30 @@
+package com.nexenio.seamlessauthenticationintegrationsample.property;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PropertyPolicyTest {
+
+    @Test
+    public void isFresh_forever_alwaysTrue() {
+        assertTrue(PropertyPolicy.FOREVER.isFresh(0, Long.MAX_VALUE));
+        assertTrue(PropertyPolicy.FOREVER.isCacheable());
+    }
+
+    @Test
+    public void isFresh_live_neverTrue() {
+        assertFalse(PropertyPolicy.LIVE.isFresh(1000, 1000));
+        assertFalse(PropertyPolicy.LIVE.isCacheable());
+    }
+
+    @Test
+    public void isFresh_expiring_trueUntilTimeToLivePassed() {
+        PropertyPolicy policy = PropertyPolicy.expiringAfter(500);
+
+        assertTrue(policy.isFresh(1000, 1000));
+        assertTrue(policy.isFresh(1000, 1499));
+        assertFalse(policy.isFresh(1000, 1500));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.nexenio.seamlessauthenticationintegrationsample.registry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class AuthenticatorIndexTest {
+
+    private static final long TIME_TO_LIVE = 1000;
+
+    private AuthenticatorIndex<String> index;
+
+    @Before
+    public void setUp() {
+        index = new AuthenticatorIndex<>(TIME_TO_LIVE);
+    }
+
+    @Test
+    public void get_afterPut_returnsValue() {
+        UUID id = UUID.randomUUID();
+        index.put(id, "first", 0);
+        index.put(id, "second", 10);
+
+        assertEquals("second", index.get(id));
+        assertEquals(1, index.size());
+        assertNull(index.get(UUID.randomUUID()));
+    }
+
+    @Test
+    public void evictExpired_removesOnlyExpiredEntries() {
+        UUID expiredId = UUID.randomUUID();
+        UUID refreshedId = UUID.randomUUID();
+        index.put(expiredId, "expired", 0);
+        index.put(refreshedId, "refreshed", 0);
+        index.put(refreshedId, "refreshed", 500);
+
+        List<AuthenticatorIndex.Entry<String>> evictedEntries = index.evictExpired(1200);
+
+        assertEquals(1, evictedEntries.size());
+        assertEquals(expiredId, evictedEntries.get(0).getId());
+        assertNull(index.get(expiredId));
+        assertEquals("refreshed", index.get(refreshedId));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_nonPositiveTimeToLive_throws() {
+        new AuthenticatorIndex<String>(0);
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SessionLogTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("session", ".bin");
+        assertTrue(file.delete());
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void readAll_afterWrites_restoresSamples() throws IOException {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        try (SessionLogWriter writer = new SessionLogWriter(file)) {
+            writer.write(new SessionSample(firstId, 10_000, 3.456, SessionSample.State.ACTIVE, 2));
+            writer.write(new SessionSample(secondId, 10_250, Double.NaN, SessionSample.State.UNKNOWN, SessionSample.UNKNOWN_GATEWAY_INDEX));
+            writer.write(new SessionSample(firstId, 10_500, 2.9, SessionSample.State.INACTIVE, 1));
+        }
+
+        List<SessionSample> samples = SessionLogReader.readAll(file);
+
+        assertEquals(3, samples.size());
+        assertEquals(firstId, samples.get(0).getId());
+        assertEquals(10_000, samples.get(0).getTimestamp());
+        assertEquals(3.46, samples.get(0).getDistance(), 0.0001);
+        assertEquals(SessionSample.State.ACTIVE, samples.get(0).getState());
+        assertEquals(2, samples.get(0).getGatewayIndex());
+        assertEquals(secondId, samples.get(1).getId());
+        assertFalse(samples.get(1).hasDistance());
+        assertEquals(SessionSample.UNKNOWN_GATEWAY_INDEX, samples.get(1).getGatewayIndex());
+        assertEquals(10_500, samples.get(2).getTimestamp());
+        assertEquals(SessionSample.State.INACTIVE, samples.get(2).getState());
+    }
+
+    @Test
+    public void readAll_appendedSessions_restoresBoth() throws IOException {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        try (SessionLogWriter writer = new SessionLogWriter(file)) {
+            writer.write(new SessionSample(firstId, 50_000, 1, SessionSample.State.ACTIVE, 0));
+        }
+        try (SessionLogWriter writer = new SessionLogWriter(file)) {
+            writer.write(new SessionSample(secondId, 1_000, 2, SessionSample.State.ACTIVE, 0));
+        }
+
+        List<SessionSample> samples = SessionLogReader.readAll(file);
+
+        assertEquals(2, samples.size());
+        assertEquals(firstId, samples.get(0).getId());
+        assertEquals(secondId, samples.get(1).getId());
+        assertEquals(1_000, samples.get(1).getTimestamp());
+    }
+
+    @Test
+    public void read_truncatedRecord_endsLog() throws IOException {
+        UUID id = UUID.randomUUID();
+        try (SessionLogWriter writer = new SessionLogWriter(file)) {
+            writer.write(new SessionSample(id, 1_000, 5, SessionSample.State.ACTIVE, 0));
+            writer.write(new SessionSample(id, 1_500, 40_000, SessionSample.State.ACTIVE, 0));
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 3);
+        }
+
+        try (SessionLogReader reader = new SessionLogReader(file)) {
+            assertNotNull(reader.read());
+            assertNull(reader.read());
+            assertTrue(reader.isTruncated());
+        }
+    }
+
+    @Test
+    public void readAll_sessionAppendedAfterTruncatedRecord_restoresBoth() throws IOException {
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        try (SessionLogWriter writer = new SessionLogWriter(file)) {
+            writer.write(new SessionSample(firstId, 1_000, 1, SessionSample.State.ACTIVE, 0));
+            writer.write(new SessionSample(firstId, 1_250, 2, SessionSample.State.ACTIVE, 0));
+            writer.write(new SessionSample(firstId, 1_500, 3, SessionSample.State.ACTIVE, 0));
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 2);
+        }
+        try (SessionLogWriter writer = new SessionLogWriter(file)) {
+            writer.write(new SessionSample(secondId, 5_000, 4, SessionSample.State.ACTIVE, 0));
+        }
+
+        List<SessionSample> samples;
+        try (SessionLogReader reader = new SessionLogReader(file)) {
+            samples = new ArrayList<>();
+            SessionSample sample;
+            while ((sample = reader.read()) != null) {
+                samples.add(sample);
+            }
+            assertFalse(reader.isTruncated());
+        }
+
+        assertEquals(3, samples.size());
+        assertEquals(1_250, samples.get(1).getTimestamp());
+        assertEquals(secondId, samples.get(2).getId());
+        assertEquals(5_000, samples.get(2).getTimestamp());
+    }
+
+}
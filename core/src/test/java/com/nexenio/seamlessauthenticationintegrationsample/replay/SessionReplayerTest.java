@@ -0,0 +1,70 @@
+package com.nexenio.seamlessauthenticationintegrationsample.replay;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SessionReplayerTest {
+
+    private static final long SAMPLE_INTERVAL = 250;
+
+    @Test
+    public void replay_approach_triggersOnce() {
+        UUID id = UUID.randomUUID();
+        List<SessionSample> samples = new ArrayList<>();
+        for (long time = 0; time <= 10_000; time += SAMPLE_INTERVAL) {
+            samples.add(createSample(id, time, Math.max(0.3, 8 - 1.2 * time / 1000d)));
+        }
+
+        ReplayResult result = new SessionReplayer(1).replay(samples);
+
+        assertEquals(samples.size(), result.getSampleCount());
+        assertEquals(1, result.getArrivalCount());
+        assertEquals(1, result.getTriggerCount());
+        assertEquals(0, result.getFalseTriggerCount());
+        assertEquals(0, result.getMissedArrivalCount());
+        assertEquals(1, result.getLatencyCount());
+        assertTrue(result.getLatencyPercentile(50) <= SAMPLE_INTERVAL);
+    }
+
+    @Test
+    public void replay_turnBeforeArrival_countsFalseTrigger() {
+        UUID id = UUID.randomUUID();
+        List<SessionSample> samples = new ArrayList<>();
+        for (long time = 0; time <= 12_000; time += SAMPLE_INTERVAL) {
+            double distance = time <= 3_400 ? 10 - 2.5 * time / 1000d : Math.min(10, 1.5 + 2.5 * (time - 3_400) / 1000d);
+            samples.add(createSample(id, time, distance));
+        }
+
+        ReplayResult result = new SessionReplayer(1).replay(samples);
+
+        assertEquals(0, result.getArrivalCount());
+        assertTrue(result.getTriggerCount() > 0);
+        assertEquals(result.getTriggerCount(), result.getFalseTriggerCount());
+        assertEquals(1, result.getFalseTriggerRate(), 0);
+    }
+
+    @Test
+    public void replay_singleOutlier_missesArrival() {
+        UUID id = UUID.randomUUID();
+        List<SessionSample> samples = new ArrayList<>();
+        for (long time = 0; time <= 6_000; time += SAMPLE_INTERVAL) {
+            samples.add(createSample(id, time, time == 3_000 ? 0.5 : 3));
+        }
+
+        ReplayResult result = new SessionReplayer(1).replay(samples);
+
+        assertEquals(1, result.getArrivalCount());
+        assertEquals(0, result.getTriggerCount());
+        assertEquals(1, result.getMissedArrivalCount());
+    }
+
+    private static SessionSample createSample(UUID id, long timestamp, double distance) {
+        return new SessionSample(id, timestamp, distance, SessionSample.State.ACTIVE, 0);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.nexenio.seamlessauthenticationintegrationsample.scheduling;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CoalescingUpdateQueueTest {
+
+    private final CoalescingUpdateQueue queue = new CoalescingUpdateQueue();
+
+    private final List<String> appliedUpdates = new ArrayList<>();
+
+    @Test
+    public void enqueue_sameKey_appliesLatestOnce() {
+        assertTrue(queue.enqueue("list", false, () -> appliedUpdates.add("list 1")));
+        assertFalse(queue.enqueue("list", false, () -> appliedUpdates.add("list 2")));
+        assertFalse(queue.enqueue("detail", false, () -> appliedUpdates.add("detail 1")));
+
+        assertEquals(2, queue.applyPending());
+        assertEquals(Arrays.asList("list 2", "detail 1"), appliedUpdates);
+        assertEquals(3, queue.getEnqueuedCount());
+        assertEquals(1, queue.getCoalescedCount());
+        assertEquals(2, queue.getAppliedCount());
+        assertEquals(1, queue.getFrameCount());
+        assertEquals(0, queue.applyPending());
+    }
+
+    @Test
+    public void applyPending_deferring_holdsBackDeferrableUpdates() {
+        queue.setDeferring(true);
+        assertFalse(queue.enqueue("list", true, () -> appliedUpdates.add("list")));
+        assertTrue(queue.enqueue("status", false, () -> appliedUpdates.add("status")));
+
+        assertEquals(1, queue.applyPending());
+        assertEquals(Arrays.asList("status"), appliedUpdates);
+        assertEquals(1, queue.getPendingCount());
+
+        assertTrue(queue.setDeferring(false));
+        assertEquals(1, queue.applyPending());
+        assertEquals(Arrays.asList("status", "list"), appliedUpdates);
+        assertEquals(1, queue.getDeferredCount());
+    }
+
+    @Test
+    public void cancel_pendingUpdate_isNotApplied() {
+        queue.enqueue("list", false, () -> appliedUpdates.add("list"));
+        queue.cancel("list");
+
+        assertEquals(0, queue.applyPending());
+        assertTrue(appliedUpdates.isEmpty());
+        assertTrue(queue.enqueue("list", false, () -> appliedUpdates.add("list")));
+    }
+
+}
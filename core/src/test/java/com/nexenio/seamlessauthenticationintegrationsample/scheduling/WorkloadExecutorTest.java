@@ -0,0 +1,101 @@
+package com.nexenio.seamlessauthenticationintegrationsample.scheduling;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class WorkloadExecutorTest {
+
+    private static final ThreadFactory THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable, "Test");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    private final CountDownLatch blockingLatch = new CountDownLatch(1);
+
+    private WorkloadExecutor executor;
+
+    @After
+    public void tearDown() {
+        blockingLatch.countDown();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void execute_queueFull_overflows() throws InterruptedException {
+        AtomicInteger overflowCount = new AtomicInteger();
+        executor = new WorkloadExecutor("test", 1, 1, THREAD_FACTORY, runnable -> {
+            overflowCount.incrementAndGet();
+            runnable.run();
+        });
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        executor.execute(() -> {
+            startedLatch.countDown();
+            awaitUninterruptibly(blockingLatch);
+        });
+        assertTrue(startedLatch.await(5, TimeUnit.SECONDS));
+
+        executor.execute(() -> {
+        });
+        executor.execute(() -> {
+        });
+
+        WorkloadStatistics statistics = executor.getStatistics();
+        assertEquals(1, overflowCount.get());
+        assertEquals(1, statistics.getRejectedCount());
+        assertEquals(1, statistics.getQueueDepth());
+        assertEquals(1, statistics.getMaximumQueueDepth());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void execute_queueFullWithoutOverflow_throws() throws InterruptedException {
+        executor = new WorkloadExecutor("test", 1, 1, THREAD_FACTORY, null);
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        executor.execute(() -> {
+            startedLatch.countDown();
+            awaitUninterruptibly(blockingLatch);
+        });
+        assertTrue(startedLatch.await(5, TimeUnit.SECONDS));
+
+        executor.execute(() -> {
+        });
+        executor.execute(() -> {
+        });
+    }
+
+    @Test
+    public void getStatistics_afterTasks_recordsWaitTimes() throws InterruptedException {
+        executor = new WorkloadExecutor("test", 1, 16, THREAD_FACTORY, null);
+        CountDownLatch completedLatch = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(completedLatch::countDown);
+        }
+        assertTrue(completedLatch.await(5, TimeUnit.SECONDS));
+
+        WorkloadStatistics statistics = executor.getStatistics();
+        assertEquals(3, statistics.getWaitTimes().getCount());
+        assertEquals(0, statistics.getRejectedCount());
+
+        executor.resetStatistics();
+        assertEquals(0, executor.getStatistics().getWaitTimes().getCount());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
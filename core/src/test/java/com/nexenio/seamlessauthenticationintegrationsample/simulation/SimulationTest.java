@@ -0,0 +1,86 @@
+package com.nexenio.seamlessauthenticationintegrationsample.simulation;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SimulationTest {
+
+    @Test
+    public void constructor_sameSeed_createsSameAuthenticators() {
+        SimulationConfiguration configuration = new SimulationConfiguration.Builder()
+                .setAuthenticatorCount(50)
+                .setSeed(42)
+                .build();
+        List<SimulatedAuthenticatorModel> first = new Simulation(configuration).getAuthenticators();
+        List<SimulatedAuthenticatorModel> second = new Simulation(configuration).getAuthenticators();
+
+        assertEquals(50, first.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getId(), second.get(i).getId());
+            assertEquals(first.get(i).getName(), second.get(i).getName());
+            assertEquals(first.get(i).getDistance(12345), second.get(i).getDistance(12345), 0);
+        }
+    }
+
+    @Test
+    public void getAuthenticatorsInRange_excludesDistantAuthenticators() {
+        SimulationConfiguration configuration = new SimulationConfiguration.Builder()
+                .setAuthenticatorCount(200)
+                .setDetectionRange(5)
+                .build();
+        Simulation simulation = new Simulation(configuration);
+        List<SimulatedAuthenticatorModel> authenticatorsInRange = simulation.getAuthenticatorsInRange(1000);
+
+        assertTrue(authenticatorsInRange.size() < 200);
+        for (SimulatedAuthenticatorModel authenticator : authenticatorsInRange) {
+            assertTrue(authenticator.getDistance(1000) <= 5);
+        }
+    }
+
+    @Test
+    public void approachMovement_decreasesToMinimumDistance() {
+        ApproachMovement movement = new ApproachMovement(10, 0.5, 1, 30_000, 0);
+
+        assertEquals(10, movement.getDistance(0), 0.001);
+        assertEquals(5, movement.getDistance(5_000), 0.001);
+        assertEquals(0.5, movement.getDistance(20_000), 0.001);
+        assertEquals(10, movement.getDistance(30_000), 0.001);
+    }
+
+    @Test
+    public void passByMovement_isClosestInTheMiddleOfThePeriod() {
+        PassByMovement movement = new PassByMovement(2, 1, 20_000, 0);
+
+        assertEquals(2, movement.getDistance(10_000), 0.001);
+        assertEquals(movement.getDistance(5_000), movement.getDistance(15_000), 0.001);
+        assertTrue(movement.getDistance(0) > movement.getDistance(5_000));
+    }
+
+    @Test
+    public void loiterMovement_staysWithinAmplitude() {
+        LoiterMovement movement = new LoiterMovement(3, 1, 10_000, 0);
+
+        for (long time = -20_000; time < 20_000; time += 250) {
+            double distance = movement.getDistance(time);
+            assertTrue(distance >= 2 - 0.001 && distance <= 4 + 0.001);
+        }
+    }
+
+    @Test
+    public void nextFailure_withoutFailureRate_neverFails() {
+        SimulationConfiguration configuration = new SimulationConfiguration.Builder()
+                .setAuthenticatorCount(1)
+                .setOperationProfile(SimulatedOperation.AUTHENTICATE, new OperationProfile(10, 0, 0))
+                .build();
+        SimulatedAuthenticatorModel authenticator = new Simulation(configuration).getAuthenticators().get(0);
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(authenticator.nextFailure(SimulatedOperation.AUTHENTICATE));
+            assertEquals(10, authenticator.nextLatency(SimulatedOperation.AUTHENTICATE));
+        }
+    }
+
+}
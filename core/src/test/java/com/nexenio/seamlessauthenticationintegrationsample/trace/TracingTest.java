@@ -0,0 +1,114 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trace;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TracingTest {
+
+    private TraceRecorder traceRecorder;
+
+    @Before
+    public void setUp() {
+        traceRecorder = new TraceRecorder();
+        Tracing.addSink(traceRecorder);
+    }
+
+    @After
+    public void tearDown() {
+        Tracing.setEnabled(false);
+        Tracing.removeSink(traceRecorder);
+    }
+
+    @Test
+    public void beginSection_disabled_recordsNothing() {
+        assertFalse(Tracing.beginSection("detect"));
+        int cookie = Tracing.beginAsyncSection("authenticate", UUID.randomUUID());
+
+        assertEquals(Tracing.NO_COOKIE, cookie);
+        assertTrue(traceRecorder.getEvents().isEmpty());
+    }
+
+    @Test
+    public void beginAsyncSection_enabled_namedById() {
+        UUID id = UUID.fromString("1a2b3c4d-0000-0000-0000-000000000001");
+        Tracing.setEnabled(true);
+
+        assertTrue(Tracing.beginSection("detect"));
+        int cookie = Tracing.beginAsyncSection("authenticate", id);
+        Tracing.endSection();
+        Tracing.endAsyncSection("authenticate", id, cookie);
+
+        List<TraceRecorder.TraceEvent> events = traceRecorder.getEvents();
+        assertEquals(4, events.size());
+        assertEquals('B', events.get(0).getPhase());
+        assertEquals("authenticate 1a2b3c4d", events.get(1).getName());
+        assertEquals(cookie, events.get(1).getCookie());
+        assertEquals('E', events.get(2).getPhase());
+        assertEquals('e', events.get(3).getPhase());
+        assertEquals(events.get(1).getName(), events.get(3).getName());
+        assertEquals(cookie, events.get(3).getCookie());
+    }
+
+    @Test
+    public void beginAsyncSection_sameIdTwice_distinctCookies() {
+        UUID id = UUID.randomUUID();
+        Tracing.setEnabled(true);
+
+        int firstCookie = Tracing.beginAsyncSection("authenticate", id);
+        int secondCookie = Tracing.beginAsyncSection("authenticate", id);
+
+        assertNotEquals(Tracing.NO_COOKIE, firstCookie);
+        assertNotEquals(firstCookie, secondCookie);
+    }
+
+    @Test
+    public void endAsyncSection_toggledWhileOpen_endsOnlyBegunSections() {
+        UUID id = UUID.randomUUID();
+        int skippedCookie = Tracing.beginAsyncSection("anticipate", id);
+        Tracing.setEnabled(true);
+        int cookie = Tracing.beginAsyncSection("authenticate", id);
+        Tracing.endAsyncSection("anticipate", id, skippedCookie);
+        Tracing.setEnabled(false);
+
+        Tracing.endAsyncSection("authenticate", id, cookie);
+
+        List<TraceRecorder.TraceEvent> events = traceRecorder.getEvents();
+        assertEquals(2, events.size());
+        assertEquals('b', events.get(0).getPhase());
+        assertEquals('e', events.get(1).getPhase());
+        assertEquals(cookie, events.get(1).getCookie());
+    }
+
+    @Test
+    public void record_maximumEventCountExceeded_dropsOldestEvents() {
+        TraceRecorder boundedRecorder = new TraceRecorder(2);
+
+        boundedRecorder.beginSection("first");
+        boundedRecorder.beginSection("second");
+        boundedRecorder.beginSection("third");
+
+        assertEquals(1, boundedRecorder.getDroppedEventCount());
+        assertEquals("second", boundedRecorder.getEvents().get(0).getName());
+    }
+
+    @Test
+    public void writeJson_escapesNames() throws Exception {
+        traceRecorder.beginAsyncSection("say \"hi\"", 255);
+        StringWriter writer = new StringWriter();
+
+        traceRecorder.writeJson(writer);
+
+        String json = writer.toString();
+        assertTrue(json.startsWith("{\"traceEvents\":["));
+        assertTrue(json.contains("\"name\":\"say \\\"hi\\\"\""));
+        assertTrue(json.contains("\"id\":\"0xff\""));
+    }
+
+}
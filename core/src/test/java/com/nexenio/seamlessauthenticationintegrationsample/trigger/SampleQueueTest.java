@@ -0,0 +1,167 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+import static org.junit.Assert.*;
+
+public class SampleQueueTest {
+
+    private static final int AUTHENTICATOR_COUNT = 1000;
+
+    private static final long DRAIN_INTERVAL = 100;
+
+    private static final int BUDGET = 40;
+
+    private final SampleQueue<String> queue = new SampleQueue<>();
+
+    private final List<String> samples = new ArrayList<>();
+
+    @Test
+    public void offer_sameItemTwice_sampledOnce() {
+        assertTrue(queue.offer("first"));
+        assertFalse(queue.offer("second"));
+        assertFalse(queue.offer("first"));
+
+        assertEquals(0, queue.drain(samples, 10, new MapPrioritizer<>()));
+        assertEquals(Arrays.asList("first", "second"), samples);
+        assertEquals(0, queue.size());
+        assertTrue(queue.offer("first"));
+    }
+
+    @Test
+    public void drain_overBudget_keepsPriorityAndLeastRecentlySampled() {
+        MapPrioritizer<String> prioritizer = new MapPrioritizer<>();
+        prioritizer.priorityItems.add("near");
+        prioritizer.lastSampleTimestamps.put("recent", 300L);
+        prioritizer.lastSampleTimestamps.put("old", 100L);
+        prioritizer.lastSampleTimestamps.put("older", 50L);
+        for (String item : Arrays.asList("recent", "old", "near", "never", "older")) {
+            queue.offer(item);
+        }
+
+        assertEquals(2, queue.drain(samples, 3, prioritizer));
+        assertEquals("near", samples.get(0));
+        assertEquals(Arrays.asList("never", "older"), sorted(samples.subList(1, 3)));
+    }
+
+    @Test
+    public void drain_priorityItemsBeyondBudget_allSampled() {
+        MapPrioritizer<String> prioritizer = new MapPrioritizer<>();
+        prioritizer.priorityItems.addAll(Arrays.asList("first", "second"));
+        queue.offer("first");
+        queue.offer("other");
+        queue.offer("second");
+
+        assertEquals(1, queue.drain(samples, 1, prioritizer));
+        assertEquals(Arrays.asList("first", "second"), samples);
+    }
+
+    /**
+     * The user walks up to one gate while a thousand other authenticators are detected as well, far
+     * more than can be sampled.
+     */
+    @Test
+    public void drain_thousandAuthenticators_approachedGateTriggers() {
+        Random random = new Random(1);
+        SeamlessCandidates candidates = new SeamlessCandidates(1);
+        SampleQueue<UUID> queue = new SampleQueue<>();
+        List<UUID> ids = new ArrayList<>();
+        double[] distances = new double[AUTHENTICATOR_COUNT];
+        for (int index = 0; index < AUTHENTICATOR_COUNT; index++) {
+            ids.add(new UUID(0, index));
+            distances[index] = 7 + random.nextDouble() * 50;
+        }
+        UUID gateId = ids.get(0);
+        distances[0] = 15;
+        CandidatesPrioritizer prioritizer = new CandidatesPrioritizer(candidates);
+        List<UUID> detectedIds = new ArrayList<>(ids);
+        List<UUID> samples = new ArrayList<>();
+
+        boolean triggered = false;
+        long timestamp = 0;
+        int maximumSampleCount = 0;
+        while (!triggered && distances[0] > 0) {
+            Collections.shuffle(detectedIds, random);
+            for (UUID id : detectedIds) {
+                queue.offer(id);
+            }
+            prioritizer.timestamp = timestamp;
+            queue.drain(samples, BUDGET, prioritizer);
+            maximumSampleCount = Math.max(maximumSampleCount, samples.size());
+            for (UUID id : samples) {
+                double distance = distances[(int) id.getLeastSignificantBits()] + random.nextGaussian() * 0.1;
+                if (candidates.onDistanceSample(id, distance, timestamp)) {
+                    assertEquals(gateId, id);
+                    triggered = true;
+                }
+            }
+            samples.clear();
+            timestamp += DRAIN_INTERVAL;
+            distances[0] -= 1.5 * DRAIN_INTERVAL / 1000; // 1.5 m/s
+        }
+
+        assertTrue("Gate not triggered", triggered);
+        assertTrue("Triggered too late at " + distances[0], distances[0] > 0.5);
+        assertTrue("Sampled " + maximumSampleCount + " authenticators at once", maximumSampleCount <= BUDGET + 1);
+    }
+
+    @NonNull
+    private static List<String> sorted(@NonNull List<String> items) {
+        List<String> sortedItems = new ArrayList<>(items);
+        Collections.sort(sortedItems);
+        return sortedItems;
+    }
+
+    private static final class MapPrioritizer<T> implements SampleQueue.Prioritizer<T> {
+
+        private final List<T> priorityItems = new ArrayList<>();
+
+        private final Map<T, Long> lastSampleTimestamps = new HashMap<>();
+
+        @Override
+        public boolean isPriority(@NonNull T item) {
+            return priorityItems.contains(item);
+        }
+
+        @Override
+        public long getLastSampleTimestamp(@NonNull T item) {
+            Long timestamp = lastSampleTimestamps.get(item);
+            return timestamp != null ? timestamp : Long.MIN_VALUE;
+        }
+
+    }
+
+    private static final class CandidatesPrioritizer implements SampleQueue.Prioritizer<UUID> {
+
+        private final SeamlessCandidates candidates;
+
+        private long timestamp;
+
+        CandidatesPrioritizer(@NonNull SeamlessCandidates candidates) {
+            this.candidates = candidates;
+        }
+
+        @Override
+        public boolean isPriority(@NonNull UUID id) {
+            return candidates.isPriority(id, timestamp);
+        }
+
+        @Override
+        public long getLastSampleTimestamp(@NonNull UUID id) {
+            return candidates.getLastSampleTimestamp(id);
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SeamlessCandidatesTest {
+
+    private final UUID firstId = new UUID(0, 1);
+
+    private final UUID secondId = new UUID(0, 2);
+
+    private final UUID thirdId = new UUID(0, 3);
+
+    @Test
+    public void onDistanceSample_stationaryInRange_triggersOnce() {
+        SeamlessCandidates candidates = new SeamlessCandidates(1);
+
+        assertTrue(candidates.onDistanceSample(firstId, 0.5, 0));
+        for (int i = 1; i < 20; i++) {
+            assertFalse(candidates.onDistanceSample(firstId, 0.5, i * 100));
+        }
+        assertEquals(1, candidates.getTriggeredCount());
+    }
+
+    @Test
+    public void onDistanceSample_nearerCandidateExists_suppressed() {
+        SeamlessCandidates candidates = new SeamlessCandidates(1);
+
+        assertTrue(candidates.onDistanceSample(firstId, 0.3, 0));
+        assertFalse(candidates.onDistanceSample(secondId, 0.8, 10));
+
+        assertEquals(1, candidates.getSuppressedCount());
+        assertEquals(firstId, candidates.getNearestCandidate(10));
+    }
+
+    @Test
+    public void onDistanceSample_steppingOverToSuppressedNeighbour_triggersNeighbour() {
+        SeamlessCandidates candidates = new SeamlessCandidates(1);
+        assertTrue(candidates.onDistanceSample(firstId, 0.3, 0));
+        assertFalse(candidates.onDistanceSample(secondId, 0.8, 10));
+
+        boolean triggered = false;
+        long timestamp = 100;
+        for (int step = 1; step <= 20 && !triggered; step++) {
+            double progress = Math.min(1, step / 10d);
+            candidates.onDistanceSample(firstId, 0.3 + progress * 1.7, timestamp);
+            triggered = candidates.onDistanceSample(secondId, 0.8 - progress * 0.5, timestamp + 10);
+            timestamp += 200;
+        }
+
+        assertTrue(triggered);
+        assertEquals(2, candidates.getTriggeredCount());
+        assertEquals(secondId, candidates.getNearestCandidate(timestamp));
+    }
+
+    @Test
+    public void onDistanceSample_approachingWhileNearerCandidateOutOfRange_notSuppressed() {
+        SeamlessCandidates candidates = new SeamlessCandidates(1);
+        candidates.onDistanceSample(firstId, 1.2, 0);
+
+        double distance = 10;
+        long timestamp = 0;
+        boolean triggered = false;
+        while (!triggered && distance > 1.2) {
+            candidates.onDistanceSample(firstId, 1.2, timestamp);
+            triggered = candidates.onDistanceSample(secondId, distance, timestamp);
+            distance -= 0.15; // 1.5 m/s
+            timestamp += 100;
+        }
+
+        assertTrue(triggered);
+        assertEquals(firstId, candidates.getNearestCandidate(timestamp));
+        assertEquals(0, candidates.getSuppressedCount());
+    }
+
+    @Test
+    public void onDistanceSample_customRangeThreshold_usedInsteadOfDefault() {
+        SeamlessCandidates candidates = new SeamlessCandidates(1);
+        candidates.setRangeThreshold(firstId, 2);
+
+        assertFalse(candidates.onDistanceSample(secondId, 1.5, 0));
+        assertTrue(candidates.onDistanceSample(firstId, 1.5, 10));
+        assertEquals(firstId, candidates.getNearestCandidate(10));
+    }
+
+    @Test
+    public void getInRangeCandidates_mixedDistances_nearestFirstWithoutExpired() {
+        SeamlessCandidates candidates = new SeamlessCandidates(1);
+        candidates.onDistanceSample(thirdId, 0.2, 0);
+        candidates.onDistanceSample(firstId, 0.9, 6000);
+        candidates.onDistanceSample(secondId, 0.5, 6000);
+        candidates.onDistanceSample(new UUID(0, 4), 3, 6000);
+
+        assertEquals(Arrays.asList(secondId, firstId), candidates.getInRangeCandidates(6000));
+        assertEquals(secondId, candidates.getNearestCandidate(6000));
+        assertEquals(3, candidates.size());
+    }
+
+}
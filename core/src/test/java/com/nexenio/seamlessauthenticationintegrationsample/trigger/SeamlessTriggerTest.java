@@ -0,0 +1,81 @@
+package com.nexenio.seamlessauthenticationintegrationsample.trigger;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SeamlessTriggerTest {
+
+    @Test
+    public void onDistanceSample_stationaryOutOfRange_doesNotTrigger() {
+        SeamlessTrigger trigger = new SeamlessTrigger(1);
+        for (int i = 0; i < 20; i++) {
+            assertFalse(trigger.onDistanceSample(5, i * 100));
+        }
+        assertEquals(Long.MAX_VALUE, trigger.getTimeToThreshold());
+    }
+
+    @Test
+    public void onDistanceSample_stationaryInRange_triggersOnce() {
+        SeamlessTrigger trigger = new SeamlessTrigger(1);
+        assertTrue(trigger.onDistanceSample(0.5, 0));
+        for (int i = 1; i < 20; i++) {
+            assertFalse(trigger.onDistanceSample(0.5, i * 100));
+        }
+    }
+
+    @Test
+    public void onDistanceSample_approaching_triggersBeforeThreshold() {
+        SeamlessTrigger trigger = new SeamlessTrigger(1, 1000, SeamlessTrigger.DEFAULT_HYSTERESIS, 0.5, 0.3);
+        double distance = 10;
+        long timestamp = 0;
+        boolean triggered = false;
+        while (!triggered && distance > 0) {
+            triggered = trigger.onDistanceSample(distance, timestamp);
+            if (!triggered) {
+                distance -= 0.15; // 1.5 m/s
+                timestamp += 100;
+            }
+        }
+        assertTrue(triggered);
+        assertTrue("Triggered too late at " + distance, distance > 1);
+    }
+
+    @Test
+    public void onDistanceSample_singleOutlier_doesNotTrigger() {
+        SeamlessTrigger trigger = new SeamlessTrigger(1);
+        for (int i = 0; i < 10; i++) {
+            trigger.onDistanceSample(5, i * 100);
+        }
+        assertFalse(trigger.onDistanceSample(0.2, 1000));
+    }
+
+    @Test
+    public void onDistanceSample_afterLeavingBeyondHysteresis_rearms() {
+        SeamlessTrigger trigger = new SeamlessTrigger(1, 0, 0.5, 1, 0);
+        assertTrue(trigger.onDistanceSample(0.5, 0));
+        assertFalse(trigger.onDistanceSample(1.2, 100));
+        assertFalse(trigger.isArmed());
+        assertFalse(trigger.onDistanceSample(2, 200));
+        assertTrue(trigger.isArmed());
+        assertTrue(trigger.onDistanceSample(0.5, 300));
+    }
+
+    @Test
+    public void onDistanceSample_stationaryWithBurstySamples_doesNotTrigger() {
+        for (int seed = 0; seed < 100; seed++) {
+            Random random = new Random(seed);
+            SeamlessTrigger trigger = new SeamlessTrigger(1);
+            for (long timestamp = 0; timestamp < 30000; timestamp += 500) {
+                // pairs of samples 10 ms apart, with 0.1 m of noise
+                assertFalse("Triggered with seed " + seed + " at " + timestamp,
+                        trigger.onDistanceSample(2.5 + random.nextGaussian() * 0.1, timestamp));
+                assertFalse("Triggered with seed " + seed + " at " + (timestamp + 10),
+                        trigger.onDistanceSample(2.5 + random.nextGaussian() * 0.1, timestamp + 10));
+            }
+        }
+    }
+
+}